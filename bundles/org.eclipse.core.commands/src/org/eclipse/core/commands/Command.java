@@ -13,7 +13,10 @@ package org.eclipse.core.commands;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.core.commands.common.NotDefinedException;
 import org.eclipse.core.commands.util.Tracing;
@@ -125,6 +128,44 @@ public final class Command extends NamedHandleObjectWithState implements Compara
 	 */
 	private IHandlerListener handlerListener;
 
+	/**
+	 * Whether the handlers of a class are known to change their enablement only
+	 * by firing a {@link HandlerEvent}, by handler class.
+	 *
+	 * @since 3.7
+	 */
+	private static final Map<Class<?>, Boolean> cacheableHandlerTypes = new WeakHashMap<>();
+
+	/**
+	 * The command manager that batches the handler changes of this command,
+	 * or <code>null</code> if they are never batched.
+	 *
+	 * @since 3.7
+	 */
+	CommandManager manager;
+
+	/**
+	 * Incremented whenever the handler changes, or fires a
+	 * {@link HandlerEvent}. The cached enablement is valid while it was
+	 * computed for the current version.
+	 *
+	 * @since 3.7
+	 */
+	private transient int handlerVersion;
+
+	/**
+	 * The version of the handler {@link #cachedEnabled} and
+	 * {@link #cachedHandled} were computed for, or <code>-1</code> if they
+	 * are not valid.
+	 *
+	 * @since 3.7
+	 */
+	private transient int cachedVersion = -1;
+
+	private transient boolean cachedEnabled;
+
+	private transient boolean cachedHandled;
+
 	/**
 	 * Constructs a new instance of <code>Command</code> based on the given
 	 * identifier. When a command is first constructed, it is undefined.
@@ -512,12 +553,13 @@ public final class Command extends NamedHandleObjectWithState implements Compara
 
 	/**
 	 * Notifies the listeners for this command that it has changed in some way.
+	 * This is also called by the command manager, with the events it batched.
 	 *
 	 * @param commandEvent
 	 *            The event to send to all of the listener; must not be
 	 *            <code>null</code>.
 	 */
-	private final void fireCommandChanged(final CommandEvent commandEvent) {
+	final void fireCommandChanged(final CommandEvent commandEvent) {
 		if (commandEvent == null) {
 			throw new NullPointerException("Cannot fire a null event"); //$NON-NLS-1$
 		}
@@ -846,6 +888,9 @@ public final class Command extends NamedHandleObjectWithState implements Compara
 		if (handler == null) {
 			return false;
 		}
+		if (isEnablementCached()) {
+			return cachedEnabled;
+		}
 
 		try {
 			return handler.isEnabled();
@@ -887,10 +932,79 @@ public final class Command extends NamedHandleObjectWithState implements Compara
 		if (handler == null) {
 			return false;
 		}
+		if (isEnablementCached()) {
+			return cachedHandled;
+		}
 
 		return handler.isHandled();
 	}
 
+	/**
+	 * Makes sure {@link #cachedEnabled} and {@link #cachedHandled} are valid
+	 * for the current handler, if its enablement can be cached.
+	 * <p>
+	 * The enablement of a handler is only cached if it cannot change without
+	 * the handler firing a {@link HandlerEvent}, as is the case for an
+	 * {@link AbstractHandler} that inherits <code>isEnabled()</code> and
+	 * <code>isHandled()</code>. Other handlers are asked every time, since
+	 * they may compute their enablement from state the command cannot watch.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the cached enablement is valid;
+	 *         <code>false</code> if the handler must be asked
+	 * @since 3.7
+	 */
+	private boolean isEnablementCached() {
+		if (cachedVersion == handlerVersion) {
+			return true;
+		}
+		if (!isCacheable(handler.getClass())) {
+			return false;
+		}
+		final int version = handlerVersion;
+		cachedEnabled = handler.isEnabled();
+		cachedHandled = handler.isHandled();
+		cachedVersion = version;
+		return true;
+	}
+
+	/**
+	 * @return <code>true</code> if the enablement of handlers of the given
+	 *         class only changes with a {@link HandlerEvent}
+	 * @since 3.7
+	 */
+	private static boolean isCacheable(final Class<?> handlerType) {
+		synchronized (cacheableHandlerTypes) {
+			Boolean cacheable = cacheableHandlerTypes.get(handlerType);
+			if (cacheable == null) {
+				cacheable = Boolean.FALSE;
+				if (AbstractHandler.class.isAssignableFrom(handlerType)) {
+					try {
+						final Method isEnabled = handlerType.getMethod("isEnabled"); //$NON-NLS-1$
+						final Method isHandled = handlerType.getMethod("isHandled"); //$NON-NLS-1$
+						cacheable = Boolean.valueOf(isEnabled.getDeclaringClass() == AbstractHandler.class
+								&& isHandled.getDeclaringClass() == AbstractHandler.class);
+					} catch (NoSuchMethodException e) {
+						// cannot happen for an IHandler
+					} catch (SecurityException e) {
+						// ask the handler every time
+					}
+				}
+				cacheableHandlerTypes.put(handlerType, cacheable);
+			}
+			return cacheable.booleanValue();
+		}
+	}
+
+	/**
+	 * Forgets the cached enablement of the handler.
+	 *
+	 * @since 3.7
+	 */
+	private void invalidateEnablement() {
+		handlerVersion = (handlerVersion + 1) & Integer.MAX_VALUE;
+	}
+
 	/**
 	 * Removes a listener from this command.
 	 *
@@ -987,6 +1101,7 @@ public final class Command extends NamedHandleObjectWithState implements Compara
 		if (this.handler != null) {
 			this.handler.addHandlerListener(getHandlerListener());
 		}
+		invalidateEnablement();
 		string = null;
 
 		// Debugging output
@@ -1005,12 +1120,31 @@ public final class Command extends NamedHandleObjectWithState implements Compara
 		}
 
 		// Send notification
-		fireCommandChanged(new CommandEvent(this, false, false, false, true,
-				false, false, false, false, enabled != isEnabled()));
+		fireHandlerChanged(true, enabled != isEnabled());
 
 		return true;
 	}
 
+	/**
+	 * Notifies the listeners that the handler, or its enablement, has changed.
+	 * While the command manager defers updates, the notification is batched
+	 * with the other handler changes of this command.
+	 *
+	 * @param handledChanged
+	 *            whether the handled state may have changed
+	 * @param enabledChanged
+	 *            whether the enabled state may have changed
+	 * @since 3.7
+	 */
+	private void fireHandlerChanged(final boolean handledChanged, final boolean enabledChanged) {
+		final CommandEvent commandEvent = new CommandEvent(this, false, false,
+				false, handledChanged, false, false, false, false,
+				enabledChanged);
+		if (manager == null || !manager.deferCommandChanged(commandEvent)) {
+			fireCommandChanged(commandEvent);
+		}
+	}
+
 	/**
 	 * @return the handler listener
 	 */
@@ -1019,11 +1153,10 @@ public final class Command extends NamedHandleObjectWithState implements Compara
 			handlerListener = new IHandlerListener() {
 				@Override
 				public void handlerChanged(HandlerEvent handlerEvent) {
+					invalidateEnablement();
 					boolean enabledChanged = handlerEvent.isEnabledChanged();
 					boolean handledChanged = handlerEvent.isHandledChanged();
-					fireCommandChanged(new CommandEvent(Command.this, false,
-							false, false, handledChanged, false, false, false,
-							false, enabledChanged));
+					fireHandlerChanged(handledChanged, enabledChanged);
 				}
 			};
 		}
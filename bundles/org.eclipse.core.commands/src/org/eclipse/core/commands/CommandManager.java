@@ -15,6 +15,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
@@ -137,6 +138,109 @@ public final class CommandManager extends HandleObjectManager implements
 		}
 	}
 
+	/**
+	 * Reads the parts of a serialized parameterized command in a single pass,
+	 * unescaping them as it goes. Parts without escaped characters are taken
+	 * from the serialized string as they are.
+	 *
+	 * @since 3.7
+	 */
+	private static final class SerializedCommandReader {
+
+		private final String text;
+
+		/**
+		 * The index after the last character to read.
+		 */
+		private int end;
+
+		/**
+		 * The index of the next character to read.
+		 */
+		private int position;
+
+		/**
+		 * The buffer for parts with escaped characters, or <code>null</code>
+		 * if no part had any yet.
+		 */
+		private StringBuilder buffer;
+
+		private SerializedCommandReader(final String text) {
+			this.text = text;
+			this.end = text.length();
+		}
+
+		/**
+		 * @return <code>true</code> if the next character is the given one
+		 */
+		private boolean at(final char ch) {
+			return position < end && text.charAt(position) == ch;
+		}
+
+		/**
+		 * Reads up to the next unescaped stop character, or up to the end.
+		 * The position is left on the stop character.
+		 *
+		 * @param stop
+		 *            a character that ends the part
+		 * @param otherStop
+		 *            another character that ends the part
+		 * @return the part, with escaped characters replaced by their literal
+		 *         values
+		 * @throws SerializationException
+		 *             if the part contains an invalid escape sequence
+		 */
+		private String read(final char stop, final char otherStop)
+				throws SerializationException {
+			final int start = position;
+			boolean escaped = false;
+			for (; position < end; position++) {
+				char c = text.charAt(position);
+				if (c == stop || c == otherStop) {
+					break;
+				}
+				if (c == ESCAPE_CHAR) {
+					if (!escaped) {
+						if (buffer == null) {
+							buffer = new StringBuilder();
+						}
+						buffer.setLength(0);
+						buffer.append(text, start, position);
+						escaped = true;
+					}
+					if (++position == end) {
+						throw new SerializationException(
+								"Unexpected termination of escape sequence"); //$NON-NLS-1$
+					}
+					c = text.charAt(position);
+					switch (c) {
+					case PARAMETER_START_CHAR:
+					case PARAMETER_END_CHAR:
+					case ID_VALUE_CHAR:
+					case PARAMETER_SEPARATOR_CHAR:
+					case ESCAPE_CHAR:
+						break;
+					default:
+						throw new SerializationException(
+								"Invalid character '" + c + "' in escape sequence"); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				}
+				if (escaped) {
+					buffer.append(c);
+				}
+			}
+			return escaped ? buffer.toString() : text.substring(start, position);
+		}
+	}
+
+	/**
+	 * The maximum number of parameterized commands that are kept by
+	 * {@link #deserialize(String)}.
+	 *
+	 * @since 3.7
+	 */
+	private static final int DESERIALIZED_COMMANDS_CACHE_SIZE = 4096;
+
 	/**
 	 * The identifier of the category in which all auto-generated commands will
 	 * appear. This value must never be <code>null</code>.
@@ -171,75 +275,6 @@ public final class CommandManager extends HandleObjectManager implements
 	 */
 	static final char PARAMETER_START_CHAR = '(';
 
-	/**
-	 * Unescapes special characters in the command id, parameter ids and
-	 * parameter values for {@link #deserialize(String)}. The special characters
-	 * {@link #PARAMETER_START_CHAR}, {@link #PARAMETER_END_CHAR},
-	 * {@link #ID_VALUE_CHAR}, {@link #PARAMETER_SEPARATOR_CHAR} and
-	 * {@link #ESCAPE_CHAR} are escaped by prepending an {@link #ESCAPE_CHAR}
-	 * character.
-	 * <p>
-	 * See also ParameterizedCommand.escape(String)
-	 * </p>
-	 *
-	 * @param escapedText
-	 *            a <code>String</code> that may contain escaped special
-	 *            characters for command serialization.
-	 * @return a <code>String</code> representing <code>escapedText</code>
-	 *         with any escaped characters replaced by their literal values
-	 * @throws SerializationException
-	 *             if <code>escapedText</code> contains an invalid escape
-	 *             sequence
-	 * @since 3.2
-	 */
-	private static final String unescape(final String escapedText)
-			throws SerializationException {
-
-		// defer initialization of a StringBuffer until we know we need one
-		StringBuffer buffer = null;
-
-		for (int i = 0; i < escapedText.length(); i++) {
-
-			char c = escapedText.charAt(i);
-			if (c != ESCAPE_CHAR) {
-				// normal unescaped character
-				if (buffer != null) {
-					buffer.append(c);
-				}
-			} else {
-				if (buffer == null) {
-					buffer = new StringBuffer(escapedText.substring(0, i));
-				}
-
-				if (++i < escapedText.length()) {
-					c = escapedText.charAt(i);
-					switch (c) {
-					case PARAMETER_START_CHAR:
-					case PARAMETER_END_CHAR:
-					case ID_VALUE_CHAR:
-					case PARAMETER_SEPARATOR_CHAR:
-					case ESCAPE_CHAR:
-						buffer.append(c);
-						break;
-					default:
-						throw new SerializationException(
-								"Invalid character '" + c + "' in escape sequence"); //$NON-NLS-1$ //$NON-NLS-2$
-					}
-				} else {
-					throw new SerializationException(
-							"Unexpected termination of escape sequence"); //$NON-NLS-1$
-				}
-			}
-
-		}
-
-		if (buffer == null) {
-			return escapedText;
-		}
-
-		return buffer.toString();
-	}
-
 	/**
 	 * The map of category identifiers (<code>String</code>) to categories (
 	 * <code>Category</code>). This collection may be empty, but it is never
@@ -247,6 +282,25 @@ public final class CommandManager extends HandleObjectManager implements
 	 */
 	private final Map<String, Category> categoriesById = new HashMap<>();
 
+	/**
+	 * The parameterized commands returned by {@link #deserialize(String)},
+	 * by their serialized form, least recently used first. This is cleared
+	 * whenever the definition of a command changes. Access is synchronized on
+	 * the map.
+	 *
+	 * @since 3.7
+	 */
+	private final Map<String, ParameterizedCommand> deserializedCommands = new LinkedHashMap<String, ParameterizedCommand>(
+			16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ParameterizedCommand> eldest) {
+			return size() > DESERIALIZED_COMMANDS_CACHE_SIZE;
+		}
+	};
+
 	/**
 	 * The set of identifiers for those categories that are defined. This value
 	 * may be empty, but it is never <code>null</code>.
@@ -270,6 +324,22 @@ public final class CommandManager extends HandleObjectManager implements
 
 	private boolean shouldCommandFireEvents = true;
 
+	/**
+	 * The number of nested calls to <code>deferUpdates(true)</code> that are
+	 * not matched by a call to <code>deferUpdates(false)</code> yet.
+	 *
+	 * @since 3.7
+	 */
+	private int deferCount;
+
+	/**
+	 * The handler changes of commands that were deferred, in the order in
+	 * which the commands first changed, merged into one event per command.
+	 *
+	 * @since 3.7
+	 */
+	private final Map<Command, CommandEvent> deferredEvents = new LinkedHashMap<>();
+
 	/**
 	 * The collection of execution listeners. This collection is
 	 * <code>null</code> if there are no listeners.
@@ -367,6 +437,12 @@ public final class CommandManager extends HandleObjectManager implements
 	 */
 	@Override
 	public final void commandChanged(final CommandEvent commandEvent) {
+		if (commandEvent.isDefinedChanged() || commandEvent.isNameChanged()
+				|| commandEvent.isParametersChanged()) {
+			synchronized (deserializedCommands) {
+				deserializedCommands.clear();
+			}
+		}
 		if (commandEvent.isDefinedChanged()) {
 			final Command command = commandEvent.getCommand();
 			final String commandId = command.getId();
@@ -383,6 +459,71 @@ public final class CommandManager extends HandleObjectManager implements
 		}
 	}
 
+	/**
+	 * Informs the manager that a batch operation has started, or ended. While
+	 * updates are deferred, the commands of this manager do not notify their
+	 * listeners when their handlers change, or their handlers fire
+	 * {@link HandlerEvent}s. When the batch ends, each command that changed
+	 * sends one event, which merges all of its changes.
+	 * <p>
+	 * <b>Note:</b> You must insure that if you call
+	 * <code>deferUpdates(true)</code> that nothing in your batched operation
+	 * will prevent the matching call to <code>deferUpdates(false)</code>.
+	 * </p>
+	 *
+	 * @param defer
+	 *            true when starting a batch operation false when ending the
+	 *            operation
+	 *
+	 * @since 3.7
+	 */
+	public final void deferUpdates(final boolean defer) {
+		if (defer) {
+			deferCount++;
+			return;
+		}
+		if (deferCount == 0 || --deferCount > 0) {
+			return;
+		}
+		while (!deferredEvents.isEmpty()) {
+			// listeners may change handlers again
+			final CommandEvent[] events = deferredEvents.values().toArray(
+					new CommandEvent[deferredEvents.size()]);
+			deferredEvents.clear();
+			for (final CommandEvent event : events) {
+				event.getCommand().fireCommandChanged(event);
+			}
+		}
+	}
+
+	/**
+	 * Holds a change of the handler of a command back, if updates are
+	 * deferred.
+	 *
+	 * @param commandEvent
+	 *            the event for the handler change; must not be
+	 *            <code>null</code>
+	 * @return <code>true</code> if the event is deferred; <code>false</code>
+	 *         if it should be fired now
+	 * @since 3.7
+	 */
+	final boolean deferCommandChanged(final CommandEvent commandEvent) {
+		if (deferCount == 0) {
+			return false;
+		}
+		final Command command = commandEvent.getCommand();
+		final CommandEvent previous = deferredEvents.get(command);
+		if (previous == null) {
+			deferredEvents.put(command, commandEvent);
+		} else {
+			deferredEvents.put(command, new CommandEvent(command, false, false,
+					false, previous.isHandledChanged() || commandEvent.isHandledChanged(),
+					false, false, false, false,
+					previous.isEnabledChanged() || commandEvent.isEnabledChanged()));
+		}
+		return true;
+	}
+
 	/**
 	 * Sets the name and description of the category for uncategorized commands.
 	 * This is the category that will be returned if
@@ -446,37 +587,41 @@ public final class CommandManager extends HandleObjectManager implements
 			final String serializedParameterizedCommand)
 			throws NotDefinedException, SerializationException {
 
-		final int lparenPosition = unescapedIndexOf(
-				serializedParameterizedCommand, PARAMETER_START_CHAR);
-
-		final String commandIdEscaped;
-		final String serializedParameters;
-		if (lparenPosition == -1) {
-			commandIdEscaped = serializedParameterizedCommand;
-			serializedParameters = null;
-		} else {
-			commandIdEscaped = serializedParameterizedCommand.substring(0,
-					lparenPosition);
+		ParameterizedCommand parameterizedCommand;
+		synchronized (deserializedCommands) {
+			parameterizedCommand = deserializedCommands.get(serializedParameterizedCommand);
+		}
+		if (parameterizedCommand != null) {
+			return parameterizedCommand;
+		}
 
+		final SerializedCommandReader reader = new SerializedCommandReader(
+				serializedParameterizedCommand);
+		final String commandId = reader.read(PARAMETER_START_CHAR,
+				PARAMETER_START_CHAR);
+		final boolean hasParameters = reader.at(PARAMETER_START_CHAR);
+		if (hasParameters) {
 			if (serializedParameterizedCommand
 					.charAt(serializedParameterizedCommand.length() - 1) != PARAMETER_END_CHAR) {
 				throw new SerializationException(
 						"Parentheses must be balanced in serialized ParameterizedCommand"); //$NON-NLS-1$
 			}
-
-			serializedParameters = serializedParameterizedCommand.substring(
-					lparenPosition + 1, // skip PARAMETER_START_CHAR
-					serializedParameterizedCommand.length() - 1); // skip
-			// PARAMETER_END_CHAR
+			reader.position++; // skip PARAMETER_START_CHAR
+			reader.end--; // skip PARAMETER_END_CHAR
 		}
 
-		final String commandId = unescape(commandIdEscaped);
 		final Command command = getCommand(commandId);
 		final IParameter[] parameters = command.getParameters();
-		final Parameterization[] parameterizations = getParameterizations(
-				serializedParameters, parameters);
-
-		return new ParameterizedCommand(command, parameterizations);
+		final Parameterization[] parameterizations = hasParameters ? getParameterizations(
+				reader, parameters) : null;
+
+		parameterizedCommand = new ParameterizedCommand(command,
+				parameterizations);
+		synchronized (deserializedCommands) {
+			deserializedCommands.put(serializedParameterizedCommand,
+					parameterizedCommand);
+		}
+		return parameterizedCommand;
 	}
 
 	/**
@@ -557,6 +702,7 @@ public final class CommandManager extends HandleObjectManager implements
 		if (command == null) {
 			command = new Command(commandId);
 			command.shouldFireEvents = shouldCommandFireEvents;
+			command.manager = this;
 			handleObjectsById.put(commandId, command);
 			command.addCommandListener(this);
 
@@ -689,11 +835,12 @@ public final class CommandManager extends HandleObjectManager implements
 
 	/**
 	 * Returns an array of parameterizations for the provided command by
-	 * deriving the parameter ids and values from the provided
-	 * <code>serializedParameters</code> string.
+	 * reading the parameter ids and values that are left in the
+	 * <code>reader</code>.
 	 *
-	 * @param serializedParameters
-	 *            a String encoding parameter ids and values; must not be
+	 * @param reader
+	 *            the reader positioned after the start of the parameters, and
+	 *            ending before the end of the parameters; must not be
 	 *            <code>null</code>.
 	 * @param parameters
 	 *            array of parameters of the command being deserialized; may be
@@ -703,10 +850,11 @@ public final class CommandManager extends HandleObjectManager implements
 	 *             if there is an error deserializing the parameters
 	 * @since 3.2
 	 */
-	private final Parameterization[] getParameterizations(String serializedParameters, final IParameter[] parameters)
+	private final Parameterization[] getParameterizations(
+			final SerializedCommandReader reader, final IParameter[] parameters)
 			throws SerializationException {
 
-		if (serializedParameters == null || (serializedParameters.length() == 0)) {
+		if (reader.position == reader.end) {
 			return null;
 		}
 
@@ -716,33 +864,16 @@ public final class CommandManager extends HandleObjectManager implements
 
 		final ArrayList<Parameterization> paramList = new ArrayList<>();
 
-		int commaPosition; // split off each param by looking for ','
-		do {
-			commaPosition = unescapedIndexOf(serializedParameters, ',');
+		while (true) {
+			final String parameterId = reader.read(PARAMETER_SEPARATOR_CHAR,
+					ID_VALUE_CHAR);
 
-			final String idEqualsValue;
-			if (commaPosition == -1) {
-				// no more parameters after this
-				idEqualsValue = serializedParameters;
-			} else {
-				// take the first parameter...
-				idEqualsValue = serializedParameters.substring(0, commaPosition);
-
-				// ... and put the rest back into serializedParameters
-				serializedParameters = serializedParameters.substring(commaPosition + 1);
-			}
-
-			final int equalsPosition = unescapedIndexOf(idEqualsValue, '=');
-
-			final String parameterId;
-			final String parameterValue;
-			if (equalsPosition == -1) {
-				// missing values are null
-				parameterId = unescape(idEqualsValue);
-				parameterValue = null;
-			} else {
-				parameterId = unescape(idEqualsValue.substring(0, equalsPosition));
-				parameterValue = unescape(idEqualsValue.substring(equalsPosition + 1));
+			// missing values are null
+			String parameterValue = null;
+			if (reader.at(ID_VALUE_CHAR)) {
+				reader.position++;
+				parameterValue = reader.read(PARAMETER_SEPARATOR_CHAR,
+						PARAMETER_SEPARATOR_CHAR);
 			}
 
 			for (int i = 0; i < parameters.length; i++) {
@@ -753,7 +884,11 @@ public final class CommandManager extends HandleObjectManager implements
 				}
 			}
 
-		} while (commaPosition != -1);
+			if (!reader.at(PARAMETER_SEPARATOR_CHAR)) {
+				break;
+			}
+			reader.position++;
+		}
 
 		return paramList.toArray(new Parameterization[paramList.size()]);
 	}
@@ -849,7 +984,8 @@ public final class CommandManager extends HandleObjectManager implements
 	 * Block updates all of the handlers for all of the commands. If the handler
 	 * is <code>null</code> or the command id does not exist in the map, then
 	 * the command becomes unhandled. Otherwise, the handler is set to the
-	 * corresponding value in the map.
+	 * corresponding value in the map. Each command whose handler changes
+	 * notifies its listeners once, after all the handlers are set.
 	 *
 	 * @param handlersByCommandId
 	 *            A map of command identifiers (<code>String</code>) to
@@ -866,16 +1002,21 @@ public final class CommandManager extends HandleObjectManager implements
 		}
 
 		// Now, set-up the handlers on all of the existing commands.
-		final Iterator<NamedHandleObject> commandItr = handleObjectsById.values().iterator();
-		while (commandItr.hasNext()) {
-			final Command command = (Command) commandItr.next();
-			final String commandId = command.getId();
-			final Object value = handlersByCommandId.get(commandId);
-			if (value instanceof IHandler) {
-				command.setHandler((IHandler) value);
-			} else {
-				command.setHandler(null);
+		deferUpdates(true);
+		try {
+			final Iterator<NamedHandleObject> commandItr = handleObjectsById.values().iterator();
+			while (commandItr.hasNext()) {
+				final Command command = (Command) commandItr.next();
+				final String commandId = command.getId();
+				final Object value = handlersByCommandId.get(commandId);
+				if (value instanceof IHandler) {
+					command.setHandler((IHandler) value);
+				} else {
+					command.setHandler(null);
+				}
 			}
+		} finally {
+			deferUpdates(false);
 		}
 	}
 
@@ -902,45 +1043,6 @@ public final class CommandManager extends HandleObjectManager implements
 		}
 	}
 
-	/**
-	 * Searches for the index of a <code>char</code> in a <code>String</code>
-	 * but disregards characters prefixed with the {@link #ESCAPE_CHAR} escape
-	 * character. This is used by {@link #deserialize(String)} and
-	 * {@link #getParameterizations(String, IParameter[])} to parse the
-	 * serialized parameterized command string.
-	 *
-	 * @param escapedText
-	 *            the string to search for the index of <code>ch</code> in
-	 * @param ch
-	 *            a character to search for in <code>escapedText</code>
-	 * @return the index of the first unescaped occurrence of the character in
-	 *         <code>escapedText</code>, or <code>-1</code> if the
-	 *         character does not occur unescaped.
-	 * @see String#indexOf(int)
-	 */
-	private final int unescapedIndexOf(final String escapedText, final char ch) {
-
-		int pos = escapedText.indexOf(ch);
-
-		// first char can't be escaped
-		if (pos == 0) {
-			return pos;
-		}
-
-		while (pos != -1) {
-			// look back for the escape character
-			if (escapedText.charAt(pos - 1) != ESCAPE_CHAR) {
-				return pos;
-			}
-
-			// scan for the next instance of ch
-			pos = escapedText.indexOf(ch, pos + 1);
-		}
-
-		return pos;
-
-	}
-
 	/**
 	 * Fires the <code>notEnabled</code> event for
 	 * <code>executionListeners</code>.
@@ -84,55 +84,39 @@ public final class ParameterizedCommand implements Comparable {
 	public static final int INDEX_PARAMETER_VALUE_VALUE = 3;
 
 	/**
-	 * Escapes special characters in the command id, parameter ids and parameter
-	 * values for {@link #serialize()}. The special characters
-	 * {@link CommandManager#PARAMETER_START_CHAR},
+	 * Appends the command id, parameter id or parameter value to the buffer
+	 * for {@link #serialize()}, with its special characters escaped. The
+	 * special characters {@link CommandManager#PARAMETER_START_CHAR},
 	 * {@link CommandManager#PARAMETER_END_CHAR},
 	 * {@link CommandManager#ID_VALUE_CHAR},
 	 * {@link CommandManager#PARAMETER_SEPARATOR_CHAR} and
 	 * {@link CommandManager#ESCAPE_CHAR} are escaped by prepending a
 	 * {@link CommandManager#ESCAPE_CHAR} character.
 	 *
+	 * @param buffer
+	 *            the buffer to append to; must not be <code>null</code>.
 	 * @param rawText
 	 *            a <code>String</code> to escape special characters in for
 	 *            serialization.
-	 * @return a <code>String</code> representing <code>rawText</code> with
-	 *         special serialization characters escaped
-	 * @since 3.2
+	 * @since 3.7
 	 */
-	private static final String escape(final String rawText) {
-
-		// defer initialization of a StringBuffer until we know we need one
-		StringBuffer buffer = null;
-
+	private static final void appendEscaped(final StringBuilder buffer,
+			final String rawText) {
 		for (int i = 0; i < rawText.length(); i++) {
-
-			char c = rawText.charAt(i);
+			final char c = rawText.charAt(i);
 			switch (c) {
 			case CommandManager.PARAMETER_START_CHAR:
 			case CommandManager.PARAMETER_END_CHAR:
 			case CommandManager.ID_VALUE_CHAR:
 			case CommandManager.PARAMETER_SEPARATOR_CHAR:
 			case CommandManager.ESCAPE_CHAR:
-				if (buffer == null) {
-					buffer = new StringBuffer(rawText.substring(0, i));
-				}
 				buffer.append(CommandManager.ESCAPE_CHAR);
-				buffer.append(c);
 				break;
 			default:
-				if (buffer != null) {
-					buffer.append(c);
-				}
 				break;
 			}
-
-		}
-
-		if (buffer == null) {
-			return rawText;
+			buffer.append(c);
 		}
-		return buffer.toString();
 	}
 
 	/**
@@ -354,6 +338,13 @@ public final class ParameterizedCommand implements Comparable {
 
 	private String name;
 
+	/**
+	 * The serialized form of this command, computed lazily.
+	 *
+	 * @since 3.7
+	 */
+	private transient String serialized;
+
 	/**
 	 * Constructs a new instance of <code>ParameterizedCommand</code> with
 	 * specific values for zero or more of its parameters.
@@ -655,13 +646,18 @@ public final class ParameterizedCommand implements Comparable {
 	 * @since 3.2
 	 */
 	public final String serialize() {
-		final String escapedId = escape(getId());
+		if (serialized != null) {
+			return serialized;
+		}
+
+		final StringBuilder buffer = new StringBuilder();
+		appendEscaped(buffer, getId());
 
 		if ((parameterizations == null) || (parameterizations.length == 0)) {
-			return escapedId;
+			serialized = buffer.toString();
+			return serialized;
 		}
 
-		final StringBuffer buffer = new StringBuffer(escapedId);
 		buffer.append(CommandManager.PARAMETER_START_CHAR);
 
 		for (int i = 0; i < parameterizations.length; i++) {
@@ -673,21 +669,19 @@ public final class ParameterizedCommand implements Comparable {
 
 			final Parameterization parameterization = parameterizations[i];
 			final String parameterId = parameterization.getParameter().getId();
-			final String escapedParameterId = escape(parameterId);
-
-			buffer.append(escapedParameterId);
+			appendEscaped(buffer, parameterId);
 
 			final String parameterValue = parameterization.getValue();
 			if (parameterValue != null) {
-				final String escapedParameterValue = escape(parameterValue);
 				buffer.append(CommandManager.ID_VALUE_CHAR);
-				buffer.append(escapedParameterValue);
+				appendEscaped(buffer, parameterValue);
 			}
 		}
 
 		buffer.append(CommandManager.PARAMETER_END_CHAR);
 
-		return buffer.toString();
+		serialized = buffer.toString();
+		return serialized;
 	}
 
 	@Override
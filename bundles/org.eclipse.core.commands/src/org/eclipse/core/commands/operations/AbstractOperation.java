@@ -36,6 +36,12 @@ import org.eclipse.core.runtime.IStatus;
 public abstract class AbstractOperation implements IUndoableOperation {
 	List<IUndoContext> contexts = new ArrayList<>();
 
+	/**
+	 * The history list this operation is in, which is told when the contexts
+	 * change.
+	 */
+	OperationList owner;
+
 	private String label = ""; //$NON-NLS-1$
 
 	/**
@@ -61,6 +67,7 @@ public abstract class AbstractOperation implements IUndoableOperation {
 	public void addContext(IUndoContext context) {
 		if (!contexts.contains(context)) {
 			contexts.add(context);
+			contextsChanged();
 		}
 	}
 
@@ -189,7 +196,19 @@ public abstract class AbstractOperation implements IUndoableOperation {
 
 	@Override
 	public void removeContext(IUndoContext context) {
-		contexts.remove(context);
+		if (contexts.remove(context)) {
+			contextsChanged();
+		}
+	}
+
+	/*
+	 * Tell the history this operation is in that the contexts have changed.
+	 */
+	void contextsChanged() {
+		OperationList list = owner;
+		if (list != null) {
+			list.operationChanged(this);
+		}
 	}
 
 	/*
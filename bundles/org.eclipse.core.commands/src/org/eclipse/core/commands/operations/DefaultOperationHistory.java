@@ -12,10 +12,16 @@
  *******************************************************************************/
 package org.eclipse.core.commands.operations;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +56,28 @@ import org.eclipse.core.runtime.Status;
  * its undo contexts.
  * </p>
  * <p>
+ * The undo and redo history keep an index of the operations of each undo
+ * context, so that looking up the next operation of a context, enforcing its
+ * limit, or getting its history does not depend on how many operations other
+ * contexts have. The index is only used while the history holds
+ * {@link AbstractOperation}s with {@link UndoContext}s and
+ * {@link ObjectUndoContext}s, whose changes it is told about.
+ * </p>
+ * <p>
+ * An operation is at most once in the undo history and at most once in the
+ * redo history. Since 3.7, adding an operation that is already in the undo
+ * history moves it to the top of the undo history instead of adding it a
+ * second time.
+ * </p>
+ * <p>
+ * Besides the limits on the number of operations per undo context, the history
+ * can be limited in the memory its operations retain, as reported by
+ * {@link IRetainedStateOperation}s. When the limit is exceeded, the state of
+ * the oldest operations is first saved to a state store, if one has been set,
+ * and the oldest operations are removed after that. Operations that implement
+ * {@link ICoalescingOperation} may absorb the operations added after them.
+ * </p>
+ * <p>
  * The data structures used by the DefaultOperationHistory are synchronized, and
  * entry points that modify the undo and redo history concurrently are also
  * synchronized. This means that the DefaultOperationHistory is relatively
@@ -126,21 +154,53 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	ListenerList listeners = new ListenerList(ListenerList.IDENTITY);
 
+	/**
+	 * a lock that is used to synchronize access between the undo and redo
+	 * history
+	 */
+	final Object undoRedoHistoryLock = new Object();
+
 	/**
 	 * the list of operations available for redo, LIFO
 	 */
-	private List<IUndoableOperation> redoList = Collections.synchronizedList(new ArrayList<IUndoableOperation>());
+	private OperationList redoList = new OperationList(undoRedoHistoryLock);
 
 	/**
 	 * the list of operations available for undo, LIFO
 	 */
-	private List<IUndoableOperation> undoList = Collections.synchronizedList(new ArrayList<IUndoableOperation>());
+	private OperationList undoList = new OperationList(undoRedoHistoryLock);
 
 	/**
-	 * a lock that is used to synchronize access between the undo and redo
-	 * history
+	 * the number of bytes the operations in the undo and redo history may
+	 * retain, or 0 if there is no limit
 	 */
-	final Object undoRedoHistoryLock = new Object();
+	private long memoryLimit;
+
+	/**
+	 * the directory that the state of old operations is saved to, or
+	 * <code>null</code> if the state is not saved
+	 */
+	private File stateStore;
+
+	/**
+	 * the files that operations in the history have saved their state to,
+	 * guarded by the undoRedoHistoryLock
+	 */
+	private Map<IUndoableOperation, File> savedStates = new HashMap<>();
+
+	/**
+	 * the operations that are being undone or redone, guarded by the
+	 * undoRedoHistoryLock. Their state is neither saved nor are they removed
+	 * to meet the memory limit.
+	 */
+	private List<IUndoableOperation> executingOperations = new ArrayList<>();
+
+	/**
+	 * the operations whose state is being saved outside of the
+	 * undoRedoHistoryLock, guarded by the undoRedoHistoryLock. They are neither
+	 * removed nor coalesced, and an undo or redo waits for the save to finish.
+	 */
+	private List<IUndoableOperation> savingOperations = new ArrayList<>();
 
 	/**
 	 * An operation that is "absorbing" all other operations while it is open.
@@ -186,10 +246,15 @@ public final class DefaultOperationHistory implements IOperationHistory {
 			}
 		}
 
+		if (coalesce(operation)) {
+			return;
+		}
+
 		if (checkUndoLimit(operation)) {
 			synchronized (undoRedoHistoryLock) {
 				undoList.add(operation);
 			}
+			forceMemoryLimit(operation);
 			notifyAdd(operation);
 
 			// flush redo stack for related contexts
@@ -317,6 +382,33 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		return operation.getContexts().length > 0;
 	}
 
+	/*
+	 * Offer the operation to the most recent operation in the undo history.
+	 * Return a boolean indicating whether it was absorbed.
+	 */
+	private boolean coalesce(IUndoableOperation operation) {
+		IUndoableOperation previous;
+		synchronized (undoRedoHistoryLock) {
+			previous = undoList.getLast();
+			if (!(previous instanceof ICoalescingOperation) || previous == operation
+					|| savedStates.containsKey(previous)
+					|| savingOperations.contains(previous)
+					|| !((ICoalescingOperation) previous).coalesce(operation)) {
+				return false;
+			}
+			undoList.refreshSize(previous);
+		}
+		forceMemoryLimit(previous);
+		notifyChanged(previous);
+
+		// flush redo stack for the contexts of the absorbed operation
+		IUndoContext[] contexts = operation.getContexts();
+		for (int i = 0; i < contexts.length; i++) {
+			flushRedo(contexts[i]);
+		}
+		return true;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -353,56 +445,67 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private IStatus doRedo(IProgressMonitor monitor, IAdaptable info, IUndoableOperation operation)
 			throws ExecutionException {
-
-		IStatus status = getRedoApproval(operation, info);
-		if (status.isOK()) {
-			notifyAboutToRedo(operation);
-			try {
-				status = operation.redo(monitor, info);
-			} catch (OperationCanceledException e) {
-				status = Status.CANCEL_STATUS;
-			} catch (ExecutionException e) {
-				notifyNotOK(operation);
-				if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
-					Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
-							"ExecutionException while redoing " + operation); //$NON-NLS-1$
-				}
-				throw e;
-			} catch (Exception e) {
-				notifyNotOK(operation);
-				if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
-					Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
-							"Exception while redoing " + operation); //$NON-NLS-1$
+		synchronized (undoRedoHistoryLock) {
+			executingOperations.add(operation);
+		}
+		try {
+			restoreState(operation);
+			IStatus status = getRedoApproval(operation, info);
+			if (status.isOK()) {
+				notifyAboutToRedo(operation);
+				try {
+					status = operation.redo(monitor, info);
+				} catch (OperationCanceledException e) {
+					status = Status.CANCEL_STATUS;
+				} catch (ExecutionException e) {
+					notifyNotOK(operation);
+					if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
+						Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
+								"ExecutionException while redoing " + operation); //$NON-NLS-1$
+					}
+					throw e;
+				} catch (Exception e) {
+					notifyNotOK(operation);
+					if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
+						Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
+								"Exception while redoing " + operation); //$NON-NLS-1$
+					}
+					throw new ExecutionException("While redoing the operation, an exception occurred", e); //$NON-NLS-1$
 				}
-				throw new ExecutionException("While redoing the operation, an exception occurred", e); //$NON-NLS-1$
 			}
-		}
 
-		// if successful, the operation is removed from the redo history and
-		// placed back in the undo history.
-		if (status.isOK()) {
-			boolean addedToUndo = true;
-			synchronized (undoRedoHistoryLock) {
-				redoList.remove(operation);
-				if (checkUndoLimit(operation)) {
-					undoList.add(operation);
+			// if successful, the operation is removed from the redo history and
+			// placed back in the undo history.
+			if (status.isOK()) {
+				boolean addedToUndo = true;
+				synchronized (undoRedoHistoryLock) {
+					redoList.remove(operation);
+					if (checkUndoLimit(operation)) {
+						undoList.add(operation);
+					} else {
+						addedToUndo = false;
+					}
+				}
+				// dispose the operation since we could not add it to the
+				// stack and will no longer have a reference to it.
+				if (!addedToUndo) {
+					operation.dispose();
 				} else {
-					addedToUndo = false;
+					forceMemoryLimit(operation);
 				}
-			}
-			// dispose the operation since we could not add it to the
-			// stack and will no longer have a reference to it.
-			if (!addedToUndo) {
-				operation.dispose();
+
+				// notify listeners must happen after history is updated
+				notifyRedone(operation);
+			} else {
+				notifyNotOK(operation, status);
 			}
 
-			// notify listeners must happen after history is updated
-			notifyRedone(operation);
-		} else {
-			notifyNotOK(operation, status);
+			return status;
+		} finally {
+			synchronized (undoRedoHistoryLock) {
+				executingOperations.remove(operation);
+			}
 		}
-
-		return status;
 	}
 
 	/**
@@ -413,54 +516,66 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private IStatus doUndo(IProgressMonitor monitor, IAdaptable info, IUndoableOperation operation)
 			throws ExecutionException {
-		IStatus status = getUndoApproval(operation, info);
-		if (status.isOK()) {
-			notifyAboutToUndo(operation);
-			try {
-				status = operation.undo(monitor, info);
-			} catch (OperationCanceledException e) {
-				status = Status.CANCEL_STATUS;
-			} catch (ExecutionException e) {
-				notifyNotOK(operation);
-				if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
-					Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
-							"ExecutionException while undoing " + operation); //$NON-NLS-1$
-				}
-				throw e;
-			} catch (Exception e) {
-				notifyNotOK(operation);
-				if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
-					Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
-							"Exception while undoing " + operation); //$NON-NLS-1$
+		synchronized (undoRedoHistoryLock) {
+			executingOperations.add(operation);
+		}
+		try {
+			restoreState(operation);
+			IStatus status = getUndoApproval(operation, info);
+			if (status.isOK()) {
+				notifyAboutToUndo(operation);
+				try {
+					status = operation.undo(monitor, info);
+				} catch (OperationCanceledException e) {
+					status = Status.CANCEL_STATUS;
+				} catch (ExecutionException e) {
+					notifyNotOK(operation);
+					if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
+						Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
+								"ExecutionException while undoing " + operation); //$NON-NLS-1$
+					}
+					throw e;
+				} catch (Exception e) {
+					notifyNotOK(operation);
+					if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
+						Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
+								"Exception while undoing " + operation); //$NON-NLS-1$
+					}
+					throw new ExecutionException(
+							"While undoing the operation, an exception occurred", e); //$NON-NLS-1$
 				}
-				throw new ExecutionException(
-						"While undoing the operation, an exception occurred", e); //$NON-NLS-1$
 			}
-		}
-		// if successful, the operation is removed from the undo history and
-		// placed in the redo history.
-		if (status.isOK()) {
-			boolean addedToRedo = true;
-			synchronized (undoRedoHistoryLock) {
-				undoList.remove(operation);
-				if (checkRedoLimit(operation)) {
-					redoList.add(operation);
+			// if successful, the operation is removed from the undo history and
+			// placed in the redo history.
+			if (status.isOK()) {
+				boolean addedToRedo = true;
+				synchronized (undoRedoHistoryLock) {
+					undoList.remove(operation);
+					if (checkRedoLimit(operation)) {
+						redoList.add(operation);
+					} else {
+						addedToRedo = false;
+					}
+				}
+				// dispose the operation since we could not add it to the
+				// stack and will no longer have a reference to it.
+				if (!addedToRedo) {
+					operation.dispose();
 				} else {
-					addedToRedo = false;
+					forceMemoryLimit(operation);
 				}
+				// notification occurs after the undo and redo histories are
+				// adjusted
+				notifyUndone(operation);
+			} else {
+				notifyNotOK(operation, status);
 			}
-			// dispose the operation since we could not add it to the
-			// stack and will no longer have a reference to it.
-			if (!addedToRedo) {
-				operation.dispose();
+			return status;
+		} finally {
+			synchronized (undoRedoHistoryLock) {
+				executingOperations.remove(operation);
 			}
-			// notification occurs after the undo and redo histories are
-			// adjusted
-			notifyUndone(operation);
-		} else {
-			notifyNotOK(operation, status);
 		}
-		return status;
 	}
 
 	/*
@@ -545,27 +660,10 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	/*
 	 * Filter the specified list to include only the specified undo context.
 	 */
-	private IUndoableOperation[] filter(List<IUndoableOperation> list, IUndoContext context) {
-		/*
-		 * This method is used whenever there is a need to filter the undo or
-		 * redo history on a particular context. Currently there are no caches
-		 * kept to optimize repeated requests for the same filter. If benchmarks
-		 * show this to be a common pattern that causes performances problems,
-		 * we could implement a filtered cache here that is nullified whenever
-		 * the global history changes.
-		 */
-
-		List<IUndoableOperation> filtered = new ArrayList<>();
+	private IUndoableOperation[] filter(OperationList list, IUndoContext context) {
 		synchronized (undoRedoHistoryLock) {
-			Iterator<IUndoableOperation> iterator = list.iterator();
-			while (iterator.hasNext()) {
-				IUndoableOperation operation = iterator.next();
-				if (operation.hasContext(context)) {
-					filtered.add(operation);
-				}
-			}
+			return list.toArray(context);
 		}
-		return filtered.toArray(new IUndoableOperation[filtered.size()]);
 	}
 
 	/*
@@ -676,12 +774,12 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private void forceRedoLimit(IUndoContext context, int max) {
 		synchronized (undoRedoHistoryLock) {
-			Object[] filtered = filter(redoList, context);
-			int size = filtered.length;
-			if (size > 0) {
+			int size = redoList.size(context);
+			if (size > max) {
+				IUndoableOperation[] oldest = redoList.getOldest(context, size - max);
 				int index = 0;
 				while (size > max) {
-					IUndoableOperation removed = (IUndoableOperation) filtered[index];
+					IUndoableOperation removed = oldest[index];
 					if (context == GLOBAL_UNDO_CONTEXT || removed.getContexts().length == 1) {
 						/*
 						 * remove the operation if we are enforcing a global limit
@@ -710,12 +808,12 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private void forceUndoLimit(IUndoContext context, int max) {
 		synchronized (undoRedoHistoryLock) {
-			Object[] filtered = filter(undoList, context);
-			int size = filtered.length;
-			if (size > 0) {
+			int size = undoList.size(context);
+			if (size > max) {
+				IUndoableOperation[] oldest = undoList.getOldest(context, size - max);
 				int index = 0;
 				while (size > max) {
-					IUndoableOperation removed = (IUndoableOperation) filtered[index];
+					IUndoableOperation removed = oldest[index];
 					if (context == GLOBAL_UNDO_CONTEXT || removed.getContexts().length == 1) {
 						/*
 						 * remove the operation if we are enforcing a global limit
@@ -738,6 +836,219 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		}
 	}
 
+	/*
+	 * Force the undo and redo history to retain no more than the memory limit.
+	 * The state of the oldest operations is saved first, then the oldest
+	 * operations are removed. The specified operation and the operations that
+	 * are being undone or redone are neither saved nor removed. The operations
+	 * to save are picked under the undoRedoHistoryLock, but their state is
+	 * written outside of it, so this must not be called while holding the lock.
+	 */
+	private void forceMemoryLimit(IUndoableOperation keep) {
+		List<IUndoableOperation> toSave;
+		synchronized (undoRedoHistoryLock) {
+			if (memoryLimit <= 0 || getRetainedSize() <= memoryLimit) {
+				return;
+			}
+			toSave = new ArrayList<>();
+			if (stateStore != null) {
+				long excess = getRetainedSize() - memoryLimit;
+				excess = pickStatesToSave(undoList, keep, excess, toSave);
+				pickStatesToSave(redoList, keep, excess, toSave);
+				savingOperations.addAll(toSave);
+			}
+		}
+
+		File[] files = new File[toSave.size()];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = saveState(toSave.get(i));
+		}
+
+		synchronized (undoRedoHistoryLock) {
+			for (int i = 0; i < files.length; i++) {
+				IUndoableOperation operation = toSave.get(i);
+				savingOperations.remove(operation);
+				if (files[i] == null) {
+					continue;
+				}
+				// the operation may have been removed while its state was saved
+				if (undoList.contains(operation) || redoList.contains(operation)) {
+					savedStates.put(operation, files[i]);
+					undoList.refreshSize(operation);
+					redoList.refreshSize(operation);
+				} else {
+					files[i].delete();
+				}
+			}
+			if (!toSave.isEmpty()) {
+				// wake up an undo or redo that waits for one of the states
+				undoRedoHistoryLock.notifyAll();
+			}
+			if (memoryLimit <= 0 || getRetainedSize() <= memoryLimit) {
+				return;
+			}
+			if (!removeOldest(undoList, keep)) {
+				removeOldest(redoList, keep);
+			}
+		}
+	}
+
+	/*
+	 * Add the oldest operations in the list whose state can be saved to the
+	 * given list until saving them would free the excess number of bytes.
+	 * Return the number of bytes that remain in excess.
+	 */
+	private long pickStatesToSave(OperationList list, IUndoableOperation keep, long excess,
+			List<IUndoableOperation> toSave) {
+		IUndoableOperation operation = list.getNext(null);
+		while (operation != null && excess > 0) {
+			if (operation != keep && operation instanceof IRetainedStateOperation
+					&& !executingOperations.contains(operation)
+					&& !savingOperations.contains(operation)
+					&& !savedStates.containsKey(operation)) {
+				long size = ((IRetainedStateOperation) operation).getRetainedSize();
+				if (size > 0) {
+					toSave.add(operation);
+					excess -= size;
+				}
+			}
+			operation = list.getNext(operation);
+		}
+		return excess;
+	}
+
+	/*
+	 * Remove the oldest operations in the list until the history fits the
+	 * memory limit. Return a boolean indicating whether it fits.
+	 */
+	private boolean removeOldest(OperationList list, IUndoableOperation keep) {
+		IUndoableOperation operation = list.getNext(null);
+		while (operation != null) {
+			IUndoableOperation next = list.getNext(operation);
+			if (operation != keep && !executingOperations.contains(operation)
+					&& !savingOperations.contains(operation)) {
+				if (DEBUG_OPERATION_HISTORY_DISPOSE) {
+					Tracing.printTrace("OPERATIONHISTORY", "Memory limit reached, removing " + operation); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				list.remove(operation);
+				internalRemove(operation);
+				if (getRetainedSize() <= memoryLimit) {
+					return true;
+				}
+			}
+			operation = next;
+		}
+		return false;
+	}
+
+	/*
+	 * Save the state of the operation to a new file in the state store. Return
+	 * the file, or null if the state could not be saved, in which case the
+	 * operation keeps its state.
+	 */
+	private File saveState(IUndoableOperation operation) {
+		if (DEBUG_OPERATION_HISTORY_DISPOSE) {
+			Tracing.printTrace("OPERATIONHISTORY", "Memory limit reached, saving the state of " + operation); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		File file = null;
+		boolean saved = false;
+		try {
+			file = File.createTempFile("undo", ".state", stateStore); //$NON-NLS-1$ //$NON-NLS-2$
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+			try {
+				saved = ((IRetainedStateOperation) operation).saveState(out);
+			} finally {
+				out.close();
+			}
+		} catch (Exception e) {
+			if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
+				Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
+						"Exception while saving the state of " + operation + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} finally {
+			if (!saved && file != null) {
+				file.delete();
+			}
+		}
+		return saved ? file : null;
+	}
+
+	/*
+	 * Restore the state of the operation if it has been saved. This happens
+	 * before the operation is validated for and performs an undo or redo. An
+	 * operation whose state cannot be restored can neither be undone nor
+	 * redone, so it is removed from the history. If the state is just being
+	 * saved, wait for the save to finish first.
+	 */
+	private void restoreState(IUndoableOperation operation) throws ExecutionException {
+		File file;
+		boolean interrupted = false;
+		synchronized (undoRedoHistoryLock) {
+			while (savingOperations.contains(operation)) {
+				try {
+					undoRedoHistoryLock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			file = savedStates.remove(operation);
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (file == null) {
+			return;
+		}
+		try {
+			InputStream in = new BufferedInputStream(new FileInputStream(file));
+			try {
+				((IRetainedStateOperation) operation).restoreState(in);
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			notifyNotOK(operation);
+			if (DEBUG_OPERATION_HISTORY_UNEXPECTED) {
+				Tracing.printTrace("OPERATIONHISTORY", //$NON-NLS-1$
+						"Exception while restoring the state of " + operation); //$NON-NLS-1$
+			}
+			boolean removed;
+			synchronized (undoRedoHistoryLock) {
+				removed = undoList.remove(operation) || redoList.remove(operation);
+			}
+			if (removed) {
+				internalRemove(operation);
+			}
+			throw new ExecutionException("While restoring the state of the operation, an exception occurred", e); //$NON-NLS-1$
+		} finally {
+			file.delete();
+		}
+		synchronized (undoRedoHistoryLock) {
+			undoList.refreshSize(operation);
+			redoList.refreshSize(operation);
+		}
+	}
+
+	/*
+	 * Discard the state the operation has saved, if any.
+	 */
+	private void discardState(IUndoableOperation operation) {
+		File file;
+		synchronized (undoRedoHistoryLock) {
+			file = savedStates.remove(operation);
+		}
+		if (file != null) {
+			file.delete();
+		}
+	}
+
+	/*
+	 * Return the retained size of the undo and redo history.
+	 */
+	private long getRetainedSize() {
+		return undoList.getRetainedSize() + redoList.getRetainedSize();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -795,14 +1106,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getRedoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = redoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = redoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return redoList.getLast(context);
 		}
-		return null;
 	}
 
 	/*
@@ -849,14 +1154,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getUndoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = undoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = undoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return undoList.getLast(context);
 		}
-		return null;
 	}
 
 	/*
@@ -891,6 +1190,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 * Remove the operation by disposing it and notifying listeners.
 	 */
 	private void internalRemove(IUndoableOperation operation) {
+		discardState(operation);
 		operation.dispose();
 		notifyRemoved(operation);
 	}
@@ -1138,10 +1438,11 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// check the undo history first.
 		boolean inUndo = false;
 		synchronized (undoRedoHistoryLock) {
-			int index = undoList.indexOf(operation);
-			if (index > -1) {
+			if (undoList.replace(operation, replacements)) {
 				inUndo = true;
-				undoList.remove(operation);
+				// the replaced operation will never be undone, so the state it
+				// saved is no longer needed
+				discardState(operation);
 				// notify listeners after the lock on undoList is released
 				ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
 				for (int i = 0; i < replacements.length; i++) {
@@ -1149,9 +1450,6 @@ public final class DefaultOperationHistory implements IOperationHistory {
 					for (int j = 0; j < opContexts.length; j++) {
 						allContexts.add(opContexts[j]);
 					}
-					undoList.add(index, replacements[i]);
-					// notify listeners after the lock on the history is
-					// released
 				}
 				// recheck all the limits. We do this at the end so the index
 				// doesn't change during replacement
@@ -1173,20 +1471,17 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// operation was not in the undo history. Check the redo history.
 
 		synchronized (undoRedoHistoryLock) {
-			int index = redoList.indexOf(operation);
-			if (index == -1) {
+			if (!redoList.replace(operation, replacements)) {
 				return;
 			}
-			ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
-			redoList.remove(operation);
+			discardState(operation);
 			// notify listeners after we release the lock on redoList
+			ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
 			for (int i = 0; i < replacements.length; i++) {
 				IUndoContext[] opContexts = replacements[i].getContexts();
 				for (int j = 0; j < opContexts.length; j++) {
 					allContexts.add(opContexts[j]);
 				}
-				redoList.add(index, replacements[i]);
-				// notify listeners after we release the lock on redoList
 			}
 			// recheck all the limits. We do this at the end so the index
 			// doesn't change during replacement
@@ -1227,6 +1522,113 @@ public final class DefaultOperationHistory implements IOperationHistory {
 
 	}
 
+	/**
+	 * Return the number of bytes that the operations in the undo and redo
+	 * history may retain together.
+	 *
+	 * @return the memory limit in bytes, or <code>0</code> if there is no limit
+	 *
+	 * @see #setMemoryLimit(long)
+	 * @since 3.7
+	 */
+	public long getMemoryLimit() {
+		synchronized (undoRedoHistoryLock) {
+			return memoryLimit;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Set the number of bytes that the operations in the undo and redo history
+	 * may retain together, as reported by {@link IRetainedStateOperation}s.
+	 * There is no limit by default.
+	 * </p>
+	 * <p>
+	 * When an operation enters the undo or redo history and the limit is
+	 * exceeded, the oldest operations save their state to the state store, if
+	 * one has been set. If that is not enough, the oldest operations are
+	 * removed from the history, first from the undo history and then from the
+	 * redo history. The operation that entered the history is neither saved nor
+	 * removed, even if it exceeds the limit by itself.
+	 * </p>
+	 *
+	 * @param limit
+	 *            the memory limit in bytes, or <code>0</code> for no limit
+	 *
+	 * @see #setStateStore(File)
+	 * @since 3.7
+	 */
+	public void setMemoryLimit(long limit) {
+		Assert.isTrue(limit >= 0);
+		synchronized (undoRedoHistoryLock) {
+			memoryLimit = limit;
+		}
+		forceMemoryLimit(null);
+	}
+
+	/**
+	 * Return the directory that the state of old operations is saved to when
+	 * the memory limit is exceeded.
+	 *
+	 * @return the directory, or <code>null</code> if the state of operations is
+	 *         not saved
+	 *
+	 * @see #setStateStore(File)
+	 * @since 3.7
+	 */
+	public File getStateStore() {
+		synchronized (undoRedoHistoryLock) {
+			return stateStore;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Set the directory that the state of old operations is saved to when the
+	 * memory limit is exceeded. Each operation saves its state to a file of its
+	 * own, which is read back and deleted before the operation is undone or
+	 * redone, and deleted when the operation is removed from the history.
+	 * </p>
+	 * <p>
+	 * State saved before the store is changed stays where it is.
+	 * </p>
+	 *
+	 * @param directory
+	 *            an existing directory, or <code>null</code> if the state of
+	 *            operations should not be saved
+	 *
+	 * @see #setMemoryLimit(long)
+	 * @see IRetainedStateOperation#saveState(OutputStream)
+	 * @since 3.7
+	 */
+	public void setStateStore(File directory) {
+		synchronized (undoRedoHistoryLock) {
+			stateStore = directory;
+		}
+	}
+
+	/**
+	 * Return the number of bytes retained by the operations with the given
+	 * undo context in the undo and redo history, as reported by
+	 * {@link IRetainedStateOperation}s when they entered the history or saved
+	 * their state. Operations with more than one undo context count for each of
+	 * them.
+	 *
+	 * @param context
+	 *            the undo context, or
+	 *            {@link IOperationHistory#GLOBAL_UNDO_CONTEXT} for the whole
+	 *            history
+	 * @return the retained size in bytes
+	 *
+	 * @since 3.7
+	 */
+	public long getRetainedSize(IUndoContext context) {
+		Assert.isNotNull(context);
+		synchronized (undoRedoHistoryLock) {
+			return undoList.getRetainedSize(context) + redoList.getRetainedSize(context);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -1360,7 +1762,14 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	@Override
 	public void operationChanged(IUndoableOperation operation) {
-		if (undoList.contains(operation) || redoList.contains(operation)) {
+		boolean inHistory;
+		synchronized (undoRedoHistoryLock) {
+			inHistory = undoList.contains(operation) || redoList.contains(operation);
+		}
+		if (inHistory) {
+			// the contexts may have changed
+			undoList.operationChanged(operation);
+			redoList.operationChanged(operation);
 			notifyChanged(operation);
 		}
 	}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.commands.operations;
+
+/**
+ * <p>
+ * ICoalescingOperation defines an interface for undoable operations that can
+ * absorb the operation performed right after them, so that both are undone and
+ * redone as one. Typical examples are typing a word one character at a time, or
+ * several changes to the same property. Coalescing keeps the undo history short
+ * and avoids retaining the state of many small operations.
+ * </p>
+ * <p>
+ * When an operation is added to a {@link DefaultOperationHistory}, the history
+ * offers it to the most recently added operation in its undo history. If that
+ * operation absorbs it, the new operation is not added to the history, and
+ * listeners are notified that the absorbing operation changed.
+ * </p>
+ *
+ * @since 3.7
+ */
+public interface ICoalescingOperation {
+
+	/**
+	 * Absorb the given operation, which has been executed right after the
+	 * receiver, if both can be undone and redone as one.
+	 * <p>
+	 * The receiver is responsible for the absorbed operation from then on; the
+	 * history does not dispose it. The receiver may add undo contexts of the
+	 * absorbed operation to itself.
+	 * </p>
+	 *
+	 * @param operation
+	 *            the operation that has been executed after the receiver
+	 * @return <code>true</code> if the receiver absorbed the operation,
+	 *         <code>false</code> if the operation should be added to the
+	 *         history by itself
+	 */
+	boolean coalesce(IUndoableOperation operation);
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.commands.operations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * <p>
+ * IRetainedStateOperation defines an interface for undoable operations that
+ * hold on to a significant amount of memory in order to be undone or redone,
+ * such as the contents of deleted files. It allows an operation history to
+ * account for the memory retained by its operations, and to move the state of
+ * operations that are unlikely to be undone soon out of memory.
+ * </p>
+ * <p>
+ * An operation history only asks an operation to save its state while the
+ * operation is in the history and not being undone or redone. The state is
+ * restored before the history asks the operation whether it can be undone or
+ * redone with advanced validation, or undoes or redoes it. Other methods, such
+ * as {@link IUndoableOperation#canUndo()} or
+ * {@link IUndoableOperation#getLabel()}, must work while the state is saved.
+ * </p>
+ *
+ * @see DefaultOperationHistory#setMemoryLimit(long)
+ * @see DefaultOperationHistory#setStateStore(java.io.File)
+ *
+ * @since 3.7
+ */
+public interface IRetainedStateOperation {
+
+	/**
+	 * Return an estimate of the number of bytes the receiver retains in order
+	 * to be undone or redone. This method is called whenever the operation is
+	 * added to the undo or redo history, so it should be fast.
+	 *
+	 * @return the estimated number of bytes retained, or <code>0</code> if the
+	 *         state of the receiver is currently saved
+	 */
+	long getRetainedSize();
+
+	/**
+	 * Write the state that the receiver retains to the given stream, and
+	 * release it. The stream is closed by the caller.
+	 * <p>
+	 * If the state cannot be saved, the receiver should return
+	 * <code>false</code> or throw an exception, and keep its state.
+	 * </p>
+	 *
+	 * @param out
+	 *            the stream to write the state to
+	 * @return <code>true</code> if the state has been saved and released,
+	 *         <code>false</code> if the receiver keeps its state
+	 * @throws IOException
+	 *             if the state could not be written
+	 */
+	boolean saveState(OutputStream out) throws IOException;
+
+	/**
+	 * Read back the state that was written by the last successful
+	 * {@link #saveState(OutputStream)}. The stream is closed by the caller.
+	 *
+	 * @param in
+	 *            the stream to read the state from
+	 * @throws IOException
+	 *             if the state could not be read
+	 */
+	void restoreState(InputStream in) throws IOException;
+}
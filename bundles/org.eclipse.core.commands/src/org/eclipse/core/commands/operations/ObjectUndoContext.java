@@ -93,6 +93,7 @@ public final class ObjectUndoContext extends UndoContext {
 	 */
 	public void addMatch(IUndoContext context) {
 		children.add(context);
+		OperationList.matchesChanged();
 	}
 
 	/**
@@ -106,7 +107,9 @@ public final class ObjectUndoContext extends UndoContext {
 	 *            context
 	 */
 	public void removeMatch(IUndoContext context) {
-		children.remove(context);
+		if (children.remove(context)) {
+			OperationList.matchesChanged();
+		}
 	}
 
 	/*
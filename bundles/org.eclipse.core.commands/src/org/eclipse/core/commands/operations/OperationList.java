@@ -0,0 +1,567 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.commands.operations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <p>
+ * The undo or the redo history of a {@link DefaultOperationHistory}. The
+ * operations are kept in one linked list, in the order they were added. For
+ * every undo context the history has been asked about, a second linked list is
+ * threaded through the operations that have the context. This makes the
+ * questions the history answers for one context - which operation is next,
+ * how many operations there are, which are the oldest - independent of the
+ * number of operations the other contexts have.
+ * </p>
+ * <p>
+ * A context's list is built the first time the context is asked about, and
+ * from then on kept up to date as operations are added, removed or change
+ * their contexts. Subclasses of {@link AbstractOperation} report context
+ * changes themselves, and {@link ObjectUndoContext} reports changes of its
+ * matches.
+ * </p>
+ * <p>
+ * Other operations may change their contexts, and other contexts may change
+ * what they match, without anybody telling the list. The context lists are
+ * therefore only used while all operations in the list are
+ * {@link AbstractOperation}s whose contexts all are {@link UndoContext}s or
+ * {@link ObjectUndoContext}s that do not override <code>matches</code>, and
+ * only for such contexts. Otherwise the list is scanned as a whole, as the
+ * history did before it kept context lists.
+ * </p>
+ * <p>
+ * The list also keeps the sum of the sizes that its
+ * {@link IRetainedStateOperation}s report, as they were when the operations
+ * were added.
+ * </p>
+ * <p>
+ * This class is not thread safe. All access must be synchronized on the lock
+ * given to the constructor.
+ * </p>
+ *
+ * @since 3.7
+ */
+final class OperationList {
+
+	/**
+	 * Incremented whenever a context changes what it matches. The context lists
+	 * built before are thrown away when this changes.
+	 */
+	private static volatile int matchGeneration;
+
+	/**
+	 * Tells all operation lists that a context changed what it matches.
+	 */
+	static void matchesChanged() {
+		matchGeneration++;
+	}
+
+	/**
+	 * Whether the contexts of a class report all changes of what they match,
+	 * by class. Guarded by itself.
+	 */
+	private static final Map<Class<?>, Boolean> observableContextTypes = new WeakHashMap<>();
+
+	/**
+	 * @return whether what the context matches only changes in ways the
+	 *         operation lists are told about
+	 */
+	static boolean isObservable(IUndoContext context) {
+		if (context == IOperationHistory.GLOBAL_UNDO_CONTEXT) {
+			return true;
+		}
+		Class<?> type = context.getClass();
+		synchronized (observableContextTypes) {
+			Boolean observable = observableContextTypes.get(type);
+			if (observable == null) {
+				observable = Boolean.valueOf(declaresObservableMatches(type));
+				observableContextTypes.put(type, observable);
+			}
+			return observable.booleanValue();
+		}
+	}
+
+	private static boolean declaresObservableMatches(Class<?> type) {
+		try {
+			Class<?> declaringClass = type.getMethod("matches", IUndoContext.class).getDeclaringClass(); //$NON-NLS-1$
+			return declaringClass == UndoContext.class || declaringClass == ObjectUndoContext.class;
+		} catch (NoSuchMethodException | SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return whether the contexts of the operation only change in ways the
+	 *         list is told about
+	 */
+	private static boolean isObservable(IUndoableOperation operation) {
+		if (!(operation instanceof AbstractOperation)) {
+			return false;
+		}
+		IUndoContext[] contexts = operation.getContexts();
+		for (int i = 0; i < contexts.length; i++) {
+			if (!isObservable(contexts[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A link of one of the lists.
+	 */
+	private static final class Link {
+		final Entry entry;
+		final Chain chain;
+		Link previous;
+		Link next;
+
+		Link(Entry entry, Chain chain) {
+			this.entry = entry;
+			this.chain = chain;
+		}
+	}
+
+	/**
+	 * A list of operations, oldest first.
+	 */
+	private static final class Chain {
+		Link first;
+		Link last;
+		int size;
+
+		Link append(Entry entry) {
+			Link link = new Link(entry, this);
+			link.previous = last;
+			if (last == null) {
+				first = link;
+			} else {
+				last.next = link;
+			}
+			last = link;
+			size++;
+			entry.links.add(link);
+			return link;
+		}
+
+		Link insertBefore(Link successor, Entry entry) {
+			Link link = new Link(entry, this);
+			link.next = successor;
+			link.previous = successor.previous;
+			if (successor.previous == null) {
+				first = link;
+			} else {
+				successor.previous.next = link;
+			}
+			successor.previous = link;
+			size++;
+			entry.links.add(link);
+			return link;
+		}
+
+		void unlink(Link link) {
+			if (link.previous == null) {
+				first = link.next;
+			} else {
+				link.previous.next = link.next;
+			}
+			if (link.next == null) {
+				last = link.previous;
+			} else {
+				link.next.previous = link.previous;
+			}
+			size--;
+		}
+	}
+
+	/**
+	 * An operation in the list, with its links in the global list and in the
+	 * lists of the contexts it has.
+	 */
+	private static final class Entry {
+		final IUndoableOperation operation;
+		final List<Link> links = new ArrayList<>(2);
+		long size;
+		boolean observable;
+
+		Entry(IUndoableOperation operation) {
+			this.operation = operation;
+		}
+
+		Link getLink(Chain chain) {
+			for (int i = 0; i < links.size(); i++) {
+				Link link = links.get(i);
+				if (link.chain == chain) {
+					return link;
+				}
+			}
+			return null;
+		}
+	}
+
+	private final Object lock;
+
+	private final Chain operations = new Chain();
+
+	private final Map<IUndoableOperation, Entry> entries = new HashMap<>();
+
+	/**
+	 * The lists of the contexts asked about. The contexts are weakly referenced
+	 * so that the lists of contexts which are no longer used go away with their
+	 * last operation.
+	 */
+	private final Map<IUndoContext, Chain> chains = new WeakHashMap<>();
+
+	private int chainsGeneration = matchGeneration;
+
+	/**
+	 * The number of operations whose context changes the list is not told
+	 * about. The context lists are not used while there are any.
+	 */
+	private int unobservableCount;
+
+	/**
+	 * The sum of the retained sizes of the operations, as they were when the
+	 * operations were added or last refreshed.
+	 */
+	private long retainedSize;
+
+	/**
+	 * @param lock
+	 *            the lock that guards this list
+	 */
+	OperationList(Object lock) {
+		this.lock = lock;
+	}
+
+	/**
+	 * Appends the operation as the most recent one. An operation is at most
+	 * once in the list, adding it again moves it to the end.
+	 */
+	void add(IUndoableOperation operation) {
+		remove(operation);
+		Entry entry = new Entry(operation);
+		operations.append(entry);
+		addEntry(entry);
+		for (Iterator<Map.Entry<IUndoContext, Chain>> it = chains.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<IUndoContext, Chain> chain = it.next();
+			if (operation.hasContext(chain.getKey())) {
+				chain.getValue().append(entry);
+			}
+		}
+		setOwner(operation, this);
+	}
+
+	/**
+	 * Inserts the replacements where the operation was, each one in front of
+	 * the previous one, and removes the operation.
+	 *
+	 * @return whether the operation was in the list
+	 */
+	boolean replace(IUndoableOperation operation, IUndoableOperation[] replacements) {
+		Entry entry = entries.get(operation);
+		if (entry == null) {
+			return false;
+		}
+		Link successor = entry.getLink(operations);
+		for (int i = 0; i < replacements.length; i++) {
+			remove(replacements[i]);
+			Entry replacement = new Entry(replacements[i]);
+			successor = operations.insertBefore(successor, replacement);
+			addEntry(replacement);
+		}
+		remove(operation);
+		// replacing is rare, so rather than finding the right places in the
+		// context lists, let them be rebuilt
+		clearChains();
+		return true;
+	}
+
+	/**
+	 * @return whether the operation was in the list
+	 */
+	boolean remove(IUndoableOperation operation) {
+		Entry entry = entries.remove(operation);
+		if (entry == null) {
+			return false;
+		}
+		for (int i = 0; i < entry.links.size(); i++) {
+			Link link = entry.links.get(i);
+			link.chain.unlink(link);
+		}
+		retainedSize -= entry.size;
+		if (!entry.observable) {
+			unobservableCount--;
+			if (unobservableCount == 0) {
+				// the context lists may have missed changes in the meantime
+				clearChains();
+			}
+		}
+		setOwner(operation, null);
+		return true;
+	}
+
+	private void addEntry(Entry entry) {
+		IUndoableOperation operation = entry.operation;
+		entries.put(operation, entry);
+		entry.size = sizeOf(operation);
+		retainedSize += entry.size;
+		entry.observable = isObservable(operation);
+		if (!entry.observable) {
+			unobservableCount++;
+		}
+		setOwner(operation, this);
+	}
+
+	boolean contains(IUndoableOperation operation) {
+		return entries.containsKey(operation);
+	}
+
+	/**
+	 * @return the most recent operation, or <code>null</code>
+	 */
+	IUndoableOperation getLast() {
+		return operations.last == null ? null : operations.last.entry.operation;
+	}
+
+	/**
+	 * @return the operation added after the given one, or the oldest operation
+	 *         if the given one is <code>null</code>; <code>null</code> if there
+	 *         is none
+	 */
+	IUndoableOperation getNext(IUndoableOperation operation) {
+		Link link;
+		if (operation == null) {
+			link = operations.first;
+		} else {
+			Entry entry = entries.get(operation);
+			link = entry == null ? null : entry.getLink(operations).next;
+		}
+		return link == null ? null : link.entry.operation;
+	}
+
+	/**
+	 * @return the most recent operation with the context, or <code>null</code>
+	 */
+	IUndoableOperation getLast(IUndoContext context) {
+		if (!isIndexed(context)) {
+			for (Link link = operations.last; link != null; link = link.previous) {
+				if (link.entry.operation.hasContext(context)) {
+					return link.entry.operation;
+				}
+			}
+			return null;
+		}
+		Link last = getChain(context).last;
+		return last == null ? null : last.entry.operation;
+	}
+
+	/**
+	 * @return the number of operations with the context
+	 */
+	int size(IUndoContext context) {
+		if (!isIndexed(context)) {
+			int size = 0;
+			for (Link link = operations.first; link != null; link = link.next) {
+				if (link.entry.operation.hasContext(context)) {
+					size++;
+				}
+			}
+			return size;
+		}
+		return getChain(context).size;
+	}
+
+	/**
+	 * @return the operations with the context, oldest first
+	 */
+	IUndoableOperation[] toArray(IUndoContext context) {
+		return getOldest(context, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @return up to <code>count</code> of the oldest operations with the
+	 *         context, oldest first
+	 */
+	IUndoableOperation[] getOldest(IUndoContext context, int count) {
+		if (!isIndexed(context)) {
+			List<IUndoableOperation> result = new ArrayList<>();
+			for (Link link = operations.first; link != null && result.size() < count; link = link.next) {
+				if (link.entry.operation.hasContext(context)) {
+					result.add(link.entry.operation);
+				}
+			}
+			return result.toArray(new IUndoableOperation[result.size()]);
+		}
+		Chain chain = getChain(context);
+		IUndoableOperation[] result = new IUndoableOperation[Math.min(count, chain.size)];
+		Link link = chain.first;
+		for (int i = 0; i < result.length; i++) {
+			result[i] = link.entry.operation;
+			link = link.next;
+		}
+		return result;
+	}
+
+	/**
+	 * @return the retained size of all operations
+	 * @see IRetainedStateOperation#getRetainedSize()
+	 */
+	long getRetainedSize() {
+		return retainedSize;
+	}
+
+	/**
+	 * @return the retained size of the operations with the context
+	 * @see IRetainedStateOperation#getRetainedSize()
+	 */
+	long getRetainedSize(IUndoContext context) {
+		long size = 0;
+		if (!isIndexed(context)) {
+			for (Link link = operations.first; link != null; link = link.next) {
+				if (link.entry.operation.hasContext(context)) {
+					size += link.entry.size;
+				}
+			}
+			return size;
+		}
+		for (Link link = getChain(context).first; link != null; link = link.next) {
+			size += link.entry.size;
+		}
+		return size;
+	}
+
+	/**
+	 * Asks the operation for its retained size again, after its state has been
+	 * saved or restored.
+	 */
+	void refreshSize(IUndoableOperation operation) {
+		Entry entry = entries.get(operation);
+		if (entry != null) {
+			retainedSize -= entry.size;
+			entry.size = sizeOf(operation);
+			retainedSize += entry.size;
+		}
+	}
+
+	/**
+	 * Brings the context lists up to date with the contexts the operation has
+	 * now. May be called from any thread.
+	 */
+	void operationChanged(IUndoableOperation operation) {
+		synchronized (lock) {
+			Entry entry = entries.get(operation);
+			if (entry == null) {
+				return;
+			}
+			boolean observable = isObservable(operation);
+			if (observable != entry.observable) {
+				entry.observable = observable;
+				if (observable) {
+					unobservableCount--;
+				} else {
+					unobservableCount++;
+				}
+			}
+			boolean isLast = operations.last.entry == entry;
+			List<IUndoContext> stale = null;
+			for (Iterator<Map.Entry<IUndoContext, Chain>> it = chains.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<IUndoContext, Chain> mapEntry = it.next();
+				Chain chain = mapEntry.getValue();
+				Link link = entry.getLink(chain);
+				boolean matches = operation.hasContext(mapEntry.getKey());
+				if (link != null && !matches) {
+					chain.unlink(link);
+					entry.links.remove(link);
+				} else if (link == null && matches) {
+					if (isLast) {
+						chain.append(entry);
+					} else {
+						// the operation belongs somewhere in the middle of the
+						// list, let it be rebuilt
+						if (stale == null) {
+							stale = new ArrayList<>();
+						}
+						stale.add(mapEntry.getKey());
+					}
+				}
+			}
+			if (stale != null) {
+				for (int i = 0; i < stale.size(); i++) {
+					removeChain(stale.get(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return whether the list of the context can be trusted
+	 */
+	private boolean isIndexed(IUndoContext context) {
+		return unobservableCount == 0 && isObservable(context);
+	}
+
+	private Chain getChain(IUndoContext context) {
+		if (chainsGeneration != matchGeneration) {
+			clearChains();
+			chainsGeneration = matchGeneration;
+		}
+		Chain chain = chains.get(context);
+		if (chain == null) {
+			chain = new Chain();
+			for (Link link = operations.first; link != null; link = link.next) {
+				if (link.entry.operation.hasContext(context)) {
+					chain.append(link.entry);
+				}
+			}
+			chains.put(context, chain);
+		}
+		return chain;
+	}
+
+	private void removeChain(IUndoContext context) {
+		Chain chain = chains.remove(context);
+		if (chain != null) {
+			for (Link link = chain.first; link != null; link = link.next) {
+				link.entry.links.remove(link);
+			}
+		}
+	}
+
+	private void clearChains() {
+		for (Link link = operations.first; link != null; link = link.next) {
+			List<Link> links = link.entry.links;
+			for (int i = links.size() - 1; i > 0; i--) {
+				links.remove(i);
+			}
+		}
+		chains.clear();
+	}
+
+	private static long sizeOf(IUndoableOperation operation) {
+		if (operation instanceof IRetainedStateOperation) {
+			return Math.max(0, ((IRetainedStateOperation) operation).getRetainedSize());
+		}
+		return 0;
+	}
+
+	private static void setOwner(IUndoableOperation operation, OperationList owner) {
+		if (operation instanceof AbstractOperation) {
+			((AbstractOperation) operation).owner = owner;
+		}
+	}
+}
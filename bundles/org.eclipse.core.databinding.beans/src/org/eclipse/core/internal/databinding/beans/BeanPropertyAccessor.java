@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads and writes a bean property through method handles instead of
+ * reflective {@link Method#invoke(Object, Object...)} calls.
+ * <p>
+ * The handles are created on first use and shared by all accessors of the same
+ * read or write method, so all properties and observables of a bean property
+ * bind its methods only once. Calls that the handles cannot perform exactly
+ * like {@link Method#invoke(Object, Object...)} would, such as calls on a source
+ * of the wrong type or with a value that needs a widening conversion, are
+ * delegated to {@link BeanPropertyHelper} so that errors are reported as
+ * before.
+ * </p>
+ *
+ * @since 1.3
+ */
+public final class BeanPropertyAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(
+			Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(
+			void.class, Object.class, Object.class);
+
+	/**
+	 * The method handles bound so far, per declaring class. Using a
+	 * {@link ClassValue} ties the lifetime of the handles to their class.
+	 */
+	private static final ClassValue<ConcurrentMap<Method, MethodHandle>> HANDLES = new ClassValue<ConcurrentMap<Method, MethodHandle>>() {
+		@Override
+		protected ConcurrentMap<Method, MethodHandle> computeValue(
+				Class<?> type) {
+			return new ConcurrentHashMap<Method, MethodHandle>();
+		}
+	};
+
+	/**
+	 * A read or write method bound to a method handle.
+	 */
+	private static final class Binding {
+		/**
+		 * The handle, or <code>null</code> if the method is missing or cannot
+		 * be accessed.
+		 */
+		final MethodHandle handle;
+		final Class<?> declaringClass;
+		final Class<?> parameterType;
+
+		Binding(Method method, MethodType type) {
+			MethodHandle handle = null;
+			if (method != null) {
+				handle = bind(method, type);
+			}
+			this.handle = handle;
+			this.declaringClass = handle == null ? null : method
+					.getDeclaringClass();
+			this.parameterType = handle == null
+					|| method.getParameterTypes().length == 0 ? null : method
+					.getParameterTypes()[0];
+		}
+	}
+
+	private final PropertyDescriptor propertyDescriptor;
+
+	private volatile Binding getter;
+
+	private volatile Binding setter;
+
+	/**
+	 * @param propertyDescriptor
+	 *            the property to access
+	 */
+	public BeanPropertyAccessor(PropertyDescriptor propertyDescriptor) {
+		this.propertyDescriptor = propertyDescriptor;
+	}
+
+	/**
+	 * Returns the contents of the property for the given bean.
+	 *
+	 * @param source
+	 *            the source bean
+	 * @return the contents of the property for the given bean
+	 * @see BeanPropertyHelper#readProperty(Object, PropertyDescriptor)
+	 */
+	public Object read(Object source) {
+		Binding binding = getter;
+		if (binding == null) {
+			binding = getter = new Binding(propertyDescriptor.getReadMethod(),
+					GETTER_TYPE);
+		}
+		if (binding.handle == null || !binding.declaringClass.isInstance(source)) {
+			return BeanPropertyHelper.readProperty(source, propertyDescriptor);
+		}
+		try {
+			return binding.handle.invokeExact(source);
+		} catch (Throwable e) {
+			// same as the InvocationTargetException thrown by Method.invoke
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Sets the contents of the property on the given bean to the given value.
+	 *
+	 * @param source
+	 *            the source bean
+	 * @param value
+	 *            the new value of the property
+	 * @see BeanPropertyHelper#writeProperty(Object, PropertyDescriptor, Object)
+	 */
+	public void write(Object source, Object value) {
+		Binding binding = setter;
+		if (binding == null) {
+			binding = setter = new Binding(propertyDescriptor.getWriteMethod(),
+					SETTER_TYPE);
+		}
+		if (binding.handle == null || !binding.declaringClass.isInstance(source)
+				|| !isAssignable(binding.parameterType, value)) {
+			BeanPropertyHelper.writeProperty(source, propertyDescriptor, value);
+			return;
+		}
+		try {
+			binding.handle.invokeExact(source, value);
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Returns the shared method handle for the given method, adapted to the
+	 * given type, or <code>null</code> if the method cannot be accessed.
+	 */
+	private static MethodHandle bind(Method method, MethodType type) {
+		ConcurrentMap<Method, MethodHandle> handles = HANDLES.get(method
+				.getDeclaringClass());
+		MethodHandle handle = handles.get(method);
+		if (handle == null) {
+			try {
+				if (!method.isAccessible()) {
+					method.setAccessible(true);
+				}
+				handle = MethodHandles.lookup().unreflect(method).asType(type);
+			} catch (IllegalAccessException e) {
+				return null;
+			} catch (SecurityException e) {
+				return null;
+			} catch (WrongMethodTypeException e) {
+				return null;
+			}
+			MethodHandle existing = handles.putIfAbsent(method, handle);
+			if (existing != null) {
+				handle = existing;
+			}
+		}
+		return handle;
+	}
+
+	/**
+	 * Returns whether the value can be passed to a parameter of the given type
+	 * without a widening conversion.
+	 */
+	private static boolean isAssignable(Class<?> parameterType, Object value) {
+		if (!parameterType.isPrimitive()) {
+			return value == null || parameterType.isInstance(value);
+		}
+		return value != null && value.getClass() == wrapperType(parameterType);
+	}
+
+	private static Class<?> wrapperType(Class<?> primitiveType) {
+		if (primitiveType == int.class)
+			return Integer.class;
+		if (primitiveType == boolean.class)
+			return Boolean.class;
+		if (primitiveType == long.class)
+			return Long.class;
+		if (primitiveType == double.class)
+			return Double.class;
+		if (primitiveType == float.class)
+			return Float.class;
+		if (primitiveType == char.class)
+			return Character.class;
+		if (primitiveType == byte.class)
+			return Byte.class;
+		if (primitiveType == short.class)
+			return Short.class;
+		return Void.class;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,12 @@
 package org.eclipse.core.internal.databinding.beans;
 
 import java.beans.PropertyChangeListener;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.databinding.beans.BeansObservables;
 import org.eclipse.core.databinding.util.Policy;
@@ -65,9 +69,54 @@ public class BeanPropertyListenerSupport {
 				"removePropertyChangeListener", "Cound not remove listener from "); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
+	/**
+	 * The resolved add or remove listener method of a bean class.
+	 */
+	private static final class ListenerMethod {
+		/**
+		 * The method handle, or <code>null</code> if no method was found.
+		 */
+		final MethodHandle handle;
+
+		/**
+		 * Whether the method takes the property name as first argument.
+		 */
+		final boolean named;
+
+		/**
+		 * Why no method was found, or <code>null</code>.
+		 */
+		final Exception failure;
+
+		ListenerMethod(MethodHandle handle, boolean named, Exception failure) {
+			this.handle = handle;
+			this.named = named;
+			this.failure = failure;
+		}
+	}
+
+	private static final MethodType NAMED_LISTENER_METHOD_TYPE = MethodType
+			.methodType(void.class, Object.class, String.class,
+					PropertyChangeListener.class);
+
+	private static final MethodType LISTENER_METHOD_TYPE = MethodType
+			.methodType(void.class, Object.class, PropertyChangeListener.class);
+
+	/**
+	 * The listener methods resolved so far, per bean class and method name.
+	 */
+	private static final ClassValue<ConcurrentMap<String, ListenerMethod>> LISTENER_METHODS = new ClassValue<ConcurrentMap<String, ListenerMethod>>() {
+		@Override
+		protected ConcurrentMap<String, ListenerMethod> computeValue(
+				Class<?> type) {
+			return new ConcurrentHashMap<String, ListenerMethod>();
+		}
+	};
+
 	/**
 	 * Invokes the method for the provided <code>methodName</code> attempting to
 	 * first use the method with the property name and then the unnamed version.
+	 * The method is looked up only once per bean class.
 	 *
 	 * @param bean
 	 *            object to invoke the method on
@@ -81,45 +130,69 @@ public class BeanPropertyListenerSupport {
 	 */
 	private static boolean processListener(Object bean, String propertyName,
 			PropertyChangeListener listener, String methodName, String message) {
-		Method method = null;
-		Object[] parameters = null;
+		ListenerMethod method = getListenerMethod(bean.getClass(), methodName);
+		if (method.failure != null) {
+			log(IStatus.WARNING, message + bean, method.failure);
+		}
+		if (method.handle == null) {
+			return false;
+		}
+		try {
+			if (method.named) {
+				method.handle.invokeExact(bean, propertyName, listener);
+			} else {
+				method.handle.invokeExact(bean, listener);
+			}
+			return true;
+		} catch (Throwable e) {
+			log(IStatus.WARNING, message + bean, e);
+		}
+		return false;
+	}
+
+	private static ListenerMethod getListenerMethod(Class<?> beanClass,
+			String methodName) {
+		ConcurrentMap<String, ListenerMethod> methods = LISTENER_METHODS
+				.get(beanClass);
+		ListenerMethod result = methods.get(methodName);
+		if (result == null) {
+			result = resolveListenerMethod(beanClass, methodName);
+			methods.putIfAbsent(methodName, result);
+		}
+		return result;
+	}
 
+	private static ListenerMethod resolveListenerMethod(Class<?> beanClass,
+			String methodName) {
+		Method method;
+		boolean named;
 		try {
 			try {
-				method = bean.getClass().getMethod(
-						methodName,
-						new Class[] { String.class,
-								PropertyChangeListener.class });
-
-				parameters = new Object[] { propertyName, listener };
+				method = beanClass.getMethod(methodName, new Class[] {
+						String.class, PropertyChangeListener.class });
+				named = true;
 			} catch (NoSuchMethodException e) {
-				method = bean.getClass().getMethod(methodName,
+				method = beanClass.getMethod(methodName,
 						new Class[] { PropertyChangeListener.class });
-
-				parameters = new Object[] { listener };
+				named = false;
 			}
-		} catch (SecurityException e) {
-			// ignore
-		} catch (NoSuchMethodException e) {
-			log(IStatus.WARNING, message + bean, e);
-		}
-
-		if (method != null) {
 			if (!method.isAccessible()) {
 				method.setAccessible(true);
 			}
-			try {
-				method.invoke(bean, parameters);
-				return true;
-			} catch (IllegalArgumentException e) {
-				log(IStatus.WARNING, message + bean, e);
-			} catch (IllegalAccessException e) {
-				log(IStatus.WARNING, message + bean, e);
-			} catch (InvocationTargetException e) {
-				log(IStatus.WARNING, message + bean, e);
-			}
+			MethodHandle handle = MethodHandles
+					.lookup()
+					.unreflect(method)
+					.asType(named ? NAMED_LISTENER_METHOD_TYPE
+							: LISTENER_METHOD_TYPE);
+			return new ListenerMethod(handle, named, null);
+		} catch (SecurityException e) {
+			// ignore
+			return new ListenerMethod(null, false, null);
+		} catch (NoSuchMethodException e) {
+			return new ListenerMethod(null, false, e);
+		} catch (IllegalAccessException e) {
+			return new ListenerMethod(null, false, e);
 		}
-		return false;
 	}
 
 	/**
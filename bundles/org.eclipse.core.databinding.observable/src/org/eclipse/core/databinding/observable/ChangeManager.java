@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,18 +14,30 @@
 package org.eclipse.core.databinding.observable;
 
 import org.eclipse.core.runtime.Assert;
-import org.eclipse.core.runtime.ListenerList;
 
 /**
  * Listener management implementation. Exposed to subclasses in form of
  * {@link AbstractObservable} and {@link ChangeSupport}.
+ * <p>
+ * Listeners are kept in one copy-on-write array per listener type. The arrays
+ * are only created when the first listener of a type is added, so an
+ * observable without listeners carries no listener storage, and firing an
+ * event iterates over the current array without allocating.
+ * </p>
  *
  * @since 1.0
  *
  */
 /* package */class ChangeManager {
 
-	ListenerList[] listenerLists = null;
+	private static final IObservablesListener[] NO_LISTENERS = new IObservablesListener[0];
+
+	/**
+	 * The listeners for each listener type, indexed like listenerTypes. The
+	 * arrays are never modified once published; adding or removing a listener
+	 * replaces the array.
+	 */
+	IObservablesListener[][] listenerLists = null;
 	Object listenerTypes[] = null;
 	private final Realm realm;
 
@@ -44,28 +56,37 @@ import org.eclipse.core.runtime.ListenerList;
 	 */
 	protected void addListener(Object listenerType,
 			IObservablesListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
 		int listenerTypeIndex = findListenerTypeIndex(listenerType);
 		if (listenerTypeIndex == -1) {
 			int length;
 			if (listenerTypes == null) {
 				length = 0;
 				listenerTypes = new Object[1];
-				listenerLists = new ListenerList[1];
+				listenerLists = new IObservablesListener[1][];
 			} else {
 				length = listenerTypes.length;
 				System.arraycopy(listenerTypes, 0,
 						listenerTypes = new Object[length + 1], 0, length);
-				System
-						.arraycopy(listenerLists, 0,
-								listenerLists = new ListenerList[length + 1],
-								0, length);
+				System.arraycopy(listenerLists, 0,
+						listenerLists = new IObservablesListener[length + 1][],
+						0, length);
 			}
 			listenerTypes[length] = listenerType;
-			listenerLists[length] = new ListenerList();
+			listenerLists[length] = NO_LISTENERS;
 			listenerTypeIndex = length;
 		}
+		IObservablesListener[] listeners = listenerLists[listenerTypeIndex];
+		if (indexOf(listeners, listener) != -1) {
+			return;
+		}
 		boolean hadListeners = hasListeners();
-		listenerLists[listenerTypeIndex].add(listener);
+		IObservablesListener[] newListeners = new IObservablesListener[listeners.length + 1];
+		System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+		newListeners[listeners.length] = listener;
+		listenerLists[listenerTypeIndex] = newListeners;
 		if (!hadListeners && hasListeners()) {
 			firstListenerAdded();
 		}
@@ -77,11 +98,27 @@ import org.eclipse.core.runtime.ListenerList;
 	 */
 	protected void removeListener(Object listenerType,
 			IObservablesListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
 		int listenerTypeIndex = findListenerTypeIndex(listenerType);
 		if (listenerTypeIndex != -1) {
+			IObservablesListener[] listeners = listenerLists[listenerTypeIndex];
+			int index = indexOf(listeners, listener);
+			if (index == -1) {
+				return;
+			}
 			boolean hadListeners = hasListeners();
-			listenerLists[listenerTypeIndex].remove(listener);
-			if (listenerLists[listenerTypeIndex].size() == 0) {
+			if (listeners.length == 1) {
+				listenerLists[listenerTypeIndex] = NO_LISTENERS;
+			} else {
+				IObservablesListener[] newListeners = new IObservablesListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, index);
+				System.arraycopy(listeners, index + 1, newListeners, index,
+						newListeners.length - index);
+				listenerLists[listenerTypeIndex] = newListeners;
+			}
+			if (listenerLists[listenerTypeIndex].length == 0) {
 				if (hadListeners && !hasListeners()) {
 					this.lastListenerRemoved();
 				}
@@ -89,11 +126,21 @@ import org.eclipse.core.runtime.ListenerList;
 		}
 	}
 
+	private static int indexOf(IObservablesListener[] listeners,
+			IObservablesListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listener.equals(listeners[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	protected boolean hasListeners() {
 		if (listenerTypes != null)
 			for (int i = 0; i < listenerTypes.length; i++)
 				if (listenerTypes[i] != DisposeEvent.TYPE)
-					if (listenerLists[i].size() > 0)
+					if (listenerLists[i].length > 0)
 						return true;
 		return false;
 	}
@@ -110,13 +157,31 @@ import org.eclipse.core.runtime.ListenerList;
 	}
 
 	protected void fireEvent(ObservableEvent event) {
+		if (realm.deferEvent(this, event)) {
+			return;
+		}
+		dispatchEvent(event);
+	}
+
+	/**
+	 * Notifies the listeners of the given event immediately.
+	 *
+	 * @param event
+	 *            the event
+	 */
+	/* package */void dispatchEvent(ObservableEvent event) {
 		Object listenerType = event.getListenerType();
 		int listenerTypeIndex = findListenerTypeIndex(listenerType);
 		if (listenerTypeIndex != -1) {
-			Object[] listeners = listenerLists[listenerTypeIndex]
-					.getListeners();
+			IObservablesListener[] listeners = listenerLists[listenerTypeIndex];
+			// most observables have a single listener of a type, typically the
+			// binding or the viewer updater
+			if (listeners.length == 1) {
+				event.dispatch(listeners[0]);
+				return;
+			}
 			for (int i = 0; i < listeners.length; i++) {
-				event.dispatch((IObservablesListener) listeners[i]);
+				event.dispatch(listeners[i]);
 			}
 		}
 	}
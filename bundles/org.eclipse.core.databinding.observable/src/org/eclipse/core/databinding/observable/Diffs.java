@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2010 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,6 +27,7 @@ import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.map.MapDiff;
 import org.eclipse.core.databinding.observable.set.SetDiff;
 import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.internal.databinding.observable.ListDiffer;
 import org.eclipse.core.internal.databinding.observable.Util;
 
 /**
@@ -35,6 +36,15 @@ import org.eclipse.core.internal.databinding.observable.Util;
  */
 public class Diffs {
 
+	/**
+	 * Up to this combined size, list diffs are computed by
+	 * {@link #createListDiffs(List, List, List)}, whose quadratic cost does not
+	 * matter for small lists and which reports reordered elements as adjacent
+	 * remove and add entries (i.e. moves). Larger lists are diffed in roughly
+	 * linear time by {@link ListDiffer}.
+	 */
+	private static final int SMALL_LIST_DIFF_THRESHOLD = 64;
+
 	/**
 	 * Returns a {@link ListDiff} describing the change between the specified
 	 * old and new list states.
@@ -47,7 +57,11 @@ public class Diffs {
 	 */
 	public static ListDiff computeListDiff(List oldList, List newList) {
 		List diffEntries = new ArrayList();
-		createListDiffs(new ArrayList(oldList), newList, diffEntries);
+		if (oldList.size() + newList.size() <= SMALL_LIST_DIFF_THRESHOLD) {
+			createListDiffs(new ArrayList(oldList), newList, diffEntries);
+		} else {
+			ListDiffer.computeDiff(oldList, newList, diffEntries);
+		}
 		ListDiff listDiff = createListDiff((ListDiffEntry[]) diffEntries
 				.toArray(new ListDiffEntry[diffEntries.size()]));
 		return listDiff;
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A realm that runs its runnables on an {@link Executor} which may be shared
+ * with other realms, instead of on a dedicated worker thread.
+ * <p>
+ * Runnables passed to {@link #asyncExec(Runnable)} are run one at a time and in
+ * the order in which they were submitted, but not necessarily on the same
+ * thread. The realm is current on whichever thread is running its runnables.
+ * This makes it possible to have many realms, for example one per model in a
+ * headless application, without a parked thread for each of them.
+ * </p>
+ * <p>
+ * Realms created with {@link #ExecutorRealm()} share a default pool of daemon
+ * threads that are created on demand and discarded when idle. Runnables
+ * scheduled with {@link #timerExec(int, Runnable)} are handed to the realm by a
+ * single timer thread shared by all executor realms.
+ * </p>
+ * <p>
+ * If {@link #setCommitPerBatch(boolean) enabled}, the runnables run in one go
+ * share a {@link #beginTransaction() transaction}, so that listeners are
+ * notified once per batch and observable instead of once per change. This
+ * suits realms which sync models in the background, where the intermediate
+ * states need not be seen by anyone.
+ * </p>
+ * <p>
+ * As with other realms, {@link #syncExec(Runnable)} must not be called from
+ * within the realm itself.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class ExecutorRealm extends Realm {
+
+	/**
+	 * The maximum number of runnables run in one go before the realm gives
+	 * other tasks of the executor a chance to run.
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String name;
+		private final AtomicInteger count = new AtomicInteger();
+
+		DaemonThreadFactory(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, name + " " //$NON-NLS-1$
+					+ count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Lazily creates the shared executors on first use.
+	 */
+	private static class SharedExecutors {
+		static final ExecutorService POOL = Executors
+				.newCachedThreadPool(new DaemonThreadFactory(
+						"Data Binding Realm")); //$NON-NLS-1$
+
+		static final ScheduledExecutorService TIMER = Executors
+				.newSingleThreadScheduledExecutor(new DaemonThreadFactory(
+						"Data Binding Realm Timer")); //$NON-NLS-1$
+	}
+
+	private final Executor executor;
+
+	private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<Runnable>();
+
+	/**
+	 * Whether a drain of the queue is submitted to or running on the executor.
+	 */
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	/**
+	 * The thread currently running runnables of this realm, or
+	 * <code>null</code>.
+	 */
+	private volatile Thread thread;
+
+	private volatile boolean commitPerBatch;
+
+	private final Runnable drain = new Runnable() {
+		@Override
+		public void run() {
+			drain();
+		}
+	};
+
+	/**
+	 * Creates a realm that runs on the default pool shared by all executor
+	 * realms.
+	 */
+	public ExecutorRealm() {
+		this(SharedExecutors.POOL);
+	}
+
+	/**
+	 * Creates a realm that runs on the given executor. The executor may be
+	 * shared with other realms and tasks.
+	 *
+	 * @param executor
+	 *            the executor to run the realm's runnables on
+	 */
+	public ExecutorRealm(Executor executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor cannot be null"); //$NON-NLS-1$
+		}
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets whether the runnables run in one go share a transaction. If
+	 * <code>true</code>, change events fired by the observables of this realm
+	 * are coalesced per observable and delivered at the end of each batch of
+	 * runnables. The default is <code>false</code>.
+	 *
+	 * @param commitPerBatch
+	 *            whether to run each batch of runnables in a transaction
+	 * @see #beginTransaction()
+	 */
+	public void setCommitPerBatch(boolean commitPerBatch) {
+		this.commitPerBatch = commitPerBatch;
+	}
+
+	/**
+	 * Returns whether the runnables run in one go share a transaction.
+	 *
+	 * @return whether each batch of runnables runs in a transaction
+	 * @see #setCommitPerBatch(boolean)
+	 */
+	public boolean isCommitPerBatch() {
+		return commitPerBatch;
+	}
+
+	@Override
+	public boolean isCurrent() {
+		return Thread.currentThread() == thread;
+	}
+
+	@Override
+	public void asyncExec(Runnable runnable) {
+		queue.add(runnable);
+		schedule();
+	}
+
+	@Override
+	public void timerExec(int milliseconds, final Runnable runnable) {
+		if (milliseconds < 0) {
+			return;
+		} else if (milliseconds == 0) {
+			asyncExec(runnable);
+		} else {
+			SharedExecutors.TIMER.schedule(new Runnable() {
+				@Override
+				public void run() {
+					asyncExec(runnable);
+				}
+			}, milliseconds, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(drain);
+			} catch (RejectedExecutionException e) {
+				scheduled.set(false);
+				throw e;
+			}
+		}
+	}
+
+	private void drain() {
+		thread = Thread.currentThread();
+		boolean transaction = commitPerBatch;
+		try {
+			if (transaction) {
+				beginTransaction();
+			}
+			try {
+				for (int i = 0; i < BATCH_SIZE; i++) {
+					Runnable runnable = queue.poll();
+					if (runnable == null) {
+						break;
+					}
+					safeRun(runnable);
+				}
+			} finally {
+				if (transaction) {
+					commitTransaction();
+				}
+			}
+		} finally {
+			thread = null;
+			scheduled.set(false);
+			// pick up runnables that were added after the last poll, or that
+			// did not fit into this batch
+			if (!queue.isEmpty()) {
+				schedule();
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -60,20 +60,64 @@ import org.eclipse.core.runtime.Status;
 public class ObservableTracker {
 
 	/**
-	 * Threadlocal storage pointing to the current Set of IObservables, or null
-	 * if none. Note that this is actually the top of a stack. Whenever a method
-	 * changes the current value, it remembers the old value as a local variable
-	 * and restores the old value when the method exits.
+	 * The tracking state of one thread. Note that the fields are actually the
+	 * top of a stack. Whenever a method changes the current value, it
+	 * remembers the old value as a local variable and restores the old value
+	 * when the method exits.
 	 */
-	private static ThreadLocal currentChangeListener = new ThreadLocal();
+	private static final class TrackingContext {
+		/**
+		 * The current Set of IObservables read from, or null if none.
+		 */
+		Set getterCalledSet;
 
-	private static ThreadLocal currentStaleListener = new ThreadLocal();
+		IChangeListener changeListener;
 
-	private static ThreadLocal currentGetterCalledSet = new ThreadLocal();
+		IStaleListener staleListener;
 
-	private static ThreadLocal currentObservableCreatedSet = new ThreadLocal();
+		Set observableCreatedSet;
 
-	private static ThreadLocal currentIgnoreCount = new ThreadLocal();
+		int ignoreCount;
+
+		/**
+		 * An empty set kept for reuse by the next (non-nested) call to
+		 * runAndMonitor or runAndCollect, or null.
+		 */
+		Set spareSet;
+
+		Set acquireSet() {
+			Set set = spareSet;
+			if (set == null) {
+				return new IdentitySet();
+			}
+			spareSet = null;
+			return set;
+		}
+
+		void releaseSet(Set set) {
+			if (set.size() <= MAX_SPARE_SET_SIZE) {
+				set.clear();
+				spareSet = set;
+			}
+		}
+	}
+
+	/**
+	 * Sets that grew larger than this are not kept for reuse.
+	 */
+	private static final int MAX_SPARE_SET_SIZE = 64;
+
+	/**
+	 * Threadlocal storage pointing to the tracking state of the current
+	 * thread. Using a single thread local which is reused for the lifetime of
+	 * the thread keeps the overhead of tracking getters low.
+	 */
+	private static ThreadLocal currentContext = new ThreadLocal() {
+		@Override
+		protected Object initialValue() {
+			return new TrackingContext();
+		}
+	};
 
 	/**
 	 * Invokes the given runnable, and returns the set of IObservables that were
@@ -92,34 +136,35 @@ public class ObservableTracker {
 	 */
 	public static IObservable[] runAndMonitor(Runnable runnable,
 			IChangeListener changeListener, IStaleListener staleListener) {
+		TrackingContext context = (TrackingContext) currentContext.get();
 		// Remember the previous value in the listener stack
-		Set lastObservableSet = (Set) currentGetterCalledSet.get();
-		IChangeListener lastChangeListener = (IChangeListener) currentChangeListener
-				.get();
-		IStaleListener lastStaleListener = (IStaleListener) currentStaleListener
-				.get();
-		Integer lastIgnore = (Integer) currentIgnoreCount.get();
+		Set lastObservableSet = context.getterCalledSet;
+		IChangeListener lastChangeListener = context.changeListener;
+		IStaleListener lastStaleListener = context.staleListener;
+		int lastIgnore = context.ignoreCount;
 
-		Set observableSet = new IdentitySet();
+		Set observableSet = context.acquireSet();
 		// Push the new listeners to the top of the stack
-		currentGetterCalledSet.set(observableSet);
-		currentChangeListener.set(changeListener);
-		currentStaleListener.set(staleListener);
-		currentIgnoreCount.set(null);
+		context.getterCalledSet = observableSet;
+		context.changeListener = changeListener;
+		context.staleListener = staleListener;
+		context.ignoreCount = 0;
 		try {
 			runnable.run();
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentGetterCalledSet.set(lastObservableSet);
-			currentChangeListener.set(lastChangeListener);
-			currentStaleListener.set(lastStaleListener);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			context.getterCalledSet = lastObservableSet;
+			context.changeListener = lastChangeListener;
+			context.staleListener = lastStaleListener;
+			checkUnmatchedIgnore(context, runnable);
+			context.ignoreCount = lastIgnore;
 		}
 
-		return (IObservable[]) observableSet
+		IObservable[] result = (IObservable[]) observableSet
 				.toArray(new IObservable[observableSet.size()]);
+		context.releaseSet(observableSet);
+		return result;
 	}
 
 	/**
@@ -139,29 +184,33 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static IObservable[] runAndCollect(Runnable runnable) {
-		Set lastObservableCreatedSet = (Set) currentObservableCreatedSet.get();
-		Integer lastIgnore = (Integer) currentIgnoreCount.get();
+		TrackingContext context = (TrackingContext) currentContext.get();
+		Set lastObservableCreatedSet = context.observableCreatedSet;
+		int lastIgnore = context.ignoreCount;
 
-		Set observableSet = new IdentitySet();
+		Set observableSet = context.acquireSet();
 		// Push the new listeners to the top of the stack
-		currentObservableCreatedSet.set(observableSet);
-		currentIgnoreCount.set(null);
+		context.observableCreatedSet = observableSet;
+		context.ignoreCount = 0;
 		try {
 			runnable.run();
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentObservableCreatedSet.set(lastObservableCreatedSet);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			context.observableCreatedSet = lastObservableCreatedSet;
+			checkUnmatchedIgnore(context, runnable);
+			context.ignoreCount = lastIgnore;
 		}
 
-		return (IObservable[]) observableSet
+		IObservable[] result = (IObservable[]) observableSet
 				.toArray(new IObservable[observableSet.size()]);
+		context.releaseSet(observableSet);
+		return result;
 	}
 
-	private static void checkUnmatchedIgnore(Runnable runnable) {
-		if (isIgnore()) {
+	private static void checkUnmatchedIgnore(TrackingContext context,
+			Runnable runnable) {
+		if (context.ignoreCount > 0) {
 			Policy
 					.getLog()
 					.log(
@@ -169,7 +218,7 @@ public class ObservableTracker {
 									IStatus.ERROR,
 									Policy.JFACE_DATABINDING,
 									"There were " //$NON-NLS-1$
-											+ currentIgnoreCount.get()
+											+ context.ignoreCount
 											+ " unmatched setIgnore(true) invocations in runnable " //$NON-NLS-1$
 											+ runnable));
 		}
@@ -196,15 +245,13 @@ public class ObservableTracker {
 	 * @since 1.3
 	 */
 	public static void setIgnore(boolean ignore) {
-		Integer lastCount = (Integer) currentIgnoreCount.get();
-
-		int newCount = (lastCount == null ? 0 : lastCount.intValue())
-				+ (ignore ? 1 : -1);
+		TrackingContext context = (TrackingContext) currentContext.get();
+		int newCount = context.ignoreCount + (ignore ? 1 : -1);
 
 		if (newCount < 0)
 			throw new IllegalStateException("Ignore count is already zero"); //$NON-NLS-1$
 
-		currentIgnoreCount.set(newCount == 0 ? null : new Integer(newCount));
+		context.ignoreCount = newCount;
 	}
 
 	/**
@@ -233,10 +280,6 @@ public class ObservableTracker {
 				+ Integer.toHexString(System.identityHashCode(observable));
 	}
 
-	private static boolean isIgnore() {
-		return currentIgnoreCount.get() != null;
-	}
-
 	/**
 	 * Notifies the ObservableTracker that an observable was read from. The
 	 * JavaDoc for methods that invoke this method should include the following
@@ -256,18 +299,17 @@ public class ObservableTracker {
 			Assert.isTrue(false, "Getter called outside realm of observable " //$NON-NLS-1$
 					+ toString(observable));
 
-		if (isIgnore())
+		TrackingContext context = (TrackingContext) currentContext.get();
+		if (context.ignoreCount > 0)
 			return;
 
-		Set getterCalledSet = (Set) currentGetterCalledSet.get();
+		Set getterCalledSet = context.getterCalledSet;
 		if (getterCalledSet != null && getterCalledSet.add(observable)) {
 			// If anyone is listening for observable usage...
-			IChangeListener changeListener = (IChangeListener) currentChangeListener
-					.get();
+			IChangeListener changeListener = context.changeListener;
 			if (changeListener != null)
 				observable.addChangeListener(changeListener);
-			IStaleListener staleListener = (IStaleListener) currentStaleListener
-					.get();
+			IStaleListener staleListener = context.staleListener;
 			if (staleListener != null)
 				observable.addStaleListener(staleListener);
 		}
@@ -281,9 +323,10 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static void observableCreated(IObservable observable) {
-		if (isIgnore())
+		TrackingContext context = (TrackingContext) currentContext.get();
+		if (context.ignoreCount > 0)
 			return;
-		Set observableCreatedSet = (Set) currentObservableCreatedSet.get();
+		Set observableCreatedSet = context.observableCreatedSet;
 		if (observableCreatedSet != null) {
 			observableCreatedSet.add(observable);
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 Cerner Corporation and others.
+ * Copyright (c) 2006, 2015 Cerner Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -41,6 +41,12 @@ import org.eclipse.core.internal.databinding.observable.DelayedObservableValue;
 import org.eclipse.core.internal.databinding.observable.EmptyObservableList;
 import org.eclipse.core.internal.databinding.observable.EmptyObservableSet;
 import org.eclipse.core.internal.databinding.observable.MapEntryObservableValue;
+import org.eclipse.core.internal.databinding.observable.RateLimitedObservableList;
+import org.eclipse.core.internal.databinding.observable.RateLimitedObservableSet;
+import org.eclipse.core.internal.databinding.observable.RateLimitedObservableValue;
+import org.eclipse.core.internal.databinding.observable.RateLimiter;
+import org.eclipse.core.internal.databinding.observable.RealmMirrorObservableList;
+import org.eclipse.core.internal.databinding.observable.RealmMirrorObservableValue;
 import org.eclipse.core.internal.databinding.observable.StalenessObservableValue;
 import org.eclipse.core.internal.databinding.observable.UnmodifiableObservableList;
 import org.eclipse.core.internal.databinding.observable.UnmodifiableObservableMap;
@@ -99,6 +105,262 @@ public class Observables {
 		return new DelayedObservableValue(delay, observable);
 	}
 
+	/**
+	 * Returns an observable value which passes on the changes of the given
+	 * observable value once <code>delay</code> milliseconds have elapsed since
+	 * its last change. Unlike {@link #observeDelayedValue(int, IObservableValue)},
+	 * the value of the returned observable only changes when a change is passed
+	 * on, and reading it does not short-circuit the delay.
+	 * <p>
+	 * While changes are pending, the returned observable is stale. Setting its
+	 * value sets the value of <code>value</code> and fires the change
+	 * immediately. All rate-limited observables of a realm share a single timer
+	 * queue, so rate-limiting many observables does not create one realm timer
+	 * per observable or per change.
+	 * </p>
+	 *
+	 * @param delay
+	 *            the delay in milliseconds
+	 * @param value
+	 *            the observable value to debounce
+	 * @return an observable value which passes on the changes of
+	 *         <code>value</code> once it has not changed for
+	 *         <code>delay</code> milliseconds
+	 * @since 1.5
+	 */
+	public static IObservableValue observeDebouncedValue(int delay,
+			IObservableValue value) {
+		return new RateLimitedObservableValue(value, RateLimiter.DEBOUNCE,
+				delay);
+	}
+
+	/**
+	 * Returns an unmodifiable observable list which passes on the changes of the
+	 * given observable list once <code>delay</code> milliseconds have elapsed
+	 * since its last change. Each change event of the returned list describes
+	 * all changes of <code>list</code> since the previous event.
+	 *
+	 * @param delay
+	 *            the delay in milliseconds
+	 * @param list
+	 *            the observable list to debounce
+	 * @return an observable list which passes on the changes of
+	 *         <code>list</code> once it has not changed for
+	 *         <code>delay</code> milliseconds
+	 * @see #observeDebouncedValue(int, IObservableValue)
+	 * @since 1.5
+	 */
+	public static IObservableList observeDebouncedList(int delay,
+			IObservableList list) {
+		return new RateLimitedObservableList(list, RateLimiter.DEBOUNCE, delay);
+	}
+
+	/**
+	 * Returns an unmodifiable observable set which passes on the changes of the
+	 * given observable set once <code>delay</code> milliseconds have elapsed
+	 * since its last change. Each change event of the returned set describes
+	 * all changes of <code>set</code> since the previous event.
+	 *
+	 * @param delay
+	 *            the delay in milliseconds
+	 * @param set
+	 *            the observable set to debounce
+	 * @return an observable set which passes on the changes of
+	 *         <code>set</code> once it has not changed for <code>delay</code>
+	 *         milliseconds
+	 * @see #observeDebouncedValue(int, IObservableValue)
+	 * @since 1.5
+	 */
+	public static IObservableSet observeDebouncedSet(int delay,
+			IObservableSet set) {
+		return new RateLimitedObservableSet(set, RateLimiter.DEBOUNCE, delay);
+	}
+
+	/**
+	 * Returns an observable value which passes on the changes of the given
+	 * observable value at most once every <code>delay</code> milliseconds. A
+	 * change is passed on immediately if the last one was passed on at least
+	 * <code>delay</code> milliseconds ago. Otherwise it is passed on together
+	 * with any further changes once the delay has elapsed. This keeps a widget
+	 * following a continuously changing model, such as the progress of a job,
+	 * both current and responsive.
+	 *
+	 * @param delay
+	 *            the minimum time between two changes in milliseconds
+	 * @param value
+	 *            the observable value to throttle
+	 * @return an observable value which passes on the changes of
+	 *         <code>value</code> at most once every <code>delay</code>
+	 *         milliseconds
+	 * @see #observeDebouncedValue(int, IObservableValue)
+	 * @since 1.5
+	 */
+	public static IObservableValue observeThrottledValue(int delay,
+			IObservableValue value) {
+		return new RateLimitedObservableValue(value, RateLimiter.THROTTLE,
+				delay);
+	}
+
+	/**
+	 * Returns an unmodifiable observable list which passes on the changes of the
+	 * given observable list at most once every <code>delay</code> milliseconds.
+	 *
+	 * @param delay
+	 *            the minimum time between two changes in milliseconds
+	 * @param list
+	 *            the observable list to throttle
+	 * @return an observable list which passes on the changes of
+	 *         <code>list</code> at most once every <code>delay</code>
+	 *         milliseconds
+	 * @see #observeThrottledValue(int, IObservableValue)
+	 * @see #observeDebouncedList(int, IObservableList)
+	 * @since 1.5
+	 */
+	public static IObservableList observeThrottledList(int delay,
+			IObservableList list) {
+		return new RateLimitedObservableList(list, RateLimiter.THROTTLE, delay);
+	}
+
+	/**
+	 * Returns an unmodifiable observable set which passes on the changes of the
+	 * given observable set at most once every <code>delay</code> milliseconds.
+	 *
+	 * @param delay
+	 *            the minimum time between two changes in milliseconds
+	 * @param set
+	 *            the observable set to throttle
+	 * @return an observable set which passes on the changes of
+	 *         <code>set</code> at most once every <code>delay</code>
+	 *         milliseconds
+	 * @see #observeThrottledValue(int, IObservableValue)
+	 * @see #observeDebouncedSet(int, IObservableSet)
+	 * @since 1.5
+	 */
+	public static IObservableSet observeThrottledSet(int delay,
+			IObservableSet set) {
+		return new RateLimitedObservableSet(set, RateLimiter.THROTTLE, delay);
+	}
+
+	/**
+	 * Returns an observable value which samples the given observable value
+	 * every <code>delay</code> milliseconds while it keeps changing. The first
+	 * change is passed on <code>delay</code> milliseconds after it happened,
+	 * rather than immediately as with
+	 * {@link #observeThrottledValue(int, IObservableValue)}.
+	 *
+	 * @param delay
+	 *            the sampling period in milliseconds
+	 * @param value
+	 *            the observable value to sample
+	 * @return an observable value which passes on the changes of
+	 *         <code>value</code> once every <code>delay</code> milliseconds
+	 * @see #observeDebouncedValue(int, IObservableValue)
+	 * @since 1.5
+	 */
+	public static IObservableValue observeSampledValue(int delay,
+			IObservableValue value) {
+		return new RateLimitedObservableValue(value, RateLimiter.SAMPLE, delay);
+	}
+
+	/**
+	 * Returns an unmodifiable observable list which samples the given
+	 * observable list every <code>delay</code> milliseconds while it keeps
+	 * changing. This shows a rapidly growing list, such as the tail of a log,
+	 * at a fixed refresh rate.
+	 *
+	 * @param delay
+	 *            the sampling period in milliseconds
+	 * @param list
+	 *            the observable list to sample
+	 * @return an observable list which passes on the changes of
+	 *         <code>list</code> once every <code>delay</code> milliseconds
+	 * @see #observeSampledValue(int, IObservableValue)
+	 * @see #observeDebouncedList(int, IObservableList)
+	 * @since 1.5
+	 */
+	public static IObservableList observeSampledList(int delay,
+			IObservableList list) {
+		return new RateLimitedObservableList(list, RateLimiter.SAMPLE, delay);
+	}
+
+	/**
+	 * Returns an unmodifiable observable set which samples the given
+	 * observable set every <code>delay</code> milliseconds while it keeps
+	 * changing.
+	 *
+	 * @param delay
+	 *            the sampling period in milliseconds
+	 * @param set
+	 *            the observable set to sample
+	 * @return an observable set which passes on the changes of
+	 *         <code>set</code> once every <code>delay</code> milliseconds
+	 * @see #observeSampledValue(int, IObservableValue)
+	 * @see #observeDebouncedSet(int, IObservableSet)
+	 * @since 1.5
+	 */
+	public static IObservableSet observeSampledSet(int delay,
+			IObservableSet set) {
+		return new RateLimitedObservableSet(set, RateLimiter.SAMPLE, delay);
+	}
+
+	/**
+	 * Returns an unmodifiable observable value in the given realm which
+	 * mirrors the given observable value of another realm. Changes of
+	 * <code>value</code> are handed over to <code>realm</code>
+	 * asynchronously; if <code>value</code> changes several times before the
+	 * hand-over, the mirror only takes on its latest value.
+	 * <p>
+	 * This allows models to be updated and bound in a non-UI realm, such as an
+	 * {@link ExecutorRealm}, while widgets and viewers observe mirrors in the
+	 * UI realm. The mirror starts out with a <code>null</code> value until the
+	 * current value of <code>value</code> has been handed over. Disposing the
+	 * mirror does not dispose <code>value</code>.
+	 * </p>
+	 *
+	 * @param realm
+	 *            the realm of the mirror
+	 * @param value
+	 *            the observable value to mirror
+	 * @return an unmodifiable observable value in <code>realm</code> which
+	 *         mirrors <code>value</code>
+	 * @since 1.5
+	 */
+	public static IObservableValue mirrorObservableValue(Realm realm,
+			IObservableValue value) {
+		Assert.isNotNull(value, "Argument 'value' cannot be null"); //$NON-NLS-1$
+		return new RealmMirrorObservableValue(realm, value);
+	}
+
+	/**
+	 * Returns an unmodifiable observable list in the given realm which mirrors
+	 * the given observable list of another realm. Changes of
+	 * <code>list</code> are handed over to <code>realm</code>
+	 * asynchronously, and all changes made before a hand-over are fired as a
+	 * single change event. Combined with a transaction in the realm of
+	 * <code>list</code>, this makes it possible to sync large models on a
+	 * worker thread and update a viewer once with the net change.
+	 * <p>
+	 * The mirror starts out empty until the current contents of
+	 * <code>list</code> have been handed over. Disposing the mirror does not
+	 * dispose <code>list</code>.
+	 * </p>
+	 *
+	 * @param realm
+	 *            the realm of the mirror
+	 * @param list
+	 *            the observable list to mirror
+	 * @return an unmodifiable observable list in <code>realm</code> which
+	 *         mirrors <code>list</code>
+	 * @see #mirrorObservableValue(Realm, IObservableValue)
+	 * @see Realm#beginTransaction()
+	 * @since 1.5
+	 */
+	public static IObservableList mirrorObservableList(Realm realm,
+			IObservableList list) {
+		Assert.isNotNull(list, "Argument 'list' cannot be null"); //$NON-NLS-1$
+		return new RealmMirrorObservableList(realm, list);
+	}
+
 	/**
 	 * Returns an unmodifiable observable value backed by the given observable
 	 * value.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import java.util.TimerTask;
 
 import org.eclipse.core.databinding.util.Policy;
 import org.eclipse.core.internal.databinding.observable.Queue;
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
@@ -120,6 +121,12 @@ public abstract class Realm {
 
 	Queue workQueue = new Queue();
 
+	/**
+	 * The currently open transaction, or <code>null</code>. Only accessed
+	 * from within this realm.
+	 */
+	private RealmTransaction transaction;
+
 	/**
 	 * Runs the given runnable. If an exception occurs within the runnable, it
 	 * is logged and not re-thrown. If the runnable implements
@@ -322,6 +329,109 @@ public abstract class Realm {
 		}
 	}
 
+	/**
+	 * Begins a transaction in this realm. Until the matching call to
+	 * {@link #commitTransaction()}, change events fired by observables of this
+	 * realm are not delivered to their listeners. Instead, the events of each
+	 * observable are coalesced into one {@link ChangeEvent} and one value,
+	 * list, set or map change event whose diff describes the net change since
+	 * the transaction began. Observables whose net change is empty do not fire
+	 * at all. Other events, such as stale and dispose events, are delivered
+	 * immediately.
+	 * <p>
+	 * This allows a model to change many properties at once while bindings,
+	 * computed values and widgets react only once per observable. Note that
+	 * observables may be in a different state than their listeners have been
+	 * told until the transaction is committed.
+	 * </p>
+	 * <p>
+	 * Transactions may be nested; events are delivered when the outermost
+	 * transaction is committed. This method must be called from within this
+	 * realm, and every call must be paired with a call to
+	 * {@link #commitTransaction()} in a <code>finally</code> block:
+	 * </p>
+	 *
+	 * <pre>
+	 * realm.beginTransaction();
+	 * try {
+	 * 	// change observables
+	 * } finally {
+	 * 	realm.commitTransaction();
+	 * }
+	 * </pre>
+	 *
+	 * @see #runInTransaction(Runnable)
+	 * @since 1.5
+	 */
+	public void beginTransaction() {
+		Assert.isTrue(isCurrent(), "Transactions must be begun within the realm"); //$NON-NLS-1$
+		if (transaction == null) {
+			transaction = new RealmTransaction();
+		}
+		transaction.begin();
+	}
+
+	/**
+	 * Commits the transaction begun by the matching call to
+	 * {@link #beginTransaction()}. If this ends the outermost transaction, all
+	 * deferred change events are delivered, one set of coalesced events per
+	 * observable, in the order in which the observables first changed.
+	 *
+	 * @since 1.5
+	 */
+	public void commitTransaction() {
+		Assert.isTrue(isCurrent(), "Transactions must be committed within the realm"); //$NON-NLS-1$
+		Assert.isTrue(transaction != null, "No transaction to commit"); //$NON-NLS-1$
+		RealmTransaction current = transaction;
+		if (current.end()) {
+			transaction = null;
+			current.dispatch();
+		}
+	}
+
+	/**
+	 * Returns whether a transaction is open in this realm.
+	 *
+	 * @return <code>true</code> if a transaction is open
+	 * @see #beginTransaction()
+	 * @since 1.5
+	 */
+	public boolean isInTransaction() {
+		return transaction != null;
+	}
+
+	/**
+	 * Runs the given runnable within a transaction of this realm. The runnable
+	 * is run in the calling thread, which must be within this realm.
+	 *
+	 * @param runnable
+	 *            the runnable to run
+	 * @see #beginTransaction()
+	 * @since 1.5
+	 */
+	public void runInTransaction(Runnable runnable) {
+		beginTransaction();
+		try {
+			runnable.run();
+		} finally {
+			commitTransaction();
+		}
+	}
+
+	/**
+	 * Defers the given event if a transaction is open in this realm.
+	 *
+	 * @param manager
+	 *            the change manager firing the event
+	 * @param event
+	 *            the event
+	 * @return <code>true</code> if the event was deferred
+	 */
+	/* package */boolean deferEvent(ChangeManager manager, ObservableEvent event) {
+		RealmTransaction current = transaction;
+		return current != null && isCurrent() && current.defer(manager, event);
+	}
+
 	/**
 	 * Sets the provided <code>realm</code> as the default for the duration of
 	 * {@link Runnable#run()} and resets the previous realm after completion.
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.map.IObservableMap;
+import org.eclipse.core.databinding.observable.map.MapChangeEvent;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.set.IObservableSet;
+import org.eclipse.core.databinding.observable.set.SetChangeEvent;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.internal.databinding.identity.IdentityWrapper;
+
+/**
+ * Collects the change events fired within a realm transaction and delivers
+ * them, coalesced per observable, when the transaction is committed.
+ * <p>
+ * Only {@link ChangeEvent}s, {@link ValueChangeEvent}s,
+ * {@link ListChangeEvent}s, {@link SetChangeEvent}s and
+ * {@link MapChangeEvent}s are deferred. All other events are dispatched
+ * immediately.
+ * </p>
+ *
+ * @since 1.5
+ * @see Realm#beginTransaction()
+ */
+/* package */final class RealmTransaction {
+
+	/**
+	 * The events deferred for one change manager.
+	 */
+	private static final class PendingEvents {
+		final ChangeManager manager;
+
+		ChangeEvent changeEvent;
+
+		ValueChangeEvent valueEvent;
+		Object oldValue;
+
+		ListChangeEvent listEvent;
+		List listEntries;
+
+		SetChangeEvent setEvent;
+		Set additions;
+		Set removals;
+
+		MapChangeEvent mapEvent;
+		/**
+		 * Maps each changed key to its entry, in the order the keys were
+		 * first changed.
+		 */
+		Map mapEntries;
+
+		PendingEvents(ChangeManager manager) {
+			this.manager = manager;
+		}
+
+		void add(ObservableEvent event) {
+			if (event instanceof ChangeEvent) {
+				if (changeEvent == null) {
+					changeEvent = (ChangeEvent) event;
+				}
+			} else if (event instanceof ValueChangeEvent) {
+				ValueChangeEvent e = (ValueChangeEvent) event;
+				if (valueEvent == null) {
+					oldValue = e.diff.getOldValue();
+				}
+				valueEvent = e;
+			} else if (event instanceof ListChangeEvent) {
+				ListChangeEvent e = (ListChangeEvent) event;
+				if (listEvent == null) {
+					listEntries = new ArrayList();
+				}
+				listEvent = e;
+				ListDiffEntry[] entries = e.diff.getDifferences();
+				for (int i = 0; i < entries.length; i++) {
+					listEntries.add(entries[i]);
+				}
+			} else if (event instanceof SetChangeEvent) {
+				SetChangeEvent e = (SetChangeEvent) event;
+				if (setEvent == null) {
+					additions = new HashSet();
+					removals = new HashSet();
+				}
+				setEvent = e;
+				mergeSetDiff(e.diff);
+			} else if (event instanceof MapChangeEvent) {
+				MapChangeEvent e = (MapChangeEvent) event;
+				if (mapEvent == null) {
+					mapEntries = new LinkedHashMap();
+				}
+				mapEvent = e;
+				mergeMapDiff(e.diff);
+			}
+		}
+
+		private void mergeSetDiff(SetDiff diff) {
+			for (Iterator it = diff.getRemovals().iterator(); it.hasNext();) {
+				Object element = it.next();
+				// removing an element added earlier in the transaction
+				// cancels out
+				if (!additions.remove(element)) {
+					removals.add(element);
+				}
+			}
+			for (Iterator it = diff.getAdditions().iterator(); it.hasNext();) {
+				Object element = it.next();
+				if (!removals.remove(element)) {
+					additions.add(element);
+				}
+			}
+		}
+
+		private void mergeMapDiff(MapDiff diff) {
+			for (Iterator it = diff.getRemovedKeys().iterator(); it.hasNext();) {
+				Object key = it.next();
+				MapEntry entry = getMapEntry(key, true, diff.getOldValue(key));
+				entry.hasNewValue = false;
+				entry.newValue = null;
+			}
+			for (Iterator it = diff.getAddedKeys().iterator(); it.hasNext();) {
+				Object key = it.next();
+				MapEntry entry = getMapEntry(key, false, null);
+				entry.hasNewValue = true;
+				entry.newValue = diff.getNewValue(key);
+			}
+			for (Iterator it = diff.getChangedKeys().iterator(); it.hasNext();) {
+				Object key = it.next();
+				MapEntry entry = getMapEntry(key, true, diff.getOldValue(key));
+				entry.hasNewValue = true;
+				entry.newValue = diff.getNewValue(key);
+			}
+		}
+
+		/**
+		 * Returns the entry of the given key, creating it with the given old
+		 * state if this is the first change of the key in the transaction.
+		 */
+		private MapEntry getMapEntry(Object key, boolean hadOldValue,
+				Object oldValue) {
+			MapEntry entry = (MapEntry) mapEntries.get(key);
+			if (entry == null) {
+				entry = new MapEntry(hadOldValue, oldValue);
+				mapEntries.put(key, entry);
+			}
+			return entry;
+		}
+
+		private MapDiff createMapDiff() {
+			Set addedKeys = new HashSet();
+			Set removedKeys = new HashSet();
+			Set changedKeys = new HashSet();
+			Map oldValues = new HashMap();
+			Map newValues = new HashMap();
+			for (Iterator it = mapEntries.entrySet().iterator(); it.hasNext();) {
+				Map.Entry mapEntry = (Map.Entry) it.next();
+				Object key = mapEntry.getKey();
+				MapEntry entry = (MapEntry) mapEntry.getValue();
+				if (entry.hadOldValue && entry.hasNewValue) {
+					if (Diffs.equals(entry.oldValue, entry.newValue)) {
+						continue;
+					}
+					changedKeys.add(key);
+				} else if (entry.hadOldValue) {
+					removedKeys.add(key);
+				} else if (entry.hasNewValue) {
+					addedKeys.add(key);
+				} else {
+					// added and removed again
+					continue;
+				}
+				if (entry.hadOldValue) {
+					oldValues.put(key, entry.oldValue);
+				}
+				if (entry.hasNewValue) {
+					newValues.put(key, entry.newValue);
+				}
+			}
+			if (addedKeys.isEmpty() && removedKeys.isEmpty()
+					&& changedKeys.isEmpty()) {
+				return null;
+			}
+			return Diffs.createMapDiff(addedKeys, removedKeys, changedKeys,
+					oldValues, newValues);
+		}
+
+		/**
+		 * Dispatches the coalesced events. Nothing is dispatched if the
+		 * coalesced diff turns out to be empty.
+		 */
+		void dispatch() {
+			ObservableEvent specificEvent = null;
+			if (valueEvent != null) {
+				Object newValue = valueEvent.diff.getNewValue();
+				if (Diffs.equals(oldValue, newValue)) {
+					return;
+				}
+				specificEvent = new ValueChangeEvent(
+						(IObservableValue) valueEvent.getObservable(),
+						Diffs.createValueDiff(oldValue, newValue));
+			} else if (listEvent != null) {
+				if (listEntries.isEmpty()) {
+					return;
+				}
+				specificEvent = new ListChangeEvent(
+						(IObservableList) listEvent.getObservable(),
+						Diffs.createListDiff((ListDiffEntry[]) listEntries
+								.toArray(new ListDiffEntry[listEntries.size()])));
+			} else if (setEvent != null) {
+				if (additions.isEmpty() && removals.isEmpty()) {
+					return;
+				}
+				specificEvent = new SetChangeEvent(
+						(IObservableSet) setEvent.getObservable(),
+						Diffs.createSetDiff(additions, removals));
+			} else if (mapEvent != null) {
+				MapDiff diff = createMapDiff();
+				if (diff == null) {
+					return;
+				}
+				specificEvent = new MapChangeEvent(
+						(IObservableMap) mapEvent.getObservable(), diff);
+			}
+
+			if (changeEvent != null) {
+				manager.dispatchEvent(changeEvent);
+			}
+			if (specificEvent != null) {
+				manager.dispatchEvent(specificEvent);
+			}
+		}
+	}
+
+	/**
+	 * The state of one key of a map before the transaction and after the
+	 * latest change within the transaction.
+	 */
+	private static final class MapEntry {
+		final boolean hadOldValue;
+		final Object oldValue;
+
+		boolean hasNewValue;
+		Object newValue;
+
+		MapEntry(boolean hadOldValue, Object oldValue) {
+			this.hadOldValue = hadOldValue;
+			this.oldValue = oldValue;
+		}
+	}
+
+	private int depth = 0;
+
+	/**
+	 * Maps identity-wrapped change managers to their pending events, in the
+	 * order of their first deferred event.
+	 */
+	private Map pending = new LinkedHashMap();
+
+	/**
+	 * Increments the nesting depth of this transaction.
+	 */
+	void begin() {
+		depth++;
+	}
+
+	/**
+	 * Decrements the nesting depth of this transaction.
+	 *
+	 * @return <code>true</code> if the outermost transaction has ended and
+	 *         the deferred events should be dispatched
+	 */
+	boolean end() {
+		return --depth == 0;
+	}
+
+	/**
+	 * Defers the given event if it is of a type that is coalesced.
+	 *
+	 * @param manager
+	 *            the change manager that fires the event
+	 * @param event
+	 *            the event
+	 * @return <code>true</code> if the event was deferred,
+	 *         <code>false</code> if it has to be dispatched immediately
+	 */
+	boolean defer(ChangeManager manager, ObservableEvent event) {
+		if (!(event instanceof ChangeEvent || event instanceof ValueChangeEvent
+				|| event instanceof ListChangeEvent
+				|| event instanceof SetChangeEvent || event instanceof MapChangeEvent)) {
+			return false;
+		}
+		IdentityWrapper key = IdentityWrapper.wrap(manager);
+		PendingEvents events = (PendingEvents) pending.get(key);
+		if (events == null) {
+			events = new PendingEvents(manager);
+			pending.put(key, events);
+		}
+		events.add(event);
+		return true;
+	}
+
+	/**
+	 * Dispatches all deferred events, one set of events per change manager.
+	 */
+	void dispatch() {
+		Map toDispatch = pending;
+		pending = new LinkedHashMap();
+		for (Iterator it = toDispatch.values().iterator(); it.hasNext();) {
+			((PendingEvents) it.next()).dispatch();
+		}
+	}
+}
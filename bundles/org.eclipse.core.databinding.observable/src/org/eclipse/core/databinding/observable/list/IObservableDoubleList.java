@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * An observable list of <code>double</code> elements that can be read and written
+ * without boxing the elements.
+ * <p>
+ * The element type of an observable double list is {@link Double#TYPE}. The
+ * methods inherited from {@link IObservableList} deal with {@link Double}
+ * objects.
+ * </p>
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ *              Clients should instead subclass one of the classes that
+ *              implement this interface.
+ *
+ * @see WritableDoubleList
+ *
+ * @since 1.5
+ */
+public interface IObservableDoubleList extends IObservableList {
+
+	/**
+	 * Returns the element at the given position. Must be invoked in the
+	 * {@link Realm} of the observable.
+	 *
+	 * @param index
+	 *            the position of the element
+	 * @return the element at the given position
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 * @TrackedGetter
+	 */
+	public double getDouble(int index);
+
+	/**
+	 * Replaces the element at the given position. Must be invoked in the
+	 * {@link Realm} of the observable.
+	 *
+	 * @param index
+	 *            the position of the element
+	 * @param element
+	 *            the new element
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public void setDouble(int index, double element);
+
+	/**
+	 * Appends the given element to the list. Must be invoked in the
+	 * {@link Realm} of the observable.
+	 *
+	 * @param element
+	 *            the element to append
+	 */
+	public void addDouble(double element);
+
+	/**
+	 * Returns a new array containing the elements of this list, in order.
+	 *
+	 * @return the elements of this list
+	 * @TrackedGetter
+	 */
+	public double[] toDoubleArray();
+}
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableIntList} that keeps
+ * its elements in an <code>int</code> array.
+ * <p>
+ * The elements are only boxed when they are read through the generic
+ * {@link java.util.List} methods, or for the diffs of list change events.
+ * No diffs are created while the list has no listeners, and replacing an
+ * element with an equal one does not fire an event.
+ * </p>
+ * <p>
+ * The array grows by half its size when it is full, so appending is cheap,
+ * while inserting or removing elsewhere shifts the elements behind. The
+ * generic {@link java.util.List} methods only accept non-null
+ * {@link Integer}s. The list must only be accessed in the
+ * {@link Realm#isCurrent() current realm}.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class WritableIntList extends AbstractObservableList implements
+		IObservableIntList {
+
+	private int[] elements;
+
+	private int size;
+
+	/**
+	 * Creates an empty list in the default realm.
+	 */
+	public WritableIntList() {
+		this(Realm.getDefault());
+	}
+
+	/**
+	 * Creates an empty list in the given realm.
+	 *
+	 * @param realm
+	 */
+	public WritableIntList(Realm realm) {
+		this(realm, new int[0]);
+	}
+
+	/**
+	 * Creates a list in the given realm, containing the given elements. The
+	 * array is copied.
+	 *
+	 * @param realm
+	 * @param initialElements
+	 */
+	public WritableIntList(Realm realm, int[] initialElements) {
+		super(realm);
+		this.elements = initialElements.clone();
+		this.size = initialElements.length;
+	}
+
+	@Override
+	protected int doGetSize() {
+		return size;
+	}
+
+	@Override
+	public Object getElementType() {
+		return Integer.TYPE;
+	}
+
+	@Override
+	public int getInt(int index) {
+		ObservableTracker.getterCalled(this);
+		checkIndex(index);
+		return elements[index];
+	}
+
+	@Override
+	public Object get(int index) {
+		return Integer.valueOf(getInt(index));
+	}
+
+	@Override
+	public int[] toIntArray() {
+		ObservableTracker.getterCalled(this);
+		int[] result = new int[size];
+		System.arraycopy(elements, 0, result, 0, size);
+		return result;
+	}
+
+	@Override
+	public void setInt(int index, int element) {
+		checkRealm();
+		checkIndex(index);
+		int oldElement = elements[index];
+		if (oldElement != element) {
+			elements[index] = element;
+			if (hasListeners()) {
+				fireListChange(Diffs.createListDiff(Diffs.createListDiffEntry(
+						index, false, Integer.valueOf(oldElement)), Diffs
+						.createListDiffEntry(index, true, Integer.valueOf(element))));
+			}
+		}
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		checkRealm();
+		checkIndex(index);
+		int oldElement = elements[index];
+		setInt(index, unbox(element));
+		return Integer.valueOf(oldElement);
+	}
+
+	@Override
+	public void addInt(int element) {
+		checkRealm();
+		insert(size, element);
+	}
+
+	@Override
+	public boolean add(Object element) {
+		checkRealm();
+		insert(size, unbox(element));
+		return true;
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		checkRealm();
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException(
+					"index: " + index + ", size:" + size); //$NON-NLS-1$ //$NON-NLS-2$
+		insert(index, unbox(element));
+	}
+
+	@Override
+	public Object remove(int index) {
+		checkRealm();
+		checkIndex(index);
+		int element = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index
+				- 1);
+		size--;
+		modCount++;
+		Object boxed = Integer.valueOf(element);
+		if (hasListeners()) {
+			fireListChange(Diffs.createListDiff(Diffs.createListDiffEntry(
+					index, false, boxed)));
+		}
+		return boxed;
+	}
+
+	@Override
+	public Object move(int oldIndex, int newIndex) {
+		checkRealm();
+		if (oldIndex < 0 || oldIndex >= size)
+			throw new IndexOutOfBoundsException(
+					"oldIndex: " + oldIndex + ", size:" + size); //$NON-NLS-1$ //$NON-NLS-2$
+		if (newIndex < 0 || newIndex >= size)
+			throw new IndexOutOfBoundsException(
+					"newIndex: " + newIndex + ", size:" + size); //$NON-NLS-1$ //$NON-NLS-2$
+		int element = elements[oldIndex];
+		Object boxed = Integer.valueOf(element);
+		if (oldIndex == newIndex)
+			return boxed;
+		if (oldIndex < newIndex) {
+			System.arraycopy(elements, oldIndex + 1, elements, oldIndex,
+					newIndex - oldIndex);
+		} else {
+			System.arraycopy(elements, newIndex, elements, newIndex + 1,
+					oldIndex - newIndex);
+		}
+		elements[newIndex] = element;
+		modCount++;
+		if (hasListeners()) {
+			fireListChange(Diffs.createListDiff(
+					Diffs.createListDiffEntry(oldIndex, false, boxed),
+					Diffs.createListDiffEntry(newIndex, true, boxed)));
+		}
+		return boxed;
+	}
+
+	@Override
+	public void clear() {
+		checkRealm();
+		if (size == 0) {
+			return;
+		}
+		ListDiffEntry[] entries = null;
+		if (hasListeners()) {
+			// remove the elements from back to front, like WritableList
+			entries = new ListDiffEntry[size];
+			for (int i = 0; i < size; i++) {
+				int index = size - 1 - i;
+				entries[i] = Diffs.createListDiffEntry(index, false, Integer
+						.valueOf(elements[index]));
+			}
+		}
+		size = 0;
+		modCount++;
+		if (entries != null) {
+			fireListChange(Diffs.createListDiff(entries));
+		}
+	}
+
+	private void insert(int index, int element) {
+		if (size == elements.length) {
+			int[] grown = new int[Math.max(8, size + (size >> 1))];
+			System.arraycopy(elements, 0, grown, 0, size);
+			elements = grown;
+		}
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = element;
+		size++;
+		modCount++;
+		if (hasListeners()) {
+			fireListChange(Diffs.createListDiff(Diffs.createListDiffEntry(
+					index, true, Integer.valueOf(element))));
+		}
+	}
+
+	private static int unbox(Object element) {
+		if (element == null) {
+			throw new IllegalArgumentException("Element cannot be null"); //$NON-NLS-1$
+		}
+		return ((Integer) element).intValue();
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(
+					"index: " + index + ", size:" + size); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2009 Matthew Hall and others.
+ * Copyright (c) 2008, 2015 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,7 @@ import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.internal.databinding.observable.DependencyListeners;
 
 /**
  * A lazily calculated set that automatically computes and registers listeners
@@ -191,23 +192,32 @@ public abstract class ComputedSet extends AbstractObservableSet {
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
 			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+					privateInterface, null, null);
+
+			// Only hook and unhook the dependencies that changed
+			DependencyListeners.update(dependencies, newDependencies,
+					privateInterface, privateInterface);
 
 			// If any dependencies are stale, a stale event will be fired here
 			// even if we were already stale before recomputing. This is in case
 			// clients assume that a set change is indicative of non-staleness.
 			stale = false;
-			for (int i = 0; i < newDependencies.length; i++) {
-				if (newDependencies[i].isStale()) {
-					makeStale();
-					break;
-				}
-			}
-
-			if (!stale) {
+			boolean dependencyStale = false;
+			// isStale() is a tracked getter, but our dependencies must not
+			// become dependencies of whoever is tracking us
+			ObservableTracker.setIgnore(true);
+			try {
 				for (int i = 0; i < newDependencies.length; i++) {
-					newDependencies[i].addStaleListener(privateInterface);
+					if (newDependencies[i].isStale()) {
+						dependencyStale = true;
+						break;
+					}
 				}
+			} finally {
+				ObservableTracker.setIgnore(false);
+			}
+			if (dependencyStale) {
+				makeStale();
 			}
 
 			dependencies = newDependencies;
@@ -239,7 +249,12 @@ public abstract class ComputedSet extends AbstractObservableSet {
 			final Set oldSet = new HashSet(cachedSet);
 			makeStale();
 
-			stopListening();
+			// Keep listening to the dependencies while somebody is listening to
+			// us, so that only the dependencies that change have to be hooked
+			// and unhooked on the next calculation.
+			if (!hasListeners()) {
+				stopListening();
+			}
 
 			// Fire the "dirty" event. This implementation recomputes the new
 			// set lazily.
@@ -267,12 +282,8 @@ public abstract class ComputedSet extends AbstractObservableSet {
 
 	private void stopListening() {
 		if (dependencies != null) {
-			for (int i = 0; i < dependencies.length; i++) {
-				IObservable observable = dependencies[i];
-
-				observable.removeChangeListener(privateInterface);
-				observable.removeStaleListener(privateInterface);
-			}
+			DependencyListeners.unhook(dependencies, privateInterface,
+					privateInterface);
 			dependencies = null;
 		}
 	}
@@ -324,8 +335,9 @@ public abstract class ComputedSet extends AbstractObservableSet {
 		getRealm().exec(new Runnable() {
 			@Override
 			public void run() {
-				if (dependencies == null) {
-					// We are not currently listening.
+				if (dependencies == null || dirty) {
+					// We are not currently listening, or will not notify
+					// listeners until recalculated.
 					// But someone is listening for changes. Call getValue()
 					// to make sure we start listening to the observables we
 					// depend on.
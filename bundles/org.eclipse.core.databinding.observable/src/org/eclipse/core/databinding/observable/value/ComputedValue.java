@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,8 @@ import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.internal.databinding.observable.DependencyListeners;
+import org.eclipse.core.internal.databinding.observable.Util;
 
 /**
  * A Lazily calculated value that automatically computes and registers listeners
@@ -65,16 +67,39 @@ public abstract class ComputedValue extends AbstractObservableValue {
 
 	private boolean dirty = true;
 
+	/**
+	 * Whether {@link #calculate()} must be called to recompute a dirty value.
+	 * If <code>false</code>, only computed values among the dependencies have
+	 * changed since the last calculation, and the cached value is reused if
+	 * none of their values actually changed.
+	 */
+	private boolean recalculate = true;
+
 	private boolean stale = false;
 
 	private Object cachedValue = null;
 
+	/**
+	 * Incremented whenever a calculation yields a value that is not equal to
+	 * the previous one. Dependent computed values compare this with
+	 * {@link #dependencyVersions} to find out whether they have to be
+	 * recalculated.
+	 */
+	private int version = 0;
+
 	/**
 	 * Array of observables this computed value depends on. This field has a
 	 * value of <code>null</code> if we are not currently listening.
 	 */
 	private IObservable[] dependencies = null;
 
+	/**
+	 * The {@link #version}s of the computed values in {@link #dependencies} at
+	 * the time of the last calculation, or <code>-1</code> for dependencies
+	 * which are not computed values.
+	 */
+	private int[] dependencyVersions = null;
+
 	/**
 	 *
 	 */
@@ -145,7 +170,10 @@ public abstract class ComputedValue extends AbstractObservableValue {
 
 		@Override
 		public void handleChange(ChangeEvent event) {
-			makeDirty();
+			if (!(event.getObservable() instanceof ComputedValue)) {
+				recalculate = true;
+			}
+			markDirty();
 		}
 	}
 
@@ -156,32 +184,87 @@ public abstract class ComputedValue extends AbstractObservableValue {
 	@Override
 	protected final Object doGetValue() {
 		if (dirty) {
+			if (!recalculate && dependenciesUnchanged()) {
+				// we are still listening to the same dependencies
+				dirty = false;
+				return cachedValue;
+			}
+
+			Object oldValue = cachedValue;
 			// This line will do the following:
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
 			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+					privateInterface, null, null);
+
+			// Only hook and unhook the dependencies that changed
+			DependencyListeners.update(dependencies, newDependencies,
+					privateInterface, privateInterface);
 
 			stale = false;
-			for (int i = 0; i < newDependencies.length; i++) {
-				IObservable observable = newDependencies[i];
-				// Add a change listener to the new dependency.
-				if (observable.isStale()) {
-					stale = true;
-				} else {
-					observable.addStaleListener(privateInterface);
+			int[] newDependencyVersions = new int[newDependencies.length];
+			// isStale() is a tracked getter, but our dependencies must not
+			// become dependencies of whoever is tracking us
+			ObservableTracker.setIgnore(true);
+			try {
+				for (int i = 0; i < newDependencies.length; i++) {
+					IObservable observable = newDependencies[i];
+					if (observable.isStale()) {
+						stale = true;
+					}
+					newDependencyVersions[i] = observable instanceof ComputedValue ? ((ComputedValue) observable).version
+							: -1;
 				}
+			} finally {
+				ObservableTracker.setIgnore(false);
 			}
 
+			if (!Util.equals(oldValue, cachedValue)) {
+				version++;
+			}
 			dependencies = newDependencies;
+			dependencyVersions = newDependencyVersions;
 
 			dirty = false;
+			recalculate = false;
 		}
 
 		return cachedValue;
 	}
 
+	/**
+	 * Returns whether none of the computed values among the dependencies has
+	 * changed its value since the last calculation. Called only if no other
+	 * dependency has changed.
+	 */
+	private boolean dependenciesUnchanged() {
+		if (dependencies == null) {
+			return false;
+		}
+		ObservableTracker.setIgnore(true);
+		try {
+			for (int i = 0; i < dependencies.length; i++) {
+				if (dependencyVersions[i] == -1) {
+					continue;
+				}
+				ComputedValue dependency = (ComputedValue) dependencies[i];
+				if (dependency.isDisposed()
+						|| !dependency.getRealm().isCurrent()) {
+					return false;
+				}
+				// brings the dependency up to date
+				dependency.getValue();
+				if (dependency.version != dependencyVersions[i]) {
+					return false;
+				}
+			}
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
+		return true;
+	}
+
 	/**
 	 * Subclasses must override this method to provide the object's value. Any
 	 * dependencies used to calculate the value must be {@link IObservable}, and
@@ -193,10 +276,20 @@ public abstract class ComputedValue extends AbstractObservableValue {
 	protected abstract Object calculate();
 
 	protected final void makeDirty() {
+		recalculate = true;
+		markDirty();
+	}
+
+	private void markDirty() {
 		if (!dirty) {
 			dirty = true;
 
-			stopListening();
+			// Keep listening to the dependencies while somebody is listening to
+			// us, so that only the dependencies that change have to be hooked
+			// and unhooked on the next calculation.
+			if (!hasListeners()) {
+				stopListening();
+			}
 
 			// copy the old value
 			final Object oldValue = cachedValue;
@@ -223,13 +316,11 @@ public abstract class ComputedValue extends AbstractObservableValue {
 	private void stopListening() {
 		// Stop listening for dependency changes.
 		if (dependencies != null) {
-			for (int i = 0; i < dependencies.length; i++) {
-				IObservable observable = dependencies[i];
-
-				observable.removeChangeListener(privateInterface);
-				observable.removeStaleListener(privateInterface);
-			}
+			DependencyListeners.unhook(dependencies, privateInterface,
+					privateInterface);
 			dependencies = null;
+			dependencyVersions = null;
+			recalculate = true;
 		}
 	}
 
@@ -275,8 +366,9 @@ public abstract class ComputedValue extends AbstractObservableValue {
 		getRealm().exec(new Runnable() {
 			@Override
 			public void run() {
-				if (dependencies == null) {
-					// We are not currently listening.
+				if (dependencies == null || dirty) {
+					// We are not currently listening, or will not notify
+					// listeners until recalculated.
 					if (hasListeners()) {
 						// But someone is listening for changes. Call getValue()
 						// to make sure we start listening to the observables we
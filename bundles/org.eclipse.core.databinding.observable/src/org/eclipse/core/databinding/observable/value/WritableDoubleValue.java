@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableDoubleValue} that
+ * maintains a <code>double</code> value and fires change events when the value
+ * changes.
+ * <p>
+ * Setting the value through {@link #setDoubleValue(double)} does not box the value.
+ * The diffs of the value change events box the old and new value only when a
+ * listener asks for them, and no events are created at all while the
+ * observable has no listeners.
+ * </p>
+ * <p>
+ * Values are compared like {@link Double#equals(Object)} does: setting
+ * <code>NaN</code> again does not fire an event, but changing <code>0.0</code>
+ * to <code>-0.0</code> does. {@link #setValue(Object)} only accepts non-null
+ * {@link Double}s. Like the value of any observable, the value must only be
+ * read and written in the {@link Realm#isCurrent() current realm}.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class WritableDoubleValue extends AbstractObservableValue implements
+		IObservableDoubleValue {
+
+	private double value;
+
+	/**
+	 * Constructs a new instance with the default realm and a value of
+	 * <code>0</code>.
+	 */
+	public WritableDoubleValue() {
+		this(Realm.getDefault(), 0);
+	}
+
+	/**
+	 * Constructs a new instance with the default realm.
+	 *
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableDoubleValue(double initialValue) {
+		this(Realm.getDefault(), initialValue);
+	}
+
+	/**
+	 * Constructs a new instance.
+	 *
+	 * @param realm
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableDoubleValue(Realm realm, double initialValue) {
+		super(realm);
+		this.value = initialValue;
+	}
+
+	@Override
+	public double getDoubleValue() {
+		ObservableTracker.getterCalled(this);
+		return value;
+	}
+
+	@Override
+	public void setDoubleValue(double value) {
+		checkRealm();
+		if (Double.doubleToLongBits(value) == Double
+				.doubleToLongBits(this.value)) {
+			return;
+		}
+		double oldValue = this.value;
+		this.value = value;
+		if (hasListeners()) {
+			fireValueChange(new DoubleValueDiff(oldValue, value));
+		}
+	}
+
+	@Override
+	protected Object doGetValue() {
+		return Double.valueOf(value);
+	}
+
+	/**
+	 * @param value
+	 *            the new value, a {@link Double}
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code>
+	 */
+	@Override
+	protected void doSetValue(Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Value cannot be null"); //$NON-NLS-1$
+		}
+		setDoubleValue(((Double) value).doubleValue());
+	}
+
+	@Override
+	public Object getValueType() {
+		return Double.TYPE;
+	}
+
+	private static final class DoubleValueDiff extends ValueDiff {
+		private final double oldValue;
+		private final double newValue;
+
+		DoubleValueDiff(double oldValue, double newValue) {
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		@Override
+		public Object getOldValue() {
+			return Double.valueOf(oldValue);
+		}
+
+		@Override
+		public Object getNewValue() {
+			return Double.valueOf(newValue);
+		}
+	}
+}
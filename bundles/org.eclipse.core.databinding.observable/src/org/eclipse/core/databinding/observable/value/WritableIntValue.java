@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableIntValue} that
+ * maintains a <code>int</code> value and fires change events when the value
+ * changes.
+ * <p>
+ * Setting the value through {@link #setIntValue(int)} does not box the value.
+ * The diffs of the value change events box the old and new value only when a
+ * listener asks for them, and no events are created at all while the
+ * observable has no listeners.
+ * </p>
+ * <p>
+ * Setting the value that is already held does not fire an event.
+ * {@link #setValue(Object)} only accepts non-null {@link Integer}s. Like the
+ * value of any observable, the value must only be read and written in the
+ * {@link Realm#isCurrent() current realm}.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class WritableIntValue extends AbstractObservableValue implements
+		IObservableIntValue {
+
+	private int value;
+
+	/**
+	 * Constructs a new instance with the default realm and a value of
+	 * <code>0</code>.
+	 */
+	public WritableIntValue() {
+		this(Realm.getDefault(), 0);
+	}
+
+	/**
+	 * Constructs a new instance with the default realm.
+	 *
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableIntValue(int initialValue) {
+		this(Realm.getDefault(), initialValue);
+	}
+
+	/**
+	 * Constructs a new instance.
+	 *
+	 * @param realm
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableIntValue(Realm realm, int initialValue) {
+		super(realm);
+		this.value = initialValue;
+	}
+
+	@Override
+	public int getIntValue() {
+		ObservableTracker.getterCalled(this);
+		return value;
+	}
+
+	@Override
+	public void setIntValue(int value) {
+		checkRealm();
+		if (value == this.value) {
+			return;
+		}
+		int oldValue = this.value;
+		this.value = value;
+		if (hasListeners()) {
+			fireValueChange(new IntValueDiff(oldValue, value));
+		}
+	}
+
+	@Override
+	protected Object doGetValue() {
+		return Integer.valueOf(value);
+	}
+
+	/**
+	 * @param value
+	 *            the new value, a {@link Integer}
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code>
+	 */
+	@Override
+	protected void doSetValue(Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Value cannot be null"); //$NON-NLS-1$
+		}
+		setIntValue(((Integer) value).intValue());
+	}
+
+	@Override
+	public Object getValueType() {
+		return Integer.TYPE;
+	}
+
+	private static final class IntValueDiff extends ValueDiff {
+		private final int oldValue;
+		private final int newValue;
+
+		IntValueDiff(int oldValue, int newValue) {
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		@Override
+		public Object getOldValue() {
+			return Integer.valueOf(oldValue);
+		}
+
+		@Override
+		public Object getNewValue() {
+			return Integer.valueOf(newValue);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableLongValue} that
+ * maintains a <code>long</code> value and fires change events when the value
+ * changes.
+ * <p>
+ * Setting the value through {@link #setLongValue(long)} does not box the value.
+ * The diffs of the value change events box the old and new value only when a
+ * listener asks for them, and no events are created at all while the
+ * observable has no listeners.
+ * </p>
+ * <p>
+ * Setting the value that is already held does not fire an event.
+ * {@link #setValue(Object)} only accepts non-null {@link Long}s. Like the
+ * value of any observable, the value must only be read and written in the
+ * {@link Realm#isCurrent() current realm}.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class WritableLongValue extends AbstractObservableValue implements
+		IObservableLongValue {
+
+	private long value;
+
+	/**
+	 * Constructs a new instance with the default realm and a value of
+	 * <code>0</code>.
+	 */
+	public WritableLongValue() {
+		this(Realm.getDefault(), 0);
+	}
+
+	/**
+	 * Constructs a new instance with the default realm.
+	 *
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableLongValue(long initialValue) {
+		this(Realm.getDefault(), initialValue);
+	}
+
+	/**
+	 * Constructs a new instance.
+	 *
+	 * @param realm
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableLongValue(Realm realm, long initialValue) {
+		super(realm);
+		this.value = initialValue;
+	}
+
+	@Override
+	public long getLongValue() {
+		ObservableTracker.getterCalled(this);
+		return value;
+	}
+
+	@Override
+	public void setLongValue(long value) {
+		checkRealm();
+		if (value == this.value) {
+			return;
+		}
+		long oldValue = this.value;
+		this.value = value;
+		if (hasListeners()) {
+			fireValueChange(new LongValueDiff(oldValue, value));
+		}
+	}
+
+	@Override
+	protected Object doGetValue() {
+		return Long.valueOf(value);
+	}
+
+	/**
+	 * @param value
+	 *            the new value, a {@link Long}
+	 * @throws IllegalArgumentException
+	 *             if the value is <code>null</code>
+	 */
+	@Override
+	protected void doSetValue(Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Value cannot be null"); //$NON-NLS-1$
+		}
+		setLongValue(((Long) value).longValue());
+	}
+
+	@Override
+	public Object getValueType() {
+		return Long.TYPE;
+	}
+
+	private static final class LongValueDiff extends ValueDiff {
+		private final long oldValue;
+		private final long newValue;
+
+		LongValueDiff(long oldValue, long newValue) {
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		@Override
+		public Object getOldValue() {
+			return Long.valueOf(oldValue);
+		}
+
+		@Override
+		public Object getNewValue() {
+			return Long.valueOf(newValue);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 Matthew Hall and others.
+ * Copyright (c) 2007, 2015 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -44,33 +44,6 @@ import org.eclipse.core.databinding.observable.value.ValueDiff;
  */
 public class DelayedObservableValue extends AbstractObservableValue implements
 		IStaleListener, IValueChangeListener {
-	class ValueUpdater implements Runnable {
-		private final Object oldValue;
-
-		boolean cancel = false;
-		boolean running = false;
-
-		ValueUpdater(Object oldValue) {
-			this.oldValue = oldValue;
-		}
-
-		void cancel() {
-			cancel = true;
-		}
-
-		@Override
-		public void run() {
-			if (!cancel)
-				try {
-					running = true;
-					internalFireValueChange(oldValue);
-				} finally {
-					running = false;
-				}
-		}
-	}
-
-	private final int delay;
 	private IObservableValue observable;
 
 	private boolean dirty = true;
@@ -78,7 +51,11 @@ public class DelayedObservableValue extends AbstractObservableValue implements
 
 	private boolean updating = false;
 
-	private ValueUpdater updater = null;
+	/**
+	 * Schedules the pending value change on the timer queue shared by the
+	 * realm, instead of scheduling one realm timer per change.
+	 */
+	private final RateLimiter updater;
 
 	/**
 	 * Constructs a new instance bound to the given
@@ -93,8 +70,14 @@ public class DelayedObservableValue extends AbstractObservableValue implements
 	 */
 	public DelayedObservableValue(int delayMillis, IObservableValue observable) {
 		super(observable.getRealm());
-		this.delay = delayMillis;
 		this.observable = observable;
+		this.updater = new RateLimiter(getRealm(), RateLimiter.DEBOUNCE,
+				delayMillis) {
+			@Override
+			protected void flush() {
+				internalFireValueChange(cachedValue);
+			}
+		};
 
 		observable.addValueChangeListener(this);
 		observable.addStaleListener(this);
@@ -117,13 +100,13 @@ public class DelayedObservableValue extends AbstractObservableValue implements
 	@Override
 	protected Object doGetValue() {
 		if (dirty) {
+			Object oldValue = cachedValue;
 			cachedValue = observable.getValue();
 			dirty = false;
 
-			if (updater != null && !updater.running) {
-				fireValueChange(Diffs.createValueDiff(updater.oldValue,
-						cachedValue));
-				cancelScheduledUpdate();
+			if (updater.isPending()) {
+				updater.reset();
+				fireValueChange(Diffs.createValueDiff(oldValue, cachedValue));
 			}
 		}
 		return cachedValue;
@@ -154,7 +137,7 @@ public class DelayedObservableValue extends AbstractObservableValue implements
 	@Override
 	public boolean isStale() {
 		ObservableTracker.getterCalled(this);
-		return (dirty && updater != null) || observable.isStale();
+		return (dirty && updater.isPending()) || observable.isStale();
 	}
 
 	/**
@@ -170,7 +153,7 @@ public class DelayedObservableValue extends AbstractObservableValue implements
 
 	@Override
 	public synchronized void dispose() {
-		cancelScheduledUpdate();
+		updater.dispose();
 		if (observable != null) {
 			observable.dispose();
 			observable = null;
@@ -183,20 +166,12 @@ public class DelayedObservableValue extends AbstractObservableValue implements
 			dirty = true;
 			fireStale();
 		}
-		cancelScheduledUpdate(); // if any
-		scheduleUpdate();
+		// restarts the delay
+		updater.changed();
 	}
 
 	private void cancelScheduledUpdate() {
-		if (updater != null) {
-			updater.cancel();
-			updater = null;
-		}
-	}
-
-	private void scheduleUpdate() {
-		updater = new ValueUpdater(cachedValue);
-		getRealm().timerExec(delay, updater);
+		updater.reset();
 	}
 
 	private void internalFireValueChange(final Object oldValue) {
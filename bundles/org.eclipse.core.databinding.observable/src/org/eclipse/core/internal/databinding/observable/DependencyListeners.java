@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.IChangeListener;
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.internal.databinding.identity.IdentitySet;
+
+/**
+ * Maintains the listeners that computed observables attach to their
+ * dependencies. When the dependencies are recomputed, only the observables that
+ * were added or dropped get their listeners hooked or unhooked.
+ *
+ * @since 1.5
+ */
+public class DependencyListeners {
+
+	/**
+	 * Up to this many dependencies, the old and new dependencies are compared
+	 * pairwise instead of through identity sets.
+	 */
+	private static final int SMALL_DEPENDENCY_COUNT = 8;
+
+	/**
+	 * Hooks the listeners to the observables in <code>newDependencies</code>
+	 * that are not in <code>oldDependencies</code>, and unhooks them from the
+	 * observables in <code>oldDependencies</code> that are not in
+	 * <code>newDependencies</code>.
+	 *
+	 * @param oldDependencies
+	 *            the dependencies the listeners are currently hooked to, or
+	 *            <code>null</code> if none
+	 * @param newDependencies
+	 *            the dependencies to hook the listeners to
+	 * @param changeListener
+	 * @param staleListener
+	 */
+	public static void update(IObservable[] oldDependencies,
+			IObservable[] newDependencies, IChangeListener changeListener,
+			IStaleListener staleListener) {
+		if (oldDependencies == null || oldDependencies.length == 0) {
+			hook(newDependencies, changeListener, staleListener);
+			return;
+		}
+		if (oldDependencies.length == newDependencies.length
+				&& identical(oldDependencies, newDependencies)) {
+			return;
+		}
+		if (oldDependencies.length <= SMALL_DEPENDENCY_COUNT
+				&& newDependencies.length <= SMALL_DEPENDENCY_COUNT) {
+			for (int i = 0; i < newDependencies.length; i++) {
+				if (!containsIdentical(oldDependencies, newDependencies[i])) {
+					newDependencies[i].addChangeListener(changeListener);
+					newDependencies[i].addStaleListener(staleListener);
+				}
+			}
+			for (int i = 0; i < oldDependencies.length; i++) {
+				if (!containsIdentical(newDependencies, oldDependencies[i])) {
+					oldDependencies[i].removeChangeListener(changeListener);
+					oldDependencies[i].removeStaleListener(staleListener);
+				}
+			}
+			return;
+		}
+		Set oldSet = new IdentitySet(Arrays.asList(oldDependencies));
+		Set newSet = new IdentitySet(Arrays.asList(newDependencies));
+		for (int i = 0; i < newDependencies.length; i++) {
+			if (!oldSet.contains(newDependencies[i])) {
+				newDependencies[i].addChangeListener(changeListener);
+				newDependencies[i].addStaleListener(staleListener);
+			}
+		}
+		for (int i = 0; i < oldDependencies.length; i++) {
+			if (!newSet.contains(oldDependencies[i])) {
+				oldDependencies[i].removeChangeListener(changeListener);
+				oldDependencies[i].removeStaleListener(staleListener);
+			}
+		}
+	}
+
+	/**
+	 * Unhooks the listeners from all the given dependencies.
+	 *
+	 * @param dependencies
+	 *            the dependencies, or <code>null</code> if none
+	 * @param changeListener
+	 * @param staleListener
+	 */
+	public static void unhook(IObservable[] dependencies,
+			IChangeListener changeListener, IStaleListener staleListener) {
+		if (dependencies != null) {
+			for (int i = 0; i < dependencies.length; i++) {
+				dependencies[i].removeChangeListener(changeListener);
+				dependencies[i].removeStaleListener(staleListener);
+			}
+		}
+	}
+
+	private static void hook(IObservable[] dependencies,
+			IChangeListener changeListener, IStaleListener staleListener) {
+		for (int i = 0; i < dependencies.length; i++) {
+			dependencies[i].addChangeListener(changeListener);
+			dependencies[i].addStaleListener(staleListener);
+		}
+	}
+
+	private static boolean identical(IObservable[] left, IObservable[] right) {
+		for (int i = 0; i < left.length; i++) {
+			if (left[i] != right[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean containsIdentical(IObservable[] array,
+			IObservable observable) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i] == observable) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * Computes the list diff entries between two lists in roughly linear time.
+ * <p>
+ * Common prefixes and suffixes are skipped first. The remaining range is split
+ * at anchors, which are elements that occur exactly once in both the old and
+ * the new range, using the longest increasing subsequence of their positions
+ * (patience diff). Ranges without anchors are diffed with Myers' O(ND)
+ * algorithm. If the edit distance of such a range exceeds
+ * {@link #MAX_EDIT_DISTANCE}, its elements are replaced pairwise instead of
+ * searching for a minimal edit script.
+ * </p>
+ * <p>
+ * The entries are produced in the order in which they have to be applied to
+ * the old list, and adjacent remove and add entries at the same position are
+ * reported as replacements by {@link org.eclipse.core.databinding.observable.list.ListDiff#accept}.
+ * Elements are compared with {@link Object#equals(Object)} and must have
+ * consistent hash codes.
+ * </p>
+ *
+ * @since 1.5
+ */
+public final class ListDiffer {
+
+	/**
+	 * The maximum edit distance searched for by the Myers algorithm within a
+	 * range without anchors.
+	 */
+	private static final int MAX_EDIT_DISTANCE = 512;
+
+	/**
+	 * The maximum recursion depth when splitting ranges at anchors.
+	 */
+	private static final int MAX_ANCHOR_DEPTH = 16;
+
+	private static final int MATCH = 0;
+	private static final int DELETE = 1;
+	private static final int INSERT = 2;
+
+	private final Object[] oldElements;
+	private final Object[] newElements;
+	private final List diffEntries;
+
+	/**
+	 * The position in the list being transformed at which the next entry
+	 * applies.
+	 */
+	private int position;
+
+	private ListDiffer(Object[] oldElements, Object[] newElements,
+			List diffEntries) {
+		this.oldElements = oldElements;
+		this.newElements = newElements;
+		this.diffEntries = diffEntries;
+	}
+
+	/**
+	 * Adds the {@link org.eclipse.core.databinding.observable.list.ListDiffEntry
+	 * ListDiffEntries} that transform <code>oldList</code> into
+	 * <code>newList</code> to <code>diffEntries</code>.
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @param diffEntries
+	 *            the list to add the entries to
+	 */
+	public static void computeDiff(List oldList, List newList, List diffEntries) {
+		Object[] oldElements = oldList.toArray();
+		Object[] newElements = newList.toArray();
+		new ListDiffer(oldElements, newElements, diffEntries).diffRange(0,
+				oldElements.length, 0, newElements.length, 0);
+	}
+
+	private void diffRange(int oldStart, int oldEnd, int newStart, int newEnd,
+			int depth) {
+		while (oldStart < oldEnd && newStart < newEnd
+				&& Util.equals(oldElements[oldStart], newElements[newStart])) {
+			oldStart++;
+			newStart++;
+			position++;
+		}
+		int suffix = 0;
+		while (oldStart < oldEnd && newStart < newEnd
+				&& Util.equals(oldElements[oldEnd - 1], newElements[newEnd - 1])) {
+			oldEnd--;
+			newEnd--;
+			suffix++;
+		}
+
+		if (oldStart == oldEnd || newStart == newEnd) {
+			replace(oldStart, oldEnd, newStart, newEnd);
+		} else if (depth >= MAX_ANCHOR_DEPTH
+				|| !diffAtAnchors(oldStart, oldEnd, newStart, newEnd, depth)) {
+			if (!diffMyers(oldStart, oldEnd, newStart, newEnd)) {
+				replace(oldStart, oldEnd, newStart, newEnd);
+			}
+		}
+		position += suffix;
+	}
+
+	/**
+	 * Splits the given range at the elements that occur exactly once in both
+	 * the old and the new range, keeping the longest sequence of such elements
+	 * whose order is unchanged.
+	 *
+	 * @return <code>false</code> if there are no anchors in the range
+	 */
+	private boolean diffAtAnchors(int oldStart, int oldEnd, int newStart,
+			int newEnd, int depth) {
+		// {count in old range, count in new range, index in new range}
+		Map occurrences = new HashMap();
+		for (int i = oldStart; i < oldEnd; i++) {
+			int[] counts = (int[]) occurrences.get(oldElements[i]);
+			if (counts == null) {
+				occurrences.put(oldElements[i], new int[] { 1, 0, -1 });
+			} else {
+				counts[0]++;
+			}
+		}
+		for (int i = newStart; i < newEnd; i++) {
+			int[] counts = (int[]) occurrences.get(newElements[i]);
+			if (counts != null) {
+				counts[1]++;
+				counts[2] = i;
+			}
+		}
+
+		int[] oldAnchors = new int[oldEnd - oldStart];
+		int[] newAnchors = new int[oldEnd - oldStart];
+		int candidates = 0;
+		for (int i = oldStart; i < oldEnd; i++) {
+			int[] counts = (int[]) occurrences.get(oldElements[i]);
+			if (counts[0] == 1 && counts[1] == 1) {
+				oldAnchors[candidates] = i;
+				newAnchors[candidates] = counts[2];
+				candidates++;
+			}
+		}
+		if (candidates == 0) {
+			return false;
+		}
+
+		// longest increasing subsequence of the new indices
+		int[] tails = new int[candidates];
+		int[] predecessors = new int[candidates];
+		int length = 0;
+		for (int i = 0; i < candidates; i++) {
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (newAnchors[tails[mid]] < newAnchors[i]) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			predecessors[i] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = i;
+			if (low == length) {
+				length++;
+			}
+		}
+		int[] sequence = new int[length];
+		for (int i = length - 1, c = tails[length - 1]; i >= 0; i--, c = predecessors[c]) {
+			sequence[i] = c;
+		}
+
+		for (int i = 0; i < length; i++) {
+			int oldAnchor = oldAnchors[sequence[i]];
+			int newAnchor = newAnchors[sequence[i]];
+			diffRange(oldStart, oldAnchor, newStart, newAnchor, depth + 1);
+			position++;
+			oldStart = oldAnchor + 1;
+			newStart = newAnchor + 1;
+		}
+		diffRange(oldStart, oldEnd, newStart, newEnd, depth + 1);
+		return true;
+	}
+
+	/**
+	 * Diffs the given range using Myers' greedy algorithm.
+	 *
+	 * @return <code>false</code> if the edit distance exceeds
+	 *         {@link #MAX_EDIT_DISTANCE}
+	 */
+	private boolean diffMyers(int oldStart, int oldEnd, int newStart,
+			int newEnd) {
+		int n = oldEnd - oldStart;
+		int m = newEnd - newStart;
+		int maxD = Math.min(n + m, MAX_EDIT_DISTANCE);
+		int offset = maxD + 1;
+		int[] v = new int[2 * maxD + 3];
+		int[][] trace = new int[maxD + 1][];
+
+		for (int d = 0; d <= maxD; d++) {
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+					x = v[offset + k + 1];
+				} else {
+					x = v[offset + k - 1] + 1;
+				}
+				int y = x - k;
+				while (x < n
+						&& y < m
+						&& Util.equals(oldElements[oldStart + x],
+								newElements[newStart + y])) {
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+				if (x >= n && y >= m) {
+					applyScript(backtrack(trace, d, n, m), oldStart, newStart);
+					return true;
+				}
+			}
+			int[] snapshot = new int[2 * d + 1];
+			System.arraycopy(v, offset - d, snapshot, 0, snapshot.length);
+			trace[d] = snapshot;
+		}
+		return false;
+	}
+
+	/**
+	 * Walks the Myers trace back from (n, m) and returns the edit script in
+	 * forward order.
+	 */
+	private static int[] backtrack(int[][] trace, int d, int n, int m) {
+		int[] script = new int[n + m];
+		int length = 0;
+		int x = n;
+		int y = m;
+		for (; d > 0; d--) {
+			int[] previous = trace[d - 1];
+			int k = x - y;
+			boolean down = k == -d
+					|| (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1]);
+			int previousK = down ? k + 1 : k - 1;
+			int previousX = previous[previousK + d - 1];
+			int previousY = previousX - previousK;
+			int startX = down ? previousX : previousX + 1;
+			while (x > startX) {
+				script[length++] = MATCH;
+				x--;
+				y--;
+			}
+			script[length++] = down ? INSERT : DELETE;
+			x = previousX;
+			y = previousY;
+		}
+		while (x > 0) {
+			script[length++] = MATCH;
+			x--;
+		}
+
+		int[] result = new int[length];
+		for (int i = 0; i < length; i++) {
+			result[i] = script[length - 1 - i];
+		}
+		return result;
+	}
+
+	private void applyScript(int[] script, int oldIndex, int newIndex) {
+		for (int i = 0; i < script.length; i++) {
+			switch (script[i]) {
+			case MATCH:
+				oldIndex++;
+				newIndex++;
+				position++;
+				break;
+			case DELETE:
+				remove(oldElements[oldIndex++]);
+				break;
+			case INSERT:
+				add(newElements[newIndex++]);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Replaces the old range with the new range, pairing up removals and
+	 * additions at the same position.
+	 */
+	private void replace(int oldStart, int oldEnd, int newStart, int newEnd) {
+		while (oldStart < oldEnd && newStart < newEnd) {
+			remove(oldElements[oldStart++]);
+			add(newElements[newStart++]);
+		}
+		while (oldStart < oldEnd) {
+			remove(oldElements[oldStart++]);
+		}
+		while (newStart < newEnd) {
+			add(newElements[newStart++]);
+		}
+	}
+
+	private void remove(Object element) {
+		diffEntries.add(Diffs.createListDiffEntry(position, false, element));
+	}
+
+	private void add(Object element) {
+		diffEntries.add(Diffs.createListDiffEntry(position++, true, element));
+	}
+}
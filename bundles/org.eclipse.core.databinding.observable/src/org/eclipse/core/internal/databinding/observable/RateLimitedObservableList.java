@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.StaleEvent;
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ObservableList;
+
+/**
+ * Unmodifiable {@link IObservableList} implementation that wraps an
+ * {@link IObservableList} and passes its changes on at a limited rate, as
+ * decided by a {@link RateLimiter}. The contents of this list are the contents
+ * of the wrapped list at the time of the last change event fired, and each
+ * change event describes all changes since the previous one. While changes are
+ * pending, this observable is stale.
+ *
+ * @since 1.5
+ */
+public class RateLimitedObservableList extends ObservableList {
+	private IObservableList decorated;
+	private final RateLimiter limiter;
+
+	private IListChangeListener listChangeListener = new IListChangeListener() {
+		@Override
+		public void handleListChange(ListChangeEvent event) {
+			if (limiter.changed()) {
+				fireStale();
+			}
+		}
+	};
+
+	private IStaleListener staleListener = new IStaleListener() {
+		@Override
+		public void handleStale(StaleEvent staleEvent) {
+			if (!limiter.isPending()) {
+				fireStale();
+			}
+		}
+	};
+
+	/**
+	 * @param decorated
+	 *            the observable list to rate-limit
+	 * @param mode
+	 *            one of {@link RateLimiter#DEBOUNCE},
+	 *            {@link RateLimiter#THROTTLE} or {@link RateLimiter#SAMPLE}
+	 * @param delay
+	 *            the delay in milliseconds
+	 */
+	public RateLimitedObservableList(IObservableList decorated, int mode,
+			int delay) {
+		super(decorated.getRealm(), copy(decorated), decorated
+				.getElementType());
+		this.decorated = decorated;
+		this.limiter = new RateLimiter(getRealm(), mode, delay) {
+			@Override
+			protected void flush() {
+				List newList = copy(RateLimitedObservableList.this.decorated);
+				ListDiff diff = Diffs.computeListDiff(wrappedList, newList);
+				wrappedList = newList;
+				if (!diff.isEmpty()) {
+					fireListChange(diff);
+				}
+			}
+		};
+
+		decorated.addListChangeListener(listChangeListener);
+		decorated.addStaleListener(staleListener);
+	}
+
+	private static List copy(IObservableList list) {
+		ObservableTracker.setIgnore(true);
+		try {
+			return new ArrayList(list);
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
+	}
+
+	@Override
+	public boolean isStale() {
+		getterCalled();
+		return limiter.isPending() || decorated.isStale();
+	}
+
+	@Override
+	public synchronized void dispose() {
+		limiter.dispose();
+		if (decorated != null) {
+			decorated.removeListChangeListener(listChangeListener);
+			decorated.removeStaleListener(staleListener);
+			decorated = null;
+		}
+		super.dispose();
+	}
+}
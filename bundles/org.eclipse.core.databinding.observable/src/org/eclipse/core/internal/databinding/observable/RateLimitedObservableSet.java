@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.StaleEvent;
+import org.eclipse.core.databinding.observable.set.IObservableSet;
+import org.eclipse.core.databinding.observable.set.ISetChangeListener;
+import org.eclipse.core.databinding.observable.set.ObservableSet;
+import org.eclipse.core.databinding.observable.set.SetChangeEvent;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+
+/**
+ * Unmodifiable {@link IObservableSet} implementation that wraps an
+ * {@link IObservableSet} and passes its changes on at a limited rate, as
+ * decided by a {@link RateLimiter}. The contents of this set are the contents
+ * of the wrapped set at the time of the last change event fired, and each
+ * change event describes all changes since the previous one. While changes are
+ * pending, this observable is stale.
+ *
+ * @since 1.5
+ */
+public class RateLimitedObservableSet extends ObservableSet {
+	private IObservableSet decorated;
+	private final RateLimiter limiter;
+
+	private ISetChangeListener setChangeListener = new ISetChangeListener() {
+		@Override
+		public void handleSetChange(SetChangeEvent event) {
+			if (limiter.changed()) {
+				fireStale();
+			}
+		}
+	};
+
+	private IStaleListener staleListener = new IStaleListener() {
+		@Override
+		public void handleStale(StaleEvent staleEvent) {
+			if (!limiter.isPending()) {
+				fireStale();
+			}
+		}
+	};
+
+	/**
+	 * @param decorated
+	 *            the observable set to rate-limit
+	 * @param mode
+	 *            one of {@link RateLimiter#DEBOUNCE},
+	 *            {@link RateLimiter#THROTTLE} or {@link RateLimiter#SAMPLE}
+	 * @param delay
+	 *            the delay in milliseconds
+	 */
+	public RateLimitedObservableSet(IObservableSet decorated, int mode,
+			int delay) {
+		super(decorated.getRealm(), copy(decorated), decorated
+				.getElementType());
+		this.decorated = decorated;
+		this.limiter = new RateLimiter(getRealm(), mode, delay) {
+			@Override
+			protected void flush() {
+				Set newSet = copy(RateLimitedObservableSet.this.decorated);
+				SetDiff diff = Diffs.computeSetDiff(wrappedSet, newSet);
+				wrappedSet = newSet;
+				if (!diff.isEmpty()) {
+					fireSetChange(diff);
+				}
+			}
+		};
+
+		decorated.addSetChangeListener(setChangeListener);
+		decorated.addStaleListener(staleListener);
+	}
+
+	private static Set copy(IObservableSet set) {
+		ObservableTracker.setIgnore(true);
+		try {
+			return new HashSet(set);
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
+	}
+
+	@Override
+	public boolean isStale() {
+		getterCalled();
+		return limiter.isPending() || decorated.isStale();
+	}
+
+	@Override
+	public synchronized void dispose() {
+		limiter.dispose();
+		if (decorated != null) {
+			decorated.removeSetChangeListener(setChangeListener);
+			decorated.removeStaleListener(staleListener);
+			decorated = null;
+		}
+		super.dispose();
+	}
+}
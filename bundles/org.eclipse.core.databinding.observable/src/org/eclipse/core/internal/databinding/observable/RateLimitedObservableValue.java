@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.StaleEvent;
+import org.eclipse.core.databinding.observable.value.AbstractObservableValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+
+/**
+ * {@link IObservableValue} implementation that wraps an
+ * {@link IObservableValue} and passes its changes on at a limited rate, as
+ * decided by a {@link RateLimiter}. The value of this observable is the value
+ * of the wrapped observable at the time of the last change event fired. While
+ * changes are pending, this observable is stale.
+ * <p>
+ * Setting the value of this observable sets the value of the wrapped
+ * observable and fires the change immediately.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class RateLimitedObservableValue extends AbstractObservableValue {
+	private IObservableValue decorated;
+	private final RateLimiter limiter;
+
+	private Object cachedValue;
+	private boolean updating = false;
+
+	private IValueChangeListener valueChangeListener = new IValueChangeListener() {
+		@Override
+		public void handleValueChange(ValueChangeEvent event) {
+			if (!updating && limiter.changed()) {
+				fireStale();
+			}
+		}
+	};
+
+	private IStaleListener staleListener = new IStaleListener() {
+		@Override
+		public void handleStale(StaleEvent staleEvent) {
+			if (!updating && !limiter.isPending()) {
+				fireStale();
+			}
+		}
+	};
+
+	/**
+	 * @param decorated
+	 *            the observable value to rate-limit
+	 * @param mode
+	 *            one of {@link RateLimiter#DEBOUNCE},
+	 *            {@link RateLimiter#THROTTLE} or {@link RateLimiter#SAMPLE}
+	 * @param delay
+	 *            the delay in milliseconds
+	 */
+	public RateLimitedObservableValue(IObservableValue decorated, int mode,
+			int delay) {
+		super(decorated.getRealm());
+		this.decorated = decorated;
+		this.limiter = new RateLimiter(getRealm(), mode, delay) {
+			@Override
+			protected void flush() {
+				Object oldValue = cachedValue;
+				cachedValue = getDecoratedValue();
+				if (!Util.equals(oldValue, cachedValue)) {
+					fireValueChange(Diffs.createValueDiff(oldValue, cachedValue));
+				}
+			}
+		};
+		cachedValue = getDecoratedValue();
+
+		decorated.addValueChangeListener(valueChangeListener);
+		decorated.addStaleListener(staleListener);
+	}
+
+	private Object getDecoratedValue() {
+		ObservableTracker.setIgnore(true);
+		try {
+			return decorated.getValue();
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
+	}
+
+	@Override
+	protected Object doGetValue() {
+		return cachedValue;
+	}
+
+	@Override
+	protected void doSetValue(Object value) {
+		updating = true;
+		try {
+			// Setting the value overrides any pending update
+			limiter.reset();
+
+			Object oldValue = cachedValue;
+			decorated.setValue(value);
+			// the decorated observable could veto or override the value
+			cachedValue = getDecoratedValue();
+
+			if (!Util.equals(oldValue, cachedValue)) {
+				fireValueChange(Diffs.createValueDiff(oldValue, cachedValue));
+			}
+		} finally {
+			updating = false;
+		}
+	}
+
+	@Override
+	public boolean isStale() {
+		ObservableTracker.getterCalled(this);
+		return limiter.isPending() || decorated.isStale();
+	}
+
+	@Override
+	public Object getValueType() {
+		return decorated.getValueType();
+	}
+
+	@Override
+	public synchronized void dispose() {
+		limiter.dispose();
+		if (decorated != null) {
+			decorated.removeValueChangeListener(valueChangeListener);
+			decorated.removeStaleListener(staleListener);
+			decorated = null;
+		}
+		super.dispose();
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Decides when the pending changes of a rate-limited observable are passed on
+ * to its listeners. The observable reports each change of its source through
+ * {@link #changed()}, and publishes the changes in {@link #flush()}.
+ * <p>
+ * Rescheduling on every change does not touch the realm's timer: a limiter
+ * has at most one task in the {@link RealmScheduler} of its realm, which
+ * checks on expiry whether it has to wait longer.
+ * </p>
+ *
+ * @since 1.5
+ */
+public abstract class RateLimiter extends RealmScheduler.Task {
+
+	/**
+	 * Changes are flushed once no further change happened for the delay.
+	 */
+	public static final int DEBOUNCE = 0;
+
+	/**
+	 * A change is flushed right away if the previous flush is at least the
+	 * delay ago. Changes within the delay are flushed together at its end.
+	 */
+	public static final int THROTTLE = 1;
+
+	/**
+	 * Changes are flushed at the end of the delay following the first of them,
+	 * and then once per delay for as long as changes keep coming.
+	 */
+	public static final int SAMPLE = 2;
+
+	private final Realm realm;
+	private final RealmScheduler scheduler;
+	private final int mode;
+	private final int delay;
+
+	private boolean pending;
+	private boolean scheduled;
+	private boolean disposed;
+	private long lastChange;
+
+	/**
+	 * @param realm
+	 *            the realm of the rate-limited observable
+	 * @param mode
+	 *            one of {@link #DEBOUNCE}, {@link #THROTTLE} or {@link #SAMPLE}
+	 * @param delay
+	 *            the delay in milliseconds. If negative, the limiter never
+	 *            schedules a flush.
+	 */
+	public RateLimiter(Realm realm, int mode, int delay) {
+		this.realm = realm;
+		this.scheduler = RealmScheduler.getInstance(realm);
+		this.mode = mode;
+		this.delay = delay;
+	}
+
+	/**
+	 * Notifies the limiter that the source has changed. Depending on the mode,
+	 * this either flushes the change immediately or makes it pending.
+	 *
+	 * @return <code>true</code> if the change is pending and no other change
+	 *         was pending before
+	 */
+	public boolean changed() {
+		if (disposed) {
+			return false;
+		}
+		long now = RealmScheduler.now();
+		lastChange = now;
+		if (mode == THROTTLE && !scheduled) {
+			schedule(now + delay);
+			flush();
+			return false;
+		}
+		boolean wasPending = pending;
+		pending = true;
+		if (!scheduled) {
+			schedule(now + delay);
+		}
+		return !wasPending;
+	}
+
+	/**
+	 * @return whether changes are waiting to be flushed
+	 */
+	public boolean isPending() {
+		return pending;
+	}
+
+	/**
+	 * Drops the pending changes, because the observable has caught up with its
+	 * source by other means.
+	 */
+	public void reset() {
+		pending = false;
+	}
+
+	/**
+	 * Stops flushing changes.
+	 */
+	public void dispose() {
+		disposed = true;
+		pending = false;
+	}
+
+	@Override
+	protected final void run(long now) {
+		scheduled = false;
+		if (disposed || !pending) {
+			return;
+		}
+		if (mode == DEBOUNCE && now - lastChange < delay) {
+			schedule(lastChange + delay);
+			return;
+		}
+		pending = false;
+		if (mode != DEBOUNCE) {
+			// changes arriving while flushing wait for the next period
+			schedule(now + delay);
+		}
+		flush();
+	}
+
+	private void schedule(long deadline) {
+		if (delay >= 0) {
+			scheduled = true;
+			scheduler.schedule(realm, this, deadline);
+		}
+	}
+
+	/**
+	 * Passes the pending changes on to the listeners of the observable.
+	 */
+	protected abstract void flush();
+}
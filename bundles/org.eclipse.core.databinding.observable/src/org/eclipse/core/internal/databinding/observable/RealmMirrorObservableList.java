@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.ObservableList;
+
+/**
+ * Unmodifiable {@link IObservableList} implementation that mirrors an
+ * {@link IObservableList} of another realm. The changes of the source list are
+ * collected in the source realm, and handed over to this list's realm in one
+ * go. However many changes the source made in between, the mirror fires one
+ * change event per hand-over.
+ *
+ * @since 1.5
+ */
+public class RealmMirrorObservableList extends ObservableList {
+	private final IObservableList source;
+
+	/**
+	 * Guards the fields below, which are written in the source realm and read
+	 * in the realm of the mirror.
+	 */
+	private final Object lock = new Object();
+
+	private List pendingEntries = new ArrayList();
+	private boolean flushScheduled;
+	private boolean disposed;
+
+	private final IListChangeListener listener = new IListChangeListener() {
+		@Override
+		public void handleListChange(ListChangeEvent event) {
+			enqueue(Arrays.asList(event.diff.getDifferences()));
+		}
+	};
+
+	private final Runnable flush = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+
+	/**
+	 * @param realm
+	 *            the realm of the mirror
+	 * @param source
+	 *            the observable list to mirror
+	 */
+	public RealmMirrorObservableList(Realm realm, IObservableList source) {
+		super(realm, new ArrayList(), source.getElementType());
+		this.source = source;
+		source.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				attach();
+			}
+		});
+	}
+
+	private void attach() {
+		List contents;
+		ObservableTracker.setIgnore(true);
+		try {
+			contents = new ArrayList(source);
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
+		synchronized (lock) {
+			if (disposed) {
+				return;
+			}
+			source.addListChangeListener(listener);
+		}
+		List entries = new ArrayList(contents.size());
+		for (int i = 0; i < contents.size(); i++) {
+			entries.add(Diffs.createListDiffEntry(i, true, contents.get(i)));
+		}
+		enqueue(entries);
+	}
+
+	private void enqueue(List entries) {
+		boolean schedule;
+		synchronized (lock) {
+			if (disposed || entries.isEmpty()) {
+				return;
+			}
+			pendingEntries.addAll(entries);
+			schedule = !flushScheduled;
+			flushScheduled = true;
+		}
+		if (schedule) {
+			getRealm().asyncExec(flush);
+		}
+	}
+
+	private void flush() {
+		List entries;
+		synchronized (lock) {
+			if (disposed) {
+				return;
+			}
+			entries = pendingEntries;
+			pendingEntries = new ArrayList();
+			flushScheduled = false;
+		}
+
+		List oldList = wrappedList;
+		List newList = new ArrayList(oldList);
+		for (int i = 0; i < entries.size(); i++) {
+			ListDiffEntry entry = (ListDiffEntry) entries.get(i);
+			if (entry.isAddition()) {
+				newList.add(entry.getPosition(), entry.getElement());
+			} else {
+				newList.remove(entry.getPosition());
+			}
+		}
+
+		ListDiff diff;
+		if (entries.size() > Math.max(oldList.size(), newList.size())) {
+			// the source churned more than the net change, e.g. by reloading
+			// itself several times, so pass on the net change only
+			diff = Diffs.computeListDiff(oldList, newList);
+		} else {
+			diff = Diffs.createListDiff((ListDiffEntry[]) entries
+					.toArray(new ListDiffEntry[entries.size()]));
+		}
+		wrappedList = newList;
+		if (!diff.isEmpty()) {
+			fireListChange(diff);
+		}
+	}
+
+	@Override
+	public synchronized void dispose() {
+		synchronized (lock) {
+			disposed = true;
+			pendingEntries.clear();
+		}
+		source.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				if (!source.isDisposed()) {
+					source.removeListChangeListener(listener);
+				}
+			}
+		});
+		super.dispose();
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.AbstractObservableValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+
+/**
+ * Unmodifiable {@link IObservableValue} implementation that mirrors an
+ * {@link IObservableValue} of another realm. The latest value of the source is
+ * handed over to this observable's realm; intermediate values which the source
+ * went through before the hand-over are skipped.
+ *
+ * @since 1.5
+ */
+public class RealmMirrorObservableValue extends AbstractObservableValue {
+	private final IObservableValue source;
+	private final Object valueType;
+
+	private Object value;
+
+	/**
+	 * Guards the fields below, which are written in the source realm and read
+	 * in the realm of the mirror.
+	 */
+	private final Object lock = new Object();
+
+	private Object pendingValue;
+	private boolean flushScheduled;
+	private boolean disposed;
+
+	private final IValueChangeListener listener = new IValueChangeListener() {
+		@Override
+		public void handleValueChange(ValueChangeEvent event) {
+			enqueue(event.diff.getNewValue());
+		}
+	};
+
+	private final Runnable flush = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+
+	/**
+	 * @param realm
+	 *            the realm of the mirror
+	 * @param source
+	 *            the observable value to mirror
+	 */
+	public RealmMirrorObservableValue(Realm realm, IObservableValue source) {
+		super(realm);
+		this.source = source;
+		this.valueType = source.getValueType();
+		source.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				attach();
+			}
+		});
+	}
+
+	private void attach() {
+		Object initialValue;
+		ObservableTracker.setIgnore(true);
+		try {
+			initialValue = source.getValue();
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
+		synchronized (lock) {
+			if (disposed) {
+				return;
+			}
+			source.addValueChangeListener(listener);
+		}
+		enqueue(initialValue);
+	}
+
+	private void enqueue(Object newValue) {
+		boolean schedule;
+		synchronized (lock) {
+			if (disposed) {
+				return;
+			}
+			pendingValue = newValue;
+			schedule = !flushScheduled;
+			flushScheduled = true;
+		}
+		if (schedule) {
+			getRealm().asyncExec(flush);
+		}
+	}
+
+	private void flush() {
+		Object newValue;
+		synchronized (lock) {
+			if (disposed) {
+				return;
+			}
+			newValue = pendingValue;
+			pendingValue = null;
+			flushScheduled = false;
+		}
+		Object oldValue = value;
+		value = newValue;
+		if (!Util.equals(oldValue, newValue)) {
+			fireValueChange(Diffs.createValueDiff(oldValue, newValue));
+		}
+	}
+
+	@Override
+	protected Object doGetValue() {
+		return value;
+	}
+
+	@Override
+	public Object getValueType() {
+		return valueType;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		synchronized (lock) {
+			disposed = true;
+			pendingValue = null;
+		}
+		source.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				if (!source.isDisposed()) {
+					source.removeValueChangeListener(listener);
+				}
+			}
+		});
+		super.dispose();
+	}
+}
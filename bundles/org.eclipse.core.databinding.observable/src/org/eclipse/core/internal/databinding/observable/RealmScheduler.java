@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * A timer queue shared by all time-based observables of a realm. Tasks are
+ * kept ordered by their deadline, and at most one {@link Realm#timerExec(int,
+ * Runnable)} is pending for the earliest of them, no matter how many tasks are
+ * scheduled or how often they are rescheduled.
+ * <p>
+ * Except for {@link #getInstance(Realm)}, all methods must be called from
+ * within the realm.
+ * </p>
+ *
+ * @since 1.5
+ */
+public final class RealmScheduler {
+
+	/**
+	 * A task which runs in the realm once its deadline has passed. A task must
+	 * not be scheduled again before it has run.
+	 */
+	public static abstract class Task {
+		long deadline;
+		long sequence;
+
+		/**
+		 * Runs the task.
+		 *
+		 * @param now
+		 *            the current time, as returned by
+		 *            {@link RealmScheduler#now()}
+		 */
+		protected abstract void run(long now);
+	}
+
+	private static final Comparator DEADLINE_ORDER = new Comparator() {
+		@Override
+		public int compare(Object o1, Object o2) {
+			Task task1 = (Task) o1;
+			Task task2 = (Task) o2;
+			if (task1.deadline != task2.deadline) {
+				return task1.deadline < task2.deadline ? -1 : 1;
+			}
+			if (task1.sequence != task2.sequence) {
+				return task1.sequence < task2.sequence ? -1 : 1;
+			}
+			return 0;
+		}
+	};
+
+	/**
+	 * Map from Realm to RealmScheduler. The schedulers do not reference their
+	 * realm, so they go away together with it.
+	 */
+	private static final Map schedulers = new WeakHashMap();
+
+	/**
+	 * Returns the scheduler of the given realm.
+	 *
+	 * @param realm
+	 * @return the scheduler of the given realm
+	 */
+	public static RealmScheduler getInstance(Realm realm) {
+		synchronized (schedulers) {
+			RealmScheduler scheduler = (RealmScheduler) schedulers.get(realm);
+			if (scheduler == null) {
+				scheduler = new RealmScheduler();
+				schedulers.put(realm, scheduler);
+			}
+			return scheduler;
+		}
+	}
+
+	/**
+	 * Returns the current time in milliseconds, measured from an arbitrary
+	 * origin. Unlike {@link System#currentTimeMillis()}, this time does not
+	 * jump when the system clock is adjusted.
+	 *
+	 * @return the current time in milliseconds
+	 */
+	public static long now() {
+		return System.nanoTime() / 1000000;
+	}
+
+	private final PriorityQueue queue = new PriorityQueue(16, DEADLINE_ORDER);
+
+	private long sequence;
+
+	/**
+	 * The deadline for which a realm timer is pending, or
+	 * {@link Long#MAX_VALUE} if none is.
+	 */
+	private long armedDeadline = Long.MAX_VALUE;
+
+	private RealmScheduler() {
+	}
+
+	/**
+	 * Schedules the given task to run once the given deadline has passed.
+	 *
+	 * @param realm
+	 *            the realm of this scheduler
+	 * @param task
+	 *            the task, which must not be scheduled already
+	 * @param deadline
+	 *            the time, as returned by {@link #now()}, after which the task
+	 *            runs
+	 */
+	public void schedule(Realm realm, Task task, long deadline) {
+		task.deadline = deadline;
+		task.sequence = sequence++;
+		queue.add(task);
+		if (deadline < armedDeadline) {
+			arm(realm, deadline);
+		}
+	}
+
+	private void arm(final Realm realm, final long deadline) {
+		armedDeadline = deadline;
+		realm.timerExec((int) Math.max(0, deadline - now()), new Runnable() {
+			@Override
+			public void run() {
+				fire(realm, deadline);
+			}
+		});
+	}
+
+	private void fire(Realm realm, long deadline) {
+		if (deadline == armedDeadline) {
+			armedDeadline = Long.MAX_VALUE;
+		}
+		long now = now();
+		// Tasks scheduled by the tasks run here wait for the next round, even
+		// if they are due already
+		long limit = sequence;
+		try {
+			Task task;
+			while ((task = (Task) queue.peek()) != null && task.deadline <= now
+					&& task.sequence < limit) {
+				queue.poll();
+				task.run(now);
+			}
+		} finally {
+			Task next = (Task) queue.peek();
+			if (next != null && next.deadline < armedDeadline) {
+				arm(realm, next.deadline);
+			}
+		}
+	}
+}
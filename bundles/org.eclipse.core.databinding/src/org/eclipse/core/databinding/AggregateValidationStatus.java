@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,15 +14,22 @@
 package org.eclipse.core.databinding;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.databinding.observable.IObservableCollection;
+import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.value.ComputedValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
 import org.eclipse.core.databinding.util.Policy;
 import org.eclipse.core.internal.databinding.BindingMessages;
+import org.eclipse.core.internal.databinding.IdentitySet;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Status;
@@ -32,6 +39,12 @@ import org.eclipse.core.runtime.Status;
  * into a single status value. Instances of this class can be used as an
  * observable value with a value type of {@link IStatus}, or the static methods
  * can be called directly if an aggregated status result is only needed once.
+ * <p>
+ * The aggregated status is recomputed only when a change of a validation status
+ * can affect it, e.g. not when a status changes from one OK status to another
+ * OK status, or from an <code>INFO</code> to an OK status while another status
+ * is an error.
+ * </p>
  *
  * @since 1.0
  *
@@ -60,6 +73,31 @@ public final class AggregateValidationStatus extends ComputedValue {
 	private int strategy;
 	private IObservableCollection validationStatusProviders;
 
+	/**
+	 * The validation status observables we are listening to.
+	 */
+	private Set statusObservables = new IdentitySet();
+
+	/**
+	 * The severity of the status returned by the last calculation.
+	 */
+	private int severity = IStatus.OK;
+
+	private IValueChangeListener statusChangeListener = new IValueChangeListener() {
+		@Override
+		public void handleValueChange(ValueChangeEvent event) {
+			if (affectsResult((IStatus) event.diff.getOldValue(),
+					(IStatus) event.diff.getNewValue())) {
+				makeDirty();
+				if (!hasListeners()) {
+					// nobody will ask for the new value, so stop listening
+					// until we are calculated again
+					unhookStatusObservables();
+				}
+			}
+		}
+	};
+
 	/**
 	 * Creates a new aggregate validation status observable for the given data
 	 * binding context.
@@ -111,15 +149,76 @@ public final class AggregateValidationStatus extends ComputedValue {
 
 	@Override
 	protected Object calculate() {
+		// Tracked, so that adding or removing providers recalculates us. The
+		// validation statuses themselves are not tracked, we listen to them
+		// to find out whether a change affects the result.
+		List providers = Arrays.asList(validationStatusProviders.toArray());
 		IStatus result;
-		if (strategy == MERGED) {
-			result = getStatusMerged(validationStatusProviders);
-		} else {
-			result = getStatusMaxSeverity(validationStatusProviders);
+		ObservableTracker.setIgnore(true);
+		try {
+			hookStatusObservables(providers);
+			if (strategy == MERGED) {
+				result = getStatusMerged(providers);
+			} else {
+				result = getStatusMaxSeverity(providers);
+			}
+		} finally {
+			ObservableTracker.setIgnore(false);
 		}
+		severity = result.getSeverity();
 		return result;
 	}
 
+	private boolean affectsResult(IStatus oldStatus, IStatus newStatus) {
+		if (oldStatus == null || newStatus == null) {
+			return true;
+		}
+		if (oldStatus.isOK() && newStatus.isOK()) {
+			return false;
+		}
+		if (strategy == MERGED) {
+			return true;
+		}
+		// Only statuses at least as severe as the current result can change
+		// the most severe status
+		return oldStatus.getSeverity() >= severity
+				|| newStatus.getSeverity() >= severity;
+	}
+
+	private void hookStatusObservables(List providers) {
+		Set newStatusObservables = new IdentitySet();
+		for (Iterator it = providers.iterator(); it.hasNext();) {
+			IObservableValue statusObservable = ((ValidationStatusProvider) it
+					.next()).getValidationStatus();
+			newStatusObservables.add(statusObservable);
+			if (!statusObservables.contains(statusObservable)) {
+				statusObservable.addValueChangeListener(statusChangeListener);
+			}
+		}
+		for (Iterator it = statusObservables.iterator(); it.hasNext();) {
+			IObservableValue statusObservable = (IObservableValue) it.next();
+			if (!newStatusObservables.contains(statusObservable)) {
+				statusObservable
+						.removeValueChangeListener(statusChangeListener);
+			}
+		}
+		statusObservables = newStatusObservables;
+	}
+
+	private void unhookStatusObservables() {
+		for (Iterator it = statusObservables.iterator(); it.hasNext();) {
+			((IObservableValue) it.next())
+					.removeValueChangeListener(statusChangeListener);
+		}
+		statusObservables = new IdentitySet();
+	}
+
+	@Override
+	public synchronized void dispose() {
+		unhookStatusObservables();
+		super.dispose();
+	}
+
 	/**
 	 * Returns a status object that merges multiple non-OK status objects in a
 	 * {@link MultiStatus}. Returns an OK status result if all statuses from the
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,10 @@ package org.eclipse.core.databinding;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.eclipse.core.databinding.conversion.IConverter;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
@@ -34,6 +38,7 @@ import org.eclipse.core.internal.databinding.conversion.NumberToNumberConverter;
 import org.eclipse.core.internal.databinding.conversion.NumberToShortConverter;
 import org.eclipse.core.internal.databinding.conversion.StringToCharacterConverter;
 import org.eclipse.core.internal.databinding.conversion.StringToDateConverter;
+import org.eclipse.core.internal.databinding.validation.AsyncValidationExecutor;
 import org.eclipse.core.internal.databinding.validation.NumberFormatConverter;
 import org.eclipse.core.internal.databinding.validation.NumberToByteValidator;
 import org.eclipse.core.internal.databinding.validation.NumberToDoubleValidator;
@@ -69,6 +74,7 @@ import org.eclipse.core.runtime.Status;
  * <li>Conversion - {@link #convert(Object)}</li>
  * <li>Validate after conversion - {@link #validateAfterConvert(Object)}</li>
  * <li>Validate before set - {@link #validateBeforeSet(Object)}</li>
+ * <li>Validate asynchronously - {@link #validateAsync(Object, Runnable)}</li>
  * <li>Value set - {@link #doSet(IObservableValue, Object)}</li>
  * </ol>
  * </p>
@@ -82,6 +88,16 @@ import org.eclipse.core.runtime.Status;
  * {@link Binding#getValidationStatus() binding validation status}.
  * </p>
  * <p>
+ * Asynchronous validation:<br/>
+ * An {@link #setAsyncValidator(IValidator, Executor) asynchronous validator}
+ * runs after all other validators have passed, on an executor rather than in
+ * the realm, so that expensive checks do not block the user interface. While
+ * it runs, the binding validation status contains a
+ * {@link ValidationStatus#pending() pending status}, and the value is set
+ * once the validator has passed. A validation which is still running when the
+ * source changes again is cancelled, and its result is ignored.
+ * </p>
+ * <p>
  * Conversion:<br/>
  * A {@link IConverter converter} will convert the value from the type of the
  * source observable into the type of the destination. The strategy has the
@@ -159,6 +175,10 @@ public class UpdateValueStrategy extends UpdateStrategy {
 
 	protected boolean provideDefaults;
 
+	private IValidator asyncValidator;
+
+	private Executor asyncValidationExecutor;
+
 	/**
 	 * <code>true</code> if we defaulted the converter
 	 */
@@ -414,6 +434,43 @@ public class UpdateValueStrategy extends UpdateStrategy {
 		return this;
 	}
 
+	/**
+	 * Sets the validator to be invoked asynchronously, after the validator set
+	 * by {@link #setBeforeSetValidator(IValidator)} has passed. The validator
+	 * runs on an executor shared by all asynchronous validators.
+	 *
+	 * @param validator
+	 *            the validator, or <code>null</code> for none
+	 * @return the receiver, to enable method call chaining
+	 * @see #setAsyncValidator(IValidator, Executor)
+	 * @since 1.5
+	 */
+	public UpdateValueStrategy setAsyncValidator(IValidator validator) {
+		return setAsyncValidator(validator, null);
+	}
+
+	/**
+	 * Sets the validator to be invoked asynchronously, after the validator set
+	 * by {@link #setBeforeSetValidator(IValidator)} has passed. The validator
+	 * is invoked on the given executor, so it must not access observables. It
+	 * may check {@link Thread#isInterrupted()} to stop early when its
+	 * validation is cancelled because the source value changed again.
+	 *
+	 * @param validator
+	 *            the validator, or <code>null</code> for none
+	 * @param executor
+	 *            the executor to run the validator on, or <code>null</code>
+	 *            for an executor shared by all asynchronous validators
+	 * @return the receiver, to enable method call chaining
+	 * @since 1.5
+	 */
+	public UpdateValueStrategy setAsyncValidator(IValidator validator,
+			Executor executor) {
+		this.asyncValidator = validator;
+		this.asyncValidationExecutor = executor;
+		return this;
+	}
+
 	/**
 	 * Sets the converter to be invoked when converting from the source type to
 	 * the destination type.
@@ -474,6 +531,48 @@ public class UpdateValueStrategy extends UpdateStrategy {
 				: beforeSetValidator.validate(value);
 	}
 
+	/**
+	 * Starts validating the value asynchronously, before it is set on the
+	 * destination.
+	 * <p>
+	 * Default implementation runs the
+	 * {@link #setAsyncValidator(IValidator, Executor) asynchronous validator}
+	 * on its executor if one exists. If one does not exist, returns
+	 * <code>null</code>.
+	 * </p>
+	 *
+	 * @param value
+	 * @param callback
+	 *            invoked on an arbitrary thread once the returned future is
+	 *            done, including when it was cancelled
+	 * @return a future of the resulting {@link IStatus}, or <code>null</code>
+	 *         if there is no asynchronous validation
+	 * @since 1.5
+	 */
+	public Future validateAsync(final Object value, final Runnable callback) {
+		final IValidator validator = asyncValidator;
+		if (validator == null) {
+			return null;
+		}
+		FutureTask future = new FutureTask(new Callable() {
+			@Override
+			public Object call() throws Exception {
+				return validator.validate(value);
+			}
+		}) {
+			@Override
+			protected void done() {
+				callback.run();
+			}
+		};
+		Executor executor = asyncValidationExecutor;
+		if (executor == null) {
+			executor = AsyncValidationExecutor.getDefault();
+		}
+		executor.execute(future);
+		return future;
+	}
+
 	/**
 	 * Sets the current value of the given observable to the given value.
 	 * Clients may extend but must call the super implementation.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,12 +12,17 @@
 
 package org.eclipse.core.databinding;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
 import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.IValueChangeListener;
 import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
 import org.eclipse.core.databinding.observable.value.WritableValue;
 import org.eclipse.core.databinding.util.Policy;
+import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.core.internal.databinding.BindingStatus;
 import org.eclipse.core.internal.databinding.Util;
 import org.eclipse.core.runtime.IStatus;
@@ -37,6 +42,32 @@ class ValueBinding extends Binding {
 
 	private boolean updatingTarget;
 	private boolean updatingModel;
+
+	/**
+	 * The asynchronous validation of one direction of the binding.
+	 */
+	private static class PendingValidation {
+		/**
+		 * Incremented by every update, so that the result of a validation
+		 * which was superseded by a newer update is ignored even if it could
+		 * not be cancelled in time.
+		 */
+		int generation;
+
+		Future future;
+
+		void cancel() {
+			generation++;
+			if (future != null) {
+				future.cancel(true);
+				future = null;
+			}
+		}
+	}
+
+	private final PendingValidation targetToModelValidation = new PendingValidation();
+	private final PendingValidation modelToTargetValidation = new PendingValidation();
+
 	private IValueChangeListener targetChangeListener = new IValueChangeListener() {
 		@Override
 		public void handleValueChange(ValueChangeEvent event) {
@@ -160,6 +191,10 @@ class ValueBinding extends Binding {
 			public void run() {
 				boolean destinationRealmReached = false;
 				final MultiStatus multiStatus = BindingStatus.ok();
+				final PendingValidation pendingValidation = destination == model ? targetToModelValidation
+						: modelToTargetValidation;
+				// A validation of a previous value is obsolete now
+				pendingValidation.cancel();
 				try {
 					// Get value
 					Object value = source.getValue();
@@ -188,34 +223,40 @@ class ValueBinding extends Binding {
 							.validateBeforeSet(convertedValue);
 					if (!mergeStatus(multiStatus, status))
 						return;
+
+					// Validate asynchronously
+					final IStatus[] statuses = multiStatus.getChildren();
+					final int generation = pendingValidation.generation;
+					Future future = updateValueStrategy.validateAsync(
+							convertedValue, new Runnable() {
+								@Override
+								public void run() {
+									source.getRealm().asyncExec(new Runnable() {
+										@Override
+										public void run() {
+											completeAsyncValidation(
+													pendingValidation,
+													generation, statuses,
+													destination,
+													updateValueStrategy,
+													convertedValue,
+													validateOnly);
+										}
+									});
+								}
+							});
+					if (future != null) {
+						pendingValidation.future = future;
+						mergeStatus(multiStatus, ValidationStatus.pending());
+						return;
+					}
 					if (validateOnly)
 						return;
 
 					// Set value
 					destinationRealmReached = true;
-					destination.getRealm().exec(new Runnable() {
-						@Override
-						public void run() {
-							if (destination == target) {
-								updatingTarget = true;
-							} else {
-								updatingModel = true;
-							}
-							try {
-								IStatus setterStatus = updateValueStrategy
-										.doSet(destination, convertedValue);
-
-								mergeStatus(multiStatus, setterStatus);
-							} finally {
-								if (destination == target) {
-									updatingTarget = false;
-								} else {
-									updatingModel = false;
-								}
-								setValidationStatus(multiStatus);
-							}
-						}
-					});
+					setValue(destination, updateValueStrategy, convertedValue,
+							multiStatus);
 				} catch (Exception ex) {
 					// This check is necessary as in 3.2.2 Status
 					// doesn't accept a null message (bug 177264).
@@ -235,6 +276,76 @@ class ValueBinding extends Binding {
 		});
 	}
 
+	private void setValue(final IObservableValue destination,
+			final UpdateValueStrategy updateValueStrategy,
+			final Object convertedValue, final MultiStatus multiStatus) {
+		destination.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				if (destination == target) {
+					updatingTarget = true;
+				} else {
+					updatingModel = true;
+				}
+				try {
+					IStatus setterStatus = updateValueStrategy.doSet(
+							destination, convertedValue);
+
+					mergeStatus(multiStatus, setterStatus);
+				} finally {
+					if (destination == target) {
+						updatingTarget = false;
+					} else {
+						updatingModel = false;
+					}
+					setValidationStatus(multiStatus);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Continues an update once its asynchronous validation is done. Called in
+	 * the realm of the source.
+	 */
+	private void completeAsyncValidation(PendingValidation pendingValidation,
+			int generation, IStatus[] statuses, IObservableValue destination,
+			UpdateValueStrategy updateValueStrategy, Object convertedValue,
+			boolean validateOnly) {
+		if (target == null || pendingValidation.generation != generation
+				|| pendingValidation.future == null) {
+			// disposed, or superseded by a newer update
+			return;
+		}
+		Future future = pendingValidation.future;
+		pendingValidation.future = null;
+
+		MultiStatus multiStatus = BindingStatus.ok();
+		for (int i = 0; i < statuses.length; i++) {
+			mergeStatus(multiStatus, statuses[i]);
+		}
+		IStatus status;
+		try {
+			status = (IStatus) future.get();
+		} catch (CancellationException e) {
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			String message = (cause.getMessage() != null) ? cause.getMessage()
+					: ""; //$NON-NLS-1$
+			status = new Status(IStatus.ERROR, Policy.JFACE_DATABINDING,
+					IStatus.ERROR, message, cause);
+		}
+		if (!mergeStatus(multiStatus, status) || validateOnly) {
+			setValidationStatus(multiStatus);
+			return;
+		}
+		setValue(destination, updateValueStrategy, convertedValue, multiStatus);
+	}
+
 	@Override
 	public void validateModelToTarget() {
 		doUpdate(model, target, modelToTarget, true, true);
@@ -256,6 +367,8 @@ class ValueBinding extends Binding {
 
 	@Override
 	public void dispose() {
+		targetToModelValidation.cancel();
+		modelToTargetValidation.cancel();
 		if (targetChangeListener != null) {
 			target.removeValueChangeListener(targetChangeListener);
 			targetChangeListener = null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@
 package org.eclipse.core.databinding.validation;
 
 import org.eclipse.core.databinding.util.Policy;
+import org.eclipse.core.internal.databinding.BindingMessages;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 
@@ -23,6 +24,14 @@ import org.eclipse.core.runtime.Status;
  */
 public class ValidationStatus extends Status {
 
+	/**
+	 * Status code of the status of a validation which has not completed yet.
+	 *
+	 * @see #pending()
+	 * @since 1.5
+	 */
+	public static final int PENDING = 1;
+
 	/**
 	 * Creates a new validation status with the given severity, message, and
 	 * exception.
@@ -45,6 +54,10 @@ public class ValidationStatus extends Status {
 		super(severity, Policy.JFACE_DATABINDING,IStatus.OK, message, null);
 	}
 
+	private ValidationStatus(int severity, int code, String message) {
+		super(severity, Policy.JFACE_DATABINDING, code, message, null);
+	}
+
 	/**
 	 * Creates a new validation error status with the given message.
 	 *
@@ -97,6 +110,42 @@ public class ValidationStatus extends Status {
 		return new ValidationStatus(IStatus.INFO, message);
 	}
 
+	/**
+	 * Creates a new status for a validation which is still running. The
+	 * status has a severity of <code>INFO</code>, so that it does not abort the
+	 * update of a binding, and the code {@link #PENDING}.
+	 *
+	 * @return a new pending status
+	 * @since 1.5
+	 */
+	public static IStatus pending() {
+		return new ValidationStatus(IStatus.INFO, PENDING,
+				BindingMessages.getString(BindingMessages.VALIDATE_PENDING));
+	}
+
+	/**
+	 * Returns whether the given status, or any of its children, is a
+	 * {@link #pending() pending status}.
+	 *
+	 * @param status
+	 * @return whether a validation is still running
+	 * @since 1.5
+	 */
+	public static boolean isPending(IStatus status) {
+		if (status.getCode() == PENDING
+				&& Policy.JFACE_DATABINDING.equals(status.getPlugin())
+				&& status.getSeverity() == IStatus.INFO) {
+			return true;
+		}
+		IStatus[] children = status.getChildren();
+		for (int i = 0; i < children.length; i++) {
+			if (isPending(children[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns an OK status.
 	 *
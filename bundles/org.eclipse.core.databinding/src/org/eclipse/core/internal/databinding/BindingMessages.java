@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -108,6 +108,11 @@ public class BindingMessages {
 	 */
 	public static final String VALIDATE_NUMBER_PARSE_ERROR_NO_CHARACTER = "Validate_NumberParseErrorNoCharacter"; //$NON-NLS-1$
 
+	/**
+	 * Key to be used for a "Validate_Pending" message
+	 */
+	public static final String VALIDATE_PENDING = "Validate_Pending"; //$NON-NLS-1$
+
 	/**
 	 * Returns the resource object with the given key in the resource bundle for
 	 * JFace Data Binding. If there isn't any value under the given key, the key
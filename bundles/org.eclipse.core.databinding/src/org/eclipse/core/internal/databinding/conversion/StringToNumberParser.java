@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -170,20 +170,31 @@ public class StringToNumberParser {
 	 * @return <code>true</code> if in range
 	 */
 	private static boolean checkInteger(Number number, int bitLength) {
-		BigInteger bigInteger = null;
+		// Check the common types without allocating a BigInteger, which is
+		// what dominates the cost of validating primitive values
+		if (number instanceof Integer || number instanceof Long
+				|| number instanceof Short || number instanceof Byte) {
+			long longValue = number.longValue();
+			return bitLength >= 63
+					|| (longValue >= -(1L << bitLength) && longValue < (1L << bitLength));
+		}
 
-		if (number instanceof Integer || number instanceof Long) {
-			bigInteger = BigInteger.valueOf(number.longValue());
-		} else if (number instanceof Float || number instanceof Double) {
+		if (number instanceof Float || number instanceof Double) {
 			double doubleValue = number.doubleValue();
-			if (!Double.isNaN(doubleValue)
-					&& doubleValue != Double.NEGATIVE_INFINITY
-					&& doubleValue != Double.POSITIVE_INFINITY) {
-				bigInteger = new BigDecimal(doubleValue).toBigInteger();
-			} else {
+			if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
 				return false;
 			}
-		} else if (number instanceof BigInteger) {
+			// The fraction is truncated, as BigDecimal.toBigInteger() does.
+			// Both the integral part and the bounds are exact doubles.
+			double integralValue = doubleValue < 0 ? Math.ceil(doubleValue)
+					: Math.floor(doubleValue);
+			double bound = Math.scalb(1.0, bitLength);
+			return integralValue >= -bound && integralValue < bound;
+		}
+
+		BigInteger bigInteger = null;
+
+		if (number instanceof BigInteger) {
 			bigInteger = (BigInteger) number;
 		} else if (number instanceof BigDecimal) {
 			bigInteger = ((BigDecimal) number).toBigInteger();
@@ -228,26 +239,24 @@ public class StringToNumberParser {
 	 *             if the number type is unsupported
 	 */
 	public static boolean inFloatRange(Number number) {
-		return checkDecimal(number, FLOAT_MIN_BIG_DECIMAL,
+		return checkDecimal(number, Float.MAX_VALUE, FLOAT_MIN_BIG_DECIMAL,
 				FLOAT_MAX_BIG_DECIMAL);
 	}
 
-	private static boolean checkDecimal(Number number, BigDecimal min,
-			BigDecimal max) {
-		BigDecimal bigDecimal = null;
-		if (number instanceof Integer || number instanceof Long) {
-			bigDecimal = new BigDecimal(number.doubleValue());
-		} else if (number instanceof Float || number instanceof Double) {
+	private static boolean checkDecimal(Number number, double maxValue,
+			BigDecimal min, BigDecimal max) {
+		// The values of the primitive wrappers are exactly representable as
+		// doubles, as are the bounds, so they can be compared without
+		// allocating a BigDecimal
+		if (number instanceof Integer || number instanceof Long
+				|| number instanceof Short || number instanceof Byte
+				|| number instanceof Float || number instanceof Double) {
 			double doubleValue = number.doubleValue();
+			return doubleValue >= -maxValue && doubleValue <= maxValue;
+		}
 
-			if (!Double.isNaN(doubleValue)
-					&& doubleValue != Double.NEGATIVE_INFINITY
-					&& doubleValue != Double.POSITIVE_INFINITY) {
-				bigDecimal = new BigDecimal(doubleValue);
-			} else {
-				return false;
-			}
-		} else if (number instanceof BigInteger) {
+		BigDecimal bigDecimal = null;
+		if (number instanceof BigInteger) {
 			bigDecimal = new BigDecimal((BigInteger) number);
 		} else if (number instanceof BigDecimal) {
 			bigDecimal = (BigDecimal) number;
@@ -284,7 +293,7 @@ public class StringToNumberParser {
 	 *             if the number type is unsupported
 	 */
 	public static boolean inDoubleRange(Number number) {
-		return checkDecimal(number, DOUBLE_MIN_BIG_DECIMAL,
+		return checkDecimal(number, Double.MAX_VALUE, DOUBLE_MIN_BIG_DECIMAL,
 				DOUBLE_MAX_BIG_DECIMAL);
 	}
 
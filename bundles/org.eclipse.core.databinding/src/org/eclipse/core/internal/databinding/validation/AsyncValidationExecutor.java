@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.validation;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the executor which runs asynchronous validators by default.
+ *
+ * @since 1.5
+ */
+public class AsyncValidationExecutor {
+
+	private static class DefaultExecutor {
+		static final Executor INSTANCE = createDefault();
+	}
+
+	private static Executor createDefault() {
+		int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,
+				threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue(),
+				new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable,
+								"Data Binding Validation " //$NON-NLS-1$
+										+ count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		// validators are typically idle, don't keep their threads around
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Returns the executor shared by all asynchronous validators which are
+	 * not given an executor of their own. Its number of threads is bounded by
+	 * the number of processors, and idle threads are released.
+	 *
+	 * @return the default executor for asynchronous validators
+	 */
+	public static Executor getDefault() {
+		return DefaultExecutor.INSTANCE;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2013 IBM Corporation and others.
+ * Copyright (c) 2010, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -130,6 +130,12 @@ public class BindingTable {
 	private Map<TriggerSequence, ArrayList<Binding>> conflicts = new HashMap<TriggerSequence, ArrayList<Binding>>();
 	private Map<TriggerSequence, ArrayList<Binding>> orderedBindingsByTrigger = new HashMap<TriggerSequence, ArrayList<Binding>>();
 
+	/**
+	 * The manager this table was added to, which is told about changes to the
+	 * table; may be <code>null</code>.
+	 */
+	private BindingTableManager manager;
+
 	/**
 	 * @param context
 	 */
@@ -145,6 +151,10 @@ public class BindingTable {
 		return tableId.getId();
 	}
 
+	void setManager(BindingTableManager manager) {
+		this.manager = manager;
+	}
+
 	public Collection<Binding> getConflicts() {
 		Collection<Binding> conflictsList = new ArrayList<Binding>();
 		for (TriggerSequence key : conflicts.keySet()) {
@@ -190,6 +200,9 @@ public class BindingTable {
 		}
 
 		evaluateOrderedBindings(binding.getTriggerSequence(), binding);
+		if (manager != null) {
+			manager.invalidateTries();
+		}
 	}
 
 	private void addBindingSimple(Binding binding) {
@@ -257,6 +270,9 @@ public class BindingTable {
 				evaluateOrderedBindings(binding.getTriggerSequence(), null);
 			}
 		}
+		if (manager != null) {
+			manager.invalidateTries();
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2012 IBM Corporation and others.
+ * Copyright (c) 2010, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,8 +14,10 @@ package org.eclipse.e4.ui.bindings.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import javax.inject.Inject;
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.commands.contexts.Context;
@@ -36,6 +38,29 @@ public class BindingTableManager {
 
 	private String[] activeSchemeIds;
 
+	/**
+	 * The number of context sets whose tries are kept around, so that switching
+	 * back and forth between a few parts does not recompile them.
+	 */
+	private static final int TRIE_CACHE_SIZE = 8;
+
+	/**
+	 * The trie of the context set looked up last. The dispatcher asks about
+	 * the same context set key stroke after key stroke, so this usually
+	 * answers without even hashing the context set.
+	 */
+	private volatile BindingTrie activeTrie;
+
+	private final Map<ContextSet, BindingTrie> tries = new LinkedHashMap<ContextSet, BindingTrie>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ContextSet, BindingTrie> eldest) {
+			return size() > TRIE_CACHE_SIZE;
+		}
+	};
+
 	public void addTable(BindingTable table) {
 		String contextId = getTableId(table.getId());
 		if (eclipseContext.containsKey(contextId)) {
@@ -43,6 +68,8 @@ public class BindingTableManager {
 			//			throw new IllegalArgumentException("Already contains table " + contextId); //$NON-NLS-1$
 		}
 		eclipseContext.set(contextId, table);
+		table.setManager(this);
+		invalidateTries();
 		final List<Context> contexts = definedTables.getContexts();
 		if (!contexts.contains(table.getTableId())) {
 			// this is only valid because I'm throwing away the old definedTables contextSet
@@ -61,6 +88,8 @@ public class BindingTableManager {
 			throw new IllegalArgumentException("Does not contains table " + contextId); //$NON-NLS-1$
 		}
 		eclipseContext.remove(contextId);
+		table.setManager(null);
+		invalidateTries();
 		final List<Context> contexts = definedTables.getContexts();
 		if (contexts.contains(table.getTableId())) {
 			// this is only valid because I'm throwing away the old definedTables contextSet
@@ -120,38 +149,14 @@ public class BindingTableManager {
 	}
 
 	public Binding getPerfectMatch(ContextSet contextSet, TriggerSequence triggerSequence) {
-		Binding result = null;
-		Binding currentResult = null;
-		List<Context> contexts = contextSet.getContexts();
-		ListIterator<Context> it = contexts.listIterator(contexts.size());
-		while (it.hasPrevious()) {
-			Context c = it.previous();
-			BindingTable table = getTable(c.getId());
-			if (table != null) {
-				currentResult = table.getPerfectMatch(triggerSequence);
-			}
-			if (currentResult != null) {
-				if (isMostActiveScheme(currentResult)) {
-					return currentResult;
-				}
-				if (result == null) {
-					result = currentResult;
-				} else {
-					int rc = compareSchemes(result.getSchemeId(), currentResult.getSchemeId());
-					if (rc < 0) {
-						result = currentResult;
-					}
-				}
-			}
-		}
-		return result;
+		return getTrie(contextSet).getPerfectMatch(triggerSequence);
 	}
 
 	/**
 	 * @param currentResult
 	 * @return
 	 */
-	private boolean isMostActiveScheme(Binding currentResult) {
+	boolean isMostActiveScheme(Binding currentResult) {
 		if (activeSchemeIds == null || activeSchemeIds.length < 2) {
 			return true;
 		}
@@ -203,35 +208,39 @@ public class BindingTableManager {
 	}
 
 	public boolean isPartialMatch(ContextSet contextSet, TriggerSequence sequence) {
-		List<Context> contexts = contextSet.getContexts();
-		ListIterator<Context> it = contexts.listIterator(contexts.size());
-		while (it.hasPrevious()) {
-			Context c = it.previous();
-			BindingTable table = getTable(c.getId());
-			if (table != null) {
-				if (table.isPartialMatch(sequence)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return getTrie(contextSet).isPartialMatch(sequence);
 	}
 
 	public Collection<Binding> getPartialMatches(ContextSet contextSet, TriggerSequence sequence) {
-		ArrayList<Binding> bindings = new ArrayList<Binding>();
-		List<Context> contexts = contextSet.getContexts();
-		ListIterator<Context> it = contexts.listIterator(contexts.size());
-		while (it.hasPrevious()) {
-			Context c = it.previous();
-			BindingTable table = getTable(c.getId());
-			if (table != null) {
-				Collection<Binding> partialMatches = table.getPartialMatches(sequence);
-				if (partialMatches != null) {
-					bindings.addAll(partialMatches);
-				}
+		return new ArrayList<Binding>(getTrie(contextSet).getPartialMatches(sequence));
+	}
+
+	private BindingTrie getTrie(ContextSet contextSet) {
+		BindingTrie trie = activeTrie;
+		if (trie != null
+				&& (trie.getContextSet() == contextSet || trie.getContextSet().equals(contextSet))) {
+			return trie;
+		}
+		synchronized (tries) {
+			trie = tries.get(contextSet);
+			if (trie == null) {
+				trie = new BindingTrie(contextSet, this);
+				tries.put(contextSet, trie);
 			}
+			activeTrie = trie;
+		}
+		return trie;
+	}
+
+	/**
+	 * Throws away the compiled tries. Called whenever a table is added or
+	 * removed, one of the tables changes, or the active schemes change.
+	 */
+	void invalidateTries() {
+		synchronized (tries) {
+			activeTrie = null;
+			tries.clear();
 		}
-		return bindings;
 	}
 
 	/**
@@ -240,6 +249,7 @@ public class BindingTableManager {
 	public void setActiveSchemes(String[] activeSchemeIds) {
 		this.activeSchemeIds = activeSchemeIds;
 		BindingTable.BEST_SEQUENCE.setActiveSchemes(activeSchemeIds);
+		invalidateTries();
 	}
 
 	/*
@@ -247,7 +257,7 @@ public class BindingTableManager {
 	 *
 	 * Returns an in based on scheme 1 < scheme 2
 	 */
-	private final int compareSchemes(final String schemeId1, final String schemeId2) {
+	final int compareSchemes(final String schemeId1, final String schemeId2) {
 		if (activeSchemeIds == null) {
 			return 0;
 		}
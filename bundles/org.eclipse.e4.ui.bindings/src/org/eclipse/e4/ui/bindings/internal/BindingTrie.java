@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.bindings.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import org.eclipse.core.commands.contexts.Context;
+import org.eclipse.jface.bindings.Binding;
+import org.eclipse.jface.bindings.Trigger;
+import org.eclipse.jface.bindings.TriggerSequence;
+
+/**
+ * An immutable trie of the triggers of all bindings that are visible in one
+ * {@link ContextSet}. It is compiled once from the binding tables of the
+ * context set, and answers the questions the key binding dispatcher asks on
+ * every key stroke - is this sequence bound, and is it the start of a longer
+ * binding - without walking the tables and without allocating.
+ */
+final class BindingTrie {
+
+	private static final class Node {
+		private final Map<Trigger, Node> children = new HashMap<Trigger, Node>();
+		private final List<Binding> partialMatches = new ArrayList<Binding>();
+		private Binding perfectMatch;
+		private boolean finalMatch;
+	}
+
+	private final ContextSet contextSet;
+
+	private final Node root = new Node();
+
+	/**
+	 * Every node of the trie, by the trigger sequence leading to it. The
+	 * dispatcher hands over complete sequences, so this spares it the trip
+	 * down from the root and the copy of the triggers that it would take.
+	 */
+	private final Map<TriggerSequence, Node> nodesBySequence = new HashMap<TriggerSequence, Node>();
+
+	BindingTrie(ContextSet contextSet, BindingTableManager manager) {
+		this.contextSet = contextSet;
+		// the same order as the table by table lookups in the manager use
+		List<Context> contexts = contextSet.getContexts();
+		ListIterator<Context> it = contexts.listIterator(contexts.size());
+		while (it.hasPrevious()) {
+			BindingTable table = manager.getTable(it.previous().getId());
+			if (table != null) {
+				for (Binding binding : table.getBindings()) {
+					TriggerSequence sequence = binding.getTriggerSequence();
+					if (table.getPerfectMatch(sequence) == binding) {
+						insert(binding, sequence, manager);
+					}
+				}
+			}
+		}
+	}
+
+	private void insert(Binding binding, TriggerSequence sequence, BindingTableManager manager) {
+		Trigger[] triggers = sequence.getTriggers();
+		TriggerSequence[] prefixes = sequence.getPrefixes();
+		Node node = root;
+		for (int i = 0; i < triggers.length; i++) {
+			if (i > 0) {
+				node.partialMatches.add(binding);
+			}
+			Node child = node.children.get(triggers[i]);
+			if (child == null) {
+				child = new Node();
+				node.children.put(triggers[i], child);
+				nodesBySequence.put(i + 1 < triggers.length ? prefixes[i + 1] : sequence, child);
+			}
+			node = child;
+		}
+
+		// mirrors the scheme resolution of the table by table lookup
+		if (node.finalMatch) {
+			return;
+		}
+		if (manager.isMostActiveScheme(binding)) {
+			node.perfectMatch = binding;
+			node.finalMatch = true;
+		} else if (node.perfectMatch == null
+				|| manager.compareSchemes(node.perfectMatch.getSchemeId(), binding.getSchemeId()) < 0) {
+			node.perfectMatch = binding;
+		}
+	}
+
+	ContextSet getContextSet() {
+		return contextSet;
+	}
+
+	Binding getPerfectMatch(TriggerSequence sequence) {
+		Node node = nodesBySequence.get(sequence);
+		return node == null ? null : node.perfectMatch;
+	}
+
+	boolean isPartialMatch(TriggerSequence sequence) {
+		Node node = nodesBySequence.get(sequence);
+		return node != null && !node.partialMatches.isEmpty();
+	}
+
+	/**
+	 * @return the bindings that the sequence is a proper prefix of; never
+	 *         <code>null</code>. Callers must not modify the list.
+	 */
+	List<Binding> getPartialMatches(TriggerSequence sequence) {
+		Node node = nodesBySequence.get(sequence);
+		return node == null ? Collections.<Binding> emptyList() : node.partialMatches;
+	}
+}
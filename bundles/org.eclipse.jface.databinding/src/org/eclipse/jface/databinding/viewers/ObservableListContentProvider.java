@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2010 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,11 +20,16 @@ import org.eclipse.core.databinding.observable.IObservableCollection;
 import org.eclipse.core.databinding.observable.list.IListChangeListener;
 import org.eclipse.core.databinding.observable.list.IObservableList;
 import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.list.ListDiffVisitor;
 import org.eclipse.core.databinding.observable.set.IObservableSet;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.internal.databinding.viewers.ObservableCollectionContentProvider;
 import org.eclipse.jface.internal.databinding.viewers.ViewerElementSet;
+import org.eclipse.jface.internal.databinding.viewers.ViewerListDiffs;
+import org.eclipse.jface.internal.databinding.viewers.ViewerListDiffs.RemovalBatch;
+import org.eclipse.jface.internal.databinding.viewers.ViewerUpdater;
 import org.eclipse.jface.viewers.AbstractListViewer;
 import org.eclipse.jface.viewers.AbstractTableViewer;
 import org.eclipse.jface.viewers.IStructuredContentProvider;
@@ -36,18 +41,32 @@ import org.eclipse.jface.viewers.Viewer;
  * elements of an {@link IObservableList} when set as the viewer's input.
  * Objects of this class listen for changes to the observable list, and will
  * insert and remove viewer elements to reflect observed changes.
+ * <p>
+ * Changes that affect a large part of the list, such as reloading the list
+ * from the model, are applied by refreshing the viewer instead, see
+ * {@link #setRefreshThreshold(double)}.
+ * </p>
  *
  * @noextend This class is not intended to be subclassed by clients.
  * @since 1.1
  */
 public class ObservableListContentProvider implements
 		IStructuredContentProvider {
-	private ObservableCollectionContentProvider impl;
+	private Impl impl;
+
+	/**
+	 * The default {@link #setRefreshThreshold(double) refresh threshold}.
+	 *
+	 * @since 1.7
+	 */
+	public static final double DEFAULT_REFRESH_THRESHOLD = ViewerListDiffs.DEFAULT_REFRESH_THRESHOLD;
 
 	private static class Impl extends ObservableCollectionContentProvider
 			implements IListChangeListener {
 		private Viewer viewer;
 
+		private double refreshThreshold = DEFAULT_REFRESH_THRESHOLD;
+
 		Impl(IViewerUpdater explicitViewerUpdater) {
 			super(explicitViewerUpdater);
 		}
@@ -86,6 +105,8 @@ public class ObservableListContentProvider implements
 					.withComparer(comparer);
 			final Set knownElementRemovals = ViewerElementSet
 					.withComparer(comparer);
+			final Set repeatedRemovals = ViewerElementSet
+					.withComparer(comparer);
 			final boolean[] suspendRedraw = new boolean[] { false };
 			event.diff.accept(new ListDiffVisitor() {
 				@Override
@@ -95,7 +116,8 @@ public class ObservableListContentProvider implements
 
 				@Override
 				public void handleRemove(int index, Object element) {
-					knownElementRemovals.add(element);
+					if (!knownElementRemovals.add(element))
+						repeatedRemovals.add(element);
 				}
 
 				@Override
@@ -120,35 +142,23 @@ public class ObservableListContentProvider implements
 				realizedElements.removeAll(knownElementRemovals);
 			}
 
-			if (suspendRedraw[0])
-				viewer.getControl().setRedraw(false);
-			try {
-				event.diff.accept(new ListDiffVisitor() {
-					@Override
-					public void handleAdd(int index, Object element) {
-						viewerUpdater.insert(element, index);
-					}
-
-					@Override
-					public void handleRemove(int index, Object element) {
-						viewerUpdater.remove(element, index);
-					}
-
-					@Override
-					public void handleReplace(int index, Object oldElement,
-							Object newElement) {
-						viewerUpdater.replace(oldElement, newElement, index);
-					}
-
-					@Override
-					public void handleMove(int oldIndex, int newIndex,
-							Object element) {
-						viewerUpdater.move(element, oldIndex, newIndex);
-					}
-				});
-			} finally {
+			ListDiffEntry[] differences = event.diff.getDifferences();
+			if (viewerUpdater instanceof ViewerUpdater
+					&& ViewerListDiffs.isRefreshCheaper(differences, event
+							.getObservableList().size(), refreshThreshold)) {
+				((ViewerUpdater) viewerUpdater).refresh();
+			} else {
+				if (differences.length > 1)
+					suspendRedraw[0] = true;
 				if (suspendRedraw[0])
-					viewer.getControl().setRedraw(true);
+					viewer.getControl().setRedraw(false);
+				try {
+					applyDiff(event.diff, knownElementRemovals,
+							repeatedRemovals);
+				} finally {
+					if (suspendRedraw[0])
+						viewer.getControl().setRedraw(true);
+				}
 			}
 
 			if (realizedElements != null) {
@@ -156,6 +166,52 @@ public class ObservableListContentProvider implements
 			}
 			knownElements.removeAll(knownElementRemovals);
 		}
+
+		private void applyDiff(ListDiff diff, Set removedElements,
+				Set repeatedRemovals) {
+			final RemovalBatch removals = new RemovalBatch(removedElements,
+					repeatedRemovals) {
+				@Override
+				protected void remove(Object element, int position) {
+					viewerUpdater.remove(element, position);
+				}
+
+				@Override
+				protected void remove(Object[] batch) {
+					viewerUpdater.remove(batch);
+				}
+			};
+			diff.accept(new ListDiffVisitor() {
+				@Override
+				public void handleAdd(int index, Object element) {
+					removals.flush();
+					viewerUpdater.insert(element, index);
+				}
+
+				@Override
+				public void handleRemove(int index, Object element) {
+					if (!removals.add(index, element)) {
+						removals.flush();
+						viewerUpdater.remove(element, index);
+					}
+				}
+
+				@Override
+				public void handleReplace(int index, Object oldElement,
+						Object newElement) {
+					removals.flush();
+					viewerUpdater.replace(oldElement, newElement, index);
+				}
+
+				@Override
+				public void handleMove(int oldIndex, int newIndex,
+						Object element) {
+					removals.flush();
+					viewerUpdater.move(element, oldIndex, newIndex);
+				}
+			});
+			removals.flush();
+		}
 	}
 
 	/**
@@ -219,6 +275,40 @@ public class ObservableListContentProvider implements
 		return impl.getKnownElements();
 	}
 
+	/**
+	 * Sets the size of a change to the input list, relative to the size of the
+	 * list, above which the viewer is refreshed as a whole instead of being
+	 * updated element by element. A change is applied by refreshing the viewer
+	 * if its diff has more entries than <code>threshold</code> times the size
+	 * of the list before or after the change, whichever is larger. Changes
+	 * with only a few entries are always applied element by element.
+	 * <p>
+	 * A threshold of {@link Double#POSITIVE_INFINITY} disables refreshing.
+	 * The default is {@link #DEFAULT_REFRESH_THRESHOLD}. Content providers
+	 * created with an explicit {@link IViewerUpdater} never refresh the
+	 * viewer, they pass every change to the viewer updater.
+	 * </p>
+	 *
+	 * @param threshold
+	 *            the refresh threshold, must not be negative
+	 * @since 1.7
+	 */
+	public void setRefreshThreshold(double threshold) {
+		Assert.isLegal(threshold >= 0, "Refresh threshold must not be negative"); //$NON-NLS-1$
+		impl.refreshThreshold = threshold;
+	}
+
+	/**
+	 * Returns the refresh threshold of this content provider.
+	 *
+	 * @return the refresh threshold
+	 * @see #setRefreshThreshold(double)
+	 * @since 1.7
+	 */
+	public double getRefreshThreshold() {
+		return impl.refreshThreshold;
+	}
+
 	/**
 	 * Returns the set of known elements which have been realized in the viewer.
 	 * Clients may track this set in order to perform custom actions on elements
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 Matthew Hall and others.
+ * Copyright (c) 2007, 2015 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,11 +20,16 @@ import org.eclipse.core.databinding.observable.IObservablesListener;
 import org.eclipse.core.databinding.observable.list.IListChangeListener;
 import org.eclipse.core.databinding.observable.list.IObservableList;
 import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.list.ListDiffVisitor;
 import org.eclipse.core.databinding.observable.masterdetail.IObservableFactory;
 import org.eclipse.core.databinding.observable.set.IObservableSet;
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.internal.databinding.viewers.ObservableCollectionTreeContentProvider;
 import org.eclipse.jface.internal.databinding.viewers.ViewerElementSet;
+import org.eclipse.jface.internal.databinding.viewers.ViewerListDiffs;
+import org.eclipse.jface.internal.databinding.viewers.ViewerListDiffs.RemovalBatch;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.Viewer;
@@ -35,16 +40,30 @@ import org.eclipse.jface.viewers.Viewer;
  * elements of a tree. Object of this class listen for changes to each
  * {@link IObservableList} created by the factory, and will insert and remove
  * viewer elements to reflect the observed changes.
+ * <p>
+ * Changes that affect a large part of a list of children are applied by
+ * refreshing the parent element instead, see
+ * {@link #setRefreshThreshold(double)}.
+ * </p>
  *
  * @noextend This class is not intended to be subclassed by clients.
  * @since 1.2
  */
 public class ObservableListTreeContentProvider implements ITreeContentProvider {
-	private final ObservableCollectionTreeContentProvider impl;
+	/**
+	 * The default {@link #setRefreshThreshold(double) refresh threshold}.
+	 *
+	 * @since 1.7
+	 */
+	public static final double DEFAULT_REFRESH_THRESHOLD = ViewerListDiffs.DEFAULT_REFRESH_THRESHOLD;
+
+	private final Impl impl;
 
 	private static class Impl extends ObservableCollectionTreeContentProvider {
 		private Viewer viewer;
 
+		private double refreshThreshold = DEFAULT_REFRESH_THRESHOLD;
+
 		public Impl(IObservableFactory listFactory,
 				TreeStructureAdvisor structureAdvisor) {
 			super(listFactory, structureAdvisor);
@@ -73,6 +92,8 @@ public class ObservableListTreeContentProvider implements ITreeContentProvider {
 						.withComparer(comparer);
 				final Set localKnownElementRemovals = ViewerElementSet
 						.withComparer(comparer);
+				final Set repeatedRemovals = ViewerElementSet
+						.withComparer(comparer);
 				final boolean[] suspendRedraw = new boolean[] { false };
 				event.diff.accept(new ListDiffVisitor() {
 					@Override
@@ -82,7 +103,8 @@ public class ObservableListTreeContentProvider implements ITreeContentProvider {
 
 					@Override
 					public void handleRemove(int index, Object element) {
-						localKnownElementRemovals.add(element);
+						if (!localKnownElementRemovals.add(element))
+							repeatedRemovals.add(element);
 					}
 
 					@Override
@@ -120,37 +142,22 @@ public class ObservableListTreeContentProvider implements ITreeContentProvider {
 					getOrCreateNode(it.next()).addParent(parentElement);
 				}
 
-				if (suspendRedraw[0])
-					viewer.getControl().setRedraw(false);
-				try {
-					event.diff.accept(new ListDiffVisitor() {
-						@Override
-						public void handleAdd(int index, Object child) {
-							viewerUpdater.insert(parentElement, child, index);
-						}
-
-						@Override
-						public void handleRemove(int index, Object child) {
-							viewerUpdater.remove(parentElement, child, index);
-						}
-
-						@Override
-						public void handleReplace(int index, Object oldChild,
-								Object newChild) {
-							viewerUpdater.replace(parentElement, oldChild,
-									newChild, index);
-						}
-
-						@Override
-						public void handleMove(int oldIndex, int newIndex,
-								Object child) {
-							viewerUpdater.move(parentElement, child, oldIndex,
-									newIndex);
-						}
-					});
-				} finally {
+				ListDiffEntry[] differences = event.diff.getDifferences();
+				if (ViewerListDiffs.isRefreshCheaper(differences, event
+						.getObservableList().size(), refreshThreshold)) {
+					viewerUpdater.refresh(parentElement);
+				} else {
+					if (differences.length > 1)
+						suspendRedraw[0] = true;
 					if (suspendRedraw[0])
-						viewer.getControl().setRedraw(true);
+						viewer.getControl().setRedraw(false);
+					try {
+						applyDiff(event.diff, localKnownElementRemovals,
+								repeatedRemovals);
+					} finally {
+						if (suspendRedraw[0])
+							viewer.getControl().setRedraw(true);
+					}
 				}
 
 				for (Iterator it = localKnownElementRemovals.iterator(); it
@@ -166,6 +173,54 @@ public class ObservableListTreeContentProvider implements ITreeContentProvider {
 				}
 				knownElements.removeAll(knownElementRemovals);
 			}
+
+			private void applyDiff(ListDiff diff, Set removedElements,
+					Set repeatedRemovals) {
+				final RemovalBatch removals = new RemovalBatch(removedElements,
+						repeatedRemovals) {
+					@Override
+					protected void remove(Object child, int position) {
+						viewerUpdater.remove(parentElement, child, position);
+					}
+
+					@Override
+					protected void remove(Object[] batch) {
+						viewerUpdater.remove(parentElement, batch);
+					}
+				};
+				diff.accept(new ListDiffVisitor() {
+					@Override
+					public void handleAdd(int index, Object child) {
+						removals.flush();
+						viewerUpdater.insert(parentElement, child, index);
+					}
+
+					@Override
+					public void handleRemove(int index, Object child) {
+						if (!removals.add(index, child)) {
+							removals.flush();
+							viewerUpdater.remove(parentElement, child, index);
+						}
+					}
+
+					@Override
+					public void handleReplace(int index, Object oldChild,
+							Object newChild) {
+						removals.flush();
+						viewerUpdater.replace(parentElement, oldChild,
+								newChild, index);
+					}
+
+					@Override
+					public void handleMove(int oldIndex, int newIndex,
+							Object child) {
+						removals.flush();
+						viewerUpdater.move(parentElement, child, oldIndex,
+								newIndex);
+					}
+				});
+				removals.flush();
+			}
 		}
 
 		@Override
@@ -267,6 +322,38 @@ public class ObservableListTreeContentProvider implements ITreeContentProvider {
 		return impl.getKnownElements();
 	}
 
+	/**
+	 * Sets the size of a change to a list of children, relative to the size of
+	 * the list, above which the parent element is refreshed as a whole instead
+	 * of being updated child by child. A change is applied by refreshing the
+	 * parent if its diff has more entries than <code>threshold</code> times the
+	 * size of the list before or after the change, whichever is larger.
+	 * Changes with only a few entries are always applied child by child.
+	 * <p>
+	 * A threshold of {@link Double#POSITIVE_INFINITY} disables refreshing.
+	 * The default is {@link #DEFAULT_REFRESH_THRESHOLD}.
+	 * </p>
+	 *
+	 * @param threshold
+	 *            the refresh threshold, must not be negative
+	 * @since 1.7
+	 */
+	public void setRefreshThreshold(double threshold) {
+		Assert.isLegal(threshold >= 0, "Refresh threshold must not be negative"); //$NON-NLS-1$
+		impl.refreshThreshold = threshold;
+	}
+
+	/**
+	 * Returns the refresh threshold of this content provider.
+	 *
+	 * @return the refresh threshold
+	 * @see #setRefreshThreshold(double)
+	 * @since 1.7
+	 */
+	public double getRefreshThreshold() {
+		return impl.refreshThreshold;
+	}
+
 	/**
 	 * Returns the set of known elements which have been realized in the viewer.
 	 * Clients may track this set in order to perform custom actions on elements
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2010 Matthew Hall and others.
+ * Copyright (c) 2008, 2015 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -57,6 +57,18 @@ public class TreeViewerUpdater {
 		viewer.insert(parent, element, position);
 	}
 
+	/**
+	 * Refreshes the children of the specified parent element, to apply a
+	 * change which affects a large part of them at once.
+	 *
+	 * @param parent
+	 *            the parent of the changed elements
+	 * @since 1.7
+	 */
+	public void refresh(Object parent) {
+		viewer.refresh(parent, false);
+	}
+
 	/**
 	 * Replaces the specified element whenever it appears as a child of the
 	 * specified parent element, at the given position with the new element.
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.internal.databinding.viewers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+
+/**
+ * NON-API - Helpers for applying list diffs to viewers.
+ * <p>
+ * Every element-wise viewer update costs at least one lookup of the element in
+ * the viewer plus a round trip to the widget, and many of them also save and
+ * restore the selection. Once a diff touches a sizable part of the list, a
+ * single refresh of the viewer is cheaper than applying the diff element by
+ * element.
+ * </p>
+ *
+ * @since 1.7
+ */
+public class ViewerListDiffs {
+
+	/**
+	 * The default refresh threshold: a diff with more entries than half of the
+	 * list size is applied by refreshing the viewer. This is deliberately on
+	 * the safe side, so that only changes which rebuild most of the list, such
+	 * as clearing or reloading it, lose the element-wise update and the
+	 * preserved widget state that comes with it.
+	 */
+	public static final double DEFAULT_REFRESH_THRESHOLD = 0.5;
+
+	/**
+	 * Diffs with no more than this many entries are always applied element by
+	 * element, regardless of the refresh threshold, so that small changes keep
+	 * updating the viewer in place.
+	 */
+	public static final int MIN_REFRESH_DIFF_SIZE = 64;
+
+	/**
+	 * Returns whether a diff with the given entries should be applied by
+	 * refreshing the viewer rather than element by element.
+	 *
+	 * @param differences
+	 *            the entries of the diff
+	 * @param newSize
+	 *            the size of the list after the change
+	 * @param threshold
+	 *            the number of entries, relative to the size of the list
+	 *            before or after the change, whichever is larger, above which
+	 *            the viewer is refreshed
+	 * @return whether the viewer should be refreshed
+	 */
+	public static boolean isRefreshCheaper(ListDiffEntry[] differences,
+			int newSize, double threshold) {
+		if (differences.length <= MIN_REFRESH_DIFF_SIZE) {
+			return false;
+		}
+		int oldSize = newSize;
+		for (int i = 0; i < differences.length; i++) {
+			oldSize += differences[i].isAddition() ? -1 : 1;
+		}
+		return differences.length > threshold * Math.max(oldSize, newSize);
+	}
+
+	/**
+	 * Collects runs of consecutive removals from a list diff, so that they can
+	 * be sent to the viewer in a single call. Removing a batch of elements from
+	 * a viewer removes them by identity rather than by position, so only
+	 * elements that were removed exactly once and are no longer in the list
+	 * may be batched.
+	 */
+	public static abstract class RemovalBatch {
+		private final Set removedElements;
+		private final Set repeatedRemovals;
+		private final List elements = new ArrayList();
+		private int firstPosition;
+
+		/**
+		 * @param removedElements
+		 *            the elements that were removed from the list and are no
+		 *            longer contained in it
+		 * @param repeatedRemovals
+		 *            the elements that were removed more than once
+		 */
+		public RemovalBatch(Set removedElements, Set repeatedRemovals) {
+			this.removedElements = removedElements;
+			this.repeatedRemovals = repeatedRemovals;
+		}
+
+		/**
+		 * Adds the given removed element to the batch if possible. If this
+		 * method returns <code>false</code>, the caller must {@link #flush()}
+		 * the batch and then remove the element by itself.
+		 *
+		 * @param position
+		 *            the position of the removed element
+		 * @param element
+		 *            the removed element
+		 * @return whether the element was added to the batch
+		 */
+		public boolean add(int position, Object element) {
+			if (!removedElements.contains(element)
+					|| repeatedRemovals.contains(element)) {
+				return false;
+			}
+			if (elements.isEmpty()) {
+				firstPosition = position;
+			}
+			elements.add(element);
+			return true;
+		}
+
+		/**
+		 * Removes the batched elements from the viewer, if any.
+		 */
+		public void flush() {
+			if (elements.size() == 1) {
+				Object element = elements.remove(0);
+				remove(element, firstPosition);
+			} else if (!elements.isEmpty()) {
+				Object[] batch = elements.toArray();
+				elements.clear();
+				remove(batch);
+			}
+		}
+
+		/**
+		 * Removes a single element from the viewer.
+		 *
+		 * @param element
+		 *            the element to remove
+		 * @param position
+		 *            the position of the element
+		 */
+		protected abstract void remove(Object element, int position);
+
+		/**
+		 * Removes the given elements from the viewer in a single call.
+		 *
+		 * @param batch
+		 *            the elements to remove
+		 */
+		protected abstract void remove(Object[] batch);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2009 Matthew Hall and others.
+ * Copyright (c) 2008, 2015 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -86,6 +86,16 @@ public abstract class ViewerUpdater implements IViewerUpdater {
 		return false;
 	}
 
+	/**
+	 * Refreshes the whole viewer, to apply a change which affects a large part
+	 * of its elements at once.
+	 *
+	 * @since 1.7
+	 */
+	public void refresh() {
+		viewer.refresh(false);
+	}
+
 	@Override
 	public abstract void add(Object[] elements);
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -153,6 +153,13 @@ public class ActionContributionItem extends ContributionItem {
 
 	private Listener menuCreatorListener;
 
+	/**
+	 * Indicates whether property changes of the action have not been applied
+	 * to the widget yet, because it is an item of a lazy menu that is not
+	 * shown.
+	 */
+	private boolean updateDeferred = false;
+
 	/**
 	 * Creates a new contribution item from the given action. The id of the
 	 * action is used as the id of the item.
@@ -175,12 +182,12 @@ public class ActionContributionItem extends ContributionItem {
 		if (isVisible() && widget != null) {
 			Display display = widget.getDisplay();
 			if (display.getThread() == Thread.currentThread()) {
-				update(e.getProperty());
+				updateOrDefer(e.getProperty());
 			} else {
 				display.asyncExec(new Runnable() {
 					@Override
 					public void run() {
-						update(e.getProperty());
+						updateOrDefer(e.getProperty());
 					}
 				});
 			}
@@ -188,6 +195,36 @@ public class ActionContributionItem extends ContributionItem {
 		}
 	}
 
+	/**
+	 * Updates the widget for the changed property, unless it is an item of a
+	 * lazy menu that is not shown. The widget is then updated when the menu
+	 * is shown.
+	 *
+	 * @see MenuManager#setLazy(boolean)
+	 */
+	private void updateOrDefer(String propertyName) {
+		IContributionManager parent = getParent();
+		if (widget instanceof MenuItem && parent instanceof MenuManager
+				&& ((MenuManager) parent).isDeferringUpdates()) {
+			updateDeferred = true;
+			return;
+		}
+		update(propertyName);
+	}
+
+	/**
+	 * Updates the widget if property changes have been deferred while the menu
+	 * was not shown.
+	 */
+	void updateDeferred() {
+		if (updateDeferred) {
+			updateDeferred = false;
+			if (widget != null) {
+				update(null);
+			}
+		}
+	}
+
 	/**
 	 * Compares this action contribution item with another object. Two action
 	 * contribution items are equal if they refer to the identical Action.
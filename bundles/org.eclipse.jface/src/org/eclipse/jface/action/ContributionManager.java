@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -370,6 +370,16 @@ public abstract class ContributionManager implements IContributionManager {
 		return false;
 	}
 
+	/**
+	 * Returns whether this manager has been marked dirty, without asking its
+	 * dynamic items.
+	 *
+	 * @return <code>true</code> if this manager is marked dirty
+	 */
+	boolean isMarkedDirty() {
+		return isDirty;
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return contributions.isEmpty();
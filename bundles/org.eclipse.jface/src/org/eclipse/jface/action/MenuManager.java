@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,7 +13,9 @@
 package org.eclipse.jface.action;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.jface.internal.MenuManagerEventHelper;
@@ -37,6 +39,12 @@ import org.eclipse.swt.widgets.ToolBar;
  * A menu manager is a contribution manager which realizes itself and its items
  * in a menu control; either as a menu bar, a sub-menu, or a context menu.
  * <p>
+ * A menu manager can be made lazy with {@link #setLazy(boolean)}. A lazy menu
+ * manager, and all the sub-menus below it, only create the items of a menu
+ * when the menu is about to be shown. Updates to a menu that is not showing
+ * are deferred until it is shown again.
+ * </p>
+ * <p>
  * This class may be instantiated; it may also be subclassed.
  * </p>
  */
@@ -110,6 +118,29 @@ public class MenuManager extends ContributionManager implements IMenuManager {
 	 */
 	private String definitionId = null;
 
+	/**
+	 * Indicates whether this menu and its sub-menus only create their items
+	 * when they are shown.
+	 */
+	private boolean lazy = false;
+
+	/**
+	 * Indicates whether the menu is currently shown.
+	 */
+	private boolean shown = false;
+
+	/**
+	 * Indicates whether an update of this menu has been deferred until it is
+	 * shown.
+	 */
+	private boolean updateDeferred = false;
+
+	/**
+	 * Indicates whether the deferred update must rebuild the menu even if it
+	 * is not dirty.
+	 */
+	private boolean forceDeferred = false;
+
     /**
      * Creates a menu manager.  The text and id are <code>null</code>.
      * Typically used for creating a context menu, where it doesn't need to be referred to by id.
@@ -457,19 +488,38 @@ public class MenuManager extends ContributionManager implements IMenuManager {
      * Notifies all listeners that this menu is about to appear.
      */
     private void handleAboutToShow() {
+        shown = true;
         if (removeAllWhenShown) {
 			removeAll();
 		}
         MenuManagerEventHelper.getInstance().showEventPreHelper(this);
         fireAboutToShow(this);
         MenuManagerEventHelper.getInstance().showEventPostHelper(this);
-        update(false, false);
+        boolean force = forceDeferred;
+        forceDeferred = false;
+        updateDeferred = false;
+        update(force, false);
+        if (isLazy()) {
+        	// the sub-menus are brought up to date when they are shown, but
+        	// their menu items have to be enabled now
+        	for (IContributionItem item : getItems()) {
+        		if (item instanceof SubContributionItem) {
+        			item = ((SubContributionItem) item).getInnerItem();
+        		}
+        		if (item instanceof MenuManager) {
+        			((MenuManager) item).deferUpdate(force);
+        		} else if (item instanceof ActionContributionItem) {
+        			((ActionContributionItem) item).updateDeferred();
+        		}
+        	}
+        }
     }
 
     /**
      * Notifies all listeners that this menu is about to disappear.
      */
     private void handleAboutToHide() {
+        shown = false;
     	MenuManagerEventHelper.getInstance().hideEventPreHelper(this);
         fireAboutToHide(this);
         MenuManagerEventHelper.getInstance().hideEventPostHelper(this);
@@ -479,6 +529,7 @@ public class MenuManager extends ContributionManager implements IMenuManager {
      * Initializes the menu control.
      */
     private void initializeMenu() {
+        shown = false;
         menu.addMenuListener(new MenuAdapter() {
             @Override
 			public void menuHidden(MenuEvent e) {
@@ -500,6 +551,63 @@ public class MenuManager extends ContributionManager implements IMenuManager {
         return false;
     }
 
+    /**
+     * The <code>MenuManager</code> implementation of this
+     * <code>ContributionManager</code> method does not ask the dynamic items
+     * of a lazy menu that is not shown whether they are dirty, since they are
+     * brought up to date when the menu is shown anyway. Only the dirty flag,
+     * which {@link #markDirty()} propagates up the parent chain, is checked.
+     *
+     * @since 3.11
+     */
+    @Override
+	public boolean isDirty() {
+        if (isDeferringUpdates()) {
+        	return isMarkedDirty();
+        }
+        return super.isDirty();
+    }
+
+    /**
+     * Returns whether this menu manager, or one of the menu managers it is a
+     * sub-menu of, is lazy.
+     *
+     * @return <code>true</code> if the items of this menu are only created
+     *         when the menu is shown, <code>false</code> otherwise
+     * @see #setLazy(boolean)
+     * @since 3.11
+     */
+    public boolean isLazy() {
+        if (lazy) {
+        	return true;
+        }
+        return parent instanceof MenuManager && ((MenuManager) parent).isLazy();
+    }
+
+    /**
+     * Returns whether updates of this menu are currently deferred until it is
+     * shown. Menu bars are never lazy, only their drop down menus are.
+     *
+     * @return <code>true</code> if updates are deferred
+     */
+    boolean isDeferringUpdates() {
+        return !shown && menuExist() && (menu.getStyle() & SWT.BAR) == 0
+        		&& isLazy();
+    }
+
+    /**
+     * Defers the update of this menu until it is shown.
+     *
+     * @param force
+     *            <code>true</code> means the menu must be rebuilt even if it
+     *            is not dirty
+     */
+    private void deferUpdate(boolean force) {
+        updateDeferred = true;
+        forceDeferred |= force;
+        updateMenuItem();
+    }
+
     /**
      * Returns whether this menu should be enabled or not.
      * Used to enable the menu item containing this menu when it is realized as a sub-menu.
@@ -619,6 +727,29 @@ public class MenuManager extends ContributionManager implements IMenuManager {
         super.setOverrides(overrides);
     }
 
+    /**
+     * Sets whether this menu and its sub-menus only create their items when
+     * they are shown. This makes creating and updating large menus, such as
+     * context menus with many contributions, much cheaper, as only the menus
+     * the user actually opens are populated.
+     * <p>
+     * The items of a lazy menu do not exist before the menu has been shown
+     * once, so the accelerators of their actions are not installed in the
+     * menu until then. A lazy menu should be used when the accelerators are
+     * handled elsewhere, for example by a key binding service, or for context
+     * menus.
+     * </p>
+     *
+     * @param lazy
+     *            <code>true</code> if the items are only created when the
+     *            menu is shown, <code>false</code> to create them whenever
+     *            the menu is updated
+     * @since 3.11
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     @Override
 	public void setParent(IContributionManager manager) {
         parent = manager;
@@ -735,6 +866,10 @@ public class MenuManager extends ContributionManager implements IMenuManager {
 	 *            <code>false</code> means just this menu
 	 */
     protected void update(boolean force, boolean recursive) {
+        if (isDeferringUpdates()) {
+        	deferUpdate(force);
+        	return;
+        }
         if (isDirty() || force) {
             if (menuExist()) {
                 // clean contains all active items without double separators
@@ -763,11 +898,12 @@ public class MenuManager extends ContributionManager implements IMenuManager {
 
                 // remove obsolete (removed or non active)
                 Item[] mi = getMenuItems();
+                Set<IContributionItem> active = new HashSet<IContributionItem>(clean);
 
                 for (Item element : mi) {
                     Object data = element.getData();
 
-                    if (data == null || !clean.contains(data)) {
+                    if (data == null || !active.contains(data)) {
                         element.dispose();
                     } else if (data instanceof IContributionItem
                             && ((IContributionItem) data).isDynamic()
@@ -953,7 +1089,8 @@ public class MenuManager extends ContributionManager implements IMenuManager {
         // Partial fix for bug #34969 - diable the menu item if no
         // items in sub-menu (for context menus).
         if (menuItem != null && !menuItem.isDisposed() && menuExist()) {
-            boolean enabled = removeAllWhenShown || menu.getItemCount() > 0;
+            boolean enabled = removeAllWhenShown || menu.getItemCount() > 0
+            		|| updateDeferred;
             // Workaround for 1GDDCN2: SWT:Linux - MenuItem.setEnabled() always causes a redraw
             if (menuItem.getEnabled() != enabled) {
                 // We only do this for context menus (for bug #34969)
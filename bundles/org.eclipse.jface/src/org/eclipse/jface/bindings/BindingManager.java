@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2010 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -226,6 +226,34 @@ public final class BindingManager extends HandleObjectManager implements
 	 */
 	private Map cachedBindings = new HashMap();
 
+	/**
+	 * The bindings which match the current locale, platform and scheme,
+	 * regardless of their context. This is a map of triggers (
+	 * <code>TriggerSequence</code>) to bindings (<code>Collection</code> of
+	 * <code>Binding</code>), kept in the order in which they were given to
+	 * this manager. The deletion markers have already been applied. Together
+	 * with <code>triggersByContextId</code>, these are the per-context layers
+	 * from which a change of the active contexts is applied incrementally.
+	 * This value is <code>null</code> if the layers have not been computed for
+	 * the current state.
+	 */
+	private Map possibleBindingsByTrigger = null;
+
+	/**
+	 * The triggers bound in each context. This is a map of context identifiers
+	 * (<code>String</code>) to triggers (<code>Collection</code> of
+	 * <code>TriggerSequence</code>). This value is <code>null</code> if the
+	 * layers have not been computed for the current state.
+	 */
+	private Map triggersByContextId = null;
+
+	/**
+	 * The tree of active contexts from which the active bindings were
+	 * computed. This value is <code>null</code> if there is no solution which
+	 * can be updated incrementally.
+	 */
+	private Map solutionContextTree = null;
+
 	/**
 	 * The command manager for this binding manager. This manager is only needed
 	 * for the <code>getActiveBindingsFor(String)</code> method. This value is
@@ -433,12 +461,16 @@ public final class BindingManager extends HandleObjectManager implements
 
 	/**
 	 * <p>
-	 * Clears the existing solution.
+	 * Clears the existing solution, and the binding layers it was computed
+	 * from.
 	 * </p>
 	 * <p>
 	 * This method completes in <code>O(1)</code>.
 	 */
 	private final void clearSolution() {
+		possibleBindingsByTrigger = null;
+		triggersByContextId = null;
+		solutionContextTree = null;
 		setActiveBindings(null, null, null, null);
 	}
 
@@ -527,7 +559,6 @@ public final class BindingManager extends HandleObjectManager implements
 		final int length = trimmedBindings.length;
 		for (int i = 0; i < length; i++) {
 			final Binding binding = trimmedBindings[i];
-			boolean found;
 
 			// Check the context.
 			final String contextId = binding.getContextId();
@@ -547,17 +578,7 @@ public final class BindingManager extends HandleObjectManager implements
 			}
 
 			// Check the scheme ids.
-			final String schemeId = binding.getSchemeId();
-			found = false;
-			if (activeSchemeIds != null) {
-				for (int j = 0; j < activeSchemeIds.length; j++) {
-					if (Util.equals(schemeId, activeSchemeIds[j])) {
-						found = true;
-						break;
-					}
-				}
-			}
-			if (!found) {
+			if (!schemeMatches(binding)) {
 				continue;
 			}
 
@@ -630,37 +651,10 @@ public final class BindingManager extends HandleObjectManager implements
 							.getParameterizedCommand(), trigger);
 
 				} else if (match instanceof Collection) {
-					final Binding winner = resolveConflicts((Collection) match,
-							activeContextTree);
-					if (winner == null) {
-						// warn once ... so as not to flood the logs
-						conflictsByTrigger.put(trigger, match);
-						if (triggerConflicts.add(trigger)) {
-							final StringWriter sw = new StringWriter();
-							final BufferedWriter buffer = new BufferedWriter(sw);
-							try {
-								buffer.write("A conflict occurred for "); //$NON-NLS-1$
-								buffer.write(trigger.toString());
-								buffer.write(':');
-								Iterator i = ((Collection) match).iterator();
-								while (i.hasNext()) {
-									buffer.newLine();
-									buffer.write(i.next().toString());
-								}
-								buffer.flush();
-							} catch (IOException e) {
-								// we should not get this
-							}
-							conflicts.add(new Status(IStatus.WARNING,
-									"org.eclipse.jface", //$NON-NLS-1$
-									sw.toString()));
-						}
-						if (DEBUG) {
-							Tracing.printTrace("BINDINGS", //$NON-NLS-1$
-									"A conflict occurred for " + trigger); //$NON-NLS-1$
-							Tracing.printTrace("BINDINGS", "    " + match); //$NON-NLS-1$ //$NON-NLS-2$
-						}
-					} else {
+					final Binding winner = resolveConflicts(trigger,
+							(Collection) match, activeContextTree,
+							conflictsByTrigger, conflicts);
+					if (winner != null) {
 						bindingsByTrigger.put(trigger, winner);
 						addReverseLookup(triggersByCommandId, winner
 								.getParameterizedCommand(), trigger);
@@ -673,6 +667,305 @@ public final class BindingManager extends HandleObjectManager implements
 		}
 	}
 
+	/**
+	 * <p>
+	 * Computes the per-context binding layers, i.e.
+	 * <code>possibleBindingsByTrigger</code> and
+	 * <code>triggersByContextId</code>. It is assumed that
+	 * <code>locales</code>,<code>platforms</code> and
+	 * <code>schemeIds</code> correctly reflect the state of the application.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n)</code>, where <code>n</code> is
+	 * the number of bindings.
+	 * </p>
+	 */
+	private final void computeBindingLayers() {
+		final Binding[] trimmedBindings = removeDeletions(bindings);
+		possibleBindingsByTrigger = new HashMap();
+		triggersByContextId = new HashMap();
+		for (int i = 0; i < trimmedBindings.length; i++) {
+			final Binding binding = trimmedBindings[i];
+			if (!localeMatches(binding) || !platformMatches(binding)
+					|| !schemeMatches(binding)) {
+				continue;
+			}
+
+			final TriggerSequence trigger = binding.getTriggerSequence();
+			Collection matches = (Collection) possibleBindingsByTrigger
+					.get(trigger);
+			if (matches == null) {
+				matches = new ArrayList(1);
+				possibleBindingsByTrigger.put(trigger, matches);
+			}
+			matches.add(binding);
+
+			final String contextId = binding.getContextId();
+			Collection triggers = (Collection) triggersByContextId
+					.get(contextId);
+			if (triggers == null) {
+				triggers = new HashSet();
+				triggersByContextId.put(contextId, triggers);
+			}
+			triggers.add(trigger);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Computes the bindings given the context tree by applying the difference
+	 * between that tree and the tree of the existing solution. Only the
+	 * triggers bound in contexts which were activated or deactivated are
+	 * resolved again; the rest of the existing solution is carried over. The
+	 * existing solution itself is left untouched, as it may be held by the
+	 * cache.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n+pm)</code>, where <code>n</code>
+	 * is the number of active bindings, <code>m</code> is the number of
+	 * bindings in the contexts that changed, and <code>p</code> is the
+	 * average number of triggers in a trigger sequence.
+	 * </p>
+	 *
+	 * @param activeContextTree
+	 *            The map representing the tree of active contexts. The map is
+	 *            one of child to parent, each being a context id (
+	 *            <code>String</code>). This value must not be
+	 *            <code>null</code>.
+	 * @param bindingsByTrigger
+	 *            The empty of map that is intended to be filled with triggers (
+	 *            <code>TriggerSequence</code>) to bindings (
+	 *            <code>Binding</code>). This value must not be
+	 *            <code>null</code> and must be empty.
+	 * @param triggersByCommandId
+	 *            The empty of map that is intended to be filled with command
+	 *            identifiers (<code>String</code>) to triggers (
+	 *            <code>TriggerSequence</code>). This value must not be
+	 *            <code>null</code> and must be empty.
+	 * @param conflictsByTrigger
+	 *            The empty of map that is intended to be filled with triggers (
+	 *            <code>TriggerSequence</code>) to conflicting bindings (
+	 *            <code>Collection</code>). This value must not be
+	 *            <code>null</code> and must be empty.
+	 * @return The prefix table for the computed bindings; never
+	 *         <code>null</code>.
+	 */
+	private final Map updateBindings(final Map activeContextTree,
+			final Map bindingsByTrigger, final Map triggersByCommandId,
+			final Map conflictsByTrigger) {
+		if (possibleBindingsByTrigger == null) {
+			computeBindingLayers();
+		}
+
+		// Find the contexts which were activated or deactivated.
+		final Set changedContextIds = new HashSet();
+		Iterator contextItr = activeContextTree.entrySet().iterator();
+		while (contextItr.hasNext()) {
+			final Map.Entry entry = (Map.Entry) contextItr.next();
+			final Object contextId = entry.getKey();
+			if (!solutionContextTree.containsKey(contextId)
+					|| !Util.equals(entry.getValue(), solutionContextTree
+							.get(contextId))) {
+				changedContextIds.add(contextId);
+			}
+		}
+		contextItr = solutionContextTree.keySet().iterator();
+		while (contextItr.hasNext()) {
+			final Object contextId = contextItr.next();
+			if (!activeContextTree.containsKey(contextId)) {
+				changedContextIds.add(contextId);
+			}
+		}
+
+		// Only the triggers bound in those contexts can resolve differently.
+		final Set changedTriggers = new HashSet();
+		contextItr = changedContextIds.iterator();
+		while (contextItr.hasNext()) {
+			final Collection triggers = (Collection) triggersByContextId
+					.get(contextItr.next());
+			if (triggers != null) {
+				changedTriggers.addAll(triggers);
+			}
+		}
+		if (DEBUG) {
+			Tracing.printTrace("BINDINGS", "Updating " + changedTriggers.size() //$NON-NLS-1$ //$NON-NLS-2$
+					+ " triggers in " + changedContextIds.size() + " contexts"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		bindingsByTrigger.putAll(activeBindings);
+		triggersByCommandId.putAll(activeBindingsByParameterizedCommand);
+		conflictsByTrigger.putAll(currentConflicts);
+		final Map prefixTable = new HashMap(this.prefixTable);
+		if (changedTriggers.isEmpty()) {
+			return prefixTable;
+		}
+
+		/*
+		 * The collections held by the maps are shared with the existing
+		 * solution, so they are copied before they are first modified.
+		 */
+		final Set copiedCommands = new HashSet();
+		final Set copiedPrefixes = new HashSet();
+
+		// Take out the existing solution for the changed triggers.
+		Iterator triggerItr = changedTriggers.iterator();
+		while (triggerItr.hasNext()) {
+			final TriggerSequence trigger = (TriggerSequence) triggerItr.next();
+			conflictsByTrigger.remove(trigger);
+			final Binding binding = (Binding) bindingsByTrigger.remove(trigger);
+			if (binding == null) {
+				continue;
+			}
+
+			final ParameterizedCommand command = binding
+					.getParameterizedCommand();
+			final Collection triggers = copyReverseLookup(triggersByCommandId,
+					command, copiedCommands);
+			triggers.remove(trigger);
+			if (triggers.isEmpty()) {
+				triggersByCommandId.remove(command);
+			}
+
+			if (prefixTable.get(trigger) == null) {
+				prefixTable.remove(trigger);
+			}
+			final TriggerSequence[] prefixes = trigger.getPrefixes();
+			for (int i = 0; i < prefixes.length; i++) {
+				final TriggerSequence prefix = prefixes[i];
+				final Map completions = copyCompletions(prefixTable, prefix,
+						copiedPrefixes);
+				if (completions == null) {
+					continue;
+				}
+				completions.remove(trigger);
+				if (completions.isEmpty()) {
+					if (bindingsByTrigger.containsKey(prefix)) {
+						prefixTable.put(prefix, null);
+					} else {
+						prefixTable.remove(prefix);
+					}
+				}
+			}
+		}
+
+		// Resolve the changed triggers against the active contexts.
+		final MultiStatus conflicts = new MultiStatus("org.eclipse.jface", 0, //$NON-NLS-1$
+				"Keybinding conflicts occurred.  They may interfere with normal accelerator operation.", //$NON-NLS-1$
+				null);
+		triggerItr = changedTriggers.iterator();
+		while (triggerItr.hasNext()) {
+			final TriggerSequence trigger = (TriggerSequence) triggerItr.next();
+			final Collection possibleBindings = (Collection) possibleBindingsByTrigger
+					.get(trigger);
+			final List matches = new ArrayList(possibleBindings.size());
+			final Iterator bindingItr = possibleBindings.iterator();
+			while (bindingItr.hasNext()) {
+				final Binding binding = (Binding) bindingItr.next();
+				if (activeContextTree.containsKey(binding.getContextId())) {
+					matches.add(binding);
+				}
+			}
+
+			final Binding winner;
+			if (matches.isEmpty()) {
+				continue;
+			} else if (matches.size() == 1) {
+				winner = (Binding) matches.get(0);
+			} else {
+				winner = resolveConflicts(trigger, matches, activeContextTree,
+						conflictsByTrigger, conflicts);
+				if (winner == null) {
+					continue;
+				}
+			}
+
+			bindingsByTrigger.put(trigger, winner);
+			final ParameterizedCommand command = winner
+					.getParameterizedCommand();
+			copyReverseLookup(triggersByCommandId, command, copiedCommands);
+			addReverseLookup(triggersByCommandId, command, trigger);
+
+			if (!prefixTable.containsKey(trigger)) {
+				prefixTable.put(trigger, null);
+			}
+			final TriggerSequence[] prefixes = trigger.getPrefixes();
+			for (int i = 0; i < prefixes.length; i++) {
+				final TriggerSequence prefix = prefixes[i];
+				Map completions = copyCompletions(prefixTable, prefix,
+						copiedPrefixes);
+				if (completions == null) {
+					completions = new HashMap();
+					prefixTable.put(prefix, completions);
+					copiedPrefixes.add(prefix);
+				}
+				completions.put(trigger, winner);
+			}
+		}
+		if (conflicts.getSeverity() != IStatus.OK) {
+			Policy.getLog().log(conflicts);
+		}
+
+		return prefixTable;
+	}
+
+	/**
+	 * Returns the map of completions for the given prefix, copying it first if
+	 * it is still shared with the existing solution.
+	 *
+	 * @param prefixTable
+	 *            The prefix table being updated; must not be <code>null</code>.
+	 * @param prefix
+	 *            The prefix to look up; must not be <code>null</code>.
+	 * @param copiedPrefixes
+	 *            The prefixes whose completions have already been copied; must
+	 *            not be <code>null</code>.
+	 * @return The completions which may be modified; <code>null</code> if the
+	 *         prefix has no completions.
+	 */
+	private static final Map copyCompletions(final Map prefixTable,
+			final TriggerSequence prefix, final Set copiedPrefixes) {
+		final Object value = prefixTable.get(prefix);
+		if (!(value instanceof Map)) {
+			return null;
+		}
+		if (!copiedPrefixes.add(prefix)) {
+			return (Map) value;
+		}
+
+		final Map completions = new HashMap((Map) value);
+		prefixTable.put(prefix, completions);
+		return completions;
+	}
+
+	/**
+	 * Returns the triggers for the given command, copying them first if they
+	 * are still shared with the existing solution.
+	 *
+	 * @param triggersByCommandId
+	 *            The reverse look-up being updated; must not be
+	 *            <code>null</code>.
+	 * @param command
+	 *            The command to look up; may be <code>null</code>.
+	 * @param copiedCommands
+	 *            The commands whose triggers have already been copied; must not
+	 *            be <code>null</code>.
+	 * @return The triggers which may be modified; <code>null</code> if the
+	 *         command has no triggers.
+	 */
+	private static final Collection copyReverseLookup(
+			final Map triggersByCommandId, final ParameterizedCommand command,
+			final Set copiedCommands) {
+		final Collection triggers = (Collection) triggersByCommandId
+				.get(command);
+		if ((triggers == null) || !copiedCommands.add(command)) {
+			return triggers;
+		}
+
+		final Collection copy = new ArrayList(triggers);
+		triggersByCommandId.put(command, copy);
+		return copy;
+	}
+
 	/**
 	 * <p>
 	 * Notifies this manager that the context manager has changed. This method
@@ -1692,6 +1985,36 @@ public final class BindingManager extends HandleObjectManager implements
 		return matches;
 	}
 
+	/**
+	 * <p>
+	 * Tests whether the scheme for the binding matches one of the active
+	 * schemes.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n)</code>, where <code>n</code> is
+	 * the number of active schemes.
+	 * </p>
+	 *
+	 * @param binding
+	 *            The binding with which to test; must not be <code>null</code>.
+	 * @return <code>true</code> if the binding's scheme matches;
+	 *         <code>false</code> otherwise.
+	 */
+	private final boolean schemeMatches(final Binding binding) {
+		if (activeSchemeIds == null) {
+			return false;
+		}
+
+		final String schemeId = binding.getSchemeId();
+		for (int i = 0; i < activeSchemeIds.length; i++) {
+			if (Util.equals(schemeId, activeSchemeIds[i])) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	/**
 	 * <p>
 	 * This recomputes the bindings based on changes to the state of the world.
@@ -1705,12 +2028,16 @@ public final class BindingManager extends HandleObjectManager implements
 	 * <p>
 	 * This method completes in <code>O(n+pn)</code>, where <code>n</code>
 	 * is the number of bindings, and <code>p</code> is the average number of
-	 * triggers in a trigger sequence.
+	 * triggers in a trigger sequence. If there is an existing solution, only
+	 * the difference in the active contexts is applied to it (see
+	 * <code>updateBindings</code>), so that switching between contexts does
+	 * not pay for bindings which are not affected by the switch.
 	 * </p>
 	 */
 	private final void recomputeBindings() {
 		if (bindings == null) {
 			// Not yet initialized. This is happening too early. Do nothing.
+			solutionContextTree = null;
 			setActiveBindings(Collections.EMPTY_MAP, Collections.EMPTY_MAP,
 					Collections.EMPTY_MAP, Collections.EMPTY_MAP);
 			return;
@@ -1740,6 +2067,7 @@ public final class BindingManager extends HandleObjectManager implements
 			if (DEBUG) {
 				Tracing.printTrace("BINDINGS", "Cache hit"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
+			solutionContextTree = activeContextTree;
 			setActiveBindings(commandIdsByTrigger, existingCache
 					.getTriggersByCommandId(), existingCache.getPrefixTable(),
 					existingCache.getConflictsByTrigger());
@@ -1755,14 +2083,22 @@ public final class BindingManager extends HandleObjectManager implements
 		commandIdsByTrigger = new HashMap();
 		final Map triggersByParameterizedCommand = new HashMap();
 		final Map conflictsByTrigger = new HashMap();
-		computeBindings(activeContextTree, commandIdsByTrigger,
-				triggersByParameterizedCommand, conflictsByTrigger);
+		final Map newPrefixTable;
+		if ((solutionContextTree != null) && (activeBindings != null)) {
+			newPrefixTable = updateBindings(activeContextTree,
+					commandIdsByTrigger, triggersByParameterizedCommand,
+					conflictsByTrigger);
+		} else {
+			computeBindings(activeContextTree, commandIdsByTrigger,
+					triggersByParameterizedCommand, conflictsByTrigger);
+			newPrefixTable = buildPrefixTable(commandIdsByTrigger);
+		}
 		existingCache.setBindingsByTrigger(commandIdsByTrigger);
 		existingCache.setTriggersByCommandId(triggersByParameterizedCommand);
 		existingCache.setConflictsByTrigger(conflictsByTrigger);
+		solutionContextTree = activeContextTree;
 		setActiveBindings(commandIdsByTrigger, triggersByParameterizedCommand,
-				buildPrefixTable(commandIdsByTrigger),
-				conflictsByTrigger);
+				newPrefixTable, conflictsByTrigger);
 		existingCache.setPrefixTable(prefixTable);
 	}
 
@@ -2101,6 +2437,73 @@ public final class BindingManager extends HandleObjectManager implements
 		return bestMatch;
 	}
 
+	/**
+	 * <p>
+	 * Attempts to resolve the conflicts for the given bindings. If the conflict
+	 * cannot be resolved, it is recorded for the trigger, and added to the
+	 * given status the first time it occurs.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n)</code>, where <code>n</code> is
+	 * the number of bindings.
+	 * </p>
+	 *
+	 * @param trigger
+	 *            The trigger which all of the bindings match; must not be
+	 *            <code>null</code>.
+	 * @param bindings
+	 *            The bindings which all match the trigger; must not be
+	 *            <code>null</code>, and should contain at least two items.
+	 * @param activeContextTree
+	 *            The tree of contexts to be used for all of the comparison;
+	 *            must not be <code>null</code>.
+	 * @param conflictsByTrigger
+	 *            The map of triggers (<code>TriggerSequence</code>) to
+	 *            conflicting bindings (<code>Collection</code>) to which an
+	 *            unresolved conflict is added; must not be <code>null</code>.
+	 * @param conflicts
+	 *            The status to which new conflicts are added for logging; must
+	 *            not be <code>null</code>.
+	 * @return The binding which best matches the current state; or
+	 *         <code>null</code> if there is a tie.
+	 */
+	private final Binding resolveConflicts(final TriggerSequence trigger,
+			final Collection bindings, final Map activeContextTree,
+			final Map conflictsByTrigger, final MultiStatus conflicts) {
+		final Binding winner = resolveConflicts(bindings, activeContextTree);
+		if (winner != null) {
+			return winner;
+		}
+
+		// warn once ... so as not to flood the logs
+		conflictsByTrigger.put(trigger, bindings);
+		if (triggerConflicts.add(trigger)) {
+			final StringWriter sw = new StringWriter();
+			final BufferedWriter buffer = new BufferedWriter(sw);
+			try {
+				buffer.write("A conflict occurred for "); //$NON-NLS-1$
+				buffer.write(trigger.toString());
+				buffer.write(':');
+				Iterator i = bindings.iterator();
+				while (i.hasNext()) {
+					buffer.newLine();
+					buffer.write(i.next().toString());
+				}
+				buffer.flush();
+			} catch (IOException e) {
+				// we should not get this
+			}
+			conflicts.add(new Status(IStatus.WARNING, "org.eclipse.jface", //$NON-NLS-1$
+					sw.toString()));
+		}
+		if (DEBUG) {
+			Tracing.printTrace("BINDINGS", //$NON-NLS-1$
+					"A conflict occurred for " + trigger); //$NON-NLS-1$
+			Tracing.printTrace("BINDINGS", "    " + bindings); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return null;
+	}
+
 	/**
 	 * <p>
 	 * Notifies this manager that a scheme has changed. This method is intended
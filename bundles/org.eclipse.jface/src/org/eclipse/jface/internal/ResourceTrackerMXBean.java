@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.internal;
+
+import java.util.Map;
+
+/**
+ * (NON-API) The management interface of the JFace resource tracker, which is
+ * registered as <code>org.eclipse.jface:type=ResourceTracker</code> with the
+ * platform MBean server when {@link InternalPolicy#DEBUG_TRACE_RESOURCES} is
+ * set. It can be inspected with any JMX console, for example JConsole.
+ * <p>
+ * The counts are of the images, colors and fonts that are currently allocated
+ * by the device resource managers, which each hold one native handle. The
+ * counts by manager also include the local resource managers, which share the
+ * handles of their device resource manager.
+ * </p>
+ *
+ * @since 3.11
+ */
+public interface ResourceTrackerMXBean {
+
+	/**
+	 * @return the number of images allocated
+	 */
+	int getImageCount();
+
+	/**
+	 * @return the number of colors allocated
+	 */
+	int getColorCount();
+
+	/**
+	 * @return the number of fonts allocated
+	 */
+	int getFontCount();
+
+	/**
+	 * @return the number of other resources allocated
+	 */
+	int getOtherCount();
+
+	/**
+	 * @return the number of resources allocated by each descriptor class
+	 */
+	Map<String, Integer> getCountsByDescriptorType();
+
+	/**
+	 * @return the number of resources allocated by each resource manager that
+	 *         has any
+	 */
+	Map<String, Integer> getCountsByManager();
+
+	/**
+	 * Returns the number of resources allocated from each call site, for a
+	 * sample of the allocations. A site whose count keeps growing is likely
+	 * to leak resources.
+	 *
+	 * @return the number of sampled resources still allocated by each site
+	 */
+	Map<String, Integer> getAllocationSites();
+
+	/**
+	 * @return the soft budget of the device resource managers, <code>0</code>
+	 *         if there is none
+	 */
+	int getSoftBudget();
+
+	/**
+	 * Sets the soft budget of all device resource managers.
+	 *
+	 * @param budget
+	 *            the number of resources, <code>0</code> for none
+	 */
+	void setSoftBudget(int budget);
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2013 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@ package org.eclipse.jface.resource;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 
 /**
@@ -30,6 +31,33 @@ abstract class AbstractResourceManager extends ResourceManager {
      */
     private HashMap<DeviceResourceDescriptor, RefCount> map = null;
 
+    /**
+     * Resources that are no longer referenced, but kept because the manager
+     * is well below its soft budget, least recently used first. (null when
+     * empty)
+     */
+    private LinkedHashMap<DeviceResourceDescriptor, Object> unreferenced = null;
+
+    /**
+     * The number of resources this manager tries to stay under by deallocating
+     * unreferenced resources, or 0 if unreferenced resources are deallocated
+     * right away.
+     */
+    private int softBudget = 0;
+
+    /**
+     * The number of resources at which unreferenced resources are no longer
+     * kept, in percent of the soft budget. Unreferenced resources hold handles
+     * too, so they are deallocated well before the manager gets near its
+     * budget.
+     */
+    private static final int HIGH_WATER_PERCENT = 75;
+
+    /**
+     * The tracker, if resources are tracked.
+     */
+    private final ResourceTracker tracker = ResourceTracker.getIfEnabled();
+
     /**
      * Holds a reference count for a previously-allocated resource
      */
@@ -82,11 +110,24 @@ abstract class AbstractResourceManager extends ResourceManager {
             return count.resource;
         }
 
+        // Reuse a resource that is no longer referenced
+        if (unreferenced != null) {
+            Object resource = unreferenced.remove(descriptor);
+            if (resource != null) {
+                map.put(descriptor, new RefCount(resource));
+                return resource;
+            }
+        }
+
         // Allocate and return a new resource (with ref count = 1)
         Object resource = allocate(descriptor);
 
         count = new RefCount(resource);
         map.put(descriptor, count);
+        if (tracker != null) {
+            tracker.allocated(this, descriptor, resource);
+        }
+        enforceSoftBudget();
 
         return resource;
     }
@@ -104,9 +145,19 @@ abstract class AbstractResourceManager extends ResourceManager {
             // If the resource exists, decrement the reference count.
             count.count--;
             if (count.count == 0) {
-                // If this was the last reference, deallocate it.
-                deallocate(count.resource, descriptor);
                 map.remove(descriptor);
+                // the resources allocated, including this one
+                int live = map.size() + getUnreferencedCount() + 1;
+                if (live < getHighWaterMark()) {
+                    // Keep it while well below the budget
+                    if (unreferenced == null) {
+                        unreferenced = new LinkedHashMap<DeviceResourceDescriptor, Object>();
+                    }
+                    unreferenced.put(descriptor, count.resource);
+                } else {
+                    // If this was the last reference, deallocate it.
+                    release(count.resource, descriptor);
+                }
             }
         }
 
@@ -126,6 +177,14 @@ abstract class AbstractResourceManager extends ResourceManager {
 	public void dispose() {
         super.dispose();
 
+        if (unreferenced != null) {
+            for (Iterator<Entry<DeviceResourceDescriptor, Object>> iter = unreferenced.entrySet().iterator(); iter.hasNext();) {
+                Entry<DeviceResourceDescriptor, Object> next = iter.next();
+                release(next.getValue(), next.getKey());
+            }
+            unreferenced = null;
+        }
+
         if (map == null) {
             return;
         }
@@ -138,12 +197,80 @@ abstract class AbstractResourceManager extends ResourceManager {
             Object key = next.getKey();
             RefCount val = next.getValue();
 
-            deallocate(val.resource, (DeviceResourceDescriptor)key);
+            release(val.resource, (DeviceResourceDescriptor)key);
         }
 
         map = null;
     }
 
+    /**
+     * Returns the soft budget of this manager.
+     *
+     * @return the number of resources, or 0 if there is no budget
+     */
+    int getSoftBudget() {
+        return softBudget;
+    }
+
+    /**
+     * Sets the number of resources this manager tries to stay under. While
+     * the manager has allocated fewer than three quarters of the budget,
+     * resources that are no longer referenced are kept for reuse. Once it
+     * gets there, they are deallocated, least recently used first, and
+     * resources that are no longer referenced are deallocated right away. The
+     * budget is soft: resources that are still referenced are never
+     * deallocated, however many there are.
+     *
+     * @param budget
+     *            the number of resources, or 0 to deallocate resources as soon
+     *            as they are no longer referenced
+     */
+    void setSoftBudget(int budget) {
+        softBudget = Math.max(0, budget);
+        enforceSoftBudget();
+    }
+
+    /**
+     * Returns the number of resources at which unreferenced resources are no
+     * longer kept.
+     */
+    private int getHighWaterMark() {
+        return (int) ((long) softBudget * HIGH_WATER_PERCENT / 100);
+    }
+
+    private int getUnreferencedCount() {
+        return unreferenced == null ? 0 : unreferenced.size();
+    }
+
+    /**
+     * Deallocates unreferenced resources, least recently used first, until
+     * the number of resources is below the high water mark of the soft
+     * budget.
+     */
+    private void enforceSoftBudget() {
+        if (unreferenced == null) {
+            return;
+        }
+        int live = (map == null ? 0 : map.size()) + unreferenced.size();
+        int highWaterMark = getHighWaterMark();
+        for (Iterator<Entry<DeviceResourceDescriptor, Object>> iter = unreferenced.entrySet().iterator(); iter.hasNext()
+                && live >= highWaterMark; live--) {
+            Entry<DeviceResourceDescriptor, Object> next = iter.next();
+            iter.remove();
+            release(next.getValue(), next.getKey());
+        }
+        if (unreferenced.isEmpty()) {
+            unreferenced = null;
+        }
+    }
+
+    private void release(Object resource, DeviceResourceDescriptor descriptor) {
+        deallocate(resource, descriptor);
+        if (tracker != null) {
+            tracker.deallocated(this, descriptor, resource);
+        }
+    }
+
     @Override
 	public Object find(DeviceResourceDescriptor descriptor) {
         if (map == null) {
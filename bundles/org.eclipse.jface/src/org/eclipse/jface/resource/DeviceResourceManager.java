@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2013 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -65,6 +65,43 @@ public final class DeviceResourceManager extends AbstractResourceManager {
         return missingImage;
     }
 
+    /**
+     * Sets the number of resources this manager tries to stay under. While
+     * the manager has allocated fewer than three quarters of its budget,
+     * resources that are no longer referenced are kept, so that they do not
+     * have to be created again when they are needed next. Once it gets
+     * there, unreferenced resources are disposed, least recently used first,
+     * and resources are disposed as soon as they are no longer referenced, so
+     * that unreferenced resources never hold the handles the manager is short
+     * of. The budget is soft: resources that are still referenced are never
+     * disposed, however many there are.
+     * <p>
+     * By default there is no budget, and resources are disposed as soon as
+     * they are no longer referenced.
+     * </p>
+     *
+     * @param budget
+     *            the number of resources, or <code>0</code> to dispose
+     *            resources as soon as they are no longer referenced
+     * @since 3.11
+     */
+    @Override
+    public void setSoftBudget(int budget) {
+        super.setSoftBudget(budget);
+    }
+
+    /**
+     * Returns the number of resources this manager tries to stay under.
+     *
+     * @return the number of resources, or <code>0</code> if there is no budget
+     * @see #setSoftBudget(int)
+     * @since 3.11
+     */
+    @Override
+    public int getSoftBudget() {
+        return super.getSoftBudget();
+    }
+
     @Override
 	public void dispose() {
         super.dispose();
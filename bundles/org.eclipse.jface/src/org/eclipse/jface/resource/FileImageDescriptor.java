@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -88,6 +88,18 @@ class FileImageDescriptor extends ImageDescriptor {
 	 */
 	@Override
 	public ImageData getImageData() {
+		ImageData data = ImageDataCache.getDefault().getCachedImageData(this, 100);
+		if (data != null) {
+			return data;
+		}
+		return loadImageData(100);
+	}
+
+	@Override
+	ImageData loadImageData(int zoom) {
+		if (zoom != 100) {
+			return null;
+		}
 		InputStream in = getStream();
 		ImageData result = null;
 		if (in != null) {
@@ -159,6 +171,11 @@ class FileImageDescriptor extends ImageDescriptor {
 
 	@Override
 	public Image createImage(boolean returnMissingImageOnError, Device device) {
+		ImageData data = ImageDataCache.getDefault().getCachedImageData(this, 100);
+		if (data != null) {
+			// decoded ahead of time, only create the native image
+			return createImage(data, returnMissingImageOnError, device);
+		}
 		String path = getFilePath();
 		if (path == null)
 			return createDefaultImage(returnMissingImageOnError, device);
@@ -0,0 +1,532 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.resource;
+
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.graphics.ImageData;
+
+/**
+ * A thread safe cache of decoded image data, keyed by image descriptor and
+ * zoom level.
+ * <p>
+ * Creating an SWT image has two parts: decoding the image file into
+ * <code>ImageData</code>, which can be done in any thread, and creating the
+ * native image, which has to be done in the UI thread. Label providers and
+ * decorators can use {@link #prefetch(ImageDescriptor)} to decode the images
+ * they are about to show in background threads. The image descriptors created
+ * with {@link ImageDescriptor#createFromURL(java.net.URL)} and
+ * {@link ImageDescriptor#createFromFile(Class, String)} then use the cached
+ * data of the {@link #getDefault() default cache}, so that the UI thread only
+ * creates the native image.
+ * </p>
+ * <p>
+ * The cache holds on to the image data until the total number of bytes of
+ * pixel data exceeds its maximum size, and then evicts the least recently used
+ * image data. It is split into shards with a lock each, so that threads
+ * looking up different images rarely wait for each other. An image that is
+ * being decoded is only decoded once; other threads asking for it wait for the
+ * result.
+ * </p>
+ * <p>
+ * The cache can also record which images the URL image descriptors create,
+ * for example during startup, so that they can be prefetched in the next
+ * session. See {@link #startRecording()}.
+ * </p>
+ * <p>
+ * Images are decoded by calling {@link ImageDescriptor#getImageData()} outside
+ * of the UI thread, so only descriptors whose image data can be computed in any
+ * thread should be prefetched.
+ * </p>
+ * <p>
+ * This class is not intended to be subclassed by clients.
+ * </p>
+ *
+ * @since 3.11
+ */
+public final class ImageDataCache {
+
+	/**
+	 * The number of shards. Must be a power of two.
+	 */
+	private static final int SHARDS = 16;
+
+	/**
+	 * The default maximum size of the cache, in bytes.
+	 */
+	private static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * The size counted for an image that could not be loaded.
+	 */
+	private static final int MISSING_SIZE = 64;
+
+	/**
+	 * Cached instead of the image data of an image that could not be loaded,
+	 * so that missing images are not looked for again.
+	 */
+	private static final Object MISSING = new Object();
+
+	/**
+	 * The maximum number of image URLs recorded.
+	 */
+	private static final int MAX_RECORDED = 1000;
+
+	private static ImageDataCache defaultCache;
+
+	private static Executor executor;
+
+	/**
+	 * An image descriptor and a zoom level.
+	 */
+	private static final class Key {
+		final ImageDescriptor descriptor;
+		final int zoom;
+
+		Key(ImageDescriptor descriptor, int zoom) {
+			this.descriptor = descriptor;
+			this.zoom = zoom;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return zoom == other.zoom && descriptor.equals(other.descriptor);
+		}
+
+		@Override
+		public int hashCode() {
+			return descriptor.hashCode() * 31 + zoom;
+		}
+	}
+
+	/**
+	 * A part of the cache. Maps keys onto image data, <code>MISSING</code>,
+	 * or the <code>LoadTask</code> that is decoding the image, least recently
+	 * used first. All access is synchronized on the shard.
+	 */
+	private static final class Shard {
+		final LinkedHashMap<Key, Object> map = new LinkedHashMap<Key, Object>(16, 0.75f, true);
+		long size;
+	}
+
+	/**
+	 * Decodes an image and puts the result into its shard when done.
+	 */
+	private final class LoadTask extends FutureTask<Object> {
+		final Key key;
+		final Shard shard;
+
+		LoadTask(final Key key, Shard shard) {
+			super(new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					ImageData data = key.descriptor.loadImageData(key.zoom);
+					return data == null ? MISSING : data;
+				}
+			});
+			this.key = key;
+			this.shard = shard;
+		}
+
+		@Override
+		protected void done() {
+			Object value = null;
+			if (!isCancelled()) {
+				try {
+					value = get();
+				} catch (InterruptedException e) {
+					// cannot happen, the task is done
+				} catch (ExecutionException e) {
+					// the exception is reported to the threads waiting for it
+				}
+			}
+			synchronized (shard) {
+				if (shard.map.get(key) != this) {
+					// removed or cleared while loading
+					return;
+				}
+				if (value == null) {
+					shard.map.remove(key);
+					return;
+				}
+				shard.map.put(key, value);
+				shard.size += sizeOf(value);
+				evict(shard);
+			}
+		}
+	}
+
+	private final Shard[] shards = new Shard[SHARDS];
+
+	private volatile long maxSize;
+
+	/**
+	 * The URLs of the images created since recording started, by their
+	 * external form, in the order they were first created. <code>null</code>
+	 * if not recording. Synchronized on the map.
+	 */
+	private volatile LinkedHashMap<String, URL> recorded;
+
+	/**
+	 * Returns the cache used by the image descriptors of JFace.
+	 *
+	 * @return the default cache
+	 */
+	public static synchronized ImageDataCache getDefault() {
+		if (defaultCache == null) {
+			defaultCache = new ImageDataCache(DEFAULT_MAX_SIZE);
+		}
+		return defaultCache;
+	}
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param maxSize
+	 *            the maximum number of bytes of image data to keep
+	 */
+	public ImageDataCache(long maxSize) {
+		this.maxSize = maxSize;
+		for (int i = 0; i < shards.length; i++) {
+			shards[i] = new Shard();
+		}
+	}
+
+	/**
+	 * Returns the image data of the given descriptor, decoding it in the
+	 * calling thread unless it is cached or being decoded already.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 * @param zoom
+	 *            the zoom level, in percent
+	 * @return a new image data, or <code>null</code> if the image could not be
+	 *         loaded
+	 */
+	public ImageData getImageData(ImageDescriptor descriptor, int zoom) {
+		Key key = new Key(descriptor, zoom);
+		Shard shard = getShard(descriptor);
+		Object value;
+		LoadTask task = null;
+		synchronized (shard) {
+			value = shard.map.get(key);
+			if (value == null) {
+				task = new LoadTask(key, shard);
+				shard.map.put(key, task);
+				value = task;
+			}
+		}
+		if (task != null) {
+			task.run();
+		}
+		if (value instanceof LoadTask) {
+			value = await((LoadTask) value);
+		}
+		return copyOf(value);
+	}
+
+	/**
+	 * Returns the image data of the given descriptor if it has been decoded
+	 * already. Never waits for the image to be decoded.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 * @param zoom
+	 *            the zoom level, in percent
+	 * @return a new image data, or <code>null</code> if it is not cached
+	 */
+	ImageData getCachedImageData(ImageDescriptor descriptor, int zoom) {
+		Key key = new Key(descriptor, zoom);
+		Shard shard = getShard(descriptor);
+		Object value;
+		synchronized (shard) {
+			value = shard.map.get(key);
+		}
+		return copyOf(value);
+	}
+
+	/**
+	 * Returns whether the image data of the given descriptor has been decoded
+	 * and is cached.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 * @param zoom
+	 *            the zoom level, in percent
+	 * @return <code>true</code> if the image data is cached
+	 */
+	public boolean contains(ImageDescriptor descriptor, int zoom) {
+		Key key = new Key(descriptor, zoom);
+		Shard shard = getShard(descriptor);
+		synchronized (shard) {
+			return shard.map.get(key) instanceof ImageData;
+		}
+	}
+
+	/**
+	 * Decodes the image of the given descriptor at zoom level 100 in a
+	 * background thread, unless it is cached or being decoded already.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 */
+	public void prefetch(ImageDescriptor descriptor) {
+		prefetch(descriptor, 100);
+	}
+
+	/**
+	 * Decodes the image of the given descriptor in a background thread, unless
+	 * it is cached or being decoded already.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 * @param zoom
+	 *            the zoom level, in percent
+	 */
+	public void prefetch(ImageDescriptor descriptor, int zoom) {
+		Key key = new Key(descriptor, zoom);
+		Shard shard = getShard(descriptor);
+		LoadTask task;
+		synchronized (shard) {
+			if (shard.map.containsKey(key)) {
+				return;
+			}
+			task = new LoadTask(key, shard);
+			shard.map.put(key, task);
+		}
+		getExecutor().execute(task);
+	}
+
+	/**
+	 * Removes the image data of the given descriptor, at all zoom levels.
+	 *
+	 * @param descriptor
+	 *            the image descriptor
+	 */
+	public void remove(ImageDescriptor descriptor) {
+		Shard shard = getShard(descriptor);
+		synchronized (shard) {
+			for (Iterator<Map.Entry<Key, Object>> it = shard.map.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<Key, Object> entry = it.next();
+				if (entry.getKey().descriptor.equals(descriptor)) {
+					shard.size -= sizeOf(entry.getValue());
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all image data.
+	 */
+	public void clear() {
+		for (int i = 0; i < shards.length; i++) {
+			Shard shard = shards[i];
+			synchronized (shard) {
+				shard.map.clear();
+				shard.size = 0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of bytes of image data in the cache.
+	 *
+	 * @return the size of the cache
+	 */
+	public long getSize() {
+		long size = 0;
+		for (int i = 0; i < shards.length; i++) {
+			Shard shard = shards[i];
+			synchronized (shard) {
+				size += shard.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of bytes of image data the cache keeps.
+	 *
+	 * @return the maximum size of the cache
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Sets the maximum number of bytes of image data the cache keeps, and
+	 * evicts image data if the cache is larger.
+	 *
+	 * @param maxSize
+	 *            the maximum size of the cache
+	 */
+	public void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		for (int i = 0; i < shards.length; i++) {
+			Shard shard = shards[i];
+			synchronized (shard) {
+				evict(shard);
+			}
+		}
+	}
+
+	/**
+	 * Starts recording the URLs of the images that are created from image
+	 * descriptors created with
+	 * {@link ImageDescriptor#createFromURL(java.net.URL)}. Recording is only
+	 * done by the {@link #getDefault() default cache}.
+	 *
+	 * @see #stopRecording()
+	 */
+	public void startRecording() {
+		recorded = new LinkedHashMap<String, URL>();
+	}
+
+	/**
+	 * Stops recording, and returns the URLs of the images created since
+	 * recording started, in the order they were first created.
+	 *
+	 * @return the URLs of the images created, an empty array if not recording
+	 */
+	public URL[] stopRecording() {
+		LinkedHashMap<String, URL> urls = recorded;
+		recorded = null;
+		if (urls == null) {
+			return new URL[0];
+		}
+		synchronized (urls) {
+			return urls.values().toArray(new URL[urls.size()]);
+		}
+	}
+
+	/**
+	 * Records that an image has been created from the given URL, if
+	 * recording.
+	 */
+	void imageCreated(URL url) {
+		LinkedHashMap<String, URL> urls = recorded;
+		if (urls != null) {
+			synchronized (urls) {
+				if (urls.size() < MAX_RECORDED) {
+					// not a set of URLs, as URL.hashCode() may resolve the host
+					urls.put(url.toExternalForm(), url);
+				}
+			}
+		}
+	}
+
+	private Shard getShard(ImageDescriptor descriptor) {
+		int hash = descriptor.hashCode();
+		hash ^= hash >>> 16;
+		return shards[hash & (SHARDS - 1)];
+	}
+
+	/**
+	 * Evicts the least recently used image data until the shard fits into its
+	 * part of the maximum size. Images being decoded are not evicted.
+	 */
+	private void evict(Shard shard) {
+		long shardSize = maxSize / SHARDS;
+		for (Iterator<Object> it = shard.map.values().iterator(); shard.size > shardSize
+				&& it.hasNext();) {
+			Object value = it.next();
+			if (!(value instanceof LoadTask)) {
+				shard.size -= sizeOf(value);
+				it.remove();
+			}
+		}
+	}
+
+	private static Object await(LoadTask task) {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			Policy.getLog().log(new Status(IStatus.ERROR, Policy.JFACE, cause.getLocalizedMessage(), cause));
+			return null;
+		}
+	}
+
+	private static ImageData copyOf(Object value) {
+		if (value instanceof ImageData) {
+			return (ImageData) ((ImageData) value).clone();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of bytes of pixel, mask and alpha data.
+	 */
+	private static long sizeOf(Object value) {
+		if (value instanceof ImageData) {
+			ImageData data = (ImageData) value;
+			long size = data.data == null ? 0 : data.data.length;
+			if (data.maskData != null) {
+				size += data.maskData.length;
+			}
+			if (data.alphaData != null) {
+				size += data.alphaData.length;
+			}
+			return size;
+		}
+		if (value == MISSING) {
+			return MISSING_SIZE;
+		}
+		return 0;
+	}
+
+	private static synchronized Executor getExecutor() {
+		if (executor == null) {
+			int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, "JFace Image Decoder"); //$NON-NLS-1$
+							thread.setDaemon(true);
+							thread.setPriority(Thread.NORM_PRIORITY - 1);
+							return thread;
+						}
+					});
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+}
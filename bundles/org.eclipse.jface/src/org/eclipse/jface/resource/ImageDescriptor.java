@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -266,8 +266,18 @@ public abstract class ImageDescriptor extends DeviceResourceDescriptor {
 	 * @since 2.0
 	 */
     public Image createImage(boolean returnMissingImageOnError, Device device) {
+        return createImage(getImageData(), returnMissingImageOnError, device);
+    }
 
-        ImageData data = getImageData();
+    /**
+     * Creates a new SWT image from the given image data, or the default image
+     * if there is no data and <code>returnMissingImageOnError</code> is true.
+     *
+     * @return a new image or <code>null</code> if the image could not be
+     *         created
+     */
+    static Image createImage(ImageData data, boolean returnMissingImageOnError,
+            Device device) {
         if (data == null) {
             if (!returnMissingImageOnError) {
                 return null;
@@ -315,6 +325,20 @@ public abstract class ImageDescriptor extends DeviceResourceDescriptor {
      */
     public abstract ImageData getImageData();
 
+    /**
+     * Loads the image data for the given zoom level, in percent, without
+     * looking in the {@link ImageDataCache}. This method may be called from
+     * any thread.
+     *
+     * @param zoom
+     *            the zoom level, <code>100</code> for the image itself
+     * @return a new image data, or <code>null</code> if there is none for the
+     *         zoom level
+     */
+    ImageData loadImageData(int zoom) {
+        return zoom == 100 ? getImageData() : null;
+    }
+
     /**
      * Returns the shared image descriptor for a missing image.
      *
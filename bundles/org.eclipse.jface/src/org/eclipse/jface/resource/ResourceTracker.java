@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.resource;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.eclipse.jface.internal.InternalPolicy;
+import org.eclipse.jface.internal.ResourceTrackerMXBean;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Keeps track of the resources allocated by the resource managers, if
+ * {@link InternalPolicy#DEBUG_TRACE_RESOURCES} is set, and publishes them
+ * through JMX.
+ * <p>
+ * Resource managers are used from the UI thread, the JMX bean from any
+ * thread, so all access is synchronized.
+ * </p>
+ *
+ * @since 3.11
+ */
+final class ResourceTracker implements ResourceTrackerMXBean {
+
+	private static final String OBJECT_NAME = "org.eclipse.jface:type=ResourceTracker"; //$NON-NLS-1$
+
+	/**
+	 * The allocation site of one in this many allocations is recorded.
+	 */
+	private static final int SAMPLE_RATE = 16;
+
+	/**
+	 * The number of stack frames outside of this package that make up an
+	 * allocation site.
+	 */
+	private static final int SITE_FRAMES = 3;
+
+	private static final int IMAGE = 0;
+	private static final int COLOR = 1;
+	private static final int FONT = 2;
+	private static final int OTHER = 3;
+
+	private static ResourceTracker instance;
+
+	private final int[] counts = new int[4];
+
+	private final Map<String, Integer> countsByType = new HashMap<String, Integer>();
+
+	private final Map<AbstractResourceManager, Integer> countsByManager = new WeakHashMap<AbstractResourceManager, Integer>();
+
+	private final Map<String, Integer> countsBySite = new HashMap<String, Integer>();
+
+	/**
+	 * The sampled resources, mapped onto their allocation site.
+	 */
+	private final Map<Object, String> sampled = new IdentityHashMap<Object, String>();
+
+	private int allocations;
+
+	private int softBudget;
+
+	/**
+	 * Returns the tracker, if resources are tracked.
+	 *
+	 * @return the tracker, or <code>null</code>
+	 */
+	static ResourceTracker getIfEnabled() {
+		return InternalPolicy.DEBUG_TRACE_RESOURCES ? getInstance() : null;
+	}
+
+	private static synchronized ResourceTracker getInstance() {
+		if (instance == null) {
+			instance = new ResourceTracker();
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(instance,
+						new ObjectName(OBJECT_NAME));
+			} catch (JMException e) {
+				Policy.logException(e);
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Records that the manager has allocated a resource.
+	 */
+	synchronized void allocated(AbstractResourceManager manager, DeviceResourceDescriptor descriptor,
+			Object resource) {
+		add(countsByManager, manager, 1);
+		if (!(manager instanceof DeviceResourceManager)) {
+			// the handle is counted by the device resource manager
+			return;
+		}
+		if (softBudget > 0 && manager.getSoftBudget() == 0) {
+			manager.setSoftBudget(softBudget);
+		}
+		counts[kindOf(descriptor)]++;
+		add(countsByType, descriptor.getClass().getName(), 1);
+		if (allocations++ % SAMPLE_RATE == 0) {
+			String site = getAllocationSite();
+			sampled.put(resource, site);
+			add(countsBySite, site, 1);
+		}
+	}
+
+	/**
+	 * Records that the manager has deallocated a resource.
+	 */
+	synchronized void deallocated(AbstractResourceManager manager, DeviceResourceDescriptor descriptor,
+			Object resource) {
+		add(countsByManager, manager, -1);
+		if (!(manager instanceof DeviceResourceManager)) {
+			return;
+		}
+		counts[kindOf(descriptor)]--;
+		add(countsByType, descriptor.getClass().getName(), -1);
+		String site = sampled.remove(resource);
+		if (site != null) {
+			add(countsBySite, site, -1);
+		}
+	}
+
+	@Override
+	public synchronized int getImageCount() {
+		return counts[IMAGE];
+	}
+
+	@Override
+	public synchronized int getColorCount() {
+		return counts[COLOR];
+	}
+
+	@Override
+	public synchronized int getFontCount() {
+		return counts[FONT];
+	}
+
+	@Override
+	public synchronized int getOtherCount() {
+		return counts[OTHER];
+	}
+
+	@Override
+	public synchronized Map<String, Integer> getCountsByDescriptorType() {
+		return new HashMap<String, Integer>(countsByType);
+	}
+
+	@Override
+	public synchronized Map<String, Integer> getCountsByManager() {
+		Map<String, Integer> result = new HashMap<String, Integer>();
+		for (Map.Entry<AbstractResourceManager, Integer> entry : countsByManager.entrySet()) {
+			AbstractResourceManager manager = entry.getKey();
+			if (manager != null) {
+				result.put(manager.getClass().getSimpleName() + '@'
+						+ Integer.toHexString(System.identityHashCode(manager)), entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized Map<String, Integer> getAllocationSites() {
+		return new HashMap<String, Integer>(countsBySite);
+	}
+
+	@Override
+	public synchronized int getSoftBudget() {
+		return softBudget;
+	}
+
+	@Override
+	public void setSoftBudget(final int budget) {
+		AbstractResourceManager[] managers;
+		synchronized (this) {
+			softBudget = budget;
+			managers = countsByManager.keySet().toArray(new AbstractResourceManager[0]);
+		}
+		// the managers evict resources in the thread of their display
+		for (final AbstractResourceManager manager : managers) {
+			Device device = manager == null ? null : manager.getDevice();
+			if (manager instanceof DeviceResourceManager && device instanceof Display
+					&& !device.isDisposed()) {
+				((Display) device).asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						manager.setSoftBudget(budget);
+					}
+				});
+			}
+		}
+	}
+
+	private static int kindOf(DeviceResourceDescriptor descriptor) {
+		if (descriptor instanceof ImageDescriptor) {
+			return IMAGE;
+		}
+		if (descriptor instanceof ColorDescriptor) {
+			return COLOR;
+		}
+		if (descriptor instanceof FontDescriptor) {
+			return FONT;
+		}
+		return OTHER;
+	}
+
+	private static <K> void add(Map<K, Integer> map, K key, int delta) {
+		Integer count = map.get(key);
+		int newCount = (count == null ? 0 : count.intValue()) + delta;
+		if (newCount == 0) {
+			map.remove(key);
+		} else {
+			map.put(key, Integer.valueOf(newCount));
+		}
+	}
+
+	/**
+	 * Returns the first few stack frames of the caller that are outside of the
+	 * resource managers.
+	 */
+	private static String getAllocationSite() {
+		StackTraceElement[] stack = new Throwable().getStackTrace();
+		StringBuilder site = new StringBuilder();
+		int frames = 0;
+		for (int i = 0; i < stack.length && frames < SITE_FRAMES; i++) {
+			if (stack[i].getClassName().startsWith("org.eclipse.jface.resource.")) { //$NON-NLS-1$
+				continue;
+			}
+			if (frames++ > 0) {
+				site.append(" < "); //$NON-NLS-1$
+			}
+			site.append(stack[i]);
+		}
+		return site.toString();
+	}
+}
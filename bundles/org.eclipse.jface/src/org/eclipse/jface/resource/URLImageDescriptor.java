@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -54,18 +54,18 @@ class URLImageDescriptor extends ImageDescriptor {
 	}
 
 	private static class URLImageDataProvider implements ImageDataProvider {
-		private URL url;
+		private URLImageDescriptor descriptor;
 
-		public URLImageDataProvider(URL url) {
-			this.url = url;
+		public URLImageDataProvider(URLImageDescriptor descriptor) {
+			this.descriptor = descriptor;
 		}
 
 		@Override
 		public ImageData getImageData(int zoom) {
-			URL xUrl = getxURL(url, zoom);
-			if (xUrl == null)
-				return null;
-			return URLImageDescriptor.getImageData(xUrl);
+			ImageData data = ImageDataCache.getDefault().getCachedImageData(descriptor, zoom);
+			if (data != null)
+				return data;
+			return descriptor.loadImageData(zoom);
 		}
 	}
 
@@ -97,9 +97,21 @@ class URLImageDescriptor extends ImageDescriptor {
 
 	@Override
 	public ImageData getImageData() {
+		ImageData data = ImageDataCache.getDefault().getCachedImageData(this, 100);
+		if (data != null) {
+			return data;
+		}
 		return getImageData(url);
 	}
 
+	@Override
+	ImageData loadImageData(int zoom) {
+		URL xUrl = getxURL(url, zoom);
+		if (xUrl == null)
+			return null;
+		return getImageData(xUrl);
+	}
+
 	private static ImageData getImageData(URL url) {
 		ImageData result = null;
 		InputStream in = getStream(url);
@@ -242,10 +254,14 @@ class URLImageDescriptor extends ImageDescriptor {
 		if (InternalPolicy.DEBUG_TRACE_URL_IMAGE_DESCRIPTOR) {
 			start = System.nanoTime();
 		}
+		ImageDataCache.getDefault().imageCreated(url);
 		try {
 
+			// Image data decoded ahead of time only needs the native image.
+			boolean cached = ImageDataCache.getDefault().contains(this, 100);
+
 			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_2x) {
-				if (!InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY) {
+				if (!InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY && !cached) {
 					try {
 						return new Image(device, new URLImageFileNameProvider(url));
 					} catch (SWTException exception) {
@@ -257,7 +273,7 @@ class URLImageDescriptor extends ImageDescriptor {
 
 				Image image = null;
 				try {
-					image = new Image(device, new URLImageDataProvider(url));
+					image = new Image(device, new URLImageDataProvider(this));
 				} catch (SWTException e) {
 					if (e.code != SWT.ERROR_INVALID_IMAGE) {
 						throw e;
@@ -275,7 +291,7 @@ class URLImageDescriptor extends ImageDescriptor {
 				return image;
 
 			}
-			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY) {
+			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY || cached) {
 				return super.createImage(returnMissingImageOnError, device);
 			}
 
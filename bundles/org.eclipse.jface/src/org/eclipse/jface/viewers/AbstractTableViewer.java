@@ -344,6 +344,7 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		try {
 			if (widget instanceof Item) {
 				final Item item = (Item) widget;
+				boolean labelsValid = isLabelCacheValid(item, element);
 
 				// remember element we are showing
 				if (fullMap) {
@@ -357,6 +358,10 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 					mapElement(element, item);
 				}
 
+				if (labelsValid) {
+					return;
+				}
+
 				int columnCount = doGetColumnCount();
 				if (columnCount == 0)
 					columnCount = 1;// If there are no columns do the first one
@@ -395,6 +400,7 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 					}
 
 				}
+				labelCacheUpdated(item, element);
 
 			}
 		} finally {
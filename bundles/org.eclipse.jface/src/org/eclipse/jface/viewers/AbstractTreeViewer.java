@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -923,6 +923,10 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 			return;
 		}
 
+		if (isLabelCacheValid(item, element)) {
+			return;
+		}
+
 		int columnCount = doGetColumnCount();
 		if (columnCount == 0)// If no columns are created then fake one
 			columnCount = 1;
@@ -959,6 +963,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 			}
 
 		}
+		labelCacheUpdated(item, element);
 	}
 
 	/**
@@ -2734,6 +2739,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 						// Clear the text and image to force a label update
 						item.setImage(null);
 						item.setText("");//$NON-NLS-1$
+						ViewerRow.resetTexts(item);
 
 					}
 				}
@@ -19,6 +19,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.internal.InternalPolicy;
 import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.DisposeEvent;
 import org.eclipse.swt.events.MouseAdapter;
 import org.eclipse.swt.events.MouseEvent;
@@ -62,6 +63,28 @@ public abstract class ColumnViewer extends StructuredViewer {
 	// after logging for the first
 	// time
 
+	/**
+	 * Key under which the label cache stamp is stored on a row item.
+	 */
+	private static final String LABEL_CACHE_KEY = Policy.JFACE + ".labelCacheStamp"; //$NON-NLS-1$
+
+	private boolean labelCacheEnabled;
+
+	/**
+	 * Incremented whenever all labels become invalid, e.g. because a label
+	 * provider was replaced or fired a global change event.
+	 */
+	private int labelGeneration;
+
+	/**
+	 * The stamp remembered on a row item after its labels have been computed:
+	 * the element identity and the label generation at that time.
+	 */
+	private static final class LabelCacheStamp {
+		Object element;
+		int generation;
+	}
+
 	/**
 	 * Create a new instance of the receiver.
 	 */
@@ -345,6 +368,7 @@ public abstract class ColumnViewer extends StructuredViewer {
 				|| labelProvider instanceof CellLabelProvider);
 		updateColumnParts(labelProvider);// Reset the label providers in the
 		// columns
+		invalidateLabelCache();
 		if (labelProvider instanceof CellLabelProvider) {
 			((CellLabelProvider) labelProvider).initialize(this, null);
 		}
@@ -538,9 +562,123 @@ public abstract class ColumnViewer extends StructuredViewer {
 	public void update(Object element, String[] properties) {
 		if (checkBusy())
 			return;
+		if (labelCacheEnabled) {
+			invalidateLabelCache(element);
+		}
 		super.update(element, properties);
 	}
 
+	@Override
+	protected void handleLabelProviderChanged(LabelProviderChangedEvent event) {
+		if (event.getElements() == null) {
+			invalidateLabelCache();
+		}
+		super.handleLabelProviderChanged(event);
+	}
+
+	/**
+	 * Enables or disables the label cache of this viewer. When the cache is
+	 * enabled, the label providers are only asked to update a row if the row
+	 * shows a different element than at the time of its last update, if the
+	 * element has been explicitly updated through {@link #update(Object, String[])}
+	 * or a {@link LabelProviderChangedEvent}, or if a label provider has been
+	 * replaced or has fired a change event for all elements. This means that
+	 * {@link #refresh()} does not recompute the labels of rows whose element
+	 * did not change.
+	 * <p>
+	 * Clients should only enable the cache if the labels of an element do not
+	 * change without a notification of the label provider or a call to
+	 * <code>update</code>. The cache is ignored for viewers created with the
+	 * <code>SWT.VIRTUAL</code> style. It is disabled by default.
+	 * </p>
+	 *
+	 * @param enabled
+	 *            <code>true</code> to enable the label cache
+	 * @see #isLabelCacheEnabled()
+	 * @since 3.11
+	 */
+	public void setLabelCacheEnabled(boolean enabled) {
+		if (labelCacheEnabled != enabled) {
+			labelCacheEnabled = enabled;
+			invalidateLabelCache();
+		}
+	}
+
+	/**
+	 * Returns whether the label cache of this viewer is enabled.
+	 *
+	 * @return <code>true</code> if the label cache is enabled
+	 * @see #setLabelCacheEnabled(boolean)
+	 * @since 3.11
+	 */
+	public boolean isLabelCacheEnabled() {
+		return labelCacheEnabled;
+	}
+
+	/**
+	 * Invalidates the cached labels of all rows.
+	 */
+	/* package */void invalidateLabelCache() {
+		labelGeneration++;
+	}
+
+	/**
+	 * Invalidates the cached labels of the rows showing the given element.
+	 *
+	 * @param element
+	 *            the element
+	 */
+	private void invalidateLabelCache(Object element) {
+		Widget[] items = findItems(element);
+		for (int i = 0; i < items.length; i++) {
+			if (!items[i].isDisposed()) {
+				items[i].setData(LABEL_CACHE_KEY, null);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the labels of the given row item are known to be up to
+	 * date for the given element, in which case the label providers need not
+	 * be asked again.
+	 *
+	 * @param item
+	 *            the row item
+	 * @param element
+	 *            the element that is about to be shown in the row
+	 * @return <code>true</code> if the labels of the row are up to date
+	 */
+	/* package */boolean isLabelCacheValid(Widget item, Object element) {
+		if (!labelCacheEnabled || (getControl().getStyle() & SWT.VIRTUAL) != 0) {
+			return false;
+		}
+		LabelCacheStamp stamp = (LabelCacheStamp) item.getData(LABEL_CACHE_KEY);
+		return stamp != null && stamp.element == element
+				&& stamp.generation == labelGeneration;
+	}
+
+	/**
+	 * Remembers that the labels of the given row item have been computed for
+	 * the given element.
+	 *
+	 * @param item
+	 *            the row item
+	 * @param element
+	 *            the element shown in the row
+	 */
+	/* package */void labelCacheUpdated(Widget item, Object element) {
+		if (!labelCacheEnabled || (getControl().getStyle() & SWT.VIRTUAL) != 0) {
+			return;
+		}
+		LabelCacheStamp stamp = (LabelCacheStamp) item.getData(LABEL_CACHE_KEY);
+		if (stamp == null) {
+			stamp = new LabelCacheStamp();
+			item.setData(LABEL_CACHE_KEY, stamp);
+		}
+		stamp.element = element;
+		stamp.generation = labelGeneration;
+	}
+
 	/**
 	 * Sets the cell editors of this column viewer. If editing is not supported
 	 * by this viewer the call simply has no effect.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import org.eclipse.jface.viewers.StyledString.Styler;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Rectangle;
@@ -72,6 +73,16 @@ public abstract class StyledCellLabelProvider extends OwnerDrawLabelProvider {
 
 	private int deltaOfLastMeasure;
 
+	// what the reused text layout is currently configured with, so that
+	// repeated measure and paint events for the same cell do not set the
+	// text and the style ranges again
+	private boolean layoutValid;
+	private String layoutText;
+	private Font layoutFont;
+	private StyleRange[] layoutStyleRanges;
+	private boolean layoutApplyColors;
+	private int layoutTextWidthDelta;
+
 	/**
 	 * Creates a new StyledCellLabelProvider. By default, owner draw is enabled, focus is drawn and no
 	 * colors are painted on selected elements.
@@ -168,6 +179,10 @@ public abstract class StyledCellLabelProvider extends OwnerDrawLabelProvider {
 			cachedTextLayout.dispose();
 			cachedTextLayout = null;
 		}
+		layoutValid = false;
+		layoutText = null;
+		layoutFont = null;
+		layoutStyleRanges = null;
 
 		this.viewer= null;
 		this.column= null;
@@ -186,6 +201,7 @@ public abstract class StyledCellLabelProvider extends OwnerDrawLabelProvider {
 			int orientation = viewer.getControl().getStyle() & (SWT.LEFT_TO_RIGHT | SWT.RIGHT_TO_LEFT);
 			cachedTextLayout = new TextLayout(display);
 			cachedTextLayout.setOrientation(orientation);
+			layoutValid = false;
 		}
 		return cachedTextLayout;
 	}
@@ -266,6 +282,13 @@ public abstract class StyledCellLabelProvider extends OwnerDrawLabelProvider {
 	}
 
 	/**
+	 * Configures the layout for the cell. Nothing is done if the layout is
+	 * already configured with the same text, font and style ranges, which is
+	 * the case when several measure and paint events are sent for a cell whose
+	 * label did not change. Style ranges are compared by identity, as
+	 * {@link ViewerCell#setStyleRanges(StyleRange[])} is called with a new
+	 * array whenever the label is updated.
+	 *
 	 * @param layout
 	 * @param cell
 	 * @param applyColors
@@ -273,28 +296,51 @@ public abstract class StyledCellLabelProvider extends OwnerDrawLabelProvider {
 	 */
 	private int updateTextLayout(TextLayout layout, ViewerCell cell,
 			boolean applyColors) {
+		String text = cell.getText();
+		Font font = cell.getFont();
+		StyleRange[] styleRanges = cell.getStyleRanges();
+		if (layoutValid && layoutApplyColors == applyColors && layoutFont == font
+				&& layoutStyleRanges == styleRanges && text.equals(layoutText)) {
+			return layoutTextWidthDelta;
+		}
+
 		layout.setStyle(null, 0, Integer.MAX_VALUE); // clear old styles
 
-		layout.setText(cell.getText());
-		layout.setFont(cell.getFont()); // set also if null to clear previous usages
+		layout.setText(text);
+		layout.setFont(font); // set also if null to clear previous usages
 
-		int originalTextWidth = layout.getBounds().width; // text width without any styles
+		StyleRange[] preparedRanges = null;
 		boolean containsOtherFont= false;
-
-		StyleRange[] styleRanges = cell.getStyleRanges();
 		if (styleRanges != null) { // user didn't fill styled ranges
+			preparedRanges = new StyleRange[styleRanges.length];
 			for (int i = 0; i < styleRanges.length; i++) {
-				StyleRange curr = prepareStyleRange(styleRanges[i], applyColors);
-				layout.setStyle(curr, curr.start, curr.start + curr.length - 1);
-				if (curr.font != null) {
+				preparedRanges[i] = prepareStyleRange(styleRanges[i], applyColors);
+				if (preparedRanges[i].font != null) {
 					containsOtherFont= true;
 				}
 			}
 		}
+
+		// only lay out the text without styles if the width can change
+		int originalTextWidth = containsOtherFont ? layout.getBounds().width : 0;
+
+		if (preparedRanges != null) {
+			for (int i = 0; i < preparedRanges.length; i++) {
+				StyleRange curr = preparedRanges[i];
+				layout.setStyle(curr, curr.start, curr.start + curr.length - 1);
+			}
+		}
 		int textWidthDelta = 0;
 		if (containsOtherFont) {
 			textWidthDelta = layout.getBounds().width - originalTextWidth;
 		}
+
+		layoutValid = true;
+		layoutText = text;
+		layoutFont = font;
+		layoutStyleRanges = styleRanges;
+		layoutApplyColors = applyColors;
+		layoutTextWidthDelta = textWidthDelta;
 		return textWidthDelta;
 	}
 
@@ -348,9 +394,9 @@ public abstract class StyledCellLabelProvider extends OwnerDrawLabelProvider {
 			int style = viewer.getColumnViewerOwner(cell.getColumnIndex()).getStyle();
 			int x = textBounds.x;
 			if ((style & SWT.RIGHT) != 0) {
-				x = textBounds.x + textBounds.width - textLayout.getBounds().width;
+				x = textBounds.x + textBounds.width - layoutBounds.width;
 			} else if ((style & SWT.CENTER) != 0) {
-				x = textBounds.x + (textBounds.width - textLayout.getBounds().width)/2;
+				x = textBounds.x + (textBounds.width - layoutBounds.width)/2;
 			}
 			int y = textBounds.y
 					+ Math.max(0, (textBounds.height - layoutBounds.height) / 2);
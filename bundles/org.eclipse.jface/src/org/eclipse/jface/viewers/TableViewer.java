@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -266,6 +266,7 @@ public class TableViewer extends AbstractTableViewer {
 	@Override
 	protected void doResetItem(Item item) {
 		TableItem tableItem = (TableItem) item;
+		ViewerRow.resetTexts(tableItem);
 		int columnCount = Math.max(1, table.getColumnCount());
 		for (int i = 0; i < columnCount; i++) {
 			tableItem.setText(i, ""); //$NON-NLS-1$
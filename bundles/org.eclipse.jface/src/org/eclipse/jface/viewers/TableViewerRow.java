@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,11 +13,13 @@
 
 package org.eclipse.jface.viewers;
 
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Widget;
 
@@ -111,7 +113,18 @@ public class TableViewerRow extends ViewerRow {
 
 	@Override
 	public void setText(int columnIndex, String text) {
-		item.setText(columnIndex, text == null ? "" : text); //$NON-NLS-1$
+		String newText = text == null ? "" : text; //$NON-NLS-1$
+		Table parent = item.getParent();
+		if ((parent.getStyle() & SWT.VIRTUAL) != 0) {
+			item.setText(columnIndex, newText);
+			return;
+		}
+		// avoid the native call if the text did not change
+		int columnCount = parent.getColumnCount();
+		if (!isTextSet(item, columnCount, columnIndex, newText)) {
+			item.setText(columnIndex, newText);
+			textSet(item, columnCount, columnIndex, newText);
+		}
 	}
 
 	@Override
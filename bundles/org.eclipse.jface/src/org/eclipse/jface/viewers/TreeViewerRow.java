@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ package org.eclipse.jface.viewers;
 import java.util.LinkedList;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
@@ -113,7 +114,18 @@ public class TreeViewerRow extends ViewerRow {
 
 	@Override
 	public void setText(int columnIndex, String text) {
-		item.setText(columnIndex, text == null ? "" : text); //$NON-NLS-1$
+		String newText = text == null ? "" : text; //$NON-NLS-1$
+		Tree parent = item.getParent();
+		if ((parent.getStyle() & SWT.VIRTUAL) != 0) {
+			item.setText(columnIndex, newText);
+			return;
+		}
+		// avoid the native call if the text did not change
+		int columnCount = parent.getColumnCount();
+		if (!isTextSet(item, columnCount, columnIndex, newText)) {
+			item.setText(columnIndex, newText);
+			textSet(item, columnCount, columnIndex, newText);
+		}
 	}
 
 	@Override
@@ -106,6 +106,9 @@ public abstract class ViewerColumn {
 		}
 
 		this.labelProvider = labelProvider;
+		if (viewer != null) {
+			viewer.invalidateLabelCache();
+		}
 
 		if (registerListener) {
 			this.labelProvider.initialize(viewer, this);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -53,6 +53,12 @@ public abstract class ViewerRow implements Cloneable {
 
 	private static String[] cachedDataKeys;
 
+	/**
+	 * Key under which the texts that the viewer has set on the columns of an
+	 * item are stored on the item.
+	 */
+	private static final String KEY_TEXTS = Policy.JFACE + "row_texts"; //$NON-NLS-1$
+
 	/**
 	 * Get the bounds of the entry at the columnIndex,
 	 *
@@ -431,4 +437,67 @@ public abstract class ViewerRow implements Cloneable {
 	protected boolean isColumnVisible(int columnIndex) {
 		return getWidth(columnIndex) > 0;
 	}
+
+	/**
+	 * Returns whether the given text is the one that has last been set on the
+	 * column of the item through its row. The texts are remembered on the Java
+	 * side, so that unchanged texts can be detected without asking the
+	 * widget. Rows of virtual controls must not use them, since the widget
+	 * clears the items of virtual controls by itself. The texts are forgotten
+	 * when the number of columns changes, since the widget moves the texts of
+	 * the items when a column is created or disposed.
+	 *
+	 * @param item
+	 *            the table or tree item
+	 * @param columnCount
+	 *            the number of columns of the control
+	 * @param columnIndex
+	 *            the column index
+	 * @param text
+	 *            the text that is about to be set
+	 * @return <code>true</code> if the column already shows the text
+	 */
+	static boolean isTextSet(Widget item, int columnCount, int columnIndex,
+			String text) {
+		String[] texts = (String[]) item.getData(KEY_TEXTS);
+		return texts != null && texts.length == Math.max(1, columnCount)
+				&& columnIndex < texts.length && text.equals(texts[columnIndex]);
+	}
+
+	/**
+	 * Remembers the text that has been set on the column of the item.
+	 *
+	 * @param item
+	 *            the table or tree item
+	 * @param columnCount
+	 *            the number of columns of the control
+	 * @param columnIndex
+	 *            the column index
+	 * @param text
+	 *            the text that has been set
+	 */
+	static void textSet(Widget item, int columnCount, int columnIndex,
+			String text) {
+		int length = Math.max(1, columnCount);
+		if (columnIndex >= length) {
+			return;
+		}
+		String[] texts = (String[]) item.getData(KEY_TEXTS);
+		if (texts == null || texts.length != length) {
+			texts = new String[length];
+			item.setData(KEY_TEXTS, texts);
+		}
+		texts[columnIndex] = text;
+	}
+
+	/**
+	 * Forgets the texts that have been set on the item through its row. This
+	 * must be called when the texts of the item are changed directly.
+	 *
+	 * @param item
+	 *            the table or tree item
+	 */
+	static void resetTexts(Widget item) {
+		item.setData(KEY_TEXTS, null);
+	}
 }
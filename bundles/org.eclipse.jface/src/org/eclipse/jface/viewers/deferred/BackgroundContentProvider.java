@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2013 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -241,9 +241,9 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
         	}
 
         	// If there are pending changes, process one of them
-        	if (!changeQueue.isEmpty()) {
+        	ChangeQueue.Change next = changeQueue.dequeue();
+        	if (next != null) {
         		dirty = true;
-	        	ChangeQueue.Change next = changeQueue.dequeue();
 
 	        	switch(next.getType()) {
 		        	case ChangeQueue.ADD: {
@@ -415,6 +415,30 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
         return limit;
     }
 
+    /**
+     * Sets the minimum delay between two updates of the table in the UI
+     * thread. Changes arriving during this delay are sent to the table in a
+     * single batch.
+     *
+     * @param millis minimum delay in milliseconds, or 0 to update the table
+     * as soon as possible
+     */
+    public void setUpdateDelay(int millis) {
+    	updator.setUpdateDelay(millis);
+    }
+
+    /**
+     * Sets the maximum number of rows that are cleared or replaced in the
+     * table during one update in the UI thread. The remaining changes are
+     * sent in the following updates.
+     *
+     * @param rows maximum number of rows per update, or 0 to send all
+     * pending changes in one update
+     */
+    public void setBatchSize(int rows) {
+    	updator.setBatchSize(rows);
+    }
+
     /**
      * Checks if currently visible range has changed, and triggers and update
      * and resort if necessary. Must be called in the UI thread, typically
@@ -0,0 +1,703 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * This object maintains a collection of elements, sorted by a comparator
+ * given in the constructor. It offers the same operations as
+ * {@link LazySortedCollection}, but keeps the collection fully sorted at all
+ * times. Insertion, removal and the lookup of the element at a given position
+ * run in guaranteed O(log n) time, independent of the order in which the
+ * elements are inserted.
+ *
+ * <p>
+ * This is an AVL tree in which every node also stores the size of its subtree
+ * (an order-statistics tree). Nodes live in parallel primitive arrays that
+ * grow on demand and shrink again when most of the elements have been
+ * removed. Elements that compare as equal are kept in insertion order.
+ * </p>
+ * <p>
+ * Elements are removed through the parent links of their nodes, without
+ * comparing them. An element can therefore be removed after its sort key
+ * has changed, and then added again at its new position.
+ * </p>
+ * <p>
+ * Unlike <code>LazySortedCollection</code>, every insertion costs O(log n)
+ * comparisons. This collection is preferable when elements are frequently
+ * removed or when positional queries are spread over the whole collection;
+ * <code>LazySortedCollection</code> remains faster when only a small range of
+ * a large, mostly static collection is ever queried.
+ * </p>
+ *
+ * @since 3.11
+ */
+public class BalancedSortedCollection {
+    private static final int MIN_CAPACITY = 8;
+
+    private Object[] contents = new Object[MIN_CAPACITY];
+    private int[] leftSubTree = new int[MIN_CAPACITY];
+    private int[] rightSubTree = new int[MIN_CAPACITY];
+    private int[] parentTree = new int[MIN_CAPACITY];
+    private int[] height = new int[MIN_CAPACITY];
+    private int[] treeSize = new int[MIN_CAPACITY];
+
+    /**
+     * Insertion sequence number of each node. Used to order elements that
+     * compare as equal, so that insertion order is kept.
+     */
+    private int[] sequence = new int[MIN_CAPACITY];
+
+    private int root = -1;
+
+    /**
+     * Number of array slots that have ever been used. Slots below this
+     * index that are not in use form the free list.
+     */
+    private int lastNode = 0;
+
+    /**
+     * First unused node below lastNode, or -1. Unused nodes are linked
+     * through their leftSubTree entries.
+     */
+    private int firstUnusedNode = -1;
+
+    private int nextSequence = 0;
+
+    private IntHashMap objectIndices = new IntHashMap();
+    private Comparator comparator;
+
+    /**
+     * Creates a new sorted collection using the given comparator to determine
+     * sort order.
+     *
+     * @param c comparator that determines the sort order
+     */
+    public BalancedSortedCollection(Comparator c) {
+        this.comparator = c;
+    }
+
+    /**
+     * Returns the number of elements in the collection
+     *
+     * @return the number of elements in the collection
+     */
+    public int size() {
+        return getSubtreeSize(root);
+    }
+
+    /**
+     * Increases the capacity of this collection, if necessary, so that it can hold the
+     * given number of elements. This can be used prior to a sequence of additions to
+     * avoid memory reallocation.
+     *
+     * @param newSize capacity for this collection
+     */
+    public final void setCapacity(int newSize) {
+        if (newSize > contents.length) {
+            setArraySize(newSize);
+        }
+    }
+
+    /**
+     * Adds the given object to the collection. Has no effect if the collection
+     * already contains the object. Runs in O(log n) time.
+     *
+     * @param toAdd object to add
+     */
+    public final void add(Object toAdd) {
+    	Assert.isNotNull(toAdd);
+    	if (objectIndices.containsKey(toAdd)) {
+    		return;
+    	}
+        int newIdx = createNode(toAdd);
+        objectIndices.put(toAdd, newIdx);
+        setRoot(insert(root, newIdx));
+    }
+
+    /**
+     * Adds all items from the given collection to this collection
+     *
+     * @param toAdd objects to add
+     */
+    public final void addAll(Collection toAdd) {
+    	Assert.isNotNull(toAdd);
+        setCapacity(size() + toAdd.size());
+        Iterator iter = toAdd.iterator();
+        while (iter.hasNext()) {
+            add(iter.next());
+        }
+    }
+
+    /**
+     * Adds all items from the given array to the collection
+     *
+     * @param toAdd objects to add
+     */
+    public final void addAll(Object[] toAdd) {
+    	Assert.isNotNull(toAdd);
+        setCapacity(size() + toAdd.length);
+        for (int i = 0; i < toAdd.length; i++) {
+            add(toAdd[i]);
+        }
+    }
+
+    /**
+     * Returns true iff the collection is empty
+     *
+     * @return true iff the collection contains no elements
+     */
+    public final boolean isEmpty() {
+        return root == -1;
+    }
+
+    /**
+     * Removes the given object from the collection. Has no effect if
+     * the element does not exist in this collection. Runs in O(log n) time.
+     *
+     * @param toRemove element to remove
+     */
+    public final void remove(Object toRemove) {
+        internalRemove(toRemove);
+        pack();
+    }
+
+    /**
+     * Removes the given element but does not shrink the arrays after the
+     * removal.
+     *
+     * @param toRemove element to remove
+     */
+    private void internalRemove(Object toRemove) {
+        int node = objectIndices.get(toRemove, -1);
+        if (node == -1) {
+            return;
+        }
+        unlink(node);
+        objectIndices.remove(toRemove);
+        destroyNode(node);
+    }
+
+    /**
+     * Removes all elements in the given array from this collection.
+     *
+     * @param toRemove elements to remove
+     */
+    public final void removeAll(Object[] toRemove) {
+    	Assert.isNotNull(toRemove);
+        for (int i = 0; i < toRemove.length; i++) {
+            internalRemove(toRemove[i]);
+        }
+        pack();
+    }
+
+    /**
+     * Retains the n smallest items in the collection, removing the rest. When
+     * this method returns, the size of the collection will be n. Note that
+     * this is a no-op if n > the current size of the collection.
+     *
+     * @param n number of items to retain
+     * @param mon progress monitor
+     * @throws InterruptedException if the progress monitor is cancelled in another thread
+     */
+    /* package */ final void retainFirst(int n, FastProgressReporter mon) throws InterruptedException {
+        int sz = size();
+        if (n >= sz) {
+            return;
+        }
+        removeRange(n, sz - n, mon);
+    }
+
+    /**
+     * Retains the n smallest items in the collection, removing the rest. When
+     * this method returns, the size of the collection will be n. Note that
+     * this is a no-op if n > the current size of the collection.
+     *
+     * @param n number of items to retain
+     */
+    public final void retainFirst(int n) {
+        try {
+            retainFirst(n, new FastProgressReporter());
+        } catch (InterruptedException e) {
+        }
+    }
+
+    /**
+     * Removes all elements in the given range from this collection.
+     * For example, removeRange(10, 3) would remove the 11th through 13th
+     * smallest items from the collection.
+     *
+     * @param first 0-based index of the smallest item to remove
+     * @param length number of items to remove
+     */
+    public final void removeRange(int first, int length) {
+        try {
+            removeRange(first, length, new FastProgressReporter());
+        } catch (InterruptedException e) {
+        }
+    }
+
+    /**
+     * Removes all elements in the given range from this collection.
+     * For example, removeRange(10, 3) would remove the 11th through 13th
+     * smallest items from the collection. Runs in O(length * log n) time.
+     *
+     * @param first 0-based index of the smallest item to remove
+     * @param length number of items to remove
+     * @param mon progress monitor
+     * @throws InterruptedException if the progress monitor is cancelled in another thread
+     */
+    /* package */ final void removeRange(int first, int length, FastProgressReporter mon) throws InterruptedException {
+        if (length <= 0 || first >= size()) {
+            return;
+        }
+        if (first == 0 && length >= size()) {
+            clear();
+            return;
+        }
+        Object[] toRemove = new Object[Math.min(length, size() - first)];
+        getRange(toRemove, first, false, mon);
+        removeAll(toRemove);
+    }
+
+    /**
+     * Removes all elements from the collection
+     */
+    public final void clear() {
+        setArraySize(MIN_CAPACITY);
+        lastNode = 0;
+        root = -1;
+        firstUnusedNode = -1;
+        nextSequence = 0;
+        objectIndices = new IntHashMap();
+    }
+
+    /**
+     * Returns the comparator that is determining the sort order for this collection
+     *
+     * @return comparator for this collection
+     */
+    public Comparator getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Fills in an array of size n with the n smallest elements from the collection.
+     * The result is always sorted; the <code>sorted</code> argument only exists for
+     * compatibility with <code>LazySortedCollection</code>.
+     *
+     * @param result array to be filled
+     * @param sorted ignored, the result is always sorted
+     * @param mon monitor used to report progress and check for cancellation
+     * @return the number of items inserted into the result array. This will be equal to the minimum
+     * of result.length and container.size()
+     * @throws InterruptedException if the progress monitor is cancelled
+     */
+    /* package */ final int getFirst(Object[] result, boolean sorted, FastProgressReporter mon) throws InterruptedException {
+        return getRange(result, 0, sorted, mon);
+    }
+
+    /**
+     * Fills in an array of size n with the n smallest elements from the collection.
+     * The result is always sorted; the <code>sorted</code> argument only exists for
+     * compatibility with <code>LazySortedCollection</code>.
+     *
+     * @param result array to be filled
+     * @param sorted ignored, the result is always sorted
+     * @return the number of items inserted into the result array. This will be equal to the minimum
+     * of result.length and container.size()
+     */
+    public final int getFirst(Object[] result, boolean sorted) {
+        return getRange(result, 0, sorted);
+    }
+
+    /**
+     * Given a position defined by k and an array of size n, this fills in the array with
+     * the kth smallest element through to the (k+n)th smallest element. Runs in
+     * O(log size + n) time.
+     *
+     * @param result array to be filled in
+     * @param rangeStart index of the smallest element to appear in the result
+     * @param sorted ignored, the result is always sorted
+     * @param mon progress monitor used to cancel the operation
+     * @return the number of items actually inserted into the result array (will be the minimum
+     * of result.length and this.size() - rangeStart)
+     * @throws InterruptedException if the progress monitor was cancelled in another thread
+     */
+    /* package */ final int getRange(Object[] result, int rangeStart, boolean sorted, FastProgressReporter mon) throws InterruptedException {
+        return getRange(result, 0, rangeStart, root, mon);
+    }
+
+    /**
+     * Given a position defined by k and an array of size n, this fills in the array with
+     * the kth smallest element through to the (k+n)th smallest element. Runs in
+     * O(log size + n) time.
+     *
+     * @param result array containing the result
+     * @param rangeStart index of the first element to be inserted into the result array
+     * @param sorted ignored, the result is always sorted
+     * @return the number of items actually inserted into the result array (will be the minimum
+     * of result.length and this.size() - rangeStart)
+     */
+    public final int getRange(Object[] result, int rangeStart, boolean sorted) {
+        try {
+            return getRange(result, rangeStart, sorted, new FastProgressReporter());
+        } catch (InterruptedException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the item at the given index. Indexes are based on sorted order.
+     * Runs in O(log n) time.
+     *
+     * @param index index to test
+     * @return the item at the given index, or <code>null</code> if the index is
+     * out of range
+     */
+    public final Object getItem(int index) {
+        int node = root;
+        while (node != -1) {
+            int numberLessThanNode = getSubtreeSize(leftSubTree[node]);
+            if (index < numberLessThanNode) {
+                node = leftSubTree[node];
+            } else if (index == numberLessThanNode) {
+                return contents[node];
+            } else {
+                index -= numberLessThanNode + 1;
+                node = rightSubTree[node];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the contents of this collection as a sorted array.
+     *
+     * @param sorted ignored, the result is always sorted
+     * @return the contents of this collection as an array.
+     */
+    public final Object[] getItems(boolean sorted) {
+        Object[] result = new Object[size()];
+        getRange(result, 0, sorted);
+        return result;
+    }
+
+    /**
+     * Returns true iff this collection contains the given item
+     *
+     * @param item item to test
+     * @return true iff this collection contains the given item
+     */
+    public boolean contains(Object item) {
+    	Assert.isNotNull(item);
+        return objectIndices.containsKey(item);
+    }
+
+    /**
+     * Verifies the internal consistency of the tree: subtree sizes and heights,
+     * the AVL balance condition, the sort order and the element index. Throws an
+     * assertion failure if the tree is inconsistent. Intended for use in test
+     * suites only.
+     */
+    public void testInvariants() {
+        Assert.isTrue(objectIndices.size() == size());
+        checkSubtree(root, -1);
+        Object[] items = getItems(true);
+        for (int i = 1; i < items.length; i++) {
+            Assert.isTrue(comparator.compare(items[i - 1], items[i]) <= 0);
+        }
+    }
+
+    private void checkSubtree(int node, int parent) {
+        if (node == -1) {
+            return;
+        }
+        int left = leftSubTree[node];
+        int right = rightSubTree[node];
+        Assert.isTrue(parentTree[node] == parent);
+        Assert.isTrue(treeSize[node] == getSubtreeSize(left) + getSubtreeSize(right) + 1);
+        Assert.isTrue(height[node] == Math.max(getHeight(left), getHeight(right)) + 1);
+        Assert.isTrue(Math.abs(getHeight(left) - getHeight(right)) <= 1);
+        Assert.isTrue(objectIndices.get(contents[node], -1) == node);
+        checkSubtree(left, node);
+        checkSubtree(right, node);
+    }
+
+    private int getRange(Object[] result, int resultIdx, int rangeStart, int node, FastProgressReporter mon) throws InterruptedException {
+        int inserted = 0;
+        while (node != -1 && resultIdx + inserted < result.length) {
+            if (mon.isCanceled()) {
+                throw new InterruptedException();
+            }
+            int numberLessThanNode = getSubtreeSize(leftSubTree[node]);
+
+            if (rangeStart < numberLessThanNode) {
+                inserted += getRange(result, resultIdx + inserted, rangeStart, leftSubTree[node], mon);
+            }
+
+            if (rangeStart <= numberLessThanNode && resultIdx + inserted < result.length) {
+                result[resultIdx + inserted] = contents[node];
+                inserted++;
+            }
+
+            // Continue with the right subtree without recursing
+            rangeStart = Math.max(rangeStart - numberLessThanNode - 1, 0);
+            node = rightSubTree[node];
+        }
+        return inserted;
+    }
+
+    /**
+     * Compares the given value and sequence number with the given node.
+     */
+    private int compare(Object value, int valueSequence, int node) {
+        int result = comparator.compare(value, contents[node]);
+        if (result != 0) {
+            return result;
+        }
+        int nodeSequence = sequence[node];
+        return valueSequence < nodeSequence ? -1 : (valueSequence == nodeSequence ? 0 : 1);
+    }
+
+    private int insert(int node, int toInsert) {
+        if (node == -1) {
+            return toInsert;
+        }
+        if (compare(contents[toInsert], sequence[toInsert], node) < 0) {
+            setLeft(node, insert(leftSubTree[node], toInsert));
+        } else {
+            setRight(node, insert(rightSubTree[node], toInsert));
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Unlinks the given node from the tree and rebalances the path from its
+     * former position to the root. The node itself is not destroyed. Only the
+     * links of the nodes are followed, so the element does not need to
+     * compare the way it did when it was inserted.
+     */
+    private void unlink(int node) {
+        int left = leftSubTree[node];
+        int right = rightSubTree[node];
+        int rebalanceFrom;
+        if (left == -1 || right == -1) {
+            rebalanceFrom = parentTree[node];
+            replaceChild(rebalanceFrom, node, left != -1 ? left : right);
+        } else {
+            // Replace the node by the smallest node of its right subtree
+            int successor = right;
+            while (leftSubTree[successor] != -1) {
+                successor = leftSubTree[successor];
+            }
+            rebalanceFrom = parentTree[successor];
+            if (rebalanceFrom == node) {
+                rebalanceFrom = successor;
+            } else {
+                replaceChild(rebalanceFrom, successor, rightSubTree[successor]);
+                setRight(successor, right);
+            }
+            setLeft(successor, left);
+            replaceChild(parentTree[node], node, successor);
+        }
+        int current = rebalanceFrom;
+        while (current != -1) {
+            int parent = parentTree[current];
+            replaceChild(parent, current, rebalance(current));
+            current = parent;
+        }
+    }
+
+    private int rebalance(int node) {
+        recomputeNode(node);
+        int balance = getHeight(leftSubTree[node]) - getHeight(rightSubTree[node]);
+        if (balance > 1) {
+            int left = leftSubTree[node];
+            if (getHeight(leftSubTree[left]) < getHeight(rightSubTree[left])) {
+                setLeft(node, rotateLeft(left));
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            int right = rightSubTree[node];
+            if (getHeight(rightSubTree[right]) < getHeight(leftSubTree[right])) {
+                setRight(node, rotateRight(right));
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateLeft(int node) {
+        int newRoot = rightSubTree[node];
+        setRight(node, leftSubTree[newRoot]);
+        setLeft(newRoot, node);
+        recomputeNode(node);
+        recomputeNode(newRoot);
+        return newRoot;
+    }
+
+    private int rotateRight(int node) {
+        int newRoot = leftSubTree[node];
+        setLeft(node, rightSubTree[newRoot]);
+        setRight(newRoot, node);
+        recomputeNode(node);
+        recomputeNode(newRoot);
+        return newRoot;
+    }
+
+    private void setLeft(int node, int child) {
+        leftSubTree[node] = child;
+        if (child != -1) {
+            parentTree[child] = node;
+        }
+    }
+
+    private void setRight(int node, int child) {
+        rightSubTree[node] = child;
+        if (child != -1) {
+            parentTree[child] = node;
+        }
+    }
+
+    private void setRoot(int node) {
+        root = node;
+        if (node != -1) {
+            parentTree[node] = -1;
+        }
+    }
+
+    /**
+     * Links newChild to the given parent in place of oldChild. A parent of -1
+     * stands for the root of the tree.
+     */
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == -1) {
+            setRoot(newChild);
+        } else if (leftSubTree[parent] == oldChild) {
+            setLeft(parent, newChild);
+        } else {
+            setRight(parent, newChild);
+        }
+    }
+
+    private void recomputeNode(int node) {
+        int left = leftSubTree[node];
+        int right = rightSubTree[node];
+        treeSize[node] = getSubtreeSize(left) + getSubtreeSize(right) + 1;
+        height[node] = Math.max(getHeight(left), getHeight(right)) + 1;
+    }
+
+    private int getSubtreeSize(int node) {
+        return node == -1 ? 0 : treeSize[node];
+    }
+
+    private int getHeight(int node) {
+        return node == -1 ? 0 : height[node];
+    }
+
+    private int createNode(Object value) {
+        int result;
+        if (firstUnusedNode != -1) {
+            result = firstUnusedNode;
+            firstUnusedNode = leftSubTree[result];
+        } else {
+            if (lastNode >= contents.length) {
+                setArraySize(Math.max(MIN_CAPACITY, contents.length * 2));
+            }
+            result = lastNode++;
+        }
+        contents[result] = value;
+        sequence[result] = nextSequence++;
+        leftSubTree[result] = -1;
+        rightSubTree[result] = -1;
+        parentTree[result] = -1;
+        treeSize[result] = 1;
+        height[result] = 1;
+        return result;
+    }
+
+    private void destroyNode(int node) {
+        contents[node] = null;
+        rightSubTree[node] = -1;
+        leftSubTree[node] = firstUnusedNode;
+        firstUnusedNode = node;
+    }
+
+    /**
+     * Shrinks the arrays if less than a quarter of their capacity is in use.
+     * The remaining elements are rebuilt into a perfectly balanced tree, so
+     * the cost is amortized over the removals that made the shrink possible.
+     */
+    private void pack() {
+        int size = size();
+        if (contents.length <= MIN_CAPACITY || size > contents.length / 4) {
+            return;
+        }
+        Object[] items = getItems(true);
+        setArraySize(Math.max(MIN_CAPACITY, size * 2));
+        objectIndices = new IntHashMap((int) (items.length / 0.75f) + 1, 0.75f);
+        for (int i = 0; i < items.length; i++) {
+            contents[i] = items[i];
+            sequence[i] = i;
+            objectIndices.put(items[i], i);
+        }
+        lastNode = items.length;
+        firstUnusedNode = -1;
+        nextSequence = items.length;
+        setRoot(buildBalanced(0, items.length - 1));
+    }
+
+    /**
+     * Links the nodes first through last, which hold sorted elements, into a
+     * balanced subtree.
+     *
+     * @return the root of the subtree
+     */
+    private int buildBalanced(int first, int last) {
+        if (first > last) {
+            return -1;
+        }
+        int middle = (first + last) >>> 1;
+        setLeft(middle, buildBalanced(first, middle - 1));
+        setRight(middle, buildBalanced(middle + 1, last));
+        recomputeNode(middle);
+        return middle;
+    }
+
+    private void setArraySize(int newSize) {
+        contents = resize(contents, newSize);
+        leftSubTree = resize(leftSubTree, newSize);
+        rightSubTree = resize(rightSubTree, newSize);
+        parentTree = resize(parentTree, newSize);
+        height = resize(height, newSize);
+        treeSize = resize(treeSize, newSize);
+        sequence = resize(sequence, newSize);
+    }
+
+    private static Object[] resize(Object[] array, int newSize) {
+        Object[] result = new Object[newSize];
+        System.arraycopy(array, 0, result, 0, Math.min(array.length, newSize));
+        return result;
+    }
+
+    private static int[] resize(int[] array, int newSize) {
+        int[] result = new int[newSize];
+        System.arraycopy(array, 0, result, 0, Math.min(array.length, newSize));
+        return result;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2010 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,12 @@
 package org.eclipse.jface.viewers.deferred;
 
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Holds a queue of additions, removals, updates, and SET calls for a
- * BackgroundContentProvider
+ * BackgroundContentProvider. The queue is lock-free: changes may be enqueued
+ * by any number of model threads while the sort thread dequeues them.
  */
 final class ChangeQueue {
 	/**
@@ -81,7 +82,7 @@ final class ChangeQueue {
 		}
 	}
 
-	private LinkedList queue = new LinkedList();
+	private final ConcurrentLinkedQueue queue = new ConcurrentLinkedQueue();
 
 	/**
 	 * Create a change of the given type and elements and enqueue it.
@@ -89,7 +90,7 @@ final class ChangeQueue {
 	 * @param type the type of change to be created
 	 * @param elements the elements affected by the change
 	 */
-	public synchronized void enqueue(int type, Object[] elements) {
+	public void enqueue(int type, Object[] elements) {
 		enqueue(new Change(type, elements));
 	}
 
@@ -97,40 +98,36 @@ final class ChangeQueue {
 	 * Add the specified change to the queue
 	 * @param toQueue the change to be added
 	 */
-	public synchronized void enqueue(Change toQueue) {
+	public void enqueue(Change toQueue) {
 		// A SET event makes all previous adds, removes, and sets redundant... so remove
-		// them from the queue
+		// them from the queue. Changes that are dequeued concurrently are simply
+		// processed before the SET, which discards their effect anyway.
 		if (toQueue.type == SET) {
-			LinkedList newQueue = new LinkedList();
 			for (Iterator iter = queue.iterator(); iter.hasNext();) {
 				Change next = (Change) iter.next();
 
 				if (next.getType() == ADD || next.getType() == REMOVE || next.getType() == SET) {
-					continue;
+					iter.remove();
 				}
-
-				newQueue.add(next);
 			}
-			queue = newQueue;
 		}
 
-		queue.add(toQueue);
+		queue.offer(toQueue);
 	}
 
 	/**
 	 * Remove the first change from the queue.
-	 * @return the first change
+	 * @return the first change, or <code>null</code> if the queue is empty
 	 */
-	public synchronized Change dequeue() {
-		Change result = (Change)queue.removeFirst();
-		return result;
+	public Change dequeue() {
+		return (Change) queue.poll();
 	}
 
 	/**
 	 * Return whether the queue is empty
 	 * @return <code>true</code> if empty, <code>false</code> otherwise
 	 */
-	public synchronized boolean isEmpty() {
+	public boolean isEmpty() {
 		return queue.isEmpty();
 	}
 }
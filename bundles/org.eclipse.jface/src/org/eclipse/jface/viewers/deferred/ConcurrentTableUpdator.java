@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2006 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -78,6 +78,18 @@ package org.eclipse.jface.viewers.deferred;
      */
     private volatile boolean disposed = false;
 
+    /**
+     * Minimum delay (in milliseconds) between two table updates. 0 if the
+     * table should be updated as soon as possible.
+     */
+    private volatile int updateDelay = 0;
+
+    /**
+     * Maximum number of rows that are cleared or replaced in the real table
+     * during one update. 0 if all pending changes are sent in one update.
+     */
+    private volatile int batchSize = 0;
+
     /**
      * Object that holds a start index and length. Allows
      * the visible range to be returned as an atomic operation.
@@ -110,6 +122,21 @@ package org.eclipse.jface.viewers.deferred;
         }
     };
 
+    /**
+     * Runnable that is posted with an asyncExec to schedule a delayed update
+     * to the real table. Display.timerExec may only be called in the UI thread.
+     */
+    Runnable delayedUiRunnable = new Runnable() {
+        @Override
+		public void run() {
+            if(!table.getControl().isDisposed()) {
+				table.getControl().getDisplay().timerExec(updateDelay, uiRunnable);
+			} else {
+				updateScheduled = false;
+			}
+        }
+    };
+
     /**
      * Creates a new table updator
      *
@@ -135,6 +162,31 @@ package org.eclipse.jface.viewers.deferred;
     	return disposed;
     }
 
+    /**
+     * Sets the minimum delay between two updates of the real table. Changes
+     * arriving from the background thread during this delay are sent to the
+     * table in one batch.
+     *
+     * @param millis minimum delay in milliseconds, or 0 to update the table
+     * as soon as possible
+     */
+    public void setUpdateDelay(int millis) {
+    	updateDelay = Math.max(millis, 0);
+    }
+
+    /**
+     * Sets the maximum number of rows that are cleared or replaced in the
+     * real table during one update. The remaining changes are sent in the
+     * following updates, which keeps the UI thread responsive while many
+     * changes arrive from the background thread.
+     *
+     * @param rows maximum number of rows per update, or 0 to send all
+     * pending changes in one update
+     */
+    public void setBatchSize(int rows) {
+    	batchSize = Math.max(rows, 0);
+    }
+
     /**
      * Returns the currently visible range
      *
@@ -270,7 +322,8 @@ package org.eclipse.jface.viewers.deferred;
 	        if (!updateScheduled) {
 	            updateScheduled = true;
 	            if(!table.getControl().isDisposed()) {
-					table.getControl().getDisplay().asyncExec(uiRunnable);
+					table.getControl().getDisplay().asyncExec(
+							updateDelay > 0 ? delayedUiRunnable : uiRunnable);
 				}
 	        }
         }
@@ -314,6 +367,7 @@ package org.eclipse.jface.viewers.deferred;
 	        int start = Math.min(table.getTopIndex(), knownObjects.length);
 	        int length = Math.min(table.getVisibleItemCount(), knownObjects.length - start);
 	        int itemCount = table.getItemCount();
+	        int budget = batchSize > 0 ? batchSize : Integer.MAX_VALUE;
 
         	int oldStart = lastRange.start;
         	int oldLen = lastRange.length;
@@ -337,37 +391,57 @@ package org.eclipse.jface.viewers.deferred;
 					// up-to-date.
 					if (sentObjects[row] == null) {
 						table.clear(row);
+						budget--;
 					}
 				}
 			}
 
 			// Process any pending clears
 	        if (lastClear > 0) {
-				for (int i = 0; i < lastClear; i++) {
-					int row = pendingClears[i];
+	        	int cleared = 0;
+				while (cleared < lastClear && budget > 0) {
+					int row = pendingClears[cleared++];
 
 					if (row < sentObjects.length) {
 						table.clear(row);
+						budget--;
 					}
 				}
 
-				if (pendingClears.length > MIN_FLUSHLENGTH) {
-					pendingClears = new int[MIN_FLUSHLENGTH];
+				if (cleared < lastClear) {
+					// Leave the remaining clears for the next update
+					System.arraycopy(pendingClears, cleared, pendingClears, 0, lastClear - cleared);
+					lastClear -= cleared;
+				} else {
+					if (pendingClears.length > MIN_FLUSHLENGTH) {
+						pendingClears = new int[MIN_FLUSHLENGTH];
+					}
+					lastClear = 0;
 				}
-				lastClear = 0;
 	        }
 
 	        // Send any unsent items in the visible range
+	        boolean complete = lastClear == 0;
 	        for (int idx = 0; idx < length; idx++) {
 	        	int row = idx + start;
 
 	        	Object obj = knownObjects[row];
 	        	if (obj != null && obj != sentObjects[idx]) {
+	        		if (budget <= 0) {
+	        			complete = false;
+	        			break;
+	        		}
 	        		table.replace(obj, row);
 	        		sentObjects[idx] = obj;
+	        		budget--;
 	        	}
 	        }
 
+	        // Send the rest of the changes in the next update
+	        if (!complete) {
+	        	scheduleUIUpdate();
+	        }
+
         }
     }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2013 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,6 +42,8 @@ import org.eclipse.swt.widgets.Table;
 public class DeferredContentProvider implements ILazyContentProvider {
 
 	private int limit = -1;
+	private int updateDelay = 0;
+	private int batchSize = 0;
 	private BackgroundContentProvider provider;
 	private Comparator sortOrder;
 	private IFilter filter = AcceptAllFilter.getInstance();
@@ -132,6 +134,8 @@ public class DeferredContentProvider implements ILazyContentProvider {
 		setProvider(newProvider);
 
 		newProvider.setLimit(limit);
+		newProvider.setUpdateDelay(updateDelay);
+		newProvider.setBatchSize(batchSize);
 		newProvider.setFilter(filter);
 	}
 
@@ -187,6 +191,65 @@ public class DeferredContentProvider implements ILazyContentProvider {
 		return limit;
 	}
 
+	/**
+	 * Sets the minimum delay between two updates of the table. Changes of the
+	 * model that arrive during this delay are sent to the table in a single
+	 * batch, which reduces the time spent in the UI thread for models that
+	 * change at a high rate.
+	 *
+	 * @param millis
+	 *            minimum delay in milliseconds, or 0 to update the table as
+	 *            soon as possible
+	 * @since 3.11
+	 */
+	public void setUpdateDelay(int millis) {
+		this.updateDelay = millis;
+		if (provider != null) {
+			provider.setUpdateDelay(millis);
+		}
+	}
+
+	/**
+	 * Returns the minimum delay between two updates of the table.
+	 *
+	 * @return the minimum delay in milliseconds, 0 if the table is updated as
+	 *         soon as possible
+	 * @since 3.11
+	 */
+	public int getUpdateDelay() {
+		return updateDelay;
+	}
+
+	/**
+	 * Sets the maximum number of rows that are cleared or replaced in the
+	 * table during one update. When more rows have changed, the remaining ones
+	 * are sent in the following updates, so that a burst of changes does not
+	 * block the UI thread for long.
+	 *
+	 * @param rows
+	 *            maximum number of rows per update, or 0 to send all pending
+	 *            changes in one update
+	 * @since 3.11
+	 */
+	public void setBatchSize(int rows) {
+		this.batchSize = rows;
+		if (provider != null) {
+			provider.setBatchSize(rows);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of rows that are cleared or replaced in the
+	 * table during one update.
+	 *
+	 * @return the maximum number of rows per update, 0 if all pending changes
+	 *         are sent in one update
+	 * @since 3.11
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
 	@Override
 	public void updateElement(int element) {
 		if (provider != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,10 +11,16 @@
 
 package org.eclipse.ui.ide.undo;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.eclipse.core.commands.operations.IRetainedStateOperation;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -34,12 +40,17 @@ import org.eclipse.ui.views.markers.internal.MarkerTypesModel;
  * deletion, and updating. Clients may call the public API from a background
  * thread.
  *
+ * The marker descriptions and attributes kept for undo and redo can be saved
+ * and released while the operation waits in the history, since an operation
+ * that deletes many markers can retain a lot of memory.
+ *
  * This class is not intended to be subclassed by clients.
  *
  * @since 3.3
  *
  */
-abstract class AbstractMarkersOperation extends AbstractWorkspaceOperation {
+abstract class AbstractMarkersOperation extends AbstractWorkspaceOperation
+		implements IRetainedStateOperation {
 
 	MarkerDescription[] markerDescriptions;
 
@@ -47,6 +58,15 @@ abstract class AbstractMarkersOperation extends AbstractWorkspaceOperation {
 
 	Map[] attributes;
 
+	/*
+	 * Whether the marker descriptions or the attributes have been saved by
+	 * saveState(OutputStream). The status checks need to know that they are
+	 * available, even though they are not in memory.
+	 */
+	private boolean markerDescriptionsSaved;
+
+	private boolean attributesSaved;
+
 	/**
 	 * Create an AbstractMarkersOperation by specifying a combination of markers
 	 * and attributes or marker descriptions.
@@ -401,7 +421,7 @@ abstract class AbstractMarkersOperation extends AbstractWorkspaceOperation {
 	protected IStatus getMarkerCreationStatus() {
 		if (!resourcesExist()) {
 			return getErrorStatus(UndoMessages.MarkerOperation_ResourceDoesNotExist);
-		} else if (markerDescriptions == null) {
+		} else if (markerDescriptions == null && !markerDescriptionsSaved) {
 			return getErrorStatus(UndoMessages.MarkerOperation_NotEnoughInfo);
 		}
 		return Status.OK_STATUS;
@@ -421,7 +441,7 @@ abstract class AbstractMarkersOperation extends AbstractWorkspaceOperation {
 	protected IStatus getMarkerUpdateStatus() {
 		if (!markersExist()) {
 			return getErrorStatus(UndoMessages.MarkerOperation_MarkerDoesNotExist);
-		} else if (attributes == null) {
+		} else if (attributes == null && !attributesSaved) {
 			return getErrorStatus(UndoMessages.MarkerOperation_NotEnoughInfo);
 		}
 		return Status.OK_STATUS;
@@ -441,6 +461,88 @@ abstract class AbstractMarkersOperation extends AbstractWorkspaceOperation {
 		return getExecuteSchedulingRule();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @since 3.11
+	 */
+	@Override
+	public long getRetainedSize() {
+		long size = 0;
+		if (markerDescriptions != null) {
+			for (int i = 0; i < markerDescriptions.length; i++) {
+				size += markerDescriptions[i].estimateSize();
+			}
+		}
+		if (attributes != null) {
+			for (int i = 0; i < attributes.length; i++) {
+				size += MarkerDescription.estimateSize(attributes[i]);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @since 3.11
+	 */
+	@Override
+	public boolean saveState(OutputStream out) throws IOException {
+		if (markerDescriptions == null && attributes == null) {
+			return false;
+		}
+		DataOutputStream data = new DataOutputStream(out);
+		if (markerDescriptions == null) {
+			data.writeInt(-1);
+		} else {
+			data.writeInt(markerDescriptions.length);
+			for (int i = 0; i < markerDescriptions.length; i++) {
+				markerDescriptions[i].write(data);
+			}
+		}
+		if (attributes == null) {
+			data.writeInt(-1);
+		} else {
+			data.writeInt(attributes.length);
+			for (int i = 0; i < attributes.length; i++) {
+				MarkerDescription.writeAttributes(data, attributes[i]);
+			}
+		}
+		data.flush();
+		markerDescriptionsSaved = markerDescriptions != null;
+		attributesSaved = attributes != null;
+		markerDescriptions = null;
+		attributes = null;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @since 3.11
+	 */
+	@Override
+	public void restoreState(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		int length = data.readInt();
+		if (length >= 0) {
+			markerDescriptions = new MarkerDescription[length];
+			for (int i = 0; i < length; i++) {
+				markerDescriptions[i] = MarkerDescription.read(data);
+			}
+		}
+		length = data.readInt();
+		if (length >= 0) {
+			attributes = new Map[length];
+			for (int i = 0; i < length; i++) {
+				attributes[i] = MarkerDescription.readAttributes(data);
+			}
+		}
+		markerDescriptionsSaved = false;
+		attributesSaved = false;
+	}
+
 	@Override
 	protected void appendDescriptiveText(StringBuffer text) {
 		super.appendDescriptiveText(text);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2010 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -84,14 +84,23 @@ public class CreateFileOperation extends AbstractCreateResourcesOperation {
 	 * Create a file state that represents the desired contents and attributes
 	 * of the file to be created. Used to mimic file history when a resource is
 	 * first created.
+	 *
+	 * The contents are handed out once, when the file is created by the
+	 * execution. Undoing the creation records the contents from the local
+	 * history, so the initial contents, which are often held in memory, need
+	 * not be retained by the undo history.
 	 */
 	private IFileContentDescription createFileContentDescription(
 			final IFile file, final InputStream contents) {
 		return new IFileContentDescription() {
+			private InputStream initialContents = contents;
+
 			@Override
 			public InputStream getContents() {
-				if (contents != null) {
-					return contents;
+				InputStream result = initialContents;
+				initialContents = null;
+				if (result != null) {
+					return result;
 				}
 				return new ByteArrayInputStream(new byte[0]);
 			}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,20 @@
 
 package org.eclipse.ui.internal.ide.undo;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
 
 /**
  * MarkerDescription is a lightweight description of a marker that can be used
@@ -27,6 +36,18 @@ import org.eclipse.core.runtime.CoreException;
  *
  */
 public class MarkerDescription {
+	/*
+	 * Tags of the attribute values written by writeAttributes. Marker
+	 * attributes are strings, integers or booleans.
+	 */
+	private static final int NULL_VALUE = 0;
+
+	private static final int STRING_VALUE = 1;
+
+	private static final int INTEGER_VALUE = 2;
+
+	private static final int BOOLEAN_VALUE = 3;
+
 	String type;
 
 	Map attributes;
@@ -105,4 +126,198 @@ public class MarkerDescription {
 	public String getType() {
 		return type;
 	}
+
+	/**
+	 * Return an estimate of the number of bytes retained by this marker
+	 * description.
+	 *
+	 * @return the estimated number of bytes
+	 */
+	public long estimateSize() {
+		return 48 + estimateSize(type) + estimateSize(attributes);
+	}
+
+	/**
+	 * Write this marker description to the given stream.
+	 *
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if the description could not be written
+	 * @see #read(DataInputStream)
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		writeString(out, type);
+		out.writeInt(resource.getType());
+		writeString(out, resource.getFullPath().toString());
+		writeAttributes(out, attributes);
+	}
+
+	/**
+	 * Read a marker description that was written with
+	 * {@link #write(DataOutputStream)}.
+	 *
+	 * @param in
+	 *            the stream to read from
+	 * @return the marker description
+	 * @throws IOException
+	 *             if the description could not be read
+	 */
+	public static MarkerDescription read(DataInputStream in) throws IOException {
+		String type = readString(in);
+		int resourceType = in.readInt();
+		IPath path = new Path(readString(in));
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource resource;
+		switch (resourceType) {
+		case IResource.FILE:
+			resource = root.getFile(path);
+			break;
+		case IResource.FOLDER:
+			resource = root.getFolder(path);
+			break;
+		case IResource.PROJECT:
+			resource = root.getProject(path.segment(0));
+			break;
+		default:
+			resource = root;
+		}
+		return new MarkerDescription(type, readAttributes(in), resource);
+	}
+
+	/**
+	 * Return an estimate of the number of bytes retained by the given map of
+	 * marker attributes.
+	 *
+	 * @param attributes
+	 *            the attributes, or <code>null</code>
+	 * @return the estimated number of bytes
+	 */
+	public static long estimateSize(Map attributes) {
+		if (attributes == null) {
+			return 0;
+		}
+		long size = 64;
+		for (Iterator iter = attributes.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry entry = (Map.Entry) iter.next();
+			size += 48 + estimateSize((String) entry.getKey());
+			Object value = entry.getValue();
+			if (value instanceof String) {
+				size += estimateSize((String) value);
+			} else if (value != null) {
+				size += 16;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Write the given map of marker attributes to the given stream.
+	 *
+	 * @param out
+	 *            the stream to write to
+	 * @param attributes
+	 *            the attributes, or <code>null</code>
+	 * @throws IOException
+	 *             if the attributes could not be written, or contain values
+	 *             that are not valid marker attribute values
+	 * @see #readAttributes(DataInputStream)
+	 */
+	public static void writeAttributes(DataOutputStream out, Map attributes)
+			throws IOException {
+		if (attributes == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(attributes.size());
+		for (Iterator iter = attributes.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry entry = (Map.Entry) iter.next();
+			writeString(out, (String) entry.getKey());
+			Object value = entry.getValue();
+			if (value == null) {
+				out.writeByte(NULL_VALUE);
+			} else if (value instanceof String) {
+				out.writeByte(STRING_VALUE);
+				writeString(out, (String) value);
+			} else if (value instanceof Integer) {
+				out.writeByte(INTEGER_VALUE);
+				out.writeInt(((Integer) value).intValue());
+			} else if (value instanceof Boolean) {
+				out.writeByte(BOOLEAN_VALUE);
+				out.writeBoolean(((Boolean) value).booleanValue());
+			} else {
+				throw new IOException("Unsupported marker attribute value: " + value); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Read a map of marker attributes that was written with
+	 * {@link #writeAttributes(DataOutputStream, Map)}.
+	 *
+	 * @param in
+	 *            the stream to read from
+	 * @return the attributes, or <code>null</code>
+	 * @throws IOException
+	 *             if the attributes could not be read
+	 */
+	public static Map readAttributes(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		Map attributes = new HashMap(size * 4 / 3 + 1);
+		for (int i = 0; i < size; i++) {
+			String key = readString(in);
+			Object value;
+			switch (in.readByte()) {
+			case NULL_VALUE:
+				value = null;
+				break;
+			case STRING_VALUE:
+				value = readString(in);
+				break;
+			case INTEGER_VALUE:
+				value = new Integer(in.readInt());
+				break;
+			case BOOLEAN_VALUE:
+				value = Boolean.valueOf(in.readBoolean());
+				break;
+			default:
+				throw new IOException("Corrupted marker attributes"); //$NON-NLS-1$
+			}
+			attributes.put(key, value);
+		}
+		return attributes;
+	}
+
+	private static long estimateSize(String string) {
+		return string == null ? 0 : 40 + 2 * string.length();
+	}
+
+	/*
+	 * Strings are written as characters since marker messages may be longer
+	 * than what DataOutputStream#writeUTF supports.
+	 */
+	private static void writeString(DataOutputStream out, String string)
+			throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(string.length());
+		out.writeChars(string);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = in.readChar();
+		}
+		return new String(chars);
+	}
 }
\ No newline at end of file
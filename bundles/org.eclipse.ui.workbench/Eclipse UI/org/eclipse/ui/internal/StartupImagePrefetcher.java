@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.resource.ImageDataCache;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Decodes the images that were created while the previous session started
+ * up, in background threads, before the workbench asks for them. The UI
+ * thread then only has to create the native images.
+ * <p>
+ * While the workbench starts up, the URLs of the images created are recorded
+ * in the {@link ImageDataCache}. After {@link #RECORD_TIME} milliseconds, or
+ * when the workbench shuts down before, they are written to a profile file in
+ * the workbench's state location, one URL per line. Images in bundles are
+ * written as <code>bundle:</code> followed by the symbolic name of the bundle
+ * and the path of the image, since the <code>bundleentry</code> URLs change
+ * from one session to the next.
+ * </p>
+ * <p>
+ * The prefetched image data is only needed until the images have been
+ * created. It is removed from the cache when recording ends, so that it does
+ * not stay in the cache for the rest of the session.
+ * </p>
+ *
+ * @since 3.107
+ */
+public final class StartupImagePrefetcher {
+
+	/**
+	 * How long images are recorded after startup, in milliseconds.
+	 */
+	static final long RECORD_TIME = 20000;
+
+	private static final String PROFILE_FILE = "startupImages.txt"; //$NON-NLS-1$
+
+	private static final String BUNDLE_PREFIX = "bundle:"; //$NON-NLS-1$
+
+	private static final String BUNDLE_ENTRY_PROTOCOL = "bundleentry"; //$NON-NLS-1$
+
+	private static Job recordJob;
+
+	private static Job prefetchJob;
+
+	/**
+	 * The descriptors whose image data has been prefetched, or
+	 * <code>null</code> if not prefetching. Guarded by the class.
+	 */
+	private static List<ImageDescriptor> prefetched;
+
+	private StartupImagePrefetcher() {
+		// not to be instantiated
+	}
+
+	/**
+	 * Prefetches the images of the previous session, and starts recording the
+	 * images of this one.
+	 */
+	static synchronized void start() {
+		final File profile = getProfile();
+		if (profile == null || recordJob != null) {
+			return;
+		}
+		prefetched = new ArrayList<>();
+		prefetchJob = new Job("Prefetch startup images") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				prefetch(profile, monitor);
+				return Status.OK_STATUS;
+			}
+		};
+		prefetchJob.setSystem(true);
+		prefetchJob.setPriority(Job.SHORT);
+		prefetchJob.schedule();
+
+		ImageDataCache.getDefault().startRecording();
+		recordJob = new Job("Record startup images") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				save(profile);
+				endPrefetch();
+				return Status.OK_STATUS;
+			}
+		};
+		recordJob.setSystem(true);
+		recordJob.schedule(RECORD_TIME);
+	}
+
+	/**
+	 * Saves the images recorded so far, if the workbench shuts down before
+	 * recording is done.
+	 */
+	static synchronized void stop() {
+		if (recordJob != null && recordJob.cancel()) {
+			save(getProfile());
+		}
+		recordJob = null;
+		endPrefetch();
+	}
+
+	/**
+	 * Stops prefetching and removes the prefetched image data from the cache.
+	 */
+	private static synchronized void endPrefetch() {
+		if (prefetchJob != null) {
+			prefetchJob.cancel();
+			prefetchJob = null;
+		}
+		if (prefetched != null) {
+			ImageDataCache cache = ImageDataCache.getDefault();
+			for (ImageDescriptor descriptor : prefetched) {
+				cache.remove(descriptor);
+			}
+			prefetched = null;
+		}
+	}
+
+	/**
+	 * Hands the image to the cache, unless prefetching has ended.
+	 *
+	 * @return whether prefetching goes on
+	 */
+	private static synchronized boolean prefetchImage(ImageDescriptor descriptor) {
+		if (prefetched == null) {
+			return false;
+		}
+		prefetched.add(descriptor);
+		ImageDataCache.getDefault().prefetch(descriptor);
+		return true;
+	}
+
+	private static File getProfile() {
+		if (WorkbenchPlugin.getDefault() == null) {
+			return null;
+		}
+		IPath location = WorkbenchPlugin.getDefault().getDataLocation();
+		if (location == null) {
+			return null;
+		}
+		return location.append(PROFILE_FILE).toFile();
+	}
+
+	/**
+	 * Reads the profile and hands its images to the cache, which decodes them
+	 * in parallel.
+	 */
+	static void prefetch(File profile, IProgressMonitor monitor) {
+		List<String> entries = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(profile), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				entries.add(line);
+			}
+		} catch (FileNotFoundException e) {
+			// first session
+			return;
+		} catch (IOException e) {
+			WorkbenchPlugin.log(e);
+			return;
+		}
+		for (String entry : entries) {
+			if (monitor.isCanceled()) {
+				return;
+			}
+			URL url = toURL(entry);
+			if (url != null && !prefetchImage(ImageDescriptor.createFromURL(url))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Writes the images recorded since the workbench started to the profile.
+	 */
+	static void save(File profile) {
+		URL[] urls = ImageDataCache.getDefault().stopRecording();
+		if (profile == null || urls.length == 0) {
+			return;
+		}
+		try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(profile), StandardCharsets.UTF_8))) {
+			for (URL url : urls) {
+				String entry = toEntry(url);
+				if (entry != null) {
+					writer.write(entry);
+					writer.newLine();
+				}
+			}
+		} catch (IOException e) {
+			WorkbenchPlugin.log(e);
+		}
+	}
+
+	/**
+	 * @param url
+	 *            the URL of an image
+	 * @return the line of the profile for the URL, or <code>null</code> if
+	 *         the URL cannot be written
+	 */
+	public static String toEntry(URL url) {
+		if (!BUNDLE_ENTRY_PROTOCOL.equals(url.getProtocol())) {
+			return url.toExternalForm();
+		}
+		// the host is the bundle id, followed by the framework
+		String host = url.getHost();
+		int dot = host.indexOf('.');
+		try {
+			long id = Long.parseLong(dot == -1 ? host : host.substring(0, dot));
+			BundleContext context = WorkbenchPlugin.getDefault().getBundleContext();
+			Bundle bundle = context == null ? null : context.getBundle(id);
+			if (bundle == null || bundle.getSymbolicName() == null) {
+				return null;
+			}
+			return BUNDLE_PREFIX + bundle.getSymbolicName() + url.getPath();
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param entry
+	 *            a line of the profile
+	 * @return the URL for the line of the profile, or <code>null</code> if
+	 *         the image no longer exists
+	 */
+	public static URL toURL(String entry) {
+		if (entry.startsWith(BUNDLE_PREFIX)) {
+			int slash = entry.indexOf('/', BUNDLE_PREFIX.length());
+			if (slash == -1) {
+				return null;
+			}
+			Bundle bundle = Platform.getBundle(entry.substring(BUNDLE_PREFIX.length(), slash));
+			if (bundle == null) {
+				return null;
+			}
+			return bundle.getEntry(entry.substring(slash));
+		}
+		try {
+			return new URL(entry);
+		} catch (MalformedURLException e) {
+			return null;
+		}
+	}
+}
@@ -1591,6 +1591,9 @@ public final class Workbench extends EventManager implements IWorkbench,
 		// Set up the JFace preference store
 		JFaceUtil.initializeJFacePreferences();
 
+		// start decoding the images the last session needed early on
+		StartupImagePrefetcher.start();
+
 		// create workbench window manager
 		// windowManager = new WindowManager();
 		// TODO compat: I've removed the window manager, now what
@@ -3153,6 +3156,7 @@ UIEvents.Context.TOPIC_CONTEXT,
 		workbenchListeners.clear();
 
 		cancelEarlyStartup();
+		StartupImagePrefetcher.stop();
 		if (workbenchService != null)
 			workbenchService.unregister();
 		workbenchService = null;
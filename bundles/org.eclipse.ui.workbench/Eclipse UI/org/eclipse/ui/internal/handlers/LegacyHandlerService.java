@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2014 IBM Corporation and others.
+ * Copyright (c) 2010, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,8 +20,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.CommandManager;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.HandlerEvent;
 import org.eclipse.core.commands.IHandler;
 import org.eclipse.core.commands.NotEnabledException;
 import org.eclipse.core.commands.NotHandledException;
@@ -166,13 +168,50 @@ public class LegacyHandlerService implements IHandlerService {
 		addHandlerActivation(activation);
 		EHandlerService hs = context.get(EHandlerService.class);
 		hs.activateHandler(cmdId, new HandlerSelectionFunction(cmdId));
-		boolean handledChanged = handled != command.isHandled();
-		boolean enabledChanged = enabled != command.isEnabled();
+		fireHandlerChanged(command, handled != command.isHandled(),
+				enabled != command.isEnabled());
+		return activation;
+	}
+
+	/**
+	 * Tells the listeners of a command that the handler which is active for it
+	 * has changed. The event goes through the command, so it is merged with
+	 * the other changes of the command while its manager defers updates.
+	 *
+	 * @param command
+	 *            the command whose handler activations have changed
+	 * @param handledChanged
+	 *            whether the handled state of the command has changed
+	 * @param enabledChanged
+	 *            whether the enabled state of the command has changed
+	 */
+	private static void fireHandlerChanged(Command command, boolean handledChanged,
+			boolean enabledChanged) {
 		if (handledChanged || enabledChanged) {
-			// IHandler proxy = command.getHandler();
-			// TODO do we need to fire a handler changed event?
+			IHandler handler = command.getHandler();
+			if (handler instanceof HandlerServiceHandler) {
+				((HandlerServiceHandler) handler).fireHandlerChanged(new HandlerEvent(handler,
+						enabledChanged, handledChanged));
+			}
+		}
+	}
+
+	/**
+	 * Starts or ends a burst of handler activations, during which the commands
+	 * send one notification each.
+	 *
+	 * @param context
+	 *            the context of the command manager
+	 * @param defer
+	 *            <code>true</code> when the burst starts; <code>false</code>
+	 *            when it ends
+	 * @see CommandManager#deferUpdates(boolean)
+	 */
+	private static void deferUpdates(IEclipseContext context, boolean defer) {
+		CommandManager commandManager = context.get(CommandManager.class);
+		if (commandManager != null) {
+			commandManager.deferUpdates(defer);
 		}
-		return activation;
 	}
 
 	static void addHandlerActivation(HandlerActivation eActivation) {
@@ -303,8 +342,17 @@ public class LegacyHandlerService implements IHandlerService {
 		// null is not allowed, but some people put it anyway :( see bug 326406
 		if (activation != null && activation != systemHandlerActivation) {
 			HandlerActivation eActivation = (HandlerActivation) activation;
+			// the context is gone when its part or window is disposed
+			ECommandService cs = eclipseContext.get(ECommandService.class);
+			Command command = cs != null ? cs.getCommand(eActivation.getCommandId()) : null;
+			boolean handled = command != null && command.isHandled();
+			boolean enabled = command != null && command.isEnabled();
 			eActivation.participating = false;
 			removeHandlerActivation(eActivation);
+			if (command != null) {
+				fireHandlerChanged(command, handled != command.isHandled(),
+						enabled != command.isEnabled());
+			}
 		}
 	}
 
@@ -317,8 +365,13 @@ public class LegacyHandlerService implements IHandlerService {
 			((HandlerActivation) array[i]).participating = false;
 		}
 
-		for (int i = 0; i < array.length; i++) {
-			deactivateHandler((IHandlerActivation) array[i]);
+		deferUpdates(eclipseContext, true);
+		try {
+			for (int i = 0; i < array.length; i++) {
+				deactivateHandler((IHandlerActivation) array[i]);
+			}
+		} finally {
+			deferUpdates(eclipseContext, false);
 		}
 	}
 
@@ -535,8 +588,13 @@ public class LegacyHandlerService implements IHandlerService {
 
 	@Override
 	public void readRegistry() {
-		readDefaultHandlers();
-		readHandlers();
+		deferUpdates(eclipseContext, true);
+		try {
+			readDefaultHandlers();
+			readHandlers();
+		} finally {
+			deferUpdates(eclipseContext, false);
+		}
 	}
 
 	private void readHandlers() {
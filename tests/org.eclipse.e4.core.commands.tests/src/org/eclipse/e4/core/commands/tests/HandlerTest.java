@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2014 IBM Corporation and others.
+ * Copyright (c) 2009, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,7 @@ import java.util.Map;
 import javax.inject.Named;
 
 import org.eclipse.core.commands.Category;
+import org.eclipse.core.commands.Command;
 import org.eclipse.core.commands.IParameter;
 import org.eclipse.core.commands.IParameterValues;
 import org.eclipse.core.commands.ParameterValuesException;
@@ -301,6 +302,20 @@ public class HandlerTest {
 		assertEquals(null, wHS.executeHandler(nonparameterizedCmd));
 	}
 
+	@Test
+	public void testIsEnabledFollowsContextChanges() {
+		ECommandService cs = workbenchContext.get(ECommandService.class);
+		EHandlerService wHS = workbenchContext.get(EHandlerService.class);
+		ParameterizedCommand cmd = cs.createCommand(TEST_ID1, null);
+		workbenchContext.set(ACTIVE_INFO_ID, "selection");
+		SelectionChangingHandler handler = new SelectionChangingHandler(cmd.getCommand(), workbenchContext);
+		wHS.activateHandler(TEST_ID1, handler);
+
+		// the handler removes the value that its enablement depends on while
+		// it executes, in the same execution context and active leaf
+		assertEquals("The handler should be asked again", Boolean.FALSE, wHS.executeHandler(cmd));
+	}
+
 	private void defineCommands(IEclipseContext context) {
 		ECommandService cs = workbenchContext.get(ECommandService.class);
 		Category category = cs.defineCategory(TEST_CAT1, "CAT1", null);
@@ -355,4 +370,25 @@ public class HandlerTest {
 			return Boolean.FALSE;
 		}
 	}
+
+	static class SelectionChangingHandler {
+		private Command command;
+		private IEclipseContext context;
+
+		public SelectionChangingHandler(Command command, IEclipseContext context) {
+			this.command = command;
+			this.context = context;
+		}
+
+		@CanExecute
+		public boolean canExecute(@Optional @Named(ACTIVE_INFO_ID) String info) {
+			return info != null;
+		}
+
+		@Execute
+		public Object execute() {
+			context.remove(ACTIVE_INFO_ID);
+			return Boolean.valueOf(command.isEnabled());
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 IBM Corporation and others.
+ * Copyright (c) 2013, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -501,6 +501,46 @@ public class BindingLookupTest {
 		assertEquals(commandMatches, matches);
 	}
 
+	@Test
+	public void testLookupsFollowChanges() {
+		ECommandService cs = (ECommandService) workbenchContext
+				.get(ECommandService.class.getName());
+		ParameterizedCommand cmd = cs.createCommand(TEST_ID1, null);
+		EBindingService bs = (EBindingService) workbenchContext
+				.get(EBindingService.class.getName());
+		TriggerSequence seq = bs.createSequence("CTRL+5 T");
+		TriggerSequence prefix = bs.createSequence("CTRL+5");
+
+		// look up before there is anything to find
+		assertNull(bs.getPerfectMatch(seq));
+		assertFalse(bs.isPartialMatch(prefix));
+
+		Binding db = createDefaultBinding(bs, seq, cmd, ID_DIALOG_AND_WINDOW);
+		bs.activateBinding(db);
+		assertEquals(db, bs.getPerfectMatch(seq));
+		assertTrue(bs.isPartialMatch(prefix));
+
+		bs.deactivateBinding(db);
+		assertNull(bs.getPerfectMatch(seq));
+		assertFalse(bs.isPartialMatch(prefix));
+		assertTrue(bs.getPartialMatches(prefix).isEmpty());
+
+		// a binding in a context that is not active yet
+		Binding wb = createDefaultBinding(bs, seq, cmd, ID_WINDOW);
+		bs.activateBinding(wb);
+		assertNull(bs.getPerfectMatch(seq));
+
+		EContextService es = (EContextService) workbenchContext
+				.get(EContextService.class.getName());
+		es.activateContext(ID_WINDOW);
+		assertEquals(wb, bs.getPerfectMatch(seq));
+		assertTrue(bs.isPartialMatch(prefix));
+
+		es.deactivateContext(ID_WINDOW);
+		assertNull(bs.getPerfectMatch(seq));
+		assertFalse(bs.isPartialMatch(prefix));
+	}
+
 	private Binding createDefaultBinding(EBindingService bs,
 			TriggerSequence sequence, ParameterizedCommand command,
 			String contextId) {
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.beans.BeanProperties;
+import org.eclipse.core.databinding.beans.PojoProperties;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.property.value.IValueProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading and writing bean and POJO properties through value
+ * properties, and through an observable of a bean property.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class BeanPropertyBenchmark {
+
+	/**
+	 * A Java bean with bound properties.
+	 */
+	public static class Bean {
+		private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(
+				this);
+
+		private String name = "name";
+
+		private int count;
+
+		public void addPropertyChangeListener(String propertyName,
+				PropertyChangeListener listener) {
+			changeSupport.addPropertyChangeListener(propertyName, listener);
+		}
+
+		public void removePropertyChangeListener(String propertyName,
+				PropertyChangeListener listener) {
+			changeSupport.removePropertyChangeListener(propertyName, listener);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			changeSupport.firePropertyChange("name", this.name,
+					this.name = name);
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			changeSupport.firePropertyChange("count", this.count,
+					this.count = count);
+		}
+	}
+
+	/**
+	 * A plain object without property change support.
+	 */
+	public static class Pojo {
+		private String name = "name";
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	private final IValueProperty beanName = BeanProperties.value(Bean.class,
+			"name");
+
+	private final IValueProperty beanCount = BeanProperties.value(Bean.class,
+			"count");
+
+	private final IValueProperty pojoName = PojoProperties.value(Pojo.class,
+			"name");
+
+	private final String[] names = { "first", "second" };
+
+	private Bean bean;
+
+	private Pojo pojo;
+
+	private IObservableValue observedName;
+
+	private int counter;
+
+	/**
+	 * Written by the listener, so that its work cannot be optimized away.
+	 */
+	public int events;
+
+	@Setup
+	public void setUp() {
+		bean = new Bean();
+		pojo = new Pojo();
+		observedName = beanName.observe(new HeadlessRealm(), new Bean());
+		observedName.addValueChangeListener(new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+				events++;
+			}
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		observedName.dispose();
+	}
+
+	@Benchmark
+	public Object getBeanProperty() {
+		return beanName.getValue(bean);
+	}
+
+	@Benchmark
+	public void setBeanProperty() {
+		beanName.setValue(bean, names[counter++ & 1]);
+	}
+
+	@Benchmark
+	public void setPrimitiveBeanProperty() {
+		beanCount.setValue(bean, Integer.valueOf(counter++ & 0xff));
+	}
+
+	@Benchmark
+	public Object getPojoProperty() {
+		return pojoName.getValue(pojo);
+	}
+
+	@Benchmark
+	public void setPojoProperty() {
+		pojoName.setValue(pojo, names[counter++ & 1]);
+	}
+
+	/**
+	 * Sets a property of an observed bean, which notifies the observable.
+	 */
+	@Benchmark
+	public void setObservedBeanProperty() {
+		observedName.setValue(names[counter++ & 1]);
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.value.ComputedValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the recalculation of a {@link ComputedValue} with many
+ * dependencies after one of them changed, including the tracking of the
+ * dependencies read by the calculation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ComputedValueBenchmark {
+
+	@Param({ "10", "1000" })
+	public int dependencyCount;
+
+	private WritableValue[] dependencies;
+
+	private ComputedValue sum;
+
+	private WritableValue source;
+
+	private ComputedValue derived;
+
+	private int counter;
+
+	/**
+	 * Written by the listeners, so that their work cannot be optimized away.
+	 */
+	public int events;
+
+	@Setup
+	public void setUp() {
+		final HeadlessRealm realm = new HeadlessRealm();
+		IValueChangeListener listener = new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+				events++;
+			}
+		};
+
+		dependencies = new WritableValue[dependencyCount];
+		for (int i = 0; i < dependencyCount; i++) {
+			dependencies[i] = new WritableValue(realm, Integer.valueOf(i),
+					Integer.class);
+		}
+		sum = new ComputedValue(realm, Integer.class) {
+			@Override
+			protected Object calculate() {
+				int result = 0;
+				for (int i = 0; i < dependencies.length; i++) {
+					result += ((Integer) dependencies[i].getValue()).intValue();
+				}
+				return Integer.valueOf(result);
+			}
+		};
+		sum.addValueChangeListener(listener);
+
+		// a chain whose intermediate value rarely changes
+		source = new WritableValue(realm, Integer.valueOf(100), Integer.class);
+		final ComputedValue clamped = new ComputedValue(realm, Integer.class) {
+			@Override
+			protected Object calculate() {
+				return Integer.valueOf(Math.min(10,
+						((Integer) source.getValue()).intValue()));
+			}
+		};
+		derived = new ComputedValue(realm, Integer.class) {
+			@Override
+			protected Object calculate() {
+				int result = ((Integer) clamped.getValue()).intValue();
+				for (int i = 0; i < dependencies.length; i++) {
+					result += ((Integer) dependencies[i].getValue()).intValue();
+				}
+				return Integer.valueOf(result);
+			}
+		};
+		derived.addValueChangeListener(listener);
+	}
+
+	/**
+	 * Changes one dependency and recalculates.
+	 */
+	@Benchmark
+	public Object recalculate() {
+		WritableValue dependency = dependencies[counter++ % dependencies.length];
+		dependency.setValue(Integer.valueOf(counter));
+		return sum.getValue();
+	}
+
+	/**
+	 * Changes the source of an intermediate computed value, without changing
+	 * the intermediate value.
+	 */
+	@Benchmark
+	public Object unchangedIntermediate() {
+		source.setValue(Integer.valueOf(100 + (counter++ & 1)));
+		return derived.getValue();
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Realm for benchmarks which do not need a display. The realm is current in
+ * the thread which created it, and runnables passed to
+ * {@link #asyncExec(Runnable)} and {@link #timerExec(int, Runnable)} only run
+ * when that thread calls {@link #processEvents()}, so that they are part of
+ * the measured work instead of running on another thread.
+ */
+final class HeadlessRealm extends Realm {
+	private final Thread thread = Thread.currentThread();
+
+	private final LinkedList queue = new LinkedList();
+
+	private final List timers = new ArrayList();
+
+	@Override
+	public boolean isCurrent() {
+		return Thread.currentThread() == thread;
+	}
+
+	@Override
+	public void asyncExec(Runnable runnable) {
+		queue.add(runnable);
+	}
+
+	@Override
+	public void timerExec(int milliseconds, Runnable runnable) {
+		timers.add(new Timer(System.nanoTime() + milliseconds * 1000000L,
+				runnable));
+	}
+
+	/**
+	 * Runs the pending asynchronous runnables and the timers which are due.
+	 */
+	public void processEvents() {
+		long now = System.nanoTime();
+		for (Iterator it = new ArrayList(timers).iterator(); it.hasNext();) {
+			Timer timer = (Timer) it.next();
+			if (timer.deadline - now <= 0) {
+				timers.remove(timer);
+				queue.add(timer.runnable);
+			}
+		}
+		while (!queue.isEmpty()) {
+			((Runnable) queue.removeFirst()).run();
+		}
+	}
+
+	/**
+	 * Makes this realm the default realm of the current thread.
+	 *
+	 * @return the previous default realm
+	 */
+	public Realm makeDefault() {
+		return setDefault(this);
+	}
+
+	/**
+	 * Restores the given default realm.
+	 *
+	 * @param previous
+	 *            the realm returned by {@link #makeDefault()}
+	 */
+	public static void restoreDefault(Realm previous) {
+		setDefault(previous);
+	}
+
+	private static class Timer {
+		final long deadline;
+		final Runnable runnable;
+
+		Timer(long deadline, Runnable runnable) {
+			this.deadline = deadline;
+			this.runnable = runnable;
+		}
+	}
+}
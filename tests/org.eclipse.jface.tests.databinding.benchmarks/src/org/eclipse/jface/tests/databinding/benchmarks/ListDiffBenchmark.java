@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Diffs#computeListDiff(List, List)} for typical changes of
+ * small and large lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ListDiffBenchmark {
+
+	@Param({ "100", "10000", "100000" })
+	public int size;
+
+	/**
+	 * <ul>
+	 * <li><code>edits</code> - one percent of the elements are removed, and as
+	 * many new elements are inserted at random positions</li>
+	 * <li><code>append</code> - ten elements are added at the end</li>
+	 * <li><code>shuffle</code> - all elements are reordered</li>
+	 * <li><code>replace</code> - all elements are replaced by new ones</li>
+	 * </ul>
+	 */
+	@Param({ "edits", "append", "shuffle", "replace" })
+	public String change;
+
+	private List oldList;
+
+	private List newList;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		oldList = new ArrayList(size);
+		for (int i = 0; i < size; i++) {
+			oldList.add("element " + i);
+		}
+		newList = new ArrayList(oldList);
+		if ("edits".equals(change)) {
+			int edits = Math.max(1, size / 100);
+			for (int i = 0; i < edits; i++) {
+				newList.remove(random.nextInt(newList.size()));
+			}
+			for (int i = 0; i < edits; i++) {
+				newList.add(random.nextInt(newList.size() + 1), "inserted "
+						+ i);
+			}
+		} else if ("append".equals(change)) {
+			for (int i = 0; i < 10; i++) {
+				newList.add("appended " + i);
+			}
+		} else if ("shuffle".equals(change)) {
+			Collections.shuffle(newList, random);
+		} else if ("replace".equals(change)) {
+			newList.clear();
+			for (int i = 0; i < size; i++) {
+				newList.add("replacement " + i);
+			}
+		} else {
+			throw new IllegalArgumentException(change);
+		}
+	}
+
+	@Benchmark
+	public ListDiff computeListDiff() {
+		return Diffs.computeListDiff(oldList, newList);
+	}
+}
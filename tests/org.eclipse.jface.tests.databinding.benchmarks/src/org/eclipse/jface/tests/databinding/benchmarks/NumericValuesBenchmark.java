@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.WritableDoubleList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.IObservableDoubleValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableDoubleValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one frame of a dashboard which updates many numeric observables
+ * with a listener each, as with live sensor or market data. At 60 frames per
+ * second, a frame must take well below 16 milliseconds. Boxed
+ * {@link WritableValue}s and {@link WritableList}s are compared with their
+ * primitive specializations, both with plain listeners and with each value
+ * bound to a display value through a {@link DataBindingContext}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx256m" })
+@State(Scope.Thread)
+public class NumericValuesBenchmark {
+
+	@Param({ "10000" })
+	public int size;
+
+	private WritableValue[] boxedValues;
+
+	private WritableDoubleValue[] doubleValues;
+
+	private WritableList boxedList;
+
+	private WritableDoubleList doubleList;
+
+	private WritableValue[] boundBoxedValues;
+
+	private WritableDoubleValue[] boundDoubleValues;
+
+	private HeadlessRealm realm;
+
+	private Realm previousRealm;
+
+	private DataBindingContext dbc;
+
+	private int frame;
+
+	/**
+	 * Written by the listeners, so that their work cannot be optimized away.
+	 */
+	public double total;
+
+	@Setup
+	public void setUp() {
+		realm = new HeadlessRealm();
+		previousRealm = realm.makeDefault();
+
+		IValueChangeListener boxedListener = new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+				total += ((Double) event.diff.getNewValue()).doubleValue();
+			}
+		};
+		IValueChangeListener doubleListener = new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+				total += ((IObservableDoubleValue) event.getObservableValue())
+						.getDoubleValue();
+			}
+		};
+		boxedValues = new WritableValue[size];
+		doubleValues = new WritableDoubleValue[size];
+		for (int i = 0; i < size; i++) {
+			boxedValues[i] = new WritableValue(realm, Double.valueOf(0),
+					Double.class);
+			boxedValues[i].addValueChangeListener(boxedListener);
+			doubleValues[i] = new WritableDoubleValue(realm, 0);
+			doubleValues[i].addValueChangeListener(doubleListener);
+		}
+
+		IListChangeListener listListener = new IListChangeListener() {
+			@Override
+			public void handleListChange(ListChangeEvent event) {
+				total += event.diff.getDifferences().length;
+			}
+		};
+		boxedList = new WritableList(realm);
+		doubleList = new WritableDoubleList(realm);
+		for (int i = 0; i < size; i++) {
+			boxedList.add(Double.valueOf(0));
+			doubleList.addDouble(0);
+		}
+		boxedList.addListChangeListener(listListener);
+		doubleList.addListChangeListener(listListener);
+
+		// one-way bindings from the models to the values the display shows
+		dbc = new DataBindingContext(realm);
+		boundBoxedValues = new WritableValue[size];
+		boundDoubleValues = new WritableDoubleValue[size];
+		for (int i = 0; i < size; i++) {
+			boundBoxedValues[i] = new WritableValue(realm, Double.valueOf(0),
+					Double.class);
+			dbc.bindValue(new WritableValue(realm, null, Double.class),
+					boundBoxedValues[i], new UpdateValueStrategy(
+							UpdateValueStrategy.POLICY_NEVER),
+					new UpdateValueStrategy());
+			boundDoubleValues[i] = new WritableDoubleValue(realm, 0);
+			dbc.bindValue(new WritableValue(realm, null, Double.class),
+					boundDoubleValues[i], new UpdateValueStrategy(
+							UpdateValueStrategy.POLICY_NEVER),
+					new UpdateValueStrategy());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		dbc.dispose();
+		HeadlessRealm.restoreDefault(previousRealm);
+	}
+
+	@Benchmark
+	public void boxedValueFrame() {
+		double offset = ++frame;
+		for (int i = 0; i < boxedValues.length; i++) {
+			boxedValues[i].setValue(Double.valueOf(offset + i));
+		}
+	}
+
+	@Benchmark
+	public void doubleValueFrame() {
+		double offset = ++frame;
+		for (int i = 0; i < doubleValues.length; i++) {
+			doubleValues[i].setDoubleValue(offset + i);
+		}
+	}
+
+	@Benchmark
+	public void boxedListFrame() {
+		double offset = ++frame;
+		for (int i = 0; i < size; i++) {
+			boxedList.set(i, Double.valueOf(offset + i));
+		}
+	}
+
+	@Benchmark
+	public void doubleListFrame() {
+		double offset = ++frame;
+		for (int i = 0; i < size; i++) {
+			doubleList.setDouble(i, offset + i);
+		}
+	}
+
+	@Benchmark
+	public void boxedBindingFrame() {
+		double offset = ++frame;
+		for (int i = 0; i < boundBoxedValues.length; i++) {
+			boundBoxedValues[i].setValue(Double.valueOf(offset + i));
+		}
+		realm.processEvents();
+	}
+
+	@Benchmark
+	public void doubleBindingFrame() {
+		double offset = ++frame;
+		for (int i = 0; i < boundDoubleValues.length; i++) {
+			boundDoubleValues[i].setDoubleValue(offset + i);
+		}
+		realm.processEvents();
+	}
+}
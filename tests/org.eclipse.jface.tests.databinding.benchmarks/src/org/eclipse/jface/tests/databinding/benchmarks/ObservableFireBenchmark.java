@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of firing change events to the listeners of an
+ * observable, and of adding and removing a listener while others are
+ * registered.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ObservableFireBenchmark {
+
+	@Param({ "1", "4", "64" })
+	public int listenerCount;
+
+	private WritableValue value;
+
+	private WritableList list;
+
+	private int counter;
+
+	/**
+	 * Written by the listeners, so that their work cannot be optimized away.
+	 */
+	public int events;
+
+	private IValueChangeListener extraListener;
+
+	@Setup
+	public void setUp() {
+		HeadlessRealm realm = new HeadlessRealm();
+		value = new WritableValue(realm, null, Integer.class);
+		list = new WritableList(realm);
+		for (int i = 0; i < listenerCount; i++) {
+			value.addValueChangeListener(new IValueChangeListener() {
+				@Override
+				public void handleValueChange(ValueChangeEvent event) {
+					events++;
+				}
+			});
+			list.addListChangeListener(new IListChangeListener() {
+				@Override
+				public void handleListChange(ListChangeEvent event) {
+					events++;
+				}
+			});
+		}
+		extraListener = new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+			}
+		};
+	}
+
+	@Benchmark
+	public void fireValueChange() {
+		value.setValue(Integer.valueOf(counter++));
+	}
+
+	@Benchmark
+	public void fireListChange() {
+		if (list.size() < 64) {
+			list.add(Boolean.TRUE);
+		} else {
+			list.clear();
+		}
+	}
+
+	@Benchmark
+	public void addAndRemoveListener() {
+		value.addValueChangeListener(extraListener);
+		value.removeValueChangeListener(extraListener);
+	}
+}
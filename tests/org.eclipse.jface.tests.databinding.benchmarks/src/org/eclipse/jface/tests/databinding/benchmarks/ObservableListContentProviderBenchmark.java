@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.jface.databinding.swt.DisplayRealm;
+import org.eclipse.jface.databinding.viewers.ObservableListContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast an {@link ObservableListContentProvider} applies changes
+ * of its input list to a table. Unlike the other benchmarks, this one needs a
+ * display.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ObservableListContentProviderBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	/**
+	 * <ul>
+	 * <li><code>default</code> - the default refresh threshold</li>
+	 * <li><code>incremental</code> - changes are always applied element by
+	 * element</li>
+	 * </ul>
+	 */
+	@Param({ "default", "incremental" })
+	public String threshold;
+
+	private Display display;
+
+	private Shell shell;
+
+	private TableViewer viewer;
+
+	private WritableList input;
+
+	private int generation;
+
+	@Setup
+	public void setUp() {
+		display = Display.getDefault();
+		shell = new Shell(display);
+		viewer = new TableViewer(shell);
+		ObservableListContentProvider contentProvider = new ObservableListContentProvider();
+		if ("incremental".equals(threshold)) {
+			contentProvider.setRefreshThreshold(Double.POSITIVE_INFINITY);
+		}
+		viewer.setContentProvider(contentProvider);
+		viewer.setLabelProvider(new LabelProvider());
+		input = new WritableList(DisplayRealm.getRealm(display));
+		input.addAll(createElements());
+		viewer.setInput(input);
+		shell.open();
+		processEvents();
+	}
+
+	@TearDown
+	public void tearDown() {
+		shell.dispose();
+		processEvents();
+	}
+
+	/**
+	 * Inserts an element in the middle of the list and removes it again.
+	 */
+	@Benchmark
+	public void insertAndRemove() {
+		Object element = "inserted " + generation++;
+		input.add(size / 2, element);
+		processEvents();
+		input.remove(size / 2);
+		processEvents();
+	}
+
+	/**
+	 * Removes a quarter of the elements in one change and adds them back.
+	 */
+	@Benchmark
+	public void removeRange() {
+		List range = new ArrayList(input.subList(size / 4, size / 2));
+		input.removeAll(range);
+		processEvents();
+		input.addAll(size / 4, range);
+		processEvents();
+	}
+
+	/**
+	 * Replaces all elements, as reloading a model does.
+	 */
+	@Benchmark
+	public void reload() {
+		input.clear();
+		input.addAll(createElements());
+		processEvents();
+	}
+
+	private List createElements() {
+		int first = generation++ * size;
+		List elements = new ArrayList(size);
+		for (int i = 0; i < size; i++) {
+			elements.add("element " + (first + i));
+		}
+		return elements;
+	}
+
+	private void processEvents() {
+		while (display.readAndDispatch()) {
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.observable.Observables;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a change of the source of one of many rate-limited
+ * observables, including the timers which fire in between.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class RateLimitedValueBenchmark {
+
+	private static final int DELAY = 20;
+
+	@Param({ "debounced", "throttled", "sampled" })
+	public String mode;
+
+	@Param({ "1000" })
+	public int valueCount;
+
+	private HeadlessRealm realm;
+
+	private WritableValue[] sources;
+
+	private int counter;
+
+	/**
+	 * Written by the listeners, so that their work cannot be optimized away.
+	 */
+	public int events;
+
+	@Setup
+	public void setUp() {
+		realm = new HeadlessRealm();
+		IValueChangeListener listener = new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+				events++;
+			}
+		};
+		sources = new WritableValue[valueCount];
+		for (int i = 0; i < valueCount; i++) {
+			sources[i] = new WritableValue(realm, Integer.valueOf(0),
+					Integer.class);
+			IObservableValue limited;
+			if ("debounced".equals(mode)) {
+				limited = Observables.observeDebouncedValue(DELAY, sources[i]);
+			} else if ("throttled".equals(mode)) {
+				limited = Observables.observeThrottledValue(DELAY, sources[i]);
+			} else if ("sampled".equals(mode)) {
+				limited = Observables.observeSampledValue(DELAY, sources[i]);
+			} else {
+				throw new IllegalArgumentException(mode);
+			}
+			limited.addValueChangeListener(listener);
+		}
+	}
+
+	@Benchmark
+	public void changeSource() {
+		int index = counter++;
+		sources[index % sources.length].setValue(Integer.valueOf(index));
+		realm.processEvents();
+	}
+}
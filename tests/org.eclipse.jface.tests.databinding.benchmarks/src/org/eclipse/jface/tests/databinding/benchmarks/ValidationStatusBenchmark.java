@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.AggregateValidationStatus;
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.databinding.validation.IValidator;
+import org.eclipse.core.databinding.validation.ValidationStatus;
+import org.eclipse.core.runtime.IStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of keeping an {@link AggregateValidationStatus} up to date
+ * for a form with many bindings, while the user edits one field.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationStatusBenchmark {
+
+	@Param({ "10", "1000" })
+	public int bindingCount;
+
+	@Param({ "merged", "maxSeverity" })
+	public String aggregation;
+
+	/**
+	 * Rejects empty values.
+	 */
+	private static final IValidator NOT_EMPTY = new IValidator() {
+		@Override
+		public IStatus validate(Object value) {
+			if (value == null || ((String) value).length() == 0) {
+				return ValidationStatus.error("empty");
+			}
+			return ValidationStatus.ok();
+		}
+	};
+
+	private Realm previousRealm;
+
+	private DataBindingContext dbc;
+
+	private AggregateValidationStatus status;
+
+	private WritableValue edited;
+
+	private int counter;
+
+	/**
+	 * Written by the status listener, so that its work cannot be optimized
+	 * away.
+	 */
+	public Object lastStatus;
+
+	@Setup
+	public void setUp() {
+		HeadlessRealm realm = new HeadlessRealm();
+		previousRealm = realm.makeDefault();
+		dbc = new DataBindingContext(realm);
+		for (int i = 0; i < bindingCount; i++) {
+			WritableValue target = new WritableValue(realm, "value " + i,
+					String.class);
+			dbc.bindValue(target, new WritableValue(realm, null, String.class),
+					new UpdateValueStrategy().setAfterGetValidator(NOT_EMPTY),
+					null);
+			if (i == bindingCount / 2) {
+				edited = target;
+			}
+		}
+		status = new AggregateValidationStatus(dbc,
+				"merged".equals(aggregation) ? AggregateValidationStatus.MERGED
+						: AggregateValidationStatus.MAX_SEVERITY);
+		status.addValueChangeListener(new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+				lastStatus = status.getValue();
+			}
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		status.dispose();
+		dbc.dispose();
+		HeadlessRealm.restoreDefault(previousRealm);
+	}
+
+	/**
+	 * Changes a valid field to another valid value.
+	 */
+	@Benchmark
+	public Object editValidField() {
+		edited.setValue((counter++ & 1) == 0 ? "a" : "b");
+		return status.getValue();
+	}
+
+	/**
+	 * Changes a field between a valid and an invalid value.
+	 */
+	@Benchmark
+	public Object toggleInvalidField() {
+		edited.setValue((counter++ & 1) == 0 ? "" : "b");
+		return status.getValue();
+	}
+}
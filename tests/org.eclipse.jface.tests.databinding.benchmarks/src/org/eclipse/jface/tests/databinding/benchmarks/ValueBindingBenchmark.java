@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.databinding.benchmarks;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.databinding.validation.IValidator;
+import org.eclipse.core.databinding.validation.ValidationStatus;
+import org.eclipse.core.runtime.IStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of a value binding propagating changes of its
+ * target to its model.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueBindingBenchmark {
+
+	/**
+	 * <ul>
+	 * <li><code>plain</code> - default update strategies</li>
+	 * <li><code>validated</code> - a validator after conversion</li>
+	 * <li><code>async</code> - an asynchronous validator, run by the calling
+	 * thread so that only the overhead of the pipeline is measured</li>
+	 * </ul>
+	 */
+	@Param({ "plain", "validated", "async" })
+	public String strategy;
+
+	private static final IValidator OK_VALIDATOR = new IValidator() {
+		@Override
+		public IStatus validate(Object value) {
+			return ValidationStatus.ok();
+		}
+	};
+
+	private static final Executor DIRECT_EXECUTOR = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private HeadlessRealm realm;
+
+	private Realm previousRealm;
+
+	private DataBindingContext dbc;
+
+	private WritableValue target;
+
+	private final String[] values = new String[1024];
+
+	private int counter;
+
+	@Setup
+	public void setUp() {
+		realm = new HeadlessRealm();
+		previousRealm = realm.makeDefault();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = "value " + i;
+		}
+
+		UpdateValueStrategy targetToModel = new UpdateValueStrategy();
+		if ("validated".equals(strategy)) {
+			targetToModel.setAfterConvertValidator(OK_VALIDATOR);
+		} else if ("async".equals(strategy)) {
+			targetToModel.setAsyncValidator(OK_VALIDATOR, DIRECT_EXECUTOR);
+		}
+		dbc = new DataBindingContext(realm);
+		target = new WritableValue(realm, null, String.class);
+		dbc.bindValue(target, new WritableValue(realm, null, String.class),
+				targetToModel, null);
+	}
+
+	@TearDown
+	public void tearDown() {
+		dbc.dispose();
+		HeadlessRealm.restoreDefault(previousRealm);
+	}
+
+	@Benchmark
+	public void updateModel() {
+		target.setValue(values[counter++ & (values.length - 1)]);
+		realm.processEvents();
+	}
+}
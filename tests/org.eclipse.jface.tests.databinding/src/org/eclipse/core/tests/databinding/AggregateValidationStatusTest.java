@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,8 +13,16 @@ package org.eclipse.core.tests.databinding;
 
 import org.eclipse.core.databinding.AggregateValidationStatus;
 import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.ValidationStatusProvider;
+import org.eclipse.core.databinding.observable.Observables;
 import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
 import org.eclipse.jface.tests.databinding.AbstractSWTTestCase;
 
 /**
@@ -34,4 +42,73 @@ public class AggregateValidationStatusTest extends AbstractSWTTestCase {
 				.getBindings(), AggregateValidationStatus.MAX_SEVERITY);
 		assertEquals(Realm.getDefault(), status.getRealm());
 	}
+
+	public void testMaxSeverity_IgnoresChangesBelowResult() throws Exception {
+		WritableValue error = new WritableValue(ValidationStatus.error("error"),
+				IStatus.class);
+		WritableValue other = new WritableValue(ValidationStatus.ok(),
+				IStatus.class);
+		WritableList providers = new WritableList();
+		providers.add(new StatusProvider(error));
+		providers.add(new StatusProvider(other));
+		AggregateValidationStatus status = new AggregateValidationStatus(
+				providers, AggregateValidationStatus.MAX_SEVERITY);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(status);
+		assertEquals("error", ((IStatus) status.getValue()).getMessage());
+
+		other.setValue(ValidationStatus.warning("warning"));
+		other.setValue(ValidationStatus.ok());
+		assertEquals(0, tracker.count);
+
+		error.setValue(ValidationStatus.ok());
+		assertEquals(1, tracker.count);
+		assertTrue(((IStatus) status.getValue()).isOK());
+
+		other.setValue(ValidationStatus.warning("warning"));
+		assertEquals(2, tracker.count);
+		assertEquals("warning", ((IStatus) status.getValue()).getMessage());
+	}
+
+	public void testMerged_IgnoresChangesBetweenOKStatuses() throws Exception {
+		WritableValue provided = new WritableValue(ValidationStatus.ok(),
+				IStatus.class);
+		WritableList providers = new WritableList();
+		providers.add(new StatusProvider(provided));
+		AggregateValidationStatus status = new AggregateValidationStatus(
+				providers, AggregateValidationStatus.MERGED);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(status);
+		status.getValue();
+
+		provided.setValue(ValidationStatus.ok());
+		assertEquals(0, tracker.count);
+
+		provided.setValue(ValidationStatus.info("info"));
+		assertEquals(1, tracker.count);
+		assertEquals("info", ((IStatus) status.getValue()).getMessage());
+	}
+
+	private static class StatusProvider extends ValidationStatusProvider {
+		private final IObservableValue status;
+
+		StatusProvider(IObservableValue status) {
+			this.status = status;
+		}
+
+		@Override
+		public IObservableValue getValidationStatus() {
+			return status;
+		}
+
+		@Override
+		public IObservableList getTargets() {
+			return Observables.emptyObservableList();
+		}
+
+		@Override
+		public IObservableList getModels() {
+			return Observables.emptyObservableList();
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 Brad Reynolds and others.
+ * Copyright (c) 2006, 2015 Brad Reynolds and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.eclipse.core.databinding.Binding;
 import org.eclipse.core.databinding.DataBindingContext;
@@ -35,7 +36,9 @@ import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.core.internal.databinding.BindingStatus;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+import org.eclipse.swt.widgets.Display;
 
 /**
  * @since 1.1
@@ -419,6 +422,88 @@ public class ValueBindingTest extends AbstractDefaultRealmTestCase {
 		};
 	}
 
+	public void testAsyncValidation_PendingUntilValidated() throws Exception {
+		QueueExecutor executor = new QueueExecutor();
+		Binding binding = dbc.bindValue(target, model,
+				new UpdateValueStrategy().setAsyncValidator(
+						loggingValidator(Status.OK_STATUS), executor), null);
+
+		target.setValue("value");
+		assertNull(model.getValue());
+		assertTrue(ValidationStatus.isPending((IStatus) binding
+				.getValidationStatus().getValue()));
+
+		executor.runAll();
+		processDisplayEvents();
+		assertEquals("value", model.getValue());
+		assertTrue(((IStatus) binding.getValidationStatus().getValue()).isOK());
+	}
+
+	public void testAsyncValidation_SupersededValueIsNotSet() throws Exception {
+		QueueExecutor executor = new QueueExecutor();
+		dbc.bindValue(target, model, new UpdateValueStrategy()
+				.setAsyncValidator(loggingValidator(Status.OK_STATUS),
+						executor), null);
+
+		target.setValue("a");
+		target.setValue("ab");
+		executor.runAll();
+		processDisplayEvents();
+
+		assertEquals("ab", model.getValue());
+		assertEquals(Collections.singletonList("ab"), log);
+	}
+
+	public void testAsyncValidation_ErrorPreventsSet() throws Exception {
+		QueueExecutor executor = new QueueExecutor();
+		Binding binding = dbc.bindValue(target, model,
+				new UpdateValueStrategy().setAsyncValidator(
+						loggingValidator(ValidationStatus.error("taken")),
+						executor), null);
+
+		target.setValue("value");
+		executor.runAll();
+		processDisplayEvents();
+
+		assertNull(model.getValue());
+		IStatus status = (IStatus) binding.getValidationStatus().getValue();
+		assertEquals(IStatus.ERROR, status.getSeverity());
+		assertEquals("taken", status.getMessage());
+	}
+
+	public void testAsyncValidation_DisposeCancelsValidation() throws Exception {
+		QueueExecutor executor = new QueueExecutor();
+		Binding binding = dbc.bindValue(target, model,
+				new UpdateValueStrategy().setAsyncValidator(
+						loggingValidator(Status.OK_STATUS), executor), null);
+
+		target.setValue("value");
+		binding.dispose();
+		executor.runAll();
+		processDisplayEvents();
+
+		assertNull(model.getValue());
+		assertTrue(log.isEmpty());
+	}
+
+	private IValidator loggingValidator(final IStatus status) {
+		return new IValidator() {
+			@Override
+			public IStatus validate(Object value) {
+				synchronized (log) {
+					log.add(value);
+				}
+				return status;
+			}
+		};
+	}
+
+	private static void processDisplayEvents() {
+		Display display = Display.getCurrent();
+		while (display.readAndDispatch()) {
+		}
+	}
+
 	private IValidator cancelValidator() {
 		return new IValidator() {
 			@Override
@@ -428,6 +513,24 @@ public class ValueBindingTest extends AbstractDefaultRealmTestCase {
 		};
 	}
 
+	/**
+	 * Executor which runs its tasks only when asked to.
+	 */
+	private static class QueueExecutor implements Executor {
+		private final List tasks = new ArrayList();
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		void runAll() {
+			while (!tasks.isEmpty()) {
+				((Runnable) tasks.remove(0)).run();
+			}
+		}
+	}
+
 	private static class ObservableValueStub extends AbstractObservableValue {
 		@Override
 		protected Object doGetValue() {
@@ -18,7 +18,9 @@ import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.eclipse.core.databinding.observable.AbstractObservable;
+import org.eclipse.core.databinding.observable.ChangeEvent;
 import org.eclipse.core.databinding.observable.DisposeEvent;
+import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.IDisposeListener;
 import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.IStaleListener;
@@ -234,6 +236,37 @@ public class AbstractObservableTest extends AbstractDefaultRealmTestCase {
 		assertTrue(observable.lastListenerRemoved);
 	}
 
+	public void testAddSameListenerTwice() throws Exception {
+		ChangeEventTracker listener = new ChangeEventTracker();
+		observable.addChangeListener(listener);
+		observable.addChangeListener(listener);
+
+		observable.fireChange();
+		assertEquals(1, listener.count);
+
+		observable.removeChangeListener(listener);
+		assertFalse(observable.hasListeners());
+	}
+
+	public void testRemoveListenerDuringFire() throws Exception {
+		final ChangeEventTracker listener2 = new ChangeEventTracker();
+		IChangeListener listener1 = new IChangeListener() {
+			@Override
+			public void handleChange(ChangeEvent event) {
+				observable.removeChangeListener(listener2);
+			}
+		};
+		observable.addChangeListener(listener1);
+		observable.addChangeListener(listener2);
+
+		// listeners are notified from a snapshot taken before the removal
+		observable.fireChange();
+		assertEquals(1, listener2.count);
+
+		observable.fireChange();
+		assertEquals(1, listener2.count);
+	}
+
 	public static Test suite() {
 		TestSuite suite = new TestSuite(AbstractObservableTest.class.getName());
 		suite.addTestSuite(AbstractObservableTest.class);
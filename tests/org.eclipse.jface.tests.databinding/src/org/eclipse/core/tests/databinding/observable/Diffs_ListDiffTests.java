@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2008 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,7 +14,9 @@ package org.eclipse.core.tests.databinding.observable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import junit.framework.TestCase;
 
@@ -253,6 +255,68 @@ public class Diffs_ListDiffTests extends TestCase {
 				Arrays.asList(new Object[] { "c", "a", "b" }));
 	}
 
+	public void testAcceptReplaceAfterAddAtHigherPosition() {
+		ListDiff diff = Diffs.createListDiff(new ListDiffEntry[] {
+				Diffs.createListDiffEntry(1, true, "c"),
+				Diffs.createListDiffEntry(0, false, "a") });
+		List<Object> list = new ArrayList<Object>(Arrays.asList(new Object[] { "a", "b" }));
+		diff.applyTo(list);
+		assertEquals(Arrays.asList(new Object[] { "c", "b" }), list);
+	}
+
+	public void testComputeListDiff_LargeListFewEdits() {
+		List<Object> oldList = largeList(100000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		newList.remove(50000);
+		newList.add(20000, "inserted");
+		newList.set(90000, "replaced");
+
+		ListDiff diff = Diffs.computeListDiff(oldList, newList);
+		assertEquals(4, diff.getDifferences().length);
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeListManyEdits() {
+		List<Object> oldList = largeList(100000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		Random random = new Random(0);
+		for (int i = 0; i < 10000; i++) {
+			int index = random.nextInt(newList.size());
+			if (random.nextBoolean()) {
+				newList.remove(index);
+			} else {
+				newList.add(index, "inserted" + i);
+			}
+		}
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeListReversed() {
+		List<Object> oldList = largeList(10000);
+		List<Object> newList = new ArrayList<Object>(oldList);
+		Collections.reverse(newList);
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeListWithDuplicates() {
+		Random random = new Random(0);
+		List<Object> oldList = new ArrayList<Object>();
+		List<Object> newList = new ArrayList<Object>();
+		for (int i = 0; i < 10000; i++) {
+			oldList.add(random.nextInt(3) == 0 ? null : Integer.valueOf(random.nextInt(4)));
+			newList.add(Integer.valueOf(random.nextInt(4)));
+		}
+		checkComputedListDiff(oldList, newList);
+	}
+
+	private static List<Object> largeList(int size) {
+		List<Object> list = new ArrayList<Object>(size);
+		for (int i = 0; i < size; i++) {
+			list.add("element" + i);
+		}
+		return list;
+	}
+
 	private static void checkComputedListDiff(List<Object> oldList, List<Object> newList) {
 		ListDiff diff = Diffs.computeListDiff(oldList, newList);
 
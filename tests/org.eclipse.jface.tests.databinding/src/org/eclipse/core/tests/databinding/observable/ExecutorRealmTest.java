@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.databinding.observable.ExecutorRealm;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+
+/**
+ * @since 1.5
+ */
+public class ExecutorRealmTest extends TestCase {
+	private ExecutorService executor;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		executor.shutdownNow();
+		super.tearDown();
+	}
+
+	public void testRunnablesRunInOrderWithinRealm() throws Exception {
+		final Realm realm = new ExecutorRealm(executor);
+		final List<Integer> order = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		final boolean[] current = new boolean[] { true };
+		final CountDownLatch done = new CountDownLatch(1);
+		for (int i = 0; i < 1000; i++) {
+			final int index = i;
+			realm.asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					current[0] &= realm.isCurrent();
+					order.add(Integer.valueOf(index));
+					if (index == 999) {
+						done.countDown();
+					}
+				}
+			});
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(current[0]);
+		assertFalse(realm.isCurrent());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, order.get(i).intValue());
+		}
+	}
+
+	public void testManyRealmsShareExecutor() throws Exception {
+		int realmCount = 200;
+		final CountDownLatch done = new CountDownLatch(realmCount * 10);
+		final AtomicBoolean overlapped = new AtomicBoolean();
+		for (int i = 0; i < realmCount; i++) {
+			final Realm realm = new ExecutorRealm(executor);
+			final AtomicInteger running = new AtomicInteger();
+			for (int j = 0; j < 10; j++) {
+				realm.asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						if (running.incrementAndGet() != 1) {
+							overlapped.set(true);
+						}
+						running.decrementAndGet();
+						done.countDown();
+					}
+				});
+			}
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertFalse(overlapped.get());
+	}
+
+	public void testTimerExecRunsWithinRealm() throws Exception {
+		final Realm realm = new ExecutorRealm(executor);
+		final boolean[] current = new boolean[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		realm.timerExec(10, new Runnable() {
+			@Override
+			public void run() {
+				current[0] = realm.isCurrent();
+				done.countDown();
+			}
+		});
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(current[0]);
+	}
+
+	public void testCommitPerBatch() throws Exception {
+		final ExecutorRealm realm = new ExecutorRealm(executor);
+		realm.setCommitPerBatch(true);
+		assertTrue(realm.isCommitPerBatch());
+		final WritableValue value = new WritableValue(realm, Integer.valueOf(0),
+				Integer.class);
+		final List<ValueChangeEvent> events = Collections
+				.synchronizedList(new ArrayList<ValueChangeEvent>());
+		final CountDownLatch done = new CountDownLatch(1);
+		final boolean[] inTransaction = new boolean[1];
+		final boolean[] deliveredEarly = new boolean[1];
+		realm.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				value.addValueChangeListener(new IValueChangeListener() {
+					@Override
+					public void handleValueChange(ValueChangeEvent event) {
+						events.add(event);
+						done.countDown();
+					}
+				});
+				inTransaction[0] = realm.isInTransaction();
+				for (int i = 1; i <= 10; i++) {
+					value.setValue(Integer.valueOf(i));
+				}
+				deliveredEarly[0] = !events.isEmpty();
+			}
+		});
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(inTransaction[0]);
+		assertFalse(deliveredEarly[0]);
+		assertEquals(1, events.size());
+		assertEquals(Integer.valueOf(0), events.get(0).diff.getOldValue());
+		assertEquals(Integer.valueOf(10), events.get(0).diff.getNewValue());
+	}
+
+	public void testDefaultExecutor() throws Exception {
+		final Realm realm = new ExecutorRealm();
+		final CountDownLatch done = new CountDownLatch(1);
+		realm.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (realm.isCurrent()) {
+					done.countDown();
+				}
+			}
+		});
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+	}
+}
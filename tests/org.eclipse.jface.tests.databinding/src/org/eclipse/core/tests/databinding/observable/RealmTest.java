@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 Brad Reynolds and others.
+ * Copyright (c) 2006, 2015 Brad Reynolds and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,24 @@
 
 package org.eclipse.core.tests.databinding.observable;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import junit.framework.TestCase;
 
+import org.eclipse.core.databinding.observable.IObservablesListener;
 import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.map.WritableMap;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ChangeEventTracker;
 import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.MapChangeEventTracker;
 import org.eclipse.jface.databinding.conformance.util.RealmTester;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
 
 /**
  * @since 3.2
@@ -35,4 +48,100 @@ public class RealmTest extends TestCase {
 
 		assertEquals("old realm should have been restored", oldRealm, Realm.getDefault());
 	}
+
+	public void testTransactionCoalescesValueChanges() throws Exception {
+		Realm realm = new CurrentRealm(true);
+		WritableValue value = new WritableValue(realm, "a", String.class);
+		ChangeEventTracker changeTracker = ChangeEventTracker.observe(value);
+		ValueChangeEventTracker valueTracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		assertTrue(realm.isInTransaction());
+		value.setValue("b");
+		value.setValue("c");
+		assertEquals(0, changeTracker.count);
+		assertEquals(0, valueTracker.count);
+		realm.commitTransaction();
+
+		assertFalse(realm.isInTransaction());
+		assertEquals(1, changeTracker.count);
+		assertEquals(1, valueTracker.count);
+		assertEquals("a", valueTracker.event.diff.getOldValue());
+		assertEquals("c", valueTracker.event.diff.getNewValue());
+	}
+
+	public void testTransactionDropsEmptyValueChange() throws Exception {
+		Realm realm = new CurrentRealm(true);
+		WritableValue value = new WritableValue(realm, "a", String.class);
+		ChangeEventTracker changeTracker = ChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		value.setValue("b");
+		value.setValue("a");
+		realm.commitTransaction();
+
+		assertEquals(0, changeTracker.count);
+	}
+
+	public void testNestedTransactionDefersUntilOutermostCommit() throws Exception {
+		Realm realm = new CurrentRealm(true);
+		WritableList list = new WritableList(realm, new ArrayList(), null);
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		realm.beginTransaction();
+		list.add("a");
+		realm.beginTransaction();
+		list.add("b");
+		list.remove(0);
+		realm.commitTransaction();
+		assertEquals(0, tracker.count);
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals(3, tracker.event.diff.getDifferences().length);
+		ListDiffEntry[] entries = tracker.event.diff.getDifferences();
+		assertTrue(entries[0].isAddition());
+		assertEquals("a", entries[0].getElement());
+		assertTrue(entries[1].isAddition());
+		assertEquals("b", entries[1].getElement());
+		assertFalse(entries[2].isAddition());
+		assertEquals("a", entries[2].getElement());
+	}
+
+	public void testTransactionCoalescesMapChanges() throws Exception {
+		Realm realm = new CurrentRealm(true);
+		WritableMap map = new WritableMap(realm);
+		map.put("changed", "a");
+		map.put("removed", "a");
+		map.put("unchanged", "a");
+		List<IObservablesListener> queue = new ArrayList<IObservablesListener>();
+		ChangeEventTracker changeTracker = new ChangeEventTracker(queue);
+		map.addChangeListener(changeTracker);
+		MapChangeEventTracker mapTracker = new MapChangeEventTracker(queue);
+		map.addMapChangeListener(mapTracker);
+
+		realm.beginTransaction();
+		map.put("changed", "b");
+		map.put("changed", "c");
+		map.remove("removed");
+		map.put("added", "a");
+		map.put("unchanged", "b");
+		map.put("unchanged", "a");
+		map.put("transient", "a");
+		map.remove("transient");
+		assertEquals(0, queue.size());
+		realm.commitTransaction();
+
+		// the general change event still comes first
+		assertEquals(2, queue.size());
+		assertSame(changeTracker, queue.get(0));
+		assertSame(mapTracker, queue.get(1));
+		assertEquals(Collections.singleton("added"), mapTracker.event.diff.getAddedKeys());
+		assertEquals(Collections.singleton("removed"), mapTracker.event.diff.getRemovedKeys());
+		assertEquals(Collections.singleton("changed"), mapTracker.event.diff.getChangedKeys());
+		assertEquals("a", mapTracker.event.diff.getOldValue("changed"));
+		assertEquals("c", mapTracker.event.diff.getNewValue("changed"));
+		assertEquals("a", mapTracker.event.diff.getOldValue("removed"));
+		assertEquals("a", mapTracker.event.diff.getNewValue("added"));
+	}
 }
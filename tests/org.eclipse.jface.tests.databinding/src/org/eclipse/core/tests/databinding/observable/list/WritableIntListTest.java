@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.list;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.IObservableCollection;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.WritableIntList;
+import org.eclipse.jface.databinding.conformance.MutableObservableListContractTest;
+import org.eclipse.jface.databinding.conformance.delegate.AbstractObservableCollectionContractDelegate;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+
+/**
+ * @since 1.5
+ */
+public class WritableIntListTest extends AbstractDefaultRealmTestCase {
+	private WritableIntList list;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		list = new WritableIntList(Realm.getDefault(), new int[] { 1, 2, 3 });
+	}
+
+	public void testToIntArray() throws Exception {
+		assertTrue(Arrays.equals(new int[] { 1, 2, 3 }, list.toIntArray()));
+	}
+
+	public void testAddIntGrowsList() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			list.addInt(i);
+		}
+		assertEquals(103, list.size());
+		assertEquals(99, list.getInt(102));
+		assertEquals(Integer.valueOf(3), list.get(2));
+	}
+
+	public void testSetInt() throws Exception {
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		list.setInt(1, 5);
+
+		assertEquals(5, list.getInt(1));
+		assertEquals(1, tracker.count);
+		ListDiffEntry[] entries = tracker.event.diff.getDifferences();
+		assertEquals(2, entries.length);
+		assertEquals(Integer.valueOf(2), entries[0].getElement());
+		assertEquals(Integer.valueOf(5), entries[1].getElement());
+	}
+
+	public void testSetIntEqualValueFiresNoEvent() throws Exception {
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		list.setInt(1, 2);
+
+		assertEquals(0, tracker.count);
+	}
+
+	public void testRemove() throws Exception {
+		assertEquals(Integer.valueOf(2), list.remove(1));
+		assertTrue(Arrays.equals(new int[] { 1, 3 }, list.toIntArray()));
+	}
+
+	public void testIteratorFailsAfterStructuralChange() throws Exception {
+		Iterator it = list.iterator();
+		it.next();
+		list.addInt(4);
+		try {
+			it.next();
+			fail("Expected ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// expected
+		}
+
+		it = list.iterator();
+		it.next();
+		list.remove(0);
+		try {
+			it.next();
+			fail("Expected ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// expected
+		}
+	}
+
+	public void testGetIntOutOfBounds() throws Exception {
+		try {
+			list.getInt(3);
+			fail("Expected IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException expected) {
+		}
+	}
+
+	public void testAddNull() throws Exception {
+		try {
+			list.add(null);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+		}
+		assertEquals(3, list.size());
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(WritableIntListTest.class.getName());
+		suite.addTestSuite(WritableIntListTest.class);
+		suite.addTest(MutableObservableListContractTest.suite(new Delegate()));
+		return suite;
+	}
+
+	/* package */static class Delegate extends
+			AbstractObservableCollectionContractDelegate {
+		@Override
+		public Object createElement(IObservableCollection collection) {
+			return Integer.valueOf(collection.size() + 1);
+		}
+
+		@Override
+		public Object getElementType(IObservableCollection collection) {
+			return Integer.TYPE;
+		}
+
+		@Override
+		public IObservableCollection createObservableCollection(Realm realm,
+				final int itemCount) {
+			WritableIntList observable = new WritableIntList(realm);
+
+			for (int i = 0; i < itemCount; i++) {
+				observable.addInt(i);
+			}
+
+			return observable;
+		}
+
+		@Override
+		public void change(IObservable observable) {
+			((WritableIntList) observable).addInt(0);
+		}
+	}
+}
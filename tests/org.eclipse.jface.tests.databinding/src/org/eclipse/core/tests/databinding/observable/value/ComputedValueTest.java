@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,8 +17,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.value.ComputedValue;
 import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
 
 /**
@@ -138,4 +140,57 @@ public class ComputedValueTest extends AbstractDefaultRealmTestCase {
         } catch (UnsupportedOperationException e) {
         }
     }
+
+    public void testUnchangedDependenciesAreNotRehooked() throws Exception {
+        final int[] hookCount = new int[1];
+        final WritableValue value = new WritableValue(new Integer(1), Integer.TYPE) {
+            @Override
+			public synchronized void addChangeListener(IChangeListener listener) {
+                hookCount[0]++;
+                super.addChangeListener(listener);
+            }
+        };
+        ComputedValue cv = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return value.getValue();
+            }
+        };
+        ValueChangeEventTracker.observe(cv);
+        assertEquals(1, hookCount[0]);
+
+        value.setValue(new Integer(2));
+        assertEquals(new Integer(2), cv.getValue());
+        assertEquals("dependency should not have been hooked again", 1, hookCount[0]);
+    }
+
+    public void testRecalculationSkippedWhenComputedDependencyUnchanged() throws Exception {
+        final WritableValue value = new WritableValue(new Integer(1), Integer.TYPE);
+        final ComputedValue parity = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return Boolean.valueOf(((Integer) value.getValue()).intValue() % 2 == 0);
+            }
+        };
+        final int[] calculations = new int[1];
+        ComputedValue label = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                calculations[0]++;
+                return ((Boolean) parity.getValue()).booleanValue() ? "even" : "odd";
+            }
+        };
+        ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(label);
+        assertEquals(1, calculations[0]);
+
+        value.setValue(new Integer(3));
+        assertEquals(1, tracker.count);
+        assertEquals("odd", label.getValue());
+        assertEquals("parity did not change", 1, calculations[0]);
+
+        value.setValue(new Integer(4));
+        assertEquals(2, tracker.count);
+        assertEquals("even", label.getValue());
+        assertEquals(2, calculations[0]);
+    }
 }
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.value;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableDoubleValue;
+import org.eclipse.jface.databinding.conformance.MutableObservableValueContractTest;
+import org.eclipse.jface.databinding.conformance.delegate.AbstractObservableValueContractDelegate;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+
+/**
+ * @since 1.5
+ */
+public class WritableDoubleValueTest extends AbstractDefaultRealmTestCase {
+	public void testSetDoubleValue() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(1.5);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(value);
+
+		value.setDoubleValue(2.5);
+
+		assertEquals(2.5, value.getDoubleValue(), 0);
+		assertEquals(1, tracker.count);
+		assertEquals(Double.valueOf(1.5), tracker.event.diff.getOldValue());
+		assertEquals(Double.valueOf(2.5), tracker.event.diff.getNewValue());
+	}
+
+	public void testSetDoubleValueNaNTwiceFiresOneEvent() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue();
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(value);
+
+		value.setDoubleValue(Double.NaN);
+		value.setDoubleValue(Double.NaN);
+
+		assertEquals(1, tracker.count);
+	}
+
+	public void testSetDoubleValueNegativeZeroFiresEvent() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue();
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(value);
+
+		value.setDoubleValue(-0.0);
+
+		assertEquals(1, tracker.count);
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(WritableDoubleValueTest.class.getName());
+		suite.addTestSuite(WritableDoubleValueTest.class);
+		suite.addTest(MutableObservableValueContractTest.suite(new Delegate()));
+		return suite;
+	}
+
+	/* package */static class Delegate extends
+			AbstractObservableValueContractDelegate {
+		@Override
+		public IObservableValue createObservableValue(Realm realm) {
+			return new WritableDoubleValue(realm, 0);
+		}
+
+		@Override
+		public void change(IObservable observable) {
+			IObservableValue observableValue = (IObservableValue) observable;
+			observableValue.setValue(createValue(observableValue));
+		}
+
+		@Override
+		public Object getValueType(IObservableValue observable) {
+			return Double.TYPE;
+		}
+
+		@Override
+		public Object createValue(IObservableValue observable) {
+			return Double.valueOf(((Double) observable.getValue())
+					.doubleValue() + 1);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.value;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableIntValue;
+import org.eclipse.jface.databinding.conformance.MutableObservableValueContractTest;
+import org.eclipse.jface.databinding.conformance.delegate.AbstractObservableValueContractDelegate;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+
+/**
+ * @since 1.5
+ */
+public class WritableIntValueTest extends AbstractDefaultRealmTestCase {
+	public void testConstructor() throws Exception {
+		WritableIntValue value = new WritableIntValue();
+		assertEquals(0, value.getIntValue());
+		assertEquals(Integer.valueOf(0), value.getValue());
+		assertEquals(Integer.TYPE, value.getValueType());
+		assertEquals(Realm.getDefault(), value.getRealm());
+	}
+
+	public void testSetIntValue() throws Exception {
+		WritableIntValue value = new WritableIntValue(1);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(value);
+
+		value.setIntValue(2);
+
+		assertEquals(2, value.getIntValue());
+		assertEquals(1, tracker.count);
+		assertEquals(Integer.valueOf(1), tracker.event.diff.getOldValue());
+		assertEquals(Integer.valueOf(2), tracker.event.diff.getNewValue());
+	}
+
+	public void testSetIntValueEqualValueFiresNoEvent() throws Exception {
+		WritableIntValue value = new WritableIntValue(1);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(value);
+
+		value.setIntValue(1);
+
+		assertEquals(0, tracker.count);
+	}
+
+	public void testSetValue() throws Exception {
+		WritableIntValue value = new WritableIntValue();
+		value.setValue(Integer.valueOf(3));
+		assertEquals(3, value.getIntValue());
+	}
+
+	public void testSetValueNull() throws Exception {
+		WritableIntValue value = new WritableIntValue();
+		try {
+			value.setValue(null);
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+		}
+		assertEquals(0, value.getIntValue());
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(WritableIntValueTest.class.getName());
+		suite.addTestSuite(WritableIntValueTest.class);
+		suite.addTest(MutableObservableValueContractTest.suite(new Delegate()));
+		return suite;
+	}
+
+	/* package */static class Delegate extends
+			AbstractObservableValueContractDelegate {
+		@Override
+		public IObservableValue createObservableValue(Realm realm) {
+			return new WritableIntValue(realm, 0);
+		}
+
+		@Override
+		public void change(IObservable observable) {
+			IObservableValue observableValue = (IObservableValue) observable;
+			observableValue.setValue(createValue(observableValue));
+		}
+
+		@Override
+		public Object getValueType(IObservableValue observable) {
+			return Integer.TYPE;
+		}
+
+		@Override
+		public Object createValue(IObservableValue observable) {
+			return Integer.valueOf(((Integer) observable.getValue()).intValue() + 1);
+		}
+	}
+}
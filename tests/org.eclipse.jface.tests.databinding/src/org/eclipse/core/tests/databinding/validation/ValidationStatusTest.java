@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,8 @@ import junit.framework.TestCase;
 
 import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
 
 /**
  * @since 1.1
@@ -29,4 +31,19 @@ public class ValidationStatusTest extends TestCase {
 		assertEquals(status1, status2);
 		assertEquals(status1.hashCode(), status2.hashCode());
 	}
+
+	public void testIsPending() throws Exception {
+		assertTrue(ValidationStatus.isPending(ValidationStatus.pending()));
+		assertFalse(ValidationStatus.isPending(ValidationStatus.info("info")));
+		assertFalse(ValidationStatus.isPending(ValidationStatus.ok()));
+		assertFalse(ValidationStatus.isPending(Status.OK_STATUS));
+	}
+
+	public void testIsPending_MultiStatus() throws Exception {
+		MultiStatus status = new MultiStatus("plugin", 0, "", null);
+		status.add(ValidationStatus.ok());
+		assertFalse(ValidationStatus.isPending(status));
+		status.add(ValidationStatus.pending());
+		assertTrue(ValidationStatus.isPending(status));
+	}
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.beans;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.internal.databinding.beans.BeanPropertyAccessor;
+import org.eclipse.core.internal.databinding.beans.BeanPropertyHelper;
+
+/**
+ * @since 1.3
+ */
+public class BeanPropertyAccessorTest extends TestCase {
+	public static class PrimitiveBean {
+		private int count;
+		private long total;
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			if (count < 0) {
+				throw new IllegalArgumentException("negative count");
+			}
+			this.count = count;
+		}
+
+		public long getTotal() {
+			return total;
+		}
+
+		public void setTotal(long total) {
+			this.total = total;
+		}
+	}
+
+	public void testReadWriteObjectProperty() {
+		BeanPropertyAccessor accessor = accessor(Bean.class, "value");
+		Bean bean = new Bean("a");
+		assertEquals("a", accessor.read(bean));
+		accessor.write(bean, "b");
+		assertEquals("b", bean.getValue());
+		accessor.write(bean, null);
+		assertNull(accessor.read(bean));
+	}
+
+	public void testReadWritePrimitiveProperty() {
+		BeanPropertyAccessor accessor = accessor(PrimitiveBean.class, "count");
+		PrimitiveBean bean = new PrimitiveBean();
+		accessor.write(bean, Integer.valueOf(3));
+		assertEquals(3, bean.getCount());
+		assertEquals(Integer.valueOf(3), accessor.read(bean));
+	}
+
+	public void testWriteWithWideningConversion() {
+		BeanPropertyAccessor accessor = accessor(PrimitiveBean.class, "total");
+		PrimitiveBean bean = new PrimitiveBean();
+		accessor.write(bean, Integer.valueOf(7));
+		assertEquals(7L, bean.getTotal());
+	}
+
+	public void testExceptionFromSetterIsRethrown() {
+		BeanPropertyAccessor accessor = accessor(PrimitiveBean.class, "count");
+		try {
+			accessor.write(new PrimitiveBean(), Integer.valueOf(-1));
+			fail("expected RuntimeException");
+		} catch (RuntimeException e) {
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	private static BeanPropertyAccessor accessor(Class<?> beanClass,
+			String propertyName) {
+		return new BeanPropertyAccessor(BeanPropertyHelper.getPropertyDescriptor(
+				beanClass, propertyName));
+	}
+}
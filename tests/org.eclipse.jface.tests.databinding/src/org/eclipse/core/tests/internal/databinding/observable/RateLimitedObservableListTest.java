@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Observables;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+
+/**
+ * Tests for RateLimitedObservableList
+ *
+ * @since 1.5
+ */
+public class RateLimitedObservableListTest extends
+		AbstractDefaultRealmTestCase {
+	private WritableList target;
+	private IObservableList sampled;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		target = new WritableList(new ArrayList(Arrays.asList(new Object[] {
+				"a", "b" })), String.class);
+		sampled = Observables.observeSampledList(1, target);
+	}
+
+	public void testPendingChangesAreNotVisible() {
+		target.add("c");
+		target.remove("a");
+
+		assertTrue(sampled.isStale());
+		assertEquals(Arrays.asList(new Object[] { "a", "b" }), sampled);
+	}
+
+	public void testChangesAreFiredInOneEvent() {
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(sampled);
+		List before = new ArrayList(sampled);
+
+		target.add("c");
+		target.remove("a");
+		target.add(0, "d");
+		RateLimitedObservableValueTest.waitWhileStale(sampled);
+
+		assertEquals(1, tracker.count);
+		assertEquals(target, sampled);
+		tracker.event.diff.applyTo(before);
+		assertEquals(target, before);
+	}
+
+	public void testUnmodifiable() {
+		try {
+			sampled.add("c");
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+}
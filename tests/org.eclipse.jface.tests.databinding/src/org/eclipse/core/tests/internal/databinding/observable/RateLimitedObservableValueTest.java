@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.observable;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.Observables;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.MutableObservableValueContractTest;
+import org.eclipse.jface.databinding.conformance.delegate.AbstractObservableValueContractDelegate;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests for RateLimitedObservableValue
+ *
+ * @since 1.5
+ */
+public class RateLimitedObservableValueTest extends
+		AbstractDefaultRealmTestCase {
+	private WritableValue target;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		target = new WritableValue("old", String.class);
+	}
+
+	public void testDebounce_FiresLastValueOnce() {
+		IObservableValue debounced = Observables.observeDebouncedValue(1,
+				target);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(debounced);
+
+		target.setValue("new1");
+		target.setValue("new2");
+
+		assertTrue(debounced.isStale());
+		assertEquals("old", debounced.getValue());
+		assertEquals(0, tracker.count);
+
+		waitWhileStale(debounced);
+
+		assertEquals(1, tracker.count);
+		assertEquals("old", tracker.event.diff.getOldValue());
+		assertEquals("new2", tracker.event.diff.getNewValue());
+		assertEquals("new2", debounced.getValue());
+	}
+
+	public void testThrottle_FiresFirstChangeImmediately() {
+		IObservableValue throttled = Observables.observeThrottledValue(1000,
+				target);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(throttled);
+
+		target.setValue("new1");
+
+		assertFalse(throttled.isStale());
+		assertEquals(1, tracker.count);
+		assertEquals("new1", throttled.getValue());
+
+		target.setValue("new2");
+
+		assertTrue(throttled.isStale());
+		assertEquals(1, tracker.count);
+		assertEquals("new1", throttled.getValue());
+	}
+
+	public void testSample_FiresChangesAfterDelay() {
+		IObservableValue sampled = Observables.observeSampledValue(1, target);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(sampled);
+
+		target.setValue("new");
+
+		assertTrue(sampled.isStale());
+		assertEquals(0, tracker.count);
+
+		waitWhileStale(sampled);
+
+		assertEquals(1, tracker.count);
+		assertEquals("new", sampled.getValue());
+	}
+
+	public void testSetValue_OverridesPendingChange() {
+		IObservableValue debounced = Observables.observeDebouncedValue(1000,
+				target);
+		target.setValue("pending");
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(debounced);
+
+		debounced.setValue("new");
+
+		assertEquals("new", target.getValue());
+		assertFalse(debounced.isStale());
+		assertEquals(1, tracker.count);
+		assertEquals("old", tracker.event.diff.getOldValue());
+		assertEquals("new", tracker.event.diff.getNewValue());
+	}
+
+	public void testDispose_RemovesListeners() {
+		IObservableValue debounced = Observables.observeDebouncedValue(1,
+				target);
+		debounced.dispose();
+
+		// would fail with an exception if the disposed observable were
+		// still listening
+		target.setValue("new");
+		processDisplayEvents();
+	}
+
+	static void waitWhileStale(IObservable observable) {
+		// Give plenty of time for display to run timer task
+		long timeout = System.currentTimeMillis() + 5000;
+		do {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			processDisplayEvents();
+		} while (observable.isStale() && System.currentTimeMillis() < timeout);
+	}
+
+	private static void processDisplayEvents() {
+		Display display = Display.getCurrent();
+		while (display.readAndDispatch()) {
+		}
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(RateLimitedObservableValueTest.class
+				.getName());
+		suite.addTestSuite(RateLimitedObservableValueTest.class);
+		suite.addTest(MutableObservableValueContractTest
+				.suite(new Delegate()));
+		return suite;
+	}
+
+	static class Delegate extends AbstractObservableValueContractDelegate {
+		@Override
+		public IObservableValue createObservableValue(Realm realm) {
+			return Observables.observeDebouncedValue(0, new WritableValue(
+					realm, null, Object.class));
+		}
+
+		@Override
+		public Object getValueType(IObservableValue observable) {
+			return Object.class;
+		}
+
+		@Override
+		public void change(IObservable observable) {
+			IObservableValue observableValue = (IObservableValue) observable;
+			observableValue.setValue(createValue(observableValue));
+		}
+
+		@Override
+		public Object createValue(IObservableValue observable) {
+			return new Object();
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.databinding.observable.Observables;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+
+/**
+ * Tests for RealmMirrorObservableValue and RealmMirrorObservableList
+ *
+ * @since 1.5
+ */
+public class RealmMirrorObservableTest extends TestCase {
+	private CurrentRealm sourceRealm;
+	private CurrentRealm mirrorRealm;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		sourceRealm = new CurrentRealm(true);
+		// runnables handed over to the mirror realm run once it is current
+		mirrorRealm = new CurrentRealm(false);
+	}
+
+	public void testValue_InitialValueHandedOver() throws Exception {
+		WritableValue source = new WritableValue(sourceRealm, "a", String.class);
+		IObservableValue mirror = Observables.mirrorObservableValue(
+				mirrorRealm, source);
+		assertSame(mirrorRealm, mirror.getRealm());
+		assertEquals(String.class, mirror.getValueType());
+
+		mirrorRealm.setCurrent(true);
+		assertEquals("a", mirror.getValue());
+	}
+
+	public void testValue_LatestValueHandedOver() throws Exception {
+		WritableValue source = new WritableValue(sourceRealm, "a", String.class);
+		IObservableValue mirror = Observables.mirrorObservableValue(
+				mirrorRealm, source);
+		mirrorRealm.setCurrent(true);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(mirror);
+		mirrorRealm.setCurrent(false);
+
+		source.setValue("b");
+		source.setValue("c");
+		assertEquals(0, tracker.count);
+
+		mirrorRealm.setCurrent(true);
+		assertEquals(1, tracker.count);
+		assertEquals("a", tracker.event.diff.getOldValue());
+		assertEquals("c", tracker.event.diff.getNewValue());
+		assertEquals("c", mirror.getValue());
+	}
+
+	public void testValue_Unmodifiable() throws Exception {
+		IObservableValue mirror = Observables.mirrorObservableValue(
+				mirrorRealm, new WritableValue(sourceRealm, "a", String.class));
+		mirrorRealm.setCurrent(true);
+		try {
+			mirror.setValue("b");
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	public void testValue_Dispose() throws Exception {
+		WritableValue source = new WritableValue(sourceRealm, "a", String.class);
+		IObservableValue mirror = Observables.mirrorObservableValue(
+				mirrorRealm, source);
+		mirrorRealm.setCurrent(true);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(mirror);
+
+		mirror.dispose();
+		source.setValue("b");
+		assertEquals(0, tracker.count);
+		assertFalse(source.isDisposed());
+	}
+
+	public void testList_InitialContentsHandedOver() throws Exception {
+		WritableList source = new WritableList(sourceRealm, new ArrayList(
+				Arrays.asList(new Object[] { "a", "b" })), String.class);
+		IObservableList mirror = Observables.mirrorObservableList(mirrorRealm,
+				source);
+		assertEquals(String.class, mirror.getElementType());
+
+		mirrorRealm.setCurrent(true);
+		assertEquals(Arrays.asList(new Object[] { "a", "b" }), mirror);
+	}
+
+	public void testList_ChangesHandedOverAsOneEvent() throws Exception {
+		WritableList source = new WritableList(sourceRealm, new ArrayList(
+				Arrays.asList(new Object[] { "a", "b", "c" })), String.class);
+		IObservableList mirror = Observables.mirrorObservableList(mirrorRealm,
+				source);
+		mirrorRealm.setCurrent(true);
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(mirror);
+		mirrorRealm.setCurrent(false);
+
+		source.remove("a");
+		source.add("d");
+		source.add(0, "e");
+		source.set(1, "f");
+		assertEquals(0, tracker.count);
+
+		mirrorRealm.setCurrent(true);
+		assertEquals(1, tracker.count);
+		assertEquals(source, mirror);
+
+		List simulated = new ArrayList(Arrays.asList(new Object[] { "a", "b",
+				"c" }));
+		tracker.event.diff.applyTo(simulated);
+		assertEquals(source, simulated);
+	}
+
+	public void testList_ChurnHandedOverAsNetChange() throws Exception {
+		WritableList source = new WritableList(sourceRealm, new ArrayList(
+				Arrays.asList(new Object[] { "a", "b" })), String.class);
+		IObservableList mirror = Observables.mirrorObservableList(mirrorRealm,
+				source);
+		mirrorRealm.setCurrent(true);
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(mirror);
+		mirrorRealm.setCurrent(false);
+
+		// reload the same contents a few times
+		for (int i = 0; i < 3; i++) {
+			source.clear();
+			source.addAll(Arrays.asList(new Object[] { "a", "b" }));
+		}
+		source.add("c");
+
+		mirrorRealm.setCurrent(true);
+		assertEquals(1, tracker.count);
+		assertEquals(1, tracker.event.diff.getDifferences().length);
+		assertEquals(source, mirror);
+	}
+
+	public void testList_Unmodifiable() throws Exception {
+		IObservableList mirror = Observables.mirrorObservableList(mirrorRealm,
+				new WritableList(sourceRealm));
+		mirrorRealm.setCurrent(true);
+		try {
+			mirror.add("a");
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	public void testList_Dispose() throws Exception {
+		WritableList source = new WritableList(sourceRealm);
+		IObservableList mirror = Observables.mirrorObservableList(mirrorRealm,
+				source);
+		mirrorRealm.setCurrent(true);
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(mirror);
+
+		mirror.dispose();
+		source.add("a");
+		assertEquals(0, tracker.count);
+	}
+}
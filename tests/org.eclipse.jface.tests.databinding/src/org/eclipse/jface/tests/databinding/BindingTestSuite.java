@@ -48,6 +48,7 @@ import org.eclipse.core.tests.databinding.observable.DiffsTest;
 import org.eclipse.core.tests.databinding.observable.Diffs_ListDiffTests;
 import org.eclipse.core.tests.databinding.observable.ObservableTrackerTest;
 import org.eclipse.core.tests.databinding.observable.ObservablesTest;
+import org.eclipse.core.tests.databinding.observable.ExecutorRealmTest;
 import org.eclipse.core.tests.databinding.observable.RealmTest;
 import org.eclipse.core.tests.databinding.observable.list.AbstractObservableListTest;
 import org.eclipse.core.tests.databinding.observable.list.ComputedListTest;
@@ -56,6 +57,7 @@ import org.eclipse.core.tests.databinding.observable.list.ListDiffTest;
 import org.eclipse.core.tests.databinding.observable.list.ListDiffVisitorTest;
 import org.eclipse.core.tests.databinding.observable.list.MultiListTest;
 import org.eclipse.core.tests.databinding.observable.list.ObservableListTest;
+import org.eclipse.core.tests.databinding.observable.list.WritableIntListTest;
 import org.eclipse.core.tests.databinding.observable.list.WritableListTest;
 import org.eclipse.core.tests.databinding.observable.map.AbstractObservableMapTest;
 import org.eclipse.core.tests.databinding.observable.map.BidiObservableMapTest;
@@ -76,6 +78,8 @@ import org.eclipse.core.tests.databinding.observable.value.DateAndTimeObservable
 import org.eclipse.core.tests.databinding.observable.value.DecoratingObservableValueTest;
 import org.eclipse.core.tests.databinding.observable.value.DuplexingObservableValueTest;
 import org.eclipse.core.tests.databinding.observable.value.SelectObservableValueTest;
+import org.eclipse.core.tests.databinding.observable.value.WritableDoubleValueTest;
+import org.eclipse.core.tests.databinding.observable.value.WritableIntValueTest;
 import org.eclipse.core.tests.databinding.observable.value.WritableValueTest;
 import org.eclipse.core.tests.databinding.util.PolicyTest;
 import org.eclipse.core.tests.databinding.validation.MultiValidatorTest;
@@ -89,6 +93,7 @@ import org.eclipse.core.tests.internal.databinding.QueueTest;
 import org.eclipse.core.tests.internal.databinding.beans.BeanObservableListDecoratorTest;
 import org.eclipse.core.tests.internal.databinding.beans.BeanObservableSetDecoratorTest;
 import org.eclipse.core.tests.internal.databinding.beans.BeanObservableValueDecoratorTest;
+import org.eclipse.core.tests.internal.databinding.beans.BeanPropertyAccessorTest;
 import org.eclipse.core.tests.internal.databinding.beans.BeanPropertyHelperTest;
 import org.eclipse.core.tests.internal.databinding.beans.BeanPropertyListenerSupportTest;
 import org.eclipse.core.tests.internal.databinding.beans.BeanPropertyListenerTest;
@@ -130,6 +135,9 @@ import org.eclipse.core.tests.internal.databinding.observable.EmptyObservableLis
 import org.eclipse.core.tests.internal.databinding.observable.EmptyObservableSetTest;
 import org.eclipse.core.tests.internal.databinding.observable.IdentityObservableSetTest;
 import org.eclipse.core.tests.internal.databinding.observable.MapEntryObservableValueTest;
+import org.eclipse.core.tests.internal.databinding.observable.RateLimitedObservableListTest;
+import org.eclipse.core.tests.internal.databinding.observable.RateLimitedObservableValueTest;
+import org.eclipse.core.tests.internal.databinding.observable.RealmMirrorObservableTest;
 import org.eclipse.core.tests.internal.databinding.observable.StalenessObservableValueTest;
 import org.eclipse.core.tests.internal.databinding.observable.UnmodifiableObservableListTest;
 import org.eclipse.core.tests.internal.databinding.observable.UnmodifiableObservableSetTest;
@@ -280,6 +288,7 @@ public class BindingTestSuite extends TestSuite {
 		addTestSuite(ObservablesTest.class);
 		addTestSuite(ObservableTrackerTest.class);
 		addTestSuite(RealmTest.class);
+		addTestSuite(ExecutorRealmTest.class);
 
 		// org.eclipse.core.tests.databinding.observable.list
 		addTest(AbstractObservableListTest.suite());
@@ -290,6 +299,7 @@ public class BindingTestSuite extends TestSuite {
 		addTest(MultiListTest.suite());
 		addTest(ObservableListTest.suite());
 		addTest(WritableListTest.suite());
+		addTest(WritableIntListTest.suite());
 
 		// org.eclipse.core.tests.databinding.observable.map
 		addTestSuite(AbstractObservableMapTest.class);
@@ -316,6 +326,8 @@ public class BindingTestSuite extends TestSuite {
 		addTestSuite(DuplexingObservableValueTest.class);
 		addTest(SelectObservableValueTest.suite());
 		addTest(WritableValueTest.suite());
+		addTest(WritableIntValueTest.suite());
+		addTest(WritableDoubleValueTest.suite());
 
 		// org.eclipse.core.tests.databinding.validation
 		addTestSuite(MultiValidatorTest.class);
@@ -369,12 +381,16 @@ public class BindingTestSuite extends TestSuite {
 		addTest(JavaBeanObservableValueTest.suite());
 		addTestSuite(JavaBeanPropertyObservableMapTest.class);
 		addTestSuite(BeanPropertyHelperTest.class);
+		addTestSuite(BeanPropertyAccessorTest.class);
 		addTestSuite(BeanPropertyListenerSupportTest.class);
 		addTestSuite(BeanPropertyListenerTest.class);
 
 		// org.eclipse.core.tests.internal.databinding.observable
 		addTest(ConstantObservableValueTest.suite());
 		addTest(DelayedObservableValueTest.suite());
+		addTest(RateLimitedObservableValueTest.suite());
+		addTestSuite(RateLimitedObservableListTest.class);
+		addTestSuite(RealmMirrorObservableTest.class);
 		addTest(EmptyObservableListTest.suite());
 		addTest(EmptyObservableSetTest.suite());
 		addTest(IdentityObservableSetTest.suite());
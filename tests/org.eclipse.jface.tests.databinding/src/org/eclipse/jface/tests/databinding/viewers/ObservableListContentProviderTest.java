@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2009 Matthew Hall and others.
+ * Copyright (c) 2008, 2015 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,11 @@
  ******************************************************************************/
 package org.eclipse.jface.tests.databinding.viewers;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.databinding.observable.Observables;
@@ -21,6 +23,7 @@ import org.eclipse.core.databinding.observable.list.IObservableList;
 import org.eclipse.core.databinding.observable.list.WritableList;
 import org.eclipse.core.databinding.observable.set.IObservableSet;
 import org.eclipse.jface.databinding.swt.DisplayRealm;
+import org.eclipse.jface.databinding.viewers.IViewerUpdater;
 import org.eclipse.jface.databinding.viewers.ObservableListContentProvider;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
 import org.eclipse.jface.viewers.TableViewer;
@@ -109,6 +112,125 @@ public class ObservableListContentProviderTest extends AbstractDefaultRealmTestC
 		assertEquals(Collections.EMPTY_SET, realizedElements);
 	}
 
+	public void testViewerUpdate_LargeDiffRefreshesViewer() {
+		List<Object> elements = createElements(500);
+		input.addAll(elements);
+		assertItems(elements);
+		assertEquals(new HashSet<Object>(elements), contentProvider.getKnownElements());
+
+		List<Object> reloaded = createElements(400);
+		reloaded.add(0, elements.get(0));
+		input.clear();
+		input.addAll(reloaded);
+		assertItems(reloaded);
+		assertEquals(new HashSet<Object>(reloaded), contentProvider.getKnownElements());
+	}
+
+	public void testViewerUpdate_LargeDiffWithRefreshDisabled() {
+		contentProvider.setRefreshThreshold(Double.POSITIVE_INFINITY);
+
+		List<Object> elements = createElements(500);
+		input.addAll(elements);
+		assertItems(elements);
+
+		input.removeAll(elements.subList(100, 400));
+		List<Object> expected = new ArrayList<Object>(elements);
+		expected.subList(100, 400).clear();
+		assertItems(expected);
+		assertEquals(new HashSet<Object>(expected), contentProvider.getKnownElements());
+	}
+
+	public void testViewerUpdate_RemoveRangeWithDuplicates() {
+		Object a = "a";
+		Object b = "b";
+		Object c = "c";
+		Object d = "d";
+		input.addAll(Arrays.asList(new Object[] { a, b, c, a, d, b }));
+
+		input.removeAll(Arrays.asList(new Object[] { b, c, a }));
+		assertItems(Arrays.asList(new Object[] { a, d, b }));
+
+		input.remove(2);
+		input.remove(0);
+		assertItems(Arrays.asList(new Object[] { d }));
+		assertEquals(Collections.singleton(d), contentProvider.getKnownElements());
+	}
+
+	public void testViewerUpdate_LargeDiffGoesThroughExplicitViewerUpdater() {
+		final List<Object> removed = new ArrayList<Object>();
+		contentProvider = new ObservableListContentProvider(new IViewerUpdater() {
+			@Override
+			public void insert(Object element, int position) {
+				viewer.insert(element, position);
+			}
+
+			@Override
+			public void remove(Object element, int position) {
+				removed.add(element);
+				viewer.remove(element);
+			}
+
+			@Override
+			public void replace(Object oldElement, Object newElement, int position) {
+				remove(oldElement, position);
+				insert(newElement, position);
+			}
+
+			@Override
+			public void move(Object element, int oldPosition, int newPosition) {
+				remove(element, oldPosition);
+				insert(element, newPosition);
+			}
+
+			@Override
+			public void add(Object[] elements) {
+				viewer.add(elements);
+			}
+
+			@Override
+			public void remove(Object[] elements) {
+				removed.addAll(Arrays.asList(elements));
+				viewer.remove(elements);
+			}
+		});
+		viewer.setContentProvider(contentProvider);
+		viewer.setInput(input);
+
+		List<Object> elements = createElements(500);
+		input.addAll(elements);
+		input.clear();
+
+		assertItems(Collections.<Object> emptyList());
+		assertEquals(new HashSet<Object>(elements), new HashSet<Object>(removed));
+	}
+
+	public void testSetRefreshThreshold() {
+		assertEquals(ObservableListContentProvider.DEFAULT_REFRESH_THRESHOLD, contentProvider.getRefreshThreshold(),
+				0);
+		contentProvider.setRefreshThreshold(0.75);
+		assertEquals(0.75, contentProvider.getRefreshThreshold(), 0);
+		try {
+			contentProvider.setRefreshThreshold(-1);
+			fail("Negative threshold should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	private static List<Object> createElements(int count) {
+		List<Object> elements = new ArrayList<Object>(count);
+		for (int i = 0; i < count; i++) {
+			elements.add(new Object());
+		}
+		return elements;
+	}
+
+	private void assertItems(List<Object> expected) {
+		assertEquals(expected.size(), viewer.getTable().getItemCount());
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i), viewer.getElementAt(i));
+		}
+	}
+
 	static class Mutable {
 		public int id;
 
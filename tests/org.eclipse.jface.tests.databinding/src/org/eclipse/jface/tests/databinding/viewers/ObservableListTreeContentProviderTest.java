@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 Matthew Hall and others.
+ * Copyright (c) 2007, 2015 Matthew Hall and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -167,6 +167,53 @@ public class ObservableListTreeContentProviderTest extends
 		assertEquals(Collections.EMPTY_SET, realizedElements);
 	}
 
+	public void testViewerUpdate_LargeDiffRefreshesParent() {
+		final IObservableList children = new WritableList();
+		initContentProvider(new IObservableFactory() {
+			@Override
+			public IObservable createObservable(Object target) {
+				return target == input ? children : null;
+			}
+		});
+
+		Object[] elements = new Object[500];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new Object();
+		}
+		children.addAll(Arrays.asList(elements));
+		assertEquals(elements.length, tree.getItemCount());
+		for (int i = 0; i < elements.length; i++) {
+			assertSame(elements[i], tree.getItem(i).getData());
+		}
+
+		children.removeAll(Arrays.asList(elements).subList(0, 400));
+		assertEquals(100, tree.getItemCount());
+		assertSame(elements[400], tree.getItem(0).getData());
+		assertEquals(100, contentProvider.getKnownElements().size());
+	}
+
+	public void testViewerUpdate_LargeDiffWithRefreshDisabled() {
+		final IObservableList children = new WritableList();
+		initContentProvider(new IObservableFactory() {
+			@Override
+			public IObservable createObservable(Object target) {
+				return target == input ? children : null;
+			}
+		});
+		contentProvider.setRefreshThreshold(Double.POSITIVE_INFINITY);
+
+		Object[] elements = new Object[500];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new Object();
+		}
+		children.addAll(Arrays.asList(elements));
+		children.removeAll(Arrays.asList(elements).subList(100, 400));
+		assertEquals(200, tree.getItemCount());
+		assertSame(elements[99], tree.getItem(99).getData());
+		assertSame(elements[400], tree.getItem(100).getData());
+		assertEquals(200, contentProvider.getKnownElements().size());
+	}
+
 	static class Mutable {
 		private int id;
 
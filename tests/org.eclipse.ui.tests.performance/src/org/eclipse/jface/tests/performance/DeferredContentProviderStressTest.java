@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.performance;
+
+import java.util.Comparator;
+
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.deferred.DeferredContentProvider;
+import org.eclipse.jface.viewers.deferred.SetModel;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Pushes one million element changes through an <code>IConcurrentModel</code>
+ * from a background thread and measures the time the UI thread is busy while
+ * the <code>DeferredContentProvider</code> delivers them to the table. Only
+ * the time spent dispatching events and the runnables posted by the provider
+ * is measured, not the time the UI thread sleeps waiting for them.
+ *
+ * @since 3.11
+ */
+public class DeferredContentProviderStressTest extends BasicPerformanceTest {
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final int BATCHES = 500;
+
+	private static final int UPDATE_DELAY = 50;
+
+	private static final int ROWS_PER_UPDATE = 100;
+
+	private Shell shell;
+
+	private TableViewer viewer;
+
+	private SetModel model;
+
+	public DeferredContentProviderStressTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		shell = new Shell(Display.getCurrent());
+		shell.setSize(500, 500);
+		shell.setLayout(new FillLayout());
+		viewer = new TableViewer(shell, SWT.VIRTUAL);
+		DeferredContentProvider contentProvider = new DeferredContentProvider(
+				new Comparator() {
+					@Override
+					public int compare(Object o1, Object o2) {
+						return ((Integer) o1).compareTo((Integer) o2);
+					}
+				});
+		contentProvider.setUpdateDelay(UPDATE_DELAY);
+		contentProvider.setBatchSize(ROWS_PER_UPDATE);
+		viewer.setContentProvider(contentProvider);
+		model = new SetModel();
+		viewer.setInput(model);
+		shell.open();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		shell.dispose();
+		super.doTearDown();
+	}
+
+	/**
+	 * Adds and then updates 500 * 1000 elements in batches from a background
+	 * thread while the UI thread keeps dispatching events, and reports how
+	 * many milliseconds per second the UI thread was busy.
+	 *
+	 * @throws Throwable
+	 */
+	public void testAddAndUpdateMillion() throws Throwable {
+		final Object[][] batches = new Object[BATCHES][];
+		for (int i = 0; i < BATCHES; i++) {
+			Object[] batch = new Object[BATCH_SIZE];
+			for (int j = 0; j < BATCH_SIZE; j++) {
+				batch[j] = new Integer(i * BATCH_SIZE + j);
+			}
+			batches[i] = batch;
+		}
+
+		final Display display = Display.getCurrent();
+		Thread producer = new Thread("Deferred model producer") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				for (int i = 0; i < BATCHES; i++) {
+					model.addAll(batches[i]);
+				}
+				for (int i = 0; i < BATCHES; i++) {
+					model.changeAll(batches[i]);
+				}
+				display.wake();
+			}
+		};
+
+		int expected = BATCHES * BATCH_SIZE;
+		long busyTime = 0;
+		long startTime = System.nanoTime();
+		producer.start();
+		while (true) {
+			// one sample for each burst of work on the UI thread
+			startMeasuring();
+			long burstStart = System.nanoTime();
+			while (display.readAndDispatch()) {
+				// dispatch everything that is pending
+			}
+			busyTime += System.nanoTime() - burstStart;
+			stopMeasuring();
+
+			if (!producer.isAlive()
+					&& viewer.getTable().getItemCount() == expected) {
+				break;
+			}
+			display.sleep();
+		}
+		long totalTime = System.nanoTime() - startTime;
+
+		commitMeasurements();
+		System.out.println(getName() + ": UI thread busy " //$NON-NLS-1$
+				+ busyTime * 1000 / totalTime + " ms per second of updates"); //$NON-NLS-1$
+		assertPerformance();
+		assertEquals(expected, viewer.getTable().getItemCount());
+	}
+}
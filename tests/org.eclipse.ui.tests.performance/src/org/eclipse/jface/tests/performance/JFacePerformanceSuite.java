@@ -48,6 +48,17 @@ public class JFacePerformanceSuite extends FilteredTestSuite {
 		addTest(new ProgressMonitorDialogPerformanceTest("testLongNames"));
 		addTest(new ShrinkingTreeTest("testTreeViewerRefresh"));
 		addTest(new CollatorPerformanceTest("testCollator"));
+		addTest(new DeferredContentProviderStressTest("testAddAndUpdateMillion"));
+		addTest(new SortedCollectionPerformanceTest("testLazyRandom"));
+		addTest(new SortedCollectionPerformanceTest("testBalancedRandom"));
+		addTest(new SortedCollectionPerformanceTest("testLazySorted"));
+		addTest(new SortedCollectionPerformanceTest("testBalancedSorted"));
+		addTest(new SortedCollectionPerformanceTest("testLazyAdversarial"));
+		addTest(new SortedCollectionPerformanceTest("testBalancedAdversarial"));
+		addTest(new ObservableListContentProviderTest("testReloadRefresh"));
+		addTest(new ObservableListContentProviderTest("testReloadIncremental"));
+		addTest(new ObservableListContentProviderTest("testRemoveRangeRefresh"));
+		addTest(new ObservableListContentProviderTest("testRemoveRangeIncremental"));
 
 	}
 }
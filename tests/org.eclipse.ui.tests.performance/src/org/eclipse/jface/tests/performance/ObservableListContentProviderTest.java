@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.jface.databinding.swt.DisplayRealm;
+import org.eclipse.jface.databinding.viewers.ObservableListContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.tests.performance.TestRunnable;
+
+/**
+ * Measures how an <code>ObservableListContentProvider</code> applies large
+ * changes of its input list to a table, once by refreshing the viewer and once
+ * element by element. The results are used to tune the default refresh
+ * threshold of the content provider.
+ *
+ * @since 3.11
+ */
+public class ObservableListContentProviderTest extends ViewerTest {
+
+	private static final int ELEMENT_COUNT = 5000;
+
+	private TableViewer viewer;
+
+	private ObservableListContentProvider contentProvider;
+
+	private WritableList input;
+
+	public ObservableListContentProviderTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Shell shell) {
+		viewer = new TableViewer(shell);
+		contentProvider = new ObservableListContentProvider();
+		viewer.setContentProvider(contentProvider);
+		viewer.setLabelProvider(getLabelProvider());
+		return viewer;
+	}
+
+	@Override
+	protected Object getInitialInput() {
+		input = new WritableList(DisplayRealm.getRealm(Display.getCurrent()));
+		input.addAll(createElements(0));
+		return input;
+	}
+
+	/**
+	 * Replaces all elements of the list, as reloading a model does, and
+	 * applies the changes by refreshing the viewer.
+	 *
+	 * @throws Throwable
+	 */
+	public void testReloadRefresh() throws Throwable {
+		openBrowser();
+		measureReload();
+	}
+
+	/**
+	 * Replaces all elements of the list, as reloading a model does, and
+	 * applies the changes element by element.
+	 *
+	 * @throws Throwable
+	 */
+	public void testReloadIncremental() throws Throwable {
+		openBrowser();
+		contentProvider.setRefreshThreshold(Double.POSITIVE_INFINITY);
+		measureReload();
+	}
+
+	/**
+	 * Removes a quarter of the elements in one change, which is applied
+	 * element by element.
+	 *
+	 * @throws Throwable
+	 */
+	public void testRemoveRangeIncremental() throws Throwable {
+		openBrowser();
+		contentProvider.setRefreshThreshold(Double.POSITIVE_INFINITY);
+		measureRemoveRange();
+	}
+
+	/**
+	 * Removes a quarter of the elements in one change, which is applied by
+	 * refreshing the viewer.
+	 *
+	 * @throws Throwable
+	 */
+	public void testRemoveRangeRefresh() throws Throwable {
+		openBrowser();
+		contentProvider.setRefreshThreshold(0);
+		measureRemoveRange();
+	}
+
+	private void measureReload() throws Throwable {
+		exercise(new TestRunnable() {
+			private int generation;
+
+			@Override
+			public void run() {
+				List replacement = createElements(++generation);
+				List current = new ArrayList(input);
+				startMeasuring();
+				input.removeAll(current);
+				input.addAll(replacement);
+				processEvents();
+				stopMeasuring();
+			}
+		}, MIN_ITERATIONS, slowGTKIterations(),
+				JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureRemoveRange() throws Throwable {
+		exercise(new TestRunnable() {
+			@Override
+			public void run() {
+				List range = new ArrayList(input.subList(ELEMENT_COUNT / 4,
+						ELEMENT_COUNT / 2));
+				startMeasuring();
+				input.removeAll(range);
+				processEvents();
+				stopMeasuring();
+				input.addAll(ELEMENT_COUNT / 4, range);
+			}
+		}, MIN_ITERATIONS, slowGTKIterations(),
+				JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static List createElements(int generation) {
+		List elements = new ArrayList(ELEMENT_COUNT);
+		for (int i = 0; i < ELEMENT_COUNT; i++) {
+			elements.add(new TestElement(generation * ELEMENT_COUNT + i));
+		}
+		return elements;
+	}
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.performance;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import org.eclipse.jface.viewers.deferred.BalancedSortedCollection;
+import org.eclipse.jface.viewers.deferred.LazySortedCollection;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Compares <code>LazySortedCollection</code> and
+ * <code>BalancedSortedCollection</code> on random, sorted and adversarial
+ * insertion orders. Each iteration inserts all elements, queries a window at
+ * a number of positions spread over the collection (as a scrolling virtual
+ * table does) and removes every other element.
+ *
+ * @since 3.11
+ */
+public class SortedCollectionPerformanceTest extends BasicPerformanceTest {
+
+	private static final int COUNT = 100000;
+
+	private static final int WINDOW = 50;
+
+	private static final int QUERIES = 200;
+
+	private static final int ITERATIONS = 10;
+
+	private static final Comparator COMPARATOR = new Comparator() {
+		@Override
+		public int compare(Object o1, Object o2) {
+			return ((Integer) o1).compareTo((Integer) o2);
+		}
+	};
+
+	private Integer[] elements;
+
+	public SortedCollectionPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	public void testLazyRandom() {
+		elements = randomOrder();
+		measureLazy();
+	}
+
+	public void testBalancedRandom() {
+		elements = randomOrder();
+		measureBalanced();
+	}
+
+	public void testLazySorted() {
+		elements = sortedOrder();
+		measureLazy();
+	}
+
+	public void testBalancedSorted() {
+		elements = sortedOrder();
+		measureBalanced();
+	}
+
+	public void testLazyAdversarial() {
+		elements = adversarialOrder();
+		measureLazy();
+	}
+
+	public void testBalancedAdversarial() {
+		elements = adversarialOrder();
+		measureBalanced();
+	}
+
+	private void measureLazy() {
+		Object[] window = new Object[WINDOW];
+		for (int i = 0; i < ITERATIONS; i++) {
+			startMeasuring();
+			LazySortedCollection collection = new LazySortedCollection(COMPARATOR);
+			collection.addAll(elements);
+			for (int q = 0; q < QUERIES; q++) {
+				collection.getRange(window, queryStart(q), true);
+			}
+			for (int j = 0; j < elements.length; j += 2) {
+				collection.remove(elements[j]);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureBalanced() {
+		Object[] window = new Object[WINDOW];
+		for (int i = 0; i < ITERATIONS; i++) {
+			startMeasuring();
+			BalancedSortedCollection collection = new BalancedSortedCollection(COMPARATOR);
+			collection.addAll(elements);
+			for (int q = 0; q < QUERIES; q++) {
+				collection.getRange(window, queryStart(q), true);
+			}
+			for (int j = 0; j < elements.length; j += 2) {
+				collection.remove(elements[j]);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static int queryStart(int query) {
+		return (int) ((long) query * (COUNT - WINDOW) / QUERIES);
+	}
+
+	private static Integer[] sortedOrder() {
+		Integer[] result = new Integer[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			result[i] = new Integer(i);
+		}
+		return result;
+	}
+
+	private static Integer[] randomOrder() {
+		Integer[] result = sortedOrder();
+		Random random = new Random(0);
+		for (int i = result.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Integer tmp = result[i];
+			result[i] = result[j];
+			result[j] = tmp;
+		}
+		return result;
+	}
+
+	/**
+	 * Alternates between the smallest and the largest remaining element, which
+	 * yields maximally skewed partitions for pivot based structures.
+	 */
+	private static Integer[] adversarialOrder() {
+		Integer[] result = new Integer[COUNT];
+		int low = 0;
+		int high = COUNT - 1;
+		for (int i = 0; i < COUNT; i++) {
+			result[i] = new Integer((i % 2 == 0) ? low++ : high--);
+		}
+		return result;
+	}
+}
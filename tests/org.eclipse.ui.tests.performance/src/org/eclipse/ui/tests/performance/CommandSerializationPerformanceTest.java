@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.CommandManager;
+import org.eclipse.core.commands.ParameterizedCommand;
+import org.eclipse.core.commands.common.NotDefinedException;
+import org.eclipse.jface.bindings.Binding;
+import org.eclipse.ui.commands.ICommandService;
+import org.eclipse.ui.keys.IBindingService;
+
+/**
+ * Measures serializing and deserializing the commands of all the key bindings
+ * of the running product, as is done when bindings are persisted and restored.
+ *
+ * @since 3.11
+ */
+public final class CommandSerializationPerformanceTest extends BasicPerformanceTest {
+
+	private final List<ParameterizedCommand> commands = new ArrayList<ParameterizedCommand>();
+
+	private final List<String> serializedCommands = new ArrayList<String>();
+
+	public CommandSerializationPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		IBindingService bindingService = fWorkbench.getService(IBindingService.class);
+		for (Binding binding : bindingService.getBindings()) {
+			ParameterizedCommand command = binding.getParameterizedCommand();
+			if (command != null && command.getCommand().isDefined()) {
+				commands.add(command);
+				serializedCommands.add(command.serialize());
+			}
+		}
+		assertFalse("The product should have key bindings", commands.isEmpty());
+	}
+
+	public void testSerialize() throws Throwable {
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				// new instances, which have not serialized themselves yet
+				List<ParameterizedCommand> copies = new ArrayList<ParameterizedCommand>(commands.size());
+				for (ParameterizedCommand command : commands) {
+					copies.add(new ParameterizedCommand(command.getCommand(), command.getParameterizations()));
+				}
+
+				startMeasuring();
+				for (ParameterizedCommand copy : copies) {
+					copy.serialize();
+				}
+				stopMeasuring();
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testDeserialize() throws Throwable {
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				// a new command manager, which has not deserialized anything yet
+				CommandManager commandManager = createCommandManager();
+
+				startMeasuring();
+				for (String serializedCommand : serializedCommands) {
+					commandManager.deserialize(serializedCommand);
+				}
+				stopMeasuring();
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testDeserializeAgain() throws Throwable {
+		final ICommandService commandService = fWorkbench.getService(ICommandService.class);
+		for (String serializedCommand : serializedCommands) {
+			commandService.deserialize(serializedCommand);
+		}
+
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				startMeasuring();
+				for (String serializedCommand : serializedCommands) {
+					commandService.deserialize(serializedCommand);
+				}
+				stopMeasuring();
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * @return a command manager with the same definitions for the commands
+	 *         of the bindings as the workbench
+	 */
+	private CommandManager createCommandManager() throws NotDefinedException {
+		Map<String, Command> commandsById = new LinkedHashMap<String, Command>();
+		for (ParameterizedCommand command : commands) {
+			commandsById.put(command.getId(), command.getCommand());
+		}
+		CommandManager commandManager = new CommandManager();
+		for (Command command : commandsById.values()) {
+			commandManager.getCommand(command.getId()).define(command.getName(),
+					command.getDescription(), commandManager.getCategory("category"),
+					command.getParameters());
+		}
+		return commandManager;
+	}
+}
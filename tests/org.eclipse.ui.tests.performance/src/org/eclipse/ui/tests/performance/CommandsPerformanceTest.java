@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -471,4 +471,78 @@ public final class CommandsPerformanceTest extends BasicPerformanceTest {
 		commitMeasurements();
 		assertPerformance();
 	}
+
+	/**
+	 * <p>
+	 * Tests how long it takes to switch between sets of active contexts which
+	 * have not been seen before (i.e., cache misses), as happens when editors
+	 * and views are activated. On top of the five thousand bindings of the
+	 * context tree, which stay active, fifty sibling contexts bind twenty
+	 * triggers each. Each switch activates two of the siblings, so that
+	 * successive sets differ in one or two contexts. It measures how long it
+	 * takes to do one thousand such switches.
+	 * </p>
+	 *
+	 * @throws ParseException
+	 *             If "CTRL+F" can't be parsed for some strange reason.
+	 */
+	public final void testContextSwitchLarge() throws ParseException {
+		// Constants
+		final int siblingCount = 50;
+		final int siblingBindingCount = 20;
+		final int switchCount = 1000;
+		final KeySequence keySequence = KeySequence.getInstance("CTRL+F");
+		final IKeyLookup lookup = KeyLookupFactory.getDefault();
+		final int[] modifierKeyTable = { lookup.getCtrl() | lookup.getAlt(),
+				lookup.getCtrl() | lookup.getAlt() | lookup.getShift() };
+
+		// Define the sibling contexts below the root of the context tree.
+		final String[] siblingIds = new String[siblingCount];
+		for (int i = 0; i < siblingCount; i++) {
+			siblingIds[i] = "sibling" + i;
+			contextManager.getContext(siblingIds[i]).define(siblingIds[i],
+					siblingIds[i], "context0");
+		}
+
+		// Add the bindings of the siblings to the existing ones.
+		final Binding[] existingBindings = bindingManager.getBindings();
+		final String schemeId = bindingManager.getActiveScheme().getId();
+		final int bindingCount = siblingCount * siblingBindingCount;
+		final Binding[] bindings = new Binding[existingBindings.length
+				+ bindingCount];
+		System.arraycopy(existingBindings, 0, bindings, 0,
+				existingBindings.length);
+		for (int i = 0; i < bindingCount; i++) {
+			final KeyStroke first = KeyStroke.getInstance(
+					modifierKeyTable[(i / 676) % modifierKeyTable.length],
+					(char) ('A' + (i / 26) % 26));
+			final KeyStroke second = KeyStroke.getInstance(0,
+					(char) ('A' + i % 26));
+			final KeySequence sequence = KeySequence.getInstance(new KeyStroke[] {
+					first, second });
+			final Command command = commandManager.getCommand("siblingCommand"
+					+ i);
+			bindings[existingBindings.length + i] = new KeyBinding(sequence,
+					new ParameterizedCommand(command, null), schemeId,
+					siblingIds[i / siblingBindingCount], null, null, null,
+					Binding.SYSTEM);
+		}
+		bindingManager.setBindings(bindings);
+		final Set baseContextIds = contextManager.getActiveContextIds();
+		bindingManager.getPartialMatches(keySequence);
+
+		// Time how long it takes to switch between context sets.
+		startMeasuring();
+		for (int i = 0; i < switchCount; i++) {
+			final Set contextSet = new HashSet(baseContextIds);
+			contextSet.add(siblingIds[i % siblingCount]);
+			contextSet.add(siblingIds[(i / siblingCount + i + 1)
+					% siblingCount]);
+			contextManager.setActiveContextIds(contextSet);
+			bindingManager.getPartialMatches(keySequence);
+		}
+		stopMeasuring();
+		commitMeasurements();
+		assertPerformance();
+	}
 }
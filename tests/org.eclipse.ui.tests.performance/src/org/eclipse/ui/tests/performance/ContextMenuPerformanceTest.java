@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.MenuManager;
+import org.eclipse.jface.action.Separator;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Menu;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Measures the time it takes to create, update and first show a context menu
+ * with 500 items, with the items created up front and with a lazy menu.
+ *
+ * @since 3.11
+ */
+public final class ContextMenuPerformanceTest extends BasicPerformanceTest {
+
+	private static final int TOP_LEVEL_ITEMS = 100;
+
+	private static final int SUB_MENUS = 20;
+
+	private static final int SUB_MENU_ITEMS = 20;
+
+	public ContextMenuPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	public void testFirstShow() throws Throwable {
+		measureFirstShow(false);
+	}
+
+	public void testLazyFirstShow() throws Throwable {
+		measureFirstShow(true);
+	}
+
+	private void measureFirstShow(boolean lazy) throws Throwable {
+		Shell shell = openTestWindow().getShell();
+
+		for (int j = 0; j < 10; j++) {
+			MenuManager manager = createContextMenuManager();
+			manager.setLazy(lazy);
+			processEvents();
+
+			startMeasuring();
+			// what a part does when it registers its context menu, and what
+			// happens when the user opens it
+			Menu menu = manager.createContextMenu(shell);
+			manager.updateAll(true);
+			menu.notifyListeners(SWT.Show, new Event());
+			stopMeasuring();
+
+			assertEquals(TOP_LEVEL_ITEMS + SUB_MENUS + 1, menu.getItemCount());
+			menu.notifyListeners(SWT.Hide, new Event());
+			manager.dispose();
+			processEvents();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private MenuManager createContextMenuManager() {
+		MenuManager manager = new MenuManager();
+		for (int i = 0; i < TOP_LEVEL_ITEMS; i++) {
+			manager.add(new Action("Action " + i) {
+			});
+		}
+		manager.add(new Separator());
+		for (int i = 0; i < SUB_MENUS; i++) {
+			MenuManager subMenu = new MenuManager("Menu " + i);
+			for (int k = 0; k < SUB_MENU_ITEMS; k++) {
+				subMenu.add(new Action("Action " + i + "." + k) {
+				});
+			}
+			manager.add(subMenu);
+		}
+		return manager;
+	}
+}
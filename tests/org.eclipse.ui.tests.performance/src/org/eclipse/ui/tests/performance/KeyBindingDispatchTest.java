@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.e4.ui.bindings.EBindingService;
+import org.eclipse.jface.bindings.TriggerSequence;
+
+/**
+ * Measures the binding look-ups the key binding dispatcher makes for every key
+ * stroke, against the bindings of a running workbench.
+ *
+ * @since 3.11
+ */
+public final class KeyBindingDispatchTest extends BasicPerformanceTest {
+
+	/**
+	 * Plain typing, a few commonly bound key strokes, and the prefix of a
+	 * multi-stroke binding.
+	 */
+	private static final String[] SEQUENCES = { "A", "B", "SHIFT+C", "1",
+			"SPACE", "CTRL+S", "CTRL+C", "CTRL+V", "CTRL+SHIFT+R", "ALT+SHIFT+X",
+			"ALT+SHIFT+X J", "CTRL+F6" };
+
+	private static final int ROUNDS = 100000;
+
+	public KeyBindingDispatchTest(String testName) {
+		super(testName);
+	}
+
+	public void testKeyStrokeLookup() throws Throwable {
+		openTestWindow();
+		EBindingService bindingService = fWorkbench
+				.getService(EBindingService.class);
+		TriggerSequence[] sequences = new TriggerSequence[SEQUENCES.length];
+		for (int i = 0; i < SEQUENCES.length; i++) {
+			sequences[i] = bindingService.createSequence(SEQUENCES[i]);
+		}
+
+		for (int j = 0; j < 10; j++) {
+			startMeasuring();
+			for (int i = 0; i < ROUNDS; i++) {
+				TriggerSequence sequence = sequences[i % sequences.length];
+				// what KeyBindingDispatcher.press() asks for each key stroke
+				if (!bindingService.isPartialMatch(sequence)) {
+					bindingService.getPerfectMatch(sequence);
+				}
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
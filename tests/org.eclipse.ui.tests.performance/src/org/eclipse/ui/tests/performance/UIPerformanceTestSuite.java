@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,6 +35,9 @@ public class UIPerformanceTestSuite extends FilteredTestSuite {
         addTest(new ViewPerformanceSuite());
         addTest(new EditorPerformanceSuite());
         addTest(new TestSuite(CommandsPerformanceTest.class));
+        addTest(new TestSuite(KeyBindingDispatchTest.class));
+        addTest(new TestSuite(ContextMenuPerformanceTest.class));
+        addTest(new TestSuite(CommandSerializationPerformanceTest.class));
 		addTest(new LabelProviderTestSuite());
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2009 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,7 +17,10 @@ import org.eclipse.jface.action.IContributionItem;
 import org.eclipse.jface.action.IContributionManager;
 import org.eclipse.jface.action.MenuManager;
 import org.eclipse.jface.action.Separator;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Menu;
+import org.eclipse.swt.widgets.MenuItem;
 import org.eclipse.swt.widgets.Shell;
 
 /**
@@ -110,6 +113,97 @@ public class MenuManagerTest extends JFaceActionTest {
     	manager.fill(menu, -1);
     }
 
+    /**
+     * Tests that a lazy context menu and its sub-menus only create their items
+     * when they are shown.
+     *
+     * @see MenuManager#setLazy(boolean)
+     */
+    public void testLazyMenuIsFilledWhenShown() {
+        MenuManager contextMenuMgr = createMenuManager(null, "aa");
+        contextMenuMgr.setLazy(true);
+        MenuManager subMenuMgr = createMenuManager("Sub", "asa");
+        contextMenuMgr.add(subMenuMgr);
+        assertTrue(subMenuMgr.isLazy());
+
+        Menu contextMenu = contextMenuMgr.createContextMenu(getShell());
+        contextMenuMgr.updateAll(true);
+        assertEquals(0, contextMenu.getItemCount());
+        assertTrue(contextMenuMgr.isDirty());
+
+        show(contextMenu);
+        assertEquals(3, contextMenu.getItemCount());
+        assertFalse(contextMenuMgr.isDirty());
+        MenuItem subMenuItem = contextMenu.getItem(2);
+        assertEquals("Sub", subMenuItem.getText());
+        assertTrue(subMenuItem.getEnabled());
+        Menu subMenu = subMenuItem.getMenu();
+        assertEquals(0, subMenu.getItemCount());
+
+        show(subMenu);
+        assertEquals(3, subMenu.getItemCount());
+        assertFalse(subMenuMgr.isDirty());
+        hide(subMenu);
+        hide(contextMenu);
+
+        // updates of hidden menus are deferred again
+        subMenuMgr.add(createItem('a'));
+        contextMenuMgr.updateAll(true);
+        assertEquals(3, subMenu.getItemCount());
+        show(contextMenu);
+        show(subMenu);
+        assertEquals(4, subMenu.getItemCount());
+    }
+
+    /**
+     * Tests that changes to the actions of a lazy menu are applied to the menu
+     * items when the menu is shown.
+     */
+    public void testLazyMenuItemIsUpdatedWhenShown() {
+        MenuManager contextMenuMgr = new MenuManager();
+        contextMenuMgr.setLazy(true);
+        IAction action = new DummyAction();
+        contextMenuMgr.add(action);
+
+        Menu contextMenu = contextMenuMgr.createContextMenu(getShell());
+        show(contextMenu);
+        hide(contextMenu);
+        assertEquals(action.getText(), contextMenu.getItem(0).getText());
+
+        action.setText("Changed");
+        action.setEnabled(false);
+        assertTrue(contextMenu.getItem(0).getEnabled());
+        show(contextMenu);
+        assertEquals("Changed", contextMenu.getItem(0).getText());
+        assertFalse(contextMenu.getItem(0).getEnabled());
+
+        action.setEnabled(true);
+        assertTrue(contextMenu.getItem(0).getEnabled());
+    }
+
+    /**
+     * Tests that menus are filled as before when they are not lazy.
+     */
+    public void testMenuIsNotLazyByDefault() {
+        MenuManager contextMenuMgr = createMenuManager(null, "aa");
+        MenuManager subMenuMgr = createMenuManager("Sub", "asa");
+        contextMenuMgr.add(subMenuMgr);
+        assertFalse(subMenuMgr.isLazy());
+
+        Menu contextMenu = contextMenuMgr.createContextMenu(getShell());
+        contextMenuMgr.updateAll(true);
+        assertEquals(3, contextMenu.getItemCount());
+        assertEquals(3, contextMenu.getItem(2).getMenu().getItemCount());
+    }
+
+    private void show(Menu menu) {
+        menu.notifyListeners(SWT.Show, new Event());
+    }
+
+    private void hide(Menu menu) {
+        menu.notifyListeners(SWT.Hide, new Event());
+    }
+
     /**
      * Creates a menu manager with the given name, adding items based on the given template.
      *
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.images;
+
+import java.net.URL;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.resource.ImageDataCache;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests for the ImageDataCache.
+ *
+ * @since 3.11
+ */
+public class ImageDataCacheTest extends TestCase {
+
+	private ImageDataCache cache;
+
+	public ImageDataCacheTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		cache = new ImageDataCache(1024 * 1024);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		ImageDataCache.getDefault().clear();
+		super.tearDown();
+	}
+
+	private static ImageDescriptor getDescriptor(String name) {
+		return ImageDescriptor.createFromFile(ImageDataCacheTest.class, name);
+	}
+
+	private static void waitFor(ImageDataCache cache, ImageDescriptor descriptor) throws InterruptedException {
+		for (int i = 0; i < 500 && !cache.contains(descriptor, 100); i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	public void testGetImageDataReturnsCopies() {
+		ImageDescriptor descriptor = getDescriptor("anything.gif");
+		ImageData data = cache.getImageData(descriptor, 100);
+		assertNotNull(data);
+		assertTrue(cache.contains(descriptor, 100));
+		assertTrue(cache.getSize() > 0);
+
+		byte first = data.data[0];
+		data.data[0] = (byte) (first + 1);
+		ImageData again = cache.getImageData(descriptor, 100);
+		assertNotSame(data, again);
+		assertEquals(first, again.data[0]);
+	}
+
+	public void testPrefetch() throws InterruptedException {
+		ImageDescriptor descriptor = getDescriptor("anything.gif");
+		cache.prefetch(descriptor);
+		waitFor(cache, descriptor);
+		assertTrue(cache.contains(descriptor, 100));
+		assertNotNull(cache.getImageData(descriptor, 100));
+		assertFalse(cache.contains(descriptor, 200));
+	}
+
+	public void testMissingImage() {
+		ImageDescriptor descriptor = getDescriptor("missing.gif");
+		assertNull(cache.getImageData(descriptor, 100));
+		assertNull(cache.getImageData(descriptor, 100));
+		assertFalse(cache.contains(descriptor, 100));
+	}
+
+	public void testRemoveAndClear() {
+		ImageDescriptor descriptor = getDescriptor("anything.gif");
+		cache.getImageData(descriptor, 100);
+		cache.remove(getDescriptor("anything.gif"));
+		assertFalse(cache.contains(descriptor, 100));
+		assertEquals(0, cache.getSize());
+
+		cache.getImageData(descriptor, 100);
+		cache.clear();
+		assertFalse(cache.contains(descriptor, 100));
+		assertEquals(0, cache.getSize());
+	}
+
+	public void testEvictionByPixelBytes() {
+		ImageDescriptor descriptor = getDescriptor("anything.gif");
+		cache.getImageData(descriptor, 100);
+		long size = cache.getSize();
+		cache.setMaxSize(size - 1);
+		assertFalse(cache.contains(descriptor, 100));
+		assertTrue(cache.getSize() <= cache.getMaxSize());
+	}
+
+	public void testRecording() {
+		URL url = ImageDataCacheTest.class.getResource("anything.gif");
+		ImageDataCache defaultCache = ImageDataCache.getDefault();
+		// the workbench may still be recording its startup images
+		defaultCache.stopRecording();
+
+		defaultCache.startRecording();
+		for (int i = 0; i < 2; i++) {
+			Image image = ImageDescriptor.createFromURL(url).createImage(false, Display.getDefault());
+			image.dispose();
+		}
+		URL[] recorded = defaultCache.stopRecording();
+		assertEquals(1, recorded.length);
+		assertEquals(url.toExternalForm(), recorded[0].toExternalForm());
+
+		Image image = ImageDescriptor.createFromURL(url).createImage(false, Display.getDefault());
+		image.dispose();
+		assertEquals(0, defaultCache.stopRecording().length);
+	}
+
+	public void testCreateImageFromPrefetchedData() throws InterruptedException {
+		ImageDescriptor descriptor = getDescriptor("anything.gif");
+		ImageDataCache.getDefault().prefetch(descriptor);
+		waitFor(ImageDataCache.getDefault(), descriptor);
+
+		Image image = descriptor.createImage(false, Display.getDefault());
+		assertNotNull(image);
+		ImageData expected = cache.getImageData(descriptor, 100);
+		assertEquals(expected.width, image.getBounds().width);
+		assertEquals(expected.height, image.getBounds().height);
+		image.dispose();
+	}
+}
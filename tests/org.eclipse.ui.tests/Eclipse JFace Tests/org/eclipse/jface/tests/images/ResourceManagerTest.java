@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2007 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -286,4 +286,65 @@ public class ResourceManagerTest extends TestCase {
     	// Destroy the resource we created
     	globalResourceManager.destroy(descriptor);
     }
+
+    public void testSoftBudgetReusesUnreferencedResources() throws Exception {
+        globalResourceManager.setSoftBudget(4);
+        assertEquals(4, globalResourceManager.getSoftBudget());
+
+        Object color = globalResourceManager.create(descriptors[12]);
+        globalResourceManager.destroy(descriptors[12]);
+        Assert.assertEquals("Unreferenced resource should be kept well below the budget", 1,
+                TestDescriptor.refCount);
+        assertNull("Unreferenced resource should not be found",
+                globalResourceManager.find(descriptors[12]));
+
+        assertSame("Unreferenced resource should be reused", color,
+                globalResourceManager.create(descriptors[13]));
+        Assert.assertEquals(1, TestDescriptor.refCount);
+        globalResourceManager.destroy(descriptors[13]);
+
+        globalResourceManager.setSoftBudget(0);
+        Assert.assertEquals("Unreferenced resources should be deallocated without a budget", 0,
+                TestDescriptor.refCount);
+    }
+
+    public void testSoftBudgetDeallocatesLeastRecentlyUsed() throws Exception {
+        globalResourceManager.setSoftBudget(4);
+
+        allocateResources(globalResourceManager, new int[] {12, 14});
+        deallocateResources(globalResourceManager, new int[] {12, 14});
+        Assert.assertEquals(2, TestDescriptor.refCount);
+
+        // Near the budget: the least recently used unreferenced resource goes
+        Object color = globalResourceManager.create(descriptors[17]);
+        Assert.assertEquals(2, TestDescriptor.refCount);
+        Object reused = globalResourceManager.create(descriptors[14]);
+        Assert.assertEquals("Most recently used resource should be kept", 2, TestDescriptor.refCount);
+
+        // Referenced resources are never deallocated, whatever the budget
+        globalResourceManager.setSoftBudget(1);
+        validateResource(color);
+        validateResource(reused);
+        allocateResources(globalResourceManager, new int[] {12});
+        Assert.assertEquals(3, TestDescriptor.refCount);
+
+        deallocateResources(globalResourceManager, new int[] {12, 14, 17});
+        Assert.assertEquals("Unreferenced resources should not be kept near the budget", 0,
+                TestDescriptor.refCount);
+    }
+
+    public void testSoftBudgetDeallocatesRightAwayNearTheBudget() throws Exception {
+        globalResourceManager.setSoftBudget(4);
+
+        allocateResources(globalResourceManager, new int[] {12, 14, 17});
+        deallocateResources(globalResourceManager, new int[] {17});
+        Assert.assertEquals("Unreferenced resource should not be kept near the budget", 2,
+                TestDescriptor.refCount);
+
+        deallocateResources(globalResourceManager, new int[] {14});
+        Assert.assertEquals("Unreferenced resource should be kept well below the budget", 2,
+                TestDescriptor.refCount);
+        deallocateResources(globalResourceManager, new int[] {12});
+        Assert.assertEquals(2, TestDescriptor.refCount);
+    }
 }
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.images;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.internal.InternalPolicy;
+import org.eclipse.jface.internal.ResourceTrackerMXBean;
+import org.eclipse.jface.resource.ColorDescriptor;
+import org.eclipse.jface.resource.DeviceResourceManager;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.resource.LocalResourceManager;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests the resource tracker, through its JMX bean.
+ *
+ * @since 3.11
+ */
+public class ResourceTrackerTest extends TestCase {
+
+	private boolean traceResources;
+
+	private Display display;
+
+	private DeviceResourceManager manager;
+
+	private ResourceTrackerMXBean tracker;
+
+	public ResourceTrackerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		traceResources = InternalPolicy.DEBUG_TRACE_RESOURCES;
+		InternalPolicy.DEBUG_TRACE_RESOURCES = true;
+		display = Display.getCurrent();
+		// the tracker is registered when the first manager tracks resources
+		manager = new DeviceResourceManager(display);
+		tracker = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+				new ObjectName("org.eclipse.jface:type=ResourceTracker"), ResourceTrackerMXBean.class);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		tracker.setSoftBudget(0);
+		processEvents();
+		manager.dispose();
+		InternalPolicy.DEBUG_TRACE_RESOURCES = traceResources;
+		super.tearDown();
+	}
+
+	private void processEvents() {
+		while (display.readAndDispatch()) {
+		}
+	}
+
+	private static ImageDescriptor getImage() {
+		return ImageDescriptor.createFromFile(ResourceTrackerTest.class, "anything.gif");
+	}
+
+	private String getManagerName(Object resourceManager) {
+		return resourceManager.getClass().getSimpleName() + '@'
+				+ Integer.toHexString(System.identityHashCode(resourceManager));
+	}
+
+	public void testCounts() throws Exception {
+		int images = tracker.getImageCount();
+		int colors = tracker.getColorCount();
+		int fonts = tracker.getFontCount();
+
+		ColorDescriptor color = ColorDescriptor.createFrom(new RGB(1, 2, 3));
+		manager.create(color);
+		manager.create(color);
+		manager.create(getImage());
+		assertEquals(images + 1, tracker.getImageCount());
+		assertEquals("A resource should be counted once", colors + 1, tracker.getColorCount());
+		assertEquals(fonts, tracker.getFontCount());
+
+		Map<String, Integer> countsByType = tracker.getCountsByDescriptorType();
+		assertNotNull(countsByType.get(color.getClass().getName()));
+		assertEquals(Integer.valueOf(2), tracker.getCountsByManager().get(getManagerName(manager)));
+
+		manager.destroy(color);
+		assertEquals(colors + 1, tracker.getColorCount());
+		manager.destroy(color);
+		manager.destroy(getImage());
+		assertEquals(images, tracker.getImageCount());
+		assertEquals(colors, tracker.getColorCount());
+		assertNull(tracker.getCountsByManager().get(getManagerName(manager)));
+	}
+
+	public void testLocalResourceManager() throws Exception {
+		int colors = tracker.getColorCount();
+		LocalResourceManager local = new LocalResourceManager(manager);
+		try {
+			local.create(ColorDescriptor.createFrom(new RGB(4, 5, 6)));
+			assertEquals("The handle should only be counted by the device manager", colors + 1,
+					tracker.getColorCount());
+			Map<String, Integer> countsByManager = tracker.getCountsByManager();
+			assertEquals(Integer.valueOf(1), countsByManager.get(getManagerName(local)));
+			assertEquals(Integer.valueOf(1), countsByManager.get(getManagerName(manager)));
+		} finally {
+			local.dispose();
+		}
+		assertEquals(colors, tracker.getColorCount());
+	}
+
+	public void testAllocationSites() throws Exception {
+		// one in 16 allocations is sampled
+		for (int i = 0; i < 16; i++) {
+			manager.create(ColorDescriptor.createFrom(new RGB(i, 7, 8)));
+		}
+		assertTrue("The allocations of this test should have been sampled",
+				containsSite(tracker.getAllocationSites(), getName()));
+
+		for (int i = 0; i < 16; i++) {
+			manager.destroy(ColorDescriptor.createFrom(new RGB(i, 7, 8)));
+		}
+		assertFalse("The allocations of this test have been deallocated",
+				containsSite(tracker.getAllocationSites(), getName()));
+	}
+
+	private static boolean containsSite(Map<String, Integer> sites, String method) {
+		for (String site : sites.keySet()) {
+			if (site.contains(ResourceTrackerTest.class.getName() + '.' + method)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void testSoftBudget() throws Exception {
+		ColorDescriptor color = ColorDescriptor.createFrom(new RGB(9, 10, 11));
+		manager.create(color);
+		try {
+			tracker.setSoftBudget(100);
+			assertEquals(100, tracker.getSoftBudget());
+			// the managers are told in the thread of their display
+			processEvents();
+			assertEquals(100, manager.getSoftBudget());
+
+			tracker.setSoftBudget(0);
+			processEvents();
+			assertEquals(0, manager.getSoftBudget());
+		} finally {
+			manager.destroy(color);
+		}
+	}
+}
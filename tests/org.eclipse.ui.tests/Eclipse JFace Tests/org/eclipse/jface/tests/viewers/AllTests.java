@@ -27,6 +27,7 @@ public class AllTests extends TestSuite {
 		addTestSuite(TreeSelectionTest.class);
 		addTestSuite(MultipleEqualElementsTreeViewerTest.class);
 		addTestSuite(LazySortedCollectionTest.class);
+		addTestSuite(BalancedSortedCollectionTest.class);
 		addTestSuite(TreeViewerTest.class);
 		addTestSuite(VirtualTreeViewerTest.class);
 		addTestSuite(SimpleTreeViewerTest.class);
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.deferred.BalancedSortedCollection;
+
+/**
+ * Compares {@link BalancedSortedCollection} against a <code>TreeSet</code>
+ * under random, sorted and reverse-sorted insertion orders, and checks that
+ * elements can be removed after their sort key has changed.
+ *
+ * @since 3.11
+ */
+public class BalancedSortedCollectionTest extends TestCase {
+
+	private static final int COUNT = 1000;
+
+	private BalancedSortedCollection collection;
+
+	private TreeSet comparisonCollection;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		collection = new BalancedSortedCollection(new TestComparator());
+		comparisonCollection = new TreeSet(new TestComparator());
+	}
+
+	private static String element(int i) {
+		// zero padded so that the string order matches the numeric order
+		String result = Integer.toString(i);
+		while (result.length() < 6) {
+			result = "0" + result;
+		}
+		return result;
+	}
+
+	private void add(Object toAdd) {
+		collection.add(toAdd);
+		comparisonCollection.add(toAdd);
+	}
+
+	private void remove(Object toRemove) {
+		collection.remove(toRemove);
+		comparisonCollection.remove(toRemove);
+	}
+
+	private void assertContentsValid() {
+		collection.testInvariants();
+		assertEquals(comparisonCollection.size(), collection.size());
+		assertEquals(comparisonCollection.isEmpty(), collection.isEmpty());
+		assertTrue(Arrays.equals(comparisonCollection.toArray(), collection
+				.getItems(true)));
+	}
+
+	public void testRandomOrder() {
+		Random random = new Random(42);
+		for (int i = 0; i < COUNT; i++) {
+			add(element(random.nextInt(COUNT * 10)));
+		}
+		assertContentsValid();
+	}
+
+	public void testSortedOrder() {
+		for (int i = 0; i < COUNT; i++) {
+			add(element(i));
+		}
+		assertContentsValid();
+	}
+
+	public void testReverseOrder() {
+		for (int i = COUNT; i > 0; i--) {
+			add(element(i));
+		}
+		assertContentsValid();
+	}
+
+	public void testAddExisting() {
+		add(element(1));
+		add(element(1));
+		assertContentsValid();
+	}
+
+	public void testRemove() {
+		for (int i = 0; i < COUNT; i++) {
+			add(element(i));
+		}
+		for (int i = 0; i < COUNT; i += 3) {
+			remove(element(i));
+		}
+		remove("some unknown element");
+		assertContentsValid();
+	}
+
+	public void testRemoveAllShrinks() {
+		for (int i = 0; i < COUNT; i++) {
+			add(element(i));
+		}
+		for (int i = 0; i < COUNT - 5; i++) {
+			remove(element(i));
+		}
+		assertContentsValid();
+		for (int i = 0; i < COUNT; i++) {
+			add(element(i));
+		}
+		assertContentsValid();
+	}
+
+	public void testGetItemAndRange() {
+		for (int i = COUNT; i > 0; i--) {
+			add(element(i));
+		}
+		Object[] expected = comparisonCollection.toArray();
+		for (int i = 0; i < expected.length; i += 37) {
+			assertEquals(expected[i], collection.getItem(i));
+		}
+		assertNull(collection.getItem(expected.length));
+
+		Object[] range = new Object[20];
+		assertEquals(20, collection.getRange(range, 500, true));
+		for (int i = 0; i < range.length; i++) {
+			assertEquals(expected[500 + i], range[i]);
+		}
+		assertEquals(5, collection.getRange(range, expected.length - 5, true));
+	}
+
+	public void testRemoveRange() {
+		for (int i = 0; i < COUNT; i++) {
+			add(element(i));
+		}
+		collection.removeRange(100, 50);
+		for (int i = 100; i < 150; i++) {
+			comparisonCollection.remove(element(i));
+		}
+		assertContentsValid();
+
+		collection.retainFirst(10);
+		while (comparisonCollection.size() > 10) {
+			comparisonCollection.remove(comparisonCollection.last());
+		}
+		assertContentsValid();
+	}
+
+	public void testClear() {
+		for (int i = 0; i < COUNT; i++) {
+			add(element(i));
+		}
+		collection.clear();
+		comparisonCollection.clear();
+		assertContentsValid();
+	}
+
+	/**
+	 * An element whose sort key can change while it is in the collection.
+	 */
+	private static final class MutableElement {
+		int key;
+
+		MutableElement(int key) {
+			this.key = key;
+		}
+	}
+
+	private static final class MutableElementComparator implements Comparator {
+		@Override
+		public int compare(Object o1, Object o2) {
+			int key1 = ((MutableElement) o1).key;
+			int key2 = ((MutableElement) o2).key;
+			return key1 < key2 ? -1 : (key1 == key2 ? 0 : 1);
+		}
+	}
+
+	public void testRemoveAfterKeyChange() {
+		BalancedSortedCollection mutableCollection = new BalancedSortedCollection(
+				new MutableElementComparator());
+		MutableElement[] elements = new MutableElement[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			elements[i] = new MutableElement(i);
+			mutableCollection.add(elements[i]);
+		}
+
+		// an update of a deferred content provider: the key changes in place,
+		// then the element is removed and added again
+		Random random = new Random(42);
+		for (int i = 0; i < COUNT; i++) {
+			MutableElement element = elements[random.nextInt(COUNT)];
+			element.key = random.nextInt(COUNT * 10) - COUNT * 5;
+			mutableCollection.remove(element);
+			assertFalse(mutableCollection.contains(element));
+			mutableCollection.add(element);
+		}
+		mutableCollection.testInvariants();
+		assertEquals(COUNT, mutableCollection.size());
+
+		// removing elements whose key changed must leave the others intact
+		for (int i = 0; i < COUNT - 1; i++) {
+			elements[i].key = -elements[i].key;
+			mutableCollection.remove(elements[i]);
+		}
+		mutableCollection.testInvariants();
+		assertEquals(1, mutableCollection.size());
+		assertSame(elements[COUNT - 1], mutableCollection.getItem(0));
+	}
+}
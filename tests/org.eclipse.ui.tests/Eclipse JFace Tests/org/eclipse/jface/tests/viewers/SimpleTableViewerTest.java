@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,14 +16,21 @@ import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ILabelProviderListener;
 import org.eclipse.jface.viewers.ITableLabelProvider;
 import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.StyledCellLabelProvider;
+import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.jface.viewers.ViewerCell;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.ui.tests.harness.util.Mocks;
 
 /**
@@ -174,4 +181,123 @@ public class SimpleTableViewerTest extends ViewerTestCase {
 		tableViewer.getTable().dispose();
 		assertEquals(1, disposeCounter[0]);
 	}
+
+	public void testLabelCache() {
+		final int[] textCounter = { 0 };
+		class CountingLabelProvider extends ColumnLabelProvider {
+			@Override
+			public String getText(Object element) {
+				textCounter[0]++;
+				return super.getText(element);
+			}
+
+			void fireChanged(Object[] elements) {
+				fireLabelProviderChanged(new LabelProviderChangedEvent(this,
+						elements));
+			}
+		}
+		CountingLabelProvider labelProvider = new CountingLabelProvider();
+		tableViewer.setLabelCacheEnabled(true);
+		tableViewer.setLabelProvider(labelProvider);
+		int count = tableViewer.getTable().getItemCount();
+		assertEquals(count, textCounter[0]);
+
+		// labels of unchanged rows are not recomputed
+		tableViewer.refresh();
+		assertEquals(count, textCounter[0]);
+
+		// an explicit update recomputes the labels of the element
+		tableViewer.update(fRootElement.getChildAt(0), null);
+		assertEquals(count + 1, textCounter[0]);
+
+		labelProvider.fireChanged(new Object[] { fRootElement.getChildAt(1) });
+		assertEquals(count + 2, textCounter[0]);
+
+		// a global change event invalidates all rows
+		labelProvider.fireChanged(null);
+		assertEquals(2 * count + 2, textCounter[0]);
+
+		tableViewer.setLabelCacheEnabled(false);
+		tableViewer.refresh();
+		assertEquals(3 * count + 2, textCounter[0]);
+	}
+
+	public void testChangedTextIsShown() {
+		final String[] text = { "first" };
+		tableViewer.setLabelProvider(new ColumnLabelProvider() {
+			@Override
+			public String getText(Object element) {
+				return text[0];
+			}
+		});
+		TableItem item = tableViewer.getTable().getItem(0);
+		assertEquals("first", item.getText());
+
+		text[0] = "second";
+		tableViewer.refresh();
+		assertEquals("second", item.getText());
+
+		// the unchanged text is not set again, but is still shown
+		tableViewer.refresh();
+		assertEquals("second", item.getText());
+
+		text[0] = null;
+		tableViewer.refresh();
+		assertEquals("", item.getText());
+	}
+
+	public void testStyledCellLabelProviderLayoutCache() {
+		final int[] prepareCounter = { 0 };
+		tableViewer.setLabelProvider(new StyledCellLabelProvider() {
+			@Override
+			public void update(ViewerCell cell) {
+				StyledString text = new StyledString(cell.getElement()
+						.toString());
+				text.append(" (1)", StyledString.COUNTER_STYLER);
+				cell.setText(text.getString());
+				cell.setStyleRanges(text.getStyleRanges());
+				super.update(cell);
+			}
+
+			@Override
+			protected StyleRange prepareStyleRange(StyleRange styleRange,
+					boolean applyColors) {
+				prepareCounter[0]++;
+				return super.prepareStyleRange(styleRange, applyColors);
+			}
+		});
+		processEvents();
+		Table table = tableViewer.getTable();
+		TableItem first = table.getItem(0);
+		TableItem second = table.getItem(1);
+
+		measure(second);
+		prepareCounter[0] = 0;
+		int width = measure(first).width;
+		assertEquals(1, prepareCounter[0]);
+
+		// repeated measure events for the same cell reuse the layout
+		assertEquals(width, measure(first).width);
+		assertEquals(width, measure(first).width);
+		assertEquals(1, prepareCounter[0]);
+
+		// another cell sets up the layout again
+		measure(second);
+		assertEquals(2, prepareCounter[0]);
+
+		// so does an update of the label of the cell
+		measure(first);
+		assertEquals(3, prepareCounter[0]);
+		tableViewer.update(fRootElement.getChildAt(0), null);
+		assertEquals(width, measure(first).width);
+		assertEquals(4, prepareCounter[0]);
+	}
+
+	private Event measure(TableItem item) {
+		Event event = new Event();
+		event.item = item;
+		event.index = 0;
+		item.getParent().notifyListeners(SWT.MeasureItem, event);
+		return event;
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@
 package org.eclipse.ui.tests.commands;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.Map;
 
 import org.eclipse.core.commands.AbstractHandler;
@@ -387,6 +388,34 @@ public class CommandEnablementTest extends UITestCase {
 		}
 	}
 
+	public void testEventsForDeactivatedHandlers() throws Exception {
+		contextActivation1 = contextService.activateContext(CONTEXT_TEST1);
+		activation1 = handlerService.activateHandler(CMD1_ID, normalHandler1);
+		activation2 = handlerService.activateHandler(CMD1_ID, disabledHandler1,
+				new ActiveContextExpression(CONTEXT_TEST1,
+						new String[] { ISources.ACTIVE_CONTEXT_NAME }));
+		IEclipseContext ctx = getWorkbench().getService(IEclipseContext.class);
+		ctx.processWaiting();
+
+		assertTrue(cmd1.isHandled());
+		assertFalse(cmd1.isEnabled());
+		assertEquals(disabledHandler1, getHandler(cmd1));
+		EnablementListener listener = new EnablementListener();
+		cmd1.addCommandListener(listener);
+
+		try {
+			// enables the command, then unhandles it
+			handlerService.deactivateHandlers(Arrays.asList(activation2, activation1));
+			activation1 = null;
+			activation2 = null;
+			assertEquals("The changes should be sent in one event", 1, listener.enabledChanged);
+			assertFalse(cmd1.isHandled());
+			assertFalse(cmd1.isEnabled());
+		} finally {
+			cmd1.removeCommandListener(listener);
+		}
+	}
+
 	public void testEventsForDisabledHandlers() throws Exception {
 		// incremented for every change that should change enablement
 		int enabledChangedCount = 0;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,19 @@
 
 package org.eclipse.ui.tests.commands;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.Category;
 import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.CommandEvent;
 import org.eclipse.core.commands.CommandManager;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.ICommandListener;
 import org.eclipse.core.commands.IExecutionListener;
 import org.eclipse.core.commands.NotHandledException;
 import org.eclipse.ui.tests.harness.util.UITestCase;
@@ -85,6 +93,53 @@ public final class CommandManagerTest extends UITestCase {
 
 	}
 
+	/**
+	 * A handler whose enablement only changes through
+	 * <code>setBaseEnabled</code>, so that commands can cache it.
+	 */
+	private static final class ToggleHandler extends AbstractHandler {
+
+		@Override
+		public Object execute(ExecutionEvent event) {
+			return null;
+		}
+
+		void toggle(boolean enabled) {
+			setBaseEnabled(enabled);
+		}
+	}
+
+	/**
+	 * A handler that changes its enablement without telling anyone.
+	 */
+	private static final class SilentHandler extends AbstractHandler {
+
+		boolean enabled = true;
+
+		@Override
+		public Object execute(ExecutionEvent event) {
+			return null;
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return enabled;
+		}
+	}
+
+	/**
+	 * A command listener that remembers the events it heard.
+	 */
+	private static final class CommandListener implements ICommandListener {
+
+		final List<CommandEvent> events = new ArrayList<>();
+
+		@Override
+		public void commandChanged(CommandEvent commandEvent) {
+			events.add(commandEvent);
+		}
+	}
+
 	/**
 	 * Constructs a new instance of <code>CommandManagerTest</code>.
 	 *
@@ -128,4 +183,126 @@ public final class CommandManagerTest extends UITestCase {
 				exception, listener.notHandledException);
 
 	}
+
+	public final void testEnablementFollowsHandlerEvents() {
+		final Command command = new CommandManager().getCommand("myCommand");
+		final ToggleHandler handler = new ToggleHandler();
+		command.setHandler(handler);
+		assertTrue(command.isEnabled());
+		assertTrue(command.isHandled());
+
+		handler.toggle(false);
+		assertFalse(command.isEnabled());
+		assertTrue(command.isHandled());
+		handler.toggle(true);
+		assertTrue(command.isEnabled());
+
+		command.setHandler(null);
+		assertFalse(command.isEnabled());
+		assertFalse(command.isHandled());
+	}
+
+	public final void testEnablementOfOverridingHandlerIsNotCached() {
+		final Command command = new CommandManager().getCommand("myCommand");
+		final SilentHandler handler = new SilentHandler();
+		command.setHandler(handler);
+		assertTrue(command.isEnabled());
+
+		handler.enabled = false;
+		assertFalse("Handlers that override isEnabled should be asked every time",
+				command.isEnabled());
+	}
+
+	public final void testDeferredHandlerChanges() {
+		final CommandManager commandManager = new CommandManager();
+		final Command command = commandManager.getCommand("myCommand");
+		final CommandListener listener = new CommandListener();
+		command.addCommandListener(listener);
+		final ToggleHandler first = new ToggleHandler();
+		final ToggleHandler second = new ToggleHandler();
+
+		commandManager.deferUpdates(true);
+		commandManager.deferUpdates(true);
+		command.setHandler(first);
+		first.toggle(false);
+		command.setHandler(second);
+		assertEquals("Events should be deferred", 0, listener.events.size());
+		assertTrue("The state should not be deferred", command.isEnabled());
+
+		commandManager.deferUpdates(false);
+		assertEquals("Events should be deferred until the last batch ends", 0,
+				listener.events.size());
+		commandManager.deferUpdates(false);
+		assertEquals("Changes should be merged into one event", 1,
+				listener.events.size());
+		final CommandEvent event = listener.events.get(0);
+		assertSame(command, event.getCommand());
+		assertTrue(event.isHandledChanged());
+		assertTrue(event.isEnabledChanged());
+
+		listener.events.clear();
+		second.toggle(false);
+		assertEquals("Events should be sent after the batch", 1,
+				listener.events.size());
+	}
+
+	public final void testSeveralChangesPerCommandInABatch() {
+		final CommandManager commandManager = new CommandManager();
+		final Command first = commandManager.getCommand("first");
+		final Command second = commandManager.getCommand("second");
+		final CommandListener firstListener = new CommandListener();
+		final CommandListener secondListener = new CommandListener();
+		first.addCommandListener(firstListener);
+		second.addCommandListener(secondListener);
+		final ToggleHandler firstHandler = new ToggleHandler();
+		final ToggleHandler secondHandler = new ToggleHandler();
+		first.setHandler(firstHandler);
+		firstListener.events.clear();
+
+		commandManager.deferUpdates(true);
+		firstHandler.toggle(false);
+		second.setHandler(secondHandler);
+		firstHandler.toggle(true);
+		secondHandler.toggle(false);
+		firstHandler.toggle(false);
+		second.setHandler(null);
+		second.setHandler(secondHandler);
+		assertEquals(0, firstListener.events.size());
+		assertEquals(0, secondListener.events.size());
+		assertFalse(first.isEnabled());
+		assertFalse(second.isEnabled());
+		commandManager.deferUpdates(false);
+
+		assertEquals("The changes of the handler should be merged", 1,
+				firstListener.events.size());
+		final CommandEvent firstEvent = firstListener.events.get(0);
+		assertTrue(firstEvent.isEnabledChanged());
+		assertFalse(firstEvent.isHandledChanged());
+		assertEquals("The changes of the handlers should be merged", 1,
+				secondListener.events.size());
+		final CommandEvent secondEvent = secondListener.events.get(0);
+		assertSame(second, secondEvent.getCommand());
+		assertTrue(secondEvent.isEnabledChanged());
+		assertTrue(secondEvent.isHandledChanged());
+	}
+
+	public final void testSetHandlersByCommandIdNotifiesOnce() {
+		final CommandManager commandManager = new CommandManager();
+		final Command first = commandManager.getCommand("first");
+		final Command second = commandManager.getCommand("second");
+		final CommandListener firstListener = new CommandListener();
+		final CommandListener secondListener = new CommandListener();
+		first.addCommandListener(firstListener);
+		second.addCommandListener(secondListener);
+
+		final Map<String, ToggleHandler> handlers = new HashMap<>();
+		handlers.put("first", new ToggleHandler());
+		handlers.put("second", new ToggleHandler());
+		commandManager.setHandlersByCommandId(handlers);
+
+		assertEquals(1, firstListener.events.size());
+		assertEquals(1, secondListener.events.size());
+		assertTrue(first.isHandled());
+		assertTrue(second.isHandled());
+	}
 }
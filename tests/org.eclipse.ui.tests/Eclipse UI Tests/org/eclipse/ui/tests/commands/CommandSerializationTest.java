@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,8 @@ package org.eclipse.ui.tests.commands;
 
 import java.util.Map;
 
+import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.CommandManager;
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.commands.SerializationException;
 import org.eclipse.core.commands.common.CommandException;
@@ -215,6 +217,48 @@ public class CommandSerializationTest extends UITestCase {
 				new String[] { funnyValue });
 	}
 
+	/**
+	 * Test a parameter value that ends with an escaped escape character, right
+	 * before the separator.
+	 *
+	 * @throws CommandException
+	 */
+	public void testEscapedEscapeCharacterBeforeSeparator() throws CommandException {
+		final String twoParameterCommandId = "org.eclipse.ui.tests.commands.twoParameterCommand";
+		testDeserializeAndSerialize(twoParameterCommandId
+				+ "(param2.1=100%%,param2.2=%%)", twoParameterCommandId, 2,
+				new String[] { "param2.1", "param2.2" }, new String[] { "100%",
+						"%" });
+	}
+
+	public void testDeserializeReusesParameterizedCommands() throws CommandException {
+		final String serialized = "org.eclipse.ui.tests.commands.twoParameterCommand(param2.1=hello,param2.2=goodbye)";
+		final ParameterizedCommand pCommand = getCommandService().deserialize(serialized);
+		assertSame(pCommand, getCommandService().deserialize(serialized));
+		assertSame(pCommand.serialize(), pCommand.serialize());
+	}
+
+	public void testDeserializeAfterCommandChanges() throws CommandException {
+		final CommandManager commandManager = new CommandManager();
+		final Command command = commandManager.getCommand("changing.command");
+		command.define("name", null, commandManager.getCategory("category"));
+		final ParameterizedCommand pCommand = commandManager.deserialize("changing.command");
+		assertEquals("changing.command", pCommand.serialize());
+
+		command.undefine();
+		try {
+			commandManager.deserialize("changing.command");
+			fail("expected NotDefinedException");
+		} catch (NotDefinedException ex) {
+			// passed
+		}
+
+		command.define("new name", null, commandManager.getCategory("category"));
+		final ParameterizedCommand redefined = commandManager.deserialize("changing.command");
+		assertNotSame(pCommand, redefined);
+		assertEquals("new name", redefined.getName());
+	}
+
 	public void testMalformedSerializationStrings() {
 		// try a missing closing ')'
 		expectSerializationException(showPerspectiveCommandId + "(");
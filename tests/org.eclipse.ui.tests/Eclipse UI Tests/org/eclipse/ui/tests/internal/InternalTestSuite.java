@@ -65,5 +65,6 @@ public class InternalTestSuite extends TestSuite {
         addTest(new TestSuite(FileEditorMappingTest.class));
         addTest(new TestSuite(WorkbenchSiteProgressServiceModelTagsTest.class));
 		addTest(new TestSuite(WorkbenchPageTest.class));
+		addTest(new TestSuite(StartupImagePrefetcherTest.class));
     }
 }
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.internal;
+
+import java.io.File;
+import java.net.URL;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ui.internal.StartupImagePrefetcher;
+import org.eclipse.ui.tests.TestPlugin;
+
+/**
+ * Tests how {@link StartupImagePrefetcher} writes the URLs of images to its
+ * profile and reads them back.
+ *
+ * @since 3.11
+ */
+public class StartupImagePrefetcherTest extends TestCase {
+
+	private static final String IMAGE_PATH = "/icons/pack_empty_co.gif";
+
+	public StartupImagePrefetcherTest(String name) {
+		super(name);
+	}
+
+	public void testBundleEntry() {
+		URL url = TestPlugin.getDefault().getBundle().getEntry(IMAGE_PATH);
+		assertNotNull(url);
+		String entry = StartupImagePrefetcher.toEntry(url);
+		assertEquals("bundle:" + TestPlugin.PLUGIN_ID + IMAGE_PATH, entry);
+		assertEquals(url.toExternalForm(), StartupImagePrefetcher.toURL(entry).toExternalForm());
+	}
+
+	public void testFileURL() throws Exception {
+		URL url = new File("image.gif").getAbsoluteFile().toURI().toURL();
+		String entry = StartupImagePrefetcher.toEntry(url);
+		assertEquals(url.toExternalForm(), entry);
+		assertEquals(url.toExternalForm(), StartupImagePrefetcher.toURL(entry).toExternalForm());
+	}
+
+	public void testBundleEntryOfUnknownBundle() throws Exception {
+		URL url = TestPlugin.getDefault().getBundle().getEntry(IMAGE_PATH);
+		URL unknown = new URL(url.getProtocol(), Long.MAX_VALUE + ".fwk1", url.getPath());
+		assertNull(StartupImagePrefetcher.toEntry(unknown));
+		URL malformed = new URL(url.getProtocol(), "bundle", url.getPath());
+		assertNull(StartupImagePrefetcher.toEntry(malformed));
+	}
+
+	public void testMissingBundle() {
+		assertNull(StartupImagePrefetcher.toURL("bundle:org.eclipse.ui.tests.missing" + IMAGE_PATH));
+	}
+
+	public void testMissingImage() {
+		assertNull(StartupImagePrefetcher.toURL("bundle:" + TestPlugin.PLUGIN_ID + "/icons/missing.gif"));
+	}
+
+	public void testBundleWithoutPath() {
+		assertNull(StartupImagePrefetcher.toURL("bundle:" + TestPlugin.PLUGIN_ID));
+	}
+
+	public void testMalformedEntry() {
+		assertNull(StartupImagePrefetcher.toURL("no URL"));
+	}
+}
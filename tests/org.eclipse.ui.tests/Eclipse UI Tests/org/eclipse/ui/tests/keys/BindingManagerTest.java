@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2014 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -759,6 +759,101 @@ public final class BindingManagerTest extends UITestCase {
 
 	}
 
+	/**
+	 * Tests that the active bindings, the partial matches and the conflicts
+	 * follow the active contexts as these are switched back and forth, i.e.,
+	 * that a solution updated for the contexts which changed is the same as
+	 * one computed from scratch.
+	 *
+	 * @throws NotDefinedException
+	 *             If the scheme we try to activate is not defined.
+	 * @throws ParseException
+	 *             If the hard-coded strings aren't constructed properly.
+	 */
+	public final void testContextSwitch() throws NotDefinedException,
+			ParseException {
+		// GENERAL SET-UP
+		contextManager.getContext("parent").define("parent", "parent", null);
+		contextManager.getContext("child").define("child", "child", "parent");
+		contextManager.getContext("sibling").define("sibling", "sibling",
+				"parent");
+		final Scheme scheme = bindingManager.getScheme("na");
+		scheme.define("name", "description", null);
+		bindingManager.setActiveScheme(scheme);
+
+		final KeySequence ctrlF = KeySequence.getInstance("CTRL+F");
+		final KeySequence ctrlFCtrlG = KeySequence.getInstance("CTRL+F CTRL+G");
+		final KeySequence ctrlH = KeySequence.getInstance("CTRL+H");
+		final ParameterizedCommand parentCommand = new ParameterizedCommand(
+				commandManager.getCommand("parentCommand"), null);
+		final ParameterizedCommand childCommand = new ParameterizedCommand(
+				commandManager.getCommand("childCommand"), null);
+		final Binding parentBinding = new KeyBinding(ctrlF, parentCommand,
+				"na", "parent", null, null, null, Binding.SYSTEM);
+		final Binding childBinding = new KeyBinding(ctrlF, childCommand, "na",
+				"child", null, null, null, Binding.SYSTEM);
+		final Binding siblingBinding = new KeyBinding(ctrlFCtrlG,
+				new ParameterizedCommand(commandManager
+						.getCommand("siblingCommand"), null), "na", "sibling",
+				null, null, null, Binding.SYSTEM);
+		final Binding conflict1 = new KeyBinding(ctrlH,
+				new ParameterizedCommand(commandManager
+						.getCommand("conflictCommand1"), null), "na",
+				"sibling", null, null, null, Binding.SYSTEM);
+		final Binding conflict2 = new KeyBinding(ctrlH,
+				new ParameterizedCommand(commandManager
+						.getCommand("conflictCommand2"), null), "na",
+				"sibling", null, null, null, Binding.SYSTEM);
+		bindingManager.setBindings(new Binding[] { parentBinding,
+				childBinding, siblingBinding, conflict1, conflict2 });
+
+		// PARENT ONLY
+		final Set activeContextIds = new HashSet();
+		activeContextIds.add("parent");
+		contextManager.setActiveContextIds(new HashSet(activeContextIds));
+		assertSame(parentBinding, bindingManager.getPerfectMatch(ctrlF));
+		assertFalse(bindingManager.isPartialMatch(ctrlF));
+		assertTrue(bindingManager.getCurrentConflicts().isEmpty());
+
+		// ACTIVATE CHILD
+		activeContextIds.add("child");
+		contextManager.setActiveContextIds(new HashSet(activeContextIds));
+		assertSame("The child context should win", childBinding,
+				bindingManager.getPerfectMatch(ctrlF));
+		assertEquals(0, bindingManager.getActiveBindingsFor(parentCommand).length);
+		assertEquals(1, bindingManager.getActiveBindingsFor(childCommand).length);
+
+		// ACTIVATE SIBLING
+		activeContextIds.add("sibling");
+		contextManager.setActiveContextIds(new HashSet(activeContextIds));
+		assertSame(childBinding, bindingManager.getPerfectMatch(ctrlF));
+		assertTrue(bindingManager.isPartialMatch(ctrlF));
+		assertSame(siblingBinding, bindingManager.getPartialMatches(ctrlF)
+				.get(ctrlFCtrlG));
+		assertNull("The conflict should not be resolved",
+				bindingManager.getPerfectMatch(ctrlH));
+		assertEquals(2, bindingManager.getConflictsFor(ctrlH).size());
+
+		// DEACTIVATE CHILD
+		activeContextIds.remove("child");
+		contextManager.setActiveContextIds(new HashSet(activeContextIds));
+		assertSame(parentBinding, bindingManager.getPerfectMatch(ctrlF));
+		assertEquals(1, bindingManager.getActiveBindingsFor(parentCommand).length);
+		assertEquals(0, bindingManager.getActiveBindingsFor(childCommand).length);
+		assertTrue(bindingManager.isPartialMatch(ctrlF));
+		assertEquals(1, bindingManager.getCurrentConflicts().size());
+
+		// DEACTIVATE SIBLING
+		activeContextIds.remove("sibling");
+		contextManager.setActiveContextIds(new HashSet(activeContextIds));
+		assertSame(parentBinding, bindingManager.getPerfectMatch(ctrlF));
+		assertFalse(bindingManager.isPartialMatch(ctrlF));
+		assertTrue(bindingManager.getPartialMatches(ctrlF).isEmpty());
+		assertNull(bindingManager.getConflictsFor(ctrlH));
+		assertEquals(1, bindingManager.getPartialMatches(
+				KeySequence.getInstance()).size());
+	}
+
 	/**
 	 * Verifies that you can set the bindings to null. Verifies that setting the
 	 * bindings clears the cache.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,12 @@
 
 package org.eclipse.ui.tests.operations;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
 import junit.framework.TestCase;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -29,6 +35,7 @@ import org.eclipse.core.commands.operations.OperationHistoryEvent;
 import org.eclipse.core.commands.operations.OperationHistoryFactory;
 import org.eclipse.core.commands.operations.OperationStatus;
 import org.eclipse.core.commands.operations.TriggeredOperations;
+import org.eclipse.core.commands.operations.UndoContext;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -45,6 +52,11 @@ public class OperationsAPITest extends TestCase {
 	// number of operations to perform a stress test
 	static int STRESS_NUM = 5000;
 
+	// number of contexts and operations per context of the many contexts
+	// stress test
+	static int STRESS_CONTEXTS = 100;
+	static int STRESS_OPERATIONS_PER_CONTEXT = 1000;
+
 	ObjectUndoContext contextA, contextB, contextC, contextW;
 	IOperationHistory history;
 
@@ -782,6 +794,424 @@ public class OperationsAPITest extends TestCase {
 		}
 	}
 
+	public void testStressTestManyContexts() throws ExecutionException {
+		IUndoContext[] contexts = new IUndoContext[STRESS_CONTEXTS];
+		for (int i = 0; i < STRESS_CONTEXTS; i++) {
+			contexts[i] = new ObjectUndoContext("stress" + i);
+			history.setLimit(contexts[i], STRESS_OPERATIONS_PER_CONTEXT);
+		}
+		for (int j = 0; j < STRESS_OPERATIONS_PER_CONTEXT; j++) {
+			for (int i = 0; i < STRESS_CONTEXTS; i++) {
+				IUndoableOperation op = new TestOperation("test");
+				op.addContext(contexts[i]);
+				history.execute(op, null, null);
+			}
+		}
+		for (int i = 0; i < STRESS_CONTEXTS; i++) {
+			assertEquals(STRESS_OPERATIONS_PER_CONTEXT, history.getUndoHistory(contexts[i]).length);
+		}
+
+		// the limit of one context must not touch the others
+		IUndoableOperation oldest = history.getUndoHistory(contexts[0])[0];
+		IUndoableOperation op = new TestOperation("test");
+		op.addContext(contexts[0]);
+		history.execute(op, null, null);
+		assertEquals(STRESS_OPERATIONS_PER_CONTEXT, history.getUndoHistory(contexts[0]).length);
+		assertFalse(Arrays.asList(history.getUndoHistory(contexts[0])).contains(oldest));
+		assertEquals(STRESS_OPERATIONS_PER_CONTEXT, history.getUndoHistory(contexts[1]).length);
+
+		for (int j = 0; j < STRESS_OPERATIONS_PER_CONTEXT / 2; j++) {
+			for (int i = 0; i < STRESS_CONTEXTS; i++) {
+				history.undo(contexts[i], null, null);
+				if (j % 5 == 0) {
+					history.redo(contexts[i], null, null);
+				}
+			}
+		}
+		for (int i = 1; i < STRESS_CONTEXTS; i++) {
+			assertEquals(STRESS_OPERATIONS_PER_CONTEXT * 6 / 10, history.getUndoHistory(contexts[i]).length);
+			assertEquals(STRESS_OPERATIONS_PER_CONTEXT * 4 / 10, history.getRedoHistory(contexts[i]).length);
+		}
+		assertEquals(STRESS_CONTEXTS * STRESS_OPERATIONS_PER_CONTEXT * 6 / 10 + 6,
+				history.getUndoHistory(IOperationHistory.GLOBAL_UNDO_CONTEXT).length);
+	}
+
+	public void testContextChangesOfOperationsInHistory() {
+		// op1 and op4 have contextA, op6 has contextC and contextA
+		assertSame(op6, history.getUndoOperation(contextA));
+		op6.removeContext(contextA);
+		assertSame(op4, history.getUndoOperation(contextA));
+		assertEquals(2, history.getUndoHistory(contextA).length);
+
+		op6.addContext(contextA);
+		assertSame(op6, history.getUndoOperation(contextA));
+		assertEquals(3, history.getUndoHistory(contextA).length);
+
+		// an operation in the middle of the history
+		op2.addContext(contextA);
+		IUndoableOperation[] undoHistory = history.getUndoHistory(contextA);
+		assertEquals(4, undoHistory.length);
+		assertSame(op1, undoHistory[0]);
+		assertSame(op2, undoHistory[1]);
+		assertSame(op4, undoHistory[2]);
+		assertSame(op6, undoHistory[3]);
+
+		// contexts matching other contexts
+		contextW = new ObjectUndoContext("W");
+		assertEquals(0, history.getUndoHistory(contextW).length);
+		contextW.addMatch(contextB);
+		assertEquals(2, history.getUndoHistory(contextW).length);
+		assertSame(op5, history.getUndoOperation(contextW));
+		contextW.removeMatch(contextB);
+		assertNull(history.getUndoOperation(contextW));
+	}
+
+	public void testContextChangesNotObservedByHistory() throws ExecutionException {
+		// an operation which does not tell the history about context changes
+		final IUndoContext[] contexts = new IUndoContext[] { contextB };
+		IUndoableOperation op = new IUndoableOperation() {
+			@Override
+			public void addContext(IUndoContext context) {
+			}
+
+			@Override
+			public void removeContext(IUndoContext context) {
+			}
+
+			@Override
+			public boolean canExecute() {
+				return true;
+			}
+
+			@Override
+			public boolean canUndo() {
+				return true;
+			}
+
+			@Override
+			public boolean canRedo() {
+				return true;
+			}
+
+			@Override
+			public IStatus execute(IProgressMonitor monitor, IAdaptable info) {
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public IStatus undo(IProgressMonitor monitor, IAdaptable info) {
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public IStatus redo(IProgressMonitor monitor, IAdaptable info) {
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public String getLabel() {
+				return "third party";
+			}
+
+			@Override
+			public void dispose() {
+			}
+
+			@Override
+			public IUndoContext[] getContexts() {
+				return contexts;
+			}
+
+			@Override
+			public boolean hasContext(IUndoContext context) {
+				for (IUndoContext each : contexts) {
+					if (each.matches(context)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		};
+		history.execute(op, null, null);
+		assertSame(op, history.getUndoOperation(contextB));
+		assertSame(op6, history.getUndoOperation(contextA));
+		contexts[0] = contextA;
+		assertSame(op, history.getUndoOperation(contextA));
+		assertSame(op5, history.getUndoOperation(contextB));
+
+		// a context whose matches changes without telling anyone
+		final IUndoContext[] matched = new IUndoContext[1];
+		IUndoContext dynamic = new UndoContext() {
+			@Override
+			public boolean matches(IUndoContext context) {
+				return context == this || context == matched[0];
+			}
+		};
+		assertNull(history.getUndoOperation(dynamic));
+		matched[0] = contextC;
+		assertSame(op6, history.getUndoOperation(dynamic));
+		assertEquals(3, history.getUndoHistory(dynamic).length);
+	}
+
+	public void testMemoryLimit() throws ExecutionException {
+		DefaultOperationHistory defaultHistory = (DefaultOperationHistory) history;
+		defaultHistory.setMemoryLimit(250);
+		StatefulTestOperation[] ops = new StatefulTestOperation[3];
+		for (int i = 0; i < ops.length; i++) {
+			ops[i] = new StatefulTestOperation("stateful" + i, 100, false);
+			ops[i].addContext(contextA);
+			history.execute(ops[i], null, null);
+		}
+		// the oldest stateful operation and the ones before it are gone
+		IUndoableOperation[] undoHistory = history.getUndoHistory(contextA);
+		assertEquals(2, undoHistory.length);
+		assertSame(ops[1], undoHistory[0]);
+		assertEquals(200, defaultHistory.getRetainedSize(contextA));
+		assertEquals(0, defaultHistory.getRetainedSize(contextB));
+		assertEquals(200, defaultHistory.getRetainedSize(IOperationHistory.GLOBAL_UNDO_CONTEXT));
+
+		// the operation entering the history is kept even if it is too big
+		StatefulTestOperation big = new StatefulTestOperation("big", 1000, false);
+		big.addContext(contextB);
+		history.execute(big, null, null);
+		assertSame(big, history.getUndoOperation(contextB));
+		assertEquals(0, history.getUndoHistory(contextA).length);
+		assertEquals(1000, defaultHistory.getRetainedSize(IOperationHistory.GLOBAL_UNDO_CONTEXT));
+	}
+
+	public void testMemoryLimitWithStateStore() throws Exception {
+		File store = createStateStore();
+		try {
+			DefaultOperationHistory defaultHistory = (DefaultOperationHistory) history;
+			defaultHistory.setStateStore(store);
+			defaultHistory.setMemoryLimit(250);
+			StatefulTestOperation[] ops = new StatefulTestOperation[3];
+			for (int i = 0; i < ops.length; i++) {
+				ops[i] = new StatefulTestOperation("stateful" + i, 100, false);
+				ops[i].addContext(contextA);
+				history.execute(ops[i], null, null);
+			}
+			// the state of the oldest operation has been saved instead
+			assertEquals(6, history.getUndoHistory(contextA).length);
+			assertTrue(ops[0].isStateSaved());
+			assertFalse(ops[1].isStateSaved());
+			assertEquals(200, defaultHistory.getRetainedSize(contextA));
+			assertEquals(1, store.list().length);
+
+			// undoing restores the state, moving to the redo history saves it
+			// again when needed
+			for (int i = ops.length - 1; i >= 0; i--) {
+				assertTrue(history.undo(contextA, null, null).isOK());
+			}
+			assertFalse(ops[0].isStateSaved());
+			assertTrue(ops[2].isStateSaved());
+			assertEquals(1, store.list().length);
+			for (int i = 0; i < ops.length; i++) {
+				assertTrue(history.redo(contextA, null, null).isOK());
+			}
+			assertEquals(200, defaultHistory.getRetainedSize(contextA));
+
+			// disposing the history deletes the saved state
+			history.dispose(IOperationHistory.GLOBAL_UNDO_CONTEXT, true, true, true);
+			assertEquals(0, store.list().length);
+			assertEquals(0, defaultHistory.getRetainedSize(IOperationHistory.GLOBAL_UNDO_CONTEXT));
+		} finally {
+			deleteStateStore(store);
+		}
+	}
+
+	public void testMemoryLimitDuringUndo() throws Exception {
+		File store = createStateStore();
+		try {
+			DefaultOperationHistory defaultHistory = (DefaultOperationHistory) history;
+			defaultHistory.setStateStore(store);
+			defaultHistory.setMemoryLimit(150);
+			StatefulTestOperation first = new StatefulTestOperation("first", 100, false);
+			first.addContext(contextA);
+			history.execute(first, null, null);
+			// an operation whose undo adds another operation to the history
+			StatefulTestOperation undoing = new StatefulTestOperation("undoing", 100, false) {
+				@Override
+				public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
+					StatefulTestOperation triggered = new StatefulTestOperation("triggered", 100, false);
+					triggered.addContext(contextB);
+					try {
+						history.execute(triggered, null, null);
+					} catch (ExecutionException e) {
+						return Status.CANCEL_STATUS;
+					}
+					return super.undo(monitor, uiInfo);
+				}
+			};
+			undoing.addContext(contextA);
+			history.execute(undoing, null, null);
+			assertTrue(first.isStateSaved());
+
+			// the state of the operation being undone must not be saved
+			assertTrue(history.undo(contextA, null, null).isOK());
+			assertSame(undoing, history.getRedoOperation(contextA));
+		} finally {
+			deleteStateStore(store);
+		}
+	}
+
+	public void testSaveStateOutsideOfHistoryLock() throws Exception {
+		File store = createStateStore();
+		try {
+			DefaultOperationHistory defaultHistory = (DefaultOperationHistory) history;
+			defaultHistory.setStateStore(store);
+			defaultHistory.setMemoryLimit(150);
+			final boolean[] accessible = new boolean[1];
+			// an operation that queries the history from another thread while
+			// its state is saved
+			StatefulTestOperation first = new StatefulTestOperation("first", 100, false) {
+				@Override
+				public boolean saveState(OutputStream out) throws IOException {
+					Thread thread = new Thread() {
+						@Override
+						public void run() {
+							history.getUndoHistory(contextA);
+							accessible[0] = true;
+						}
+					};
+					thread.start();
+					try {
+						thread.join(5000);
+					} catch (InterruptedException e) {
+						// fall through and fail the test
+					}
+					return super.saveState(out);
+				}
+			};
+			first.addContext(contextA);
+			history.execute(first, null, null);
+			StatefulTestOperation second = new StatefulTestOperation("second", 100, false);
+			second.addContext(contextA);
+			history.execute(second, null, null);
+
+			assertTrue(first.isStateSaved());
+			assertTrue("The history should not be locked while saving", accessible[0]);
+			assertEquals(1, store.list().length);
+			assertTrue(history.undo(contextA, null, null).isOK());
+			assertTrue(history.undo(contextA, null, null).isOK());
+			assertFalse(first.isStateSaved());
+			assertTrue(second.isStateSaved());
+			assertEquals(1, store.list().length);
+		} finally {
+			deleteStateStore(store);
+		}
+	}
+
+	public void testReplaceOperationDiscardsSavedState() throws Exception {
+		File store = createStateStore();
+		try {
+			DefaultOperationHistory defaultHistory = (DefaultOperationHistory) history;
+			defaultHistory.setStateStore(store);
+			defaultHistory.setMemoryLimit(150);
+			StatefulTestOperation[] ops = new StatefulTestOperation[2];
+			for (int i = 0; i < ops.length; i++) {
+				ops[i] = new StatefulTestOperation("stateful" + i, 100, false);
+				ops[i].addContext(contextA);
+				history.execute(ops[i], null, null);
+			}
+			assertTrue(ops[0].isStateSaved());
+			assertEquals(1, store.list().length);
+
+			history.replaceOperation(ops[0], new IUndoableOperation[] { new TestOperation("replacement") });
+			assertEquals(0, store.list().length);
+		} finally {
+			deleteStateStore(store);
+		}
+	}
+
+	public void testFailedStateRestore() throws Exception {
+		File store = createStateStore();
+		try {
+			DefaultOperationHistory defaultHistory = (DefaultOperationHistory) history;
+			defaultHistory.setStateStore(store);
+			defaultHistory.setMemoryLimit(150);
+			StatefulTestOperation[] ops = new StatefulTestOperation[2];
+			for (int i = 0; i < ops.length; i++) {
+				ops[i] = new StatefulTestOperation("stateful" + i, 100, false);
+				ops[i].addContext(contextC);
+				history.execute(ops[i], null, null);
+			}
+			assertTrue(ops[0].isStateSaved());
+
+			// corrupt the saved state
+			File[] files = store.listFiles();
+			assertEquals(1, files.length);
+			OutputStream out = new FileOutputStream(files[0]);
+			try {
+				out.write(new byte[] { 1, 2, 3 });
+			} finally {
+				out.close();
+			}
+
+			assertTrue(history.undo(contextC, null, null).isOK());
+			int removed = remove;
+			try {
+				history.undo(contextC, null, null);
+				fail("The state should not have been restored");
+			} catch (ExecutionException e) {
+				// expected
+			}
+			assertFalse(Arrays.asList(history.getUndoHistory(contextC)).contains(ops[0]));
+			assertFalse(Arrays.asList(history.getRedoHistory(contextC)).contains(ops[0]));
+			assertEquals(removed + 1, remove);
+			assertTrue("The operation should have been disposed", ops[0].isStateSaved());
+			assertEquals(0, store.list().length);
+		} finally {
+			deleteStateStore(store);
+		}
+	}
+
+	private File createStateStore() throws IOException {
+		File store = File.createTempFile("undo", "store");
+		assertTrue(store.delete());
+		assertTrue(store.mkdir());
+		return store;
+	}
+
+	private void deleteStateStore(File store) {
+		File[] files = store.listFiles();
+		for (int i = 0; i < files.length; i++) {
+			files[i].delete();
+		}
+		store.delete();
+	}
+
+	public void testCoalescingOperations() throws ExecutionException {
+		StatefulTestOperation first = new StatefulTestOperation("first", 10, true);
+		first.addContext(contextA);
+		history.execute(first, null, null);
+		StatefulTestOperation second = new StatefulTestOperation("second", 20, false);
+		second.addContext(contextA);
+		history.execute(second, null, null);
+		assertEquals("Operation should have been absorbed", 1, add);
+		assertEquals(1, changed);
+		assertSame(first, history.getUndoOperation(contextA));
+		assertEquals(4, history.getUndoHistory(contextA).length);
+		assertEquals(30, ((DefaultOperationHistory) history).getRetainedSize(contextA));
+
+		// an operation that cannot be absorbed ends the run
+		IUndoableOperation plain = new TestOperation("plain");
+		plain.addContext(contextA);
+		history.execute(plain, null, null);
+		StatefulTestOperation third = new StatefulTestOperation("third", 10, true);
+		third.addContext(contextA);
+		history.execute(third, null, null);
+		assertSame(third, history.getUndoOperation(contextA));
+		assertEquals(6, history.getUndoHistory(contextA).length);
+		assertEquals(3, add);
+
+		history.undo(contextA, null, null);
+		history.undo(contextA, null, null);
+		assertTrue(history.undo(contextA, null, null).isOK());
+		assertSame(op6, history.getUndoOperation(contextA));
+		assertSame(first, history.getRedoOperation(contextA));
+	}
+
 	public void test159305() throws ExecutionException {
 		final int [] approvalCount = new int[1];
 		IOperationApprover approver;
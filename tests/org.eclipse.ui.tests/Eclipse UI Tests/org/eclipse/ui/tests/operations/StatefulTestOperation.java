@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.operations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.core.commands.operations.ICoalescingOperation;
+import org.eclipse.core.commands.operations.IRetainedStateOperation;
+import org.eclipse.core.commands.operations.IUndoableOperation;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+
+/**
+ * A test operation that retains some bytes of state, and optionally absorbs
+ * the stateful operations executed after it.
+ *
+ * @since 3.11
+ */
+public class StatefulTestOperation extends TestOperation implements
+		IRetainedStateOperation, ICoalescingOperation {
+
+	private byte[] state;
+
+	private boolean coalescing;
+
+	StatefulTestOperation(String label, int size, boolean coalescing) {
+		super(label);
+		this.state = new byte[size];
+		for (int i = 0; i < size; i++) {
+			state[i] = (byte) i;
+		}
+		this.coalescing = coalescing;
+	}
+
+	boolean isStateSaved() {
+		return state == null;
+	}
+
+	@Override
+	public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
+		if (state == null) {
+			throw new IllegalStateException("undo without state");
+		}
+		return super.undo(monitor, uiInfo);
+	}
+
+	@Override
+	public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
+		if (state == null) {
+			throw new IllegalStateException("redo without state");
+		}
+		return super.redo(monitor, uiInfo);
+	}
+
+	@Override
+	public long getRetainedSize() {
+		return state == null ? 0 : state.length;
+	}
+
+	@Override
+	public boolean saveState(OutputStream out) throws IOException {
+		out.write(state);
+		state = null;
+		return true;
+	}
+
+	@Override
+	public void restoreState(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		int read;
+		while ((read = in.read()) != -1) {
+			bytes.write(read);
+		}
+		state = bytes.toByteArray();
+		for (int i = 0; i < state.length; i++) {
+			if (state[i] != (byte) i) {
+				throw new IOException("state corrupted");
+			}
+		}
+	}
+
+	@Override
+	public boolean coalesce(IUndoableOperation operation) {
+		if (!coalescing || !(operation instanceof StatefulTestOperation)) {
+			return false;
+		}
+		byte[] absorbed = ((StatefulTestOperation) operation).state;
+		byte[] combined = new byte[state.length + absorbed.length];
+		System.arraycopy(state, 0, combined, 0, state.length);
+		for (int i = state.length; i < combined.length; i++) {
+			combined[i] = (byte) i;
+		}
+		state = combined;
+		return true;
+	}
+
+	@Override
+	public void dispose() {
+		super.dispose();
+		state = null;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@ package org.eclipse.ui.tests.operations;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -59,6 +60,7 @@ import org.eclipse.ui.ide.undo.DeleteResourcesOperation;
 import org.eclipse.ui.ide.undo.MoveProjectOperation;
 import org.eclipse.ui.ide.undo.MoveResourcesOperation;
 import org.eclipse.ui.ide.undo.UpdateMarkersOperation;
+import org.eclipse.ui.ide.undo.WorkspaceUndoUtil;
 import org.eclipse.ui.internal.operations.AdvancedValidationUserApprover;
 import org.eclipse.ui.tests.harness.util.UITestCase;
 
@@ -843,6 +845,83 @@ public class WorkspaceOperationsTests extends UITestCase {
 		}
 	}
 
+	public void testDeleteMarkersSavedStateUndoRedo()
+			throws ExecutionException, CoreException, IOException {
+		String[] types = new String[] { IMarker.BOOKMARK, IMarker.TASK,
+				CUSTOM_TYPE };
+		Map[] attrs = new Map[] { getInitialMarkerAttributes(),
+				getUpdatedMarkerAttributes(), getInitialMarkerAttributes() };
+		CreateMarkersOperation op = new CreateMarkersOperation(types, attrs,
+				new IFile[] { emptyTestFile, testFileWithContent,
+						testLinkedFile },
+				"Create Multiple Markers Same Type Test");
+		execute(op);
+		DeleteMarkersOperation deleteOp = new DeleteMarkersOperation(op
+				.getMarkers(), "Delete Markers Test");
+		execute(deleteOp);
+		assertTrue("Deleted markers should be retained",
+				deleteOp.getRetainedSize() > 0);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue("State should have been saved", deleteOp.saveState(out));
+		assertEquals(0, deleteOp.getRetainedSize());
+		deleteOp.restoreState(new ByteArrayInputStream(out.toByteArray()));
+		assertTrue("Deleted markers should be retained again",
+				deleteOp.getRetainedSize() > 0);
+
+		undo();
+		IMarker[] markers = deleteOp.getMarkers();
+		validateCreatedMarkers(3, markers, attrs, types);
+		redo();
+		for (IMarker createdMarker : markers) {
+			assertFalse("Marker should no longer exist", createdMarker.exists());
+		}
+	}
+
+	/*
+	 * Test that the workspace undo monitor does not flush the history because
+	 * the state of a marker operation has been saved.
+	 */
+	public void testDeleteMarkersSavedStateWorkspaceUndoMonitor()
+			throws ExecutionException, CoreException, IOException {
+		String[] types = new String[] { IMarker.BOOKMARK, IMarker.TASK,
+				CUSTOM_TYPE };
+		Map[] attrs = new Map[] { getInitialMarkerAttributes(),
+				getUpdatedMarkerAttributes(), getInitialMarkerAttributes() };
+		CreateMarkersOperation op = new CreateMarkersOperation(types, attrs,
+				new IFile[] { emptyTestFile, testFileWithContent,
+						testLinkedFile },
+				"Create Multiple Markers Same Type Test");
+		execute(op);
+		DeleteMarkersOperation deleteOp = new DeleteMarkersOperation(op
+				.getMarkers(), "Delete Markers Test");
+		execute(deleteOp);
+		assertSame("The monitor should check the delete operation", deleteOp,
+				history.getUndoOperation(WorkspaceUndoUtil
+						.getWorkspaceUndoContext()));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue("State should have been saved", deleteOp.saveState(out));
+		// the same check as the monitor
+		deleteOp.setQuietCompute(true);
+		IStatus status = deleteOp.computeUndoableStatus(null);
+		deleteOp.setQuietCompute(false);
+		assertTrue("Saved state should still be usable", status.isOK());
+
+		// make the monitor check the history
+		for (int i = 0; i < NUM_CHANGES; i++) {
+			IFile file = testProject.getFile(TEST_NEWFILE_NAME + i);
+			file.create(getContents(getRandomString()), true, getMonitor());
+		}
+		assertTrue("Operation should be valid", deleteOp.canUndo());
+		assertSame("The history should not have been flushed", deleteOp,
+				history.getUndoOperation(context));
+
+		deleteOp.restoreState(new ByteArrayInputStream(out.toByteArray()));
+		undo();
+		validateCreatedMarkers(3, deleteOp.getMarkers(), attrs, types);
+	}
+
 	/*
 	 * Test that the undo is invalid because one of the markers was deleted.
 	 */